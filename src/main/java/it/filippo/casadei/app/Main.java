@@ -1,6 +1,17 @@
 package it.filippo.casadei.app;
 
 import it.filippo.casadei.controller.BriscolaController;
+import it.filippo.casadei.controller.SwingScheduler;
+import it.filippo.casadei.view.BriscolaView;
+import it.filippo.casadei.view.BriscolaViewImpl;
+import it.filippo.casadei.view.metrics.EdtLatencyMonitor;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.panels.BoardCanvas;
+import it.filippo.casadei.view.session.Session;
+import it.filippo.casadei.view.session.SessionRecorder;
+
+import java.nio.file.Path;
+import java.util.Random;
 
 /*
  * Classe principale che avvia l'applicazione Briscola. 
@@ -11,11 +22,36 @@ import it.filippo.casadei.controller.BriscolaController;
  */
 public class Main {
 
+    // Con -Dbriscola.board=canvas il tavolo è disegnato su un solo componente (vedi BoardCanvas)
+    private static final String BOARD_PROPERTY = "briscola.board";
+    // Con -Dbriscola.metrics=true misura il ritardo dell'EDT e scrive le misure all'uscita
+    private static final String METRICS_PROPERTY = "briscola.metrics";
+    private static final long EDT_PROBE_MILLIS = 100;
+    private static final long EDT_STALL_MILLIS = 200;
+    // Con -Dbriscola.record=<file> registra la sessione per rigiocarla con SessionReplayer
+    private static final String RECORD_PROPERTY = "briscola.record";
+
     /*
      * Metodo principale che avvia l'applicazione Briscola.
      */
     public static void main(String[] args) {
+        if (Boolean.getBoolean(METRICS_PROPERTY)) {
+            new EdtLatencyMonitor(UiMetrics.shared(), EDT_PROBE_MILLIS, EDT_STALL_MILLIS).start();
+            // all'uscita il log potrebbe essere già chiuso, il riepilogo va su stderr
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(UiMetrics.shared().report())));
+        }
+
         // Creazione del controller e avvio del gioco
-        new BriscolaController();
+        BriscolaView view = "canvas".equals(System.getProperty(BOARD_PROPERTY))
+                ? new BriscolaViewImpl(new BoardCanvas())
+                : new BriscolaViewImpl();
+        String recordFile = System.getProperty(RECORD_PROPERTY);
+        if (recordFile != null) {
+            long seed = new Random().nextLong();
+            view = new SessionRecorder(view, new Session(seed), Path.of(recordFile));
+            new BriscolaController(view, new SwingScheduler(), new Random(seed));
+        } else {
+            new BriscolaController(view);
+        }
     }
 }
\ No newline at end of file
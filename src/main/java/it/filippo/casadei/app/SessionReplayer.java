@@ -0,0 +1,163 @@
+package it.filippo.casadei.app;
+
+import it.filippo.casadei.controller.BriscolaController;
+import it.filippo.casadei.controller.SwingScheduler;
+import it.filippo.casadei.view.BriscolaViewImpl;
+import it.filippo.casadei.view.GameBoard;
+import it.filippo.casadei.view.PanelGameBoard;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.panels.BoardCanvas;
+import it.filippo.casadei.view.session.Session;
+import it.filippo.casadei.view.session.SessionReplayView;
+
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Rigioca una sessione registrata sulla vera interfaccia grafica alla massima velocità e misura,
+ * partita per partita, il tempo speso nella disposizione dei componenti, nel disegno e nella
+ * gestione delle immagini (vedi {@link UiMetrics}). Serve come benchmark ripetibile per confrontare
+ * le ottimizzazioni della view.
+ * <p>
+ * Uso: {@code SessionReplayer <file sessione> [panels|canvas] [ripetizioni]}.
+ * Le sessioni si registrano avviando il gioco con {@code -Dbriscola.record=<file>}.
+ * Il disegno include anche il ridimensionamento delle immagini fatto durante il disegno stesso.
+ */
+public final class SessionReplayer {
+
+    private SessionReplayer() {
+    }
+
+    /**
+     * Tempi di una partita rigiocata, in nanosecondi.
+     */
+    public static final class GameTiming {
+        private final long wallNanos;
+        private final long layoutNanos;
+        private final long paintNanos;
+        private final long imageNanos;
+
+        GameTiming(long wallNanos, long layoutNanos, long paintNanos, long imageNanos) {
+            this.wallNanos = wallNanos;
+            this.layoutNanos = layoutNanos;
+            this.paintNanos = paintNanos;
+            this.imageNanos = imageNanos;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getLayoutNanos() {
+            return layoutNanos;
+        }
+
+        public long getPaintNanos() {
+            return paintNanos;
+        }
+
+        public long getImageNanos() {
+            return imageNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("totale %.1f ms, layout %.1f ms, disegno %.1f ms, immagini %.1f ms",
+                    wallNanos / 1e6, layoutNanos / 1e6, paintNanos / 1e6, imageNanos / 1e6);
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: SessionReplayer <file sessione> [panels|canvas] [ripetizioni]");
+            System.exit(1);
+        }
+        Session session = Session.read(Path.of(args[0]));
+        boolean canvas = args.length > 1 && args[1].equals("canvas");
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        for (int r = 1; r <= repetitions; r++) {
+            List<GameTiming> timings = replay(session, canvas ? new BoardCanvas() : new PanelGameBoard());
+            long wall = 0, layout = 0, paint = 0, image = 0;
+            for (int i = 0; i < timings.size(); i++) {
+                GameTiming timing = timings.get(i);
+                System.out.printf("ripetizione %d, partita %d: %s%n", r, i + 1, timing);
+                wall += timing.getWallNanos();
+                layout += timing.getLayoutNanos();
+                paint += timing.getPaintNanos();
+                image += timing.getImageNanos();
+            }
+            System.out.printf("ripetizione %d, %d partite: %s%n", r, timings.size(),
+                    new GameTiming(wall, layout, paint, image));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Rigioca la sessione su una nuova finestra con il tavolo indicato e la chiude alla fine.
+     *
+     * @param session la sessione da rigiocare
+     * @param board   il tavolo da usare
+     * @return i tempi di ogni partita
+     * @throws IllegalStateException se la sessione non corrisponde alle partite rigiocate
+     */
+    public static List<GameTiming> replay(Session session, GameBoard board)
+            throws InterruptedException, InvocationTargetException {
+        UiMetrics metrics = UiMetrics.shared();
+        SwingScheduler scheduler = new SwingScheduler(0);
+        List<GameTiming> timings = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        RuntimeException[] failure = new RuntimeException[1];
+        BriscolaViewImpl[] view = new BriscolaViewImpl[1];
+
+        SessionReplayView.Listener listener = new SessionReplayView.Listener() {
+            private long wall, layout, paint, image;
+
+            @Override
+            public void gameStarted(int game) {
+                wall = System.nanoTime();
+                layout = metrics.totalNanos(UiMetrics.LAYOUT);
+                paint = metrics.totalNanos(UiMetrics.PAINT);
+                image = metrics.totalNanos(UiMetrics.IMAGE);
+            }
+
+            @Override
+            public void gameFinished(int game) {
+                // disegna subito le aree ancora in attesa, così rientrano nella partita
+                RepaintManager.currentManager(view[0].getFrame()).paintDirtyRegions();
+                timings.add(new GameTiming(System.nanoTime() - wall,
+                        metrics.totalNanos(UiMetrics.LAYOUT) - layout,
+                        metrics.totalNanos(UiMetrics.PAINT) - paint,
+                        metrics.totalNanos(UiMetrics.IMAGE) - image));
+            }
+
+            @Override
+            public void finished(RuntimeException error) {
+                failure[0] = error;
+                done.countDown();
+            }
+        };
+
+        SwingUtilities.invokeAndWait(() -> {
+            view[0] = new BriscolaViewImpl(board);
+            SessionReplayView replayView = new SessionReplayView(view[0], session, scheduler::execute, listener);
+            new BriscolaController(replayView, scheduler, new Random(session.getSeed()));
+        });
+        done.await();
+        SwingUtilities.invokeAndWait(() -> view[0].getFrame().dispose());
+        scheduler.shutdown();
+
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,220 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.NeuralDifficulty;
+import it.filippo.casadei.model.player.cpu.learning.EvaluatorTrainer;
+import it.filippo.casadei.model.player.cpu.learning.NeuralEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Addestra da zero, con un solo comando, la funzione di valutazione di {@link NeuralDifficulty}.
+ * <p>
+ * Il ciclo è diviso in generazioni. In ogni generazione:
+ * <ol>
+ *   <li>si generano partite di auto-gioco con {@link TrainingDataExporter}: la prima generazione
+ *       usa {@link HardDifficulty}, le successive il valutatore corrente; in entrambi i casi una parte
+ *       delle mosse è scelta a caso per esplorare</li>
+ *   <li>si addestra il valutatore su tutti i dati generati finora con {@link EvaluatorTrainer},
+ *       salvando un checkpoint dei pesi e stampando l'errore di addestramento e di validazione
+ *       a ogni epoca</li>
+ *   <li>il valutatore sfida {@link HardDifficulty} nell'arena (coppie di partite con lo stesso mazzo
+ *       e i posti invertiti) e viene stampata la percentuale di punti partita con l'intervallo al 95%</li>
+ * </ol>
+ * I pesi dell'ultima generazione sono salvati in {@code evaluator.bin}; se il file esiste già
+ * l'addestramento riprende da lì, numerando le nuove generazioni dopo l'ultima cartella
+ * {@code data-NN} presente, così i dati e i checkpoint precedenti non vengono sovrascritti. Tutto gira in locale, senza rete e senza strumenti esterni.
+ * <p>
+ * Uso: {@code EvaluatorTrainingPipeline <cartella> [generazioni] [partite per generazione] [epoche]
+ * [coppie arena] [thread] [seme]}
+ */
+public class EvaluatorTrainingPipeline {
+
+    public static final String EVALUATOR_FILE = "evaluator.bin";
+
+    private static final double EXPLORATION = 0.1;
+    private static final float LEARNING_RATE = 0.01f;
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * Esegue l'intero ciclo di generazione, addestramento e valutazione.
+     *
+     * @param args cartella di lavoro, generazioni, partite per generazione, epoche per generazione,
+     *             coppie di partite nell'arena, numero di thread e seme
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: EvaluatorTrainingPipeline <cartella> [generazioni] [partite per generazione]"
+                    + " [epoche] [coppie arena] [thread] [seme]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int epochs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int arenaPairs = args.length > 4 ? Integer.parseInt(args[4]) : 2_000;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : 42L;
+
+        run(directory, generations, games, epochs, arenaPairs, threads, seed);
+    }
+
+    /**
+     * Esegue l'intero ciclo e restituisce il valutatore addestrato.
+     *
+     * @param directory   cartella di lavoro (dati, checkpoint e pesi finali)
+     * @param generations numero di generazioni
+     * @param games       partite di auto-gioco per generazione
+     * @param epochs      epoche di addestramento per generazione
+     * @param arenaPairs  coppie di partite contro Hard al termine di ogni generazione (0 per saltare)
+     * @param threads     numero di thread per simulazione e addestramento
+     * @param seed        seme di tutte le scelte casuali
+     * @return il valutatore addestrato
+     */
+    public static NeuralEvaluator run(Path directory, int generations, int games, int epochs, int arenaPairs,
+                                      int threads, long seed) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        Path evaluatorFile = directory.resolve(EVALUATOR_FILE);
+        NeuralEvaluator model = Files.exists(evaluatorFile)
+                ? NeuralEvaluator.load(evaluatorFile)
+                : NeuralEvaluator.random(NeuralEvaluator.DEFAULT_LAYER_SIZES, seed);
+        boolean resumed = Files.exists(evaluatorFile);
+        int first = nextGeneration(directory);
+
+        // Una ripresa con lo stesso seme non ripete le partite delle generazioni precedenti
+        Random random = new Random(seed + first);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int g = first; g < first + generations; g++) {
+                // 1. Auto-gioco
+                Path data = directory.resolve(String.format("data-%02d", g));
+                Supplier<CpuDifficulty> players = g == 0 && !resumed
+                        ? HardDifficulty::new
+                        : playersOf(model);
+                long start = System.nanoTime();
+                long records = TrainingDataExporter.export(data, games, threads, random.nextLong(),
+                        players, EXPLORATION);
+                System.out.println(String.format("Generazione %d: %,d decisioni generate in %.1f s",
+                        g + 1, records, (System.nanoTime() - start) / 1e9));
+
+                // 2. Addestramento su tutti i dati generati finora
+                EvaluatorTrainer trainer = new EvaluatorTrainer(model, pool, threads, LEARNING_RATE, BATCH_SIZE);
+                trainer.load(dataFiles(directory), random);
+                for (int e = 0; e < epochs; e++) {
+                    start = System.nanoTime();
+                    double trainingLoss = trainer.trainEpoch(random);
+                    double validationLoss = trainer.validationLoss();
+                    Path checkpoint = directory.resolve(String.format("checkpoint-g%02d-e%02d.bin", g, e));
+                    model.save(checkpoint);
+                    System.out.println(String.format("  epoca %d: errore %.5f, validazione %.5f (%.1f s) -> %s",
+                            e + 1, trainingLoss, validationLoss, (System.nanoTime() - start) / 1e9,
+                            checkpoint.getFileName()));
+                }
+                model.save(evaluatorFile);
+
+                // 3. Arena contro Hard
+                if (arenaPairs > 0) {
+                    HardDifficultyTuner.MatchResult result = arena(model, arenaPairs, random.nextLong(),
+                            pool, threads);
+                    double[] score = result.scoreInterval();
+                    System.out.println(String.format(
+                            "  arena contro Hard: %.2f%% punti partita (IC 95%%: %.2f%% - %.2f%%), "
+                                    + "differenza media %+.2f su %d partite",
+                            100.0 * result.getScore(), 100.0 * score[0], 100.0 * score[1],
+                            result.getMeanDifference(), result.getGames()));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return model;
+    }
+
+    /**
+     * Fa sfidare al valutatore la strategia Hard con coppie di partite a posti invertiti.
+     *
+     * @param model   il valutatore
+     * @param pairs   numero di coppie di partite
+     * @param seed    seme della prima coppia (le successive usano semi consecutivi)
+     * @param pool    esecutore su cui giocare le partite
+     * @param threads numero di compiti paralleli
+     * @return il risultato dal punto di vista del valutatore
+     */
+    public static HardDifficultyTuner.MatchResult arena(NeuralEvaluator model, int pairs, long seed,
+                                                        ExecutorService pool, int threads)
+            throws InterruptedException {
+        List<Callable<HardDifficultyTuner.MatchResult>> tasks = new ArrayList<>();
+        int perTask = (pairs + threads - 1) / threads;
+        for (int from = 0; from < pairs; from += perTask) {
+            int start = from;
+            int end = Math.min(pairs, from + perTask);
+            NeuralEvaluator copy = model.copy();
+            tasks.add(() -> playPairs(copy, seed, start, end));
+        }
+
+        HardDifficultyTuner.MatchResult total = new HardDifficultyTuner.MatchResult();
+        for (Future<HardDifficultyTuner.MatchResult> future : pool.invokeAll(tasks)) {
+            try {
+                total.merge(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Errore durante le partite dell'arena", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static HardDifficultyTuner.MatchResult playPairs(NeuralEvaluator model, long seed, int from, int to) {
+        Cpu neural = new Cpu("Neurale", new NeuralDifficulty(model));
+        Cpu hard = new Cpu("Hard", new HardDifficulty());
+        HardDifficultyTuner.MatchResult result = new HardDifficultyTuner.MatchResult();
+        for (int i = from; i < to; i++) {
+            result.add(GameSimulator.play(neural, hard, new Random(seed + i)));
+            result.add(-GameSimulator.play(hard, neural, new Random(seed + i)));
+        }
+        return result;
+    }
+
+    /**
+     * Ogni CPU dell'auto-gioco riceve una copia del valutatore con i propri buffer.
+     */
+    private static Supplier<CpuDifficulty> playersOf(NeuralEvaluator model) {
+        return () -> new NeuralDifficulty(model.copy());
+    }
+
+    /**
+     * Numero della prima generazione da eseguire: quella dopo l'ultima cartella {@code data-NN} presente.
+     */
+    static int nextGeneration(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("data-\\d+"))
+                    .mapToInt(name -> Integer.parseInt(name.substring("data-".length())) + 1)
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    private static List<Path> dataFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("shard-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.EasyDifficulty;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.MediumDifficulty;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import it.filippo.casadei.model.player.cpu.rollout.CardTables;
+import it.filippo.casadei.model.player.cpu.rollout.FastRandom;
+import it.filippo.casadei.model.player.cpu.rollout.HeuristicRolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Stima quanto una strategia della CPU è sfruttabile da un avversario che ne conosce le regole.
+ * <p>
+ * Lo sfruttatore calcola per campionamento una risposta approssimativamente ottima a una strategia
+ * fissa ({@link CpuDifficulty}). A ogni sua mossa prova tutte le carte in mano. Per ciascuna gioca lo
+ * stesso insieme di completamenti casuali delle carte che non vede (mano avversaria e ordine del mazzo),
+ * ognuno fino alla fine della partita. Nei completamenti la strategia bersaglio gioca con le sue vere
+ * regole, su una copia della memoria costruita dalle sole informazioni pubbliche, e lo sfruttatore
+ * continua con {@link HeuristicRolloutPolicy}. Alla fine gioca la carta con la media migliore.
+ * <p>
+ * Per ogni bersaglio vengono giocate le stesse partite due volte: con la risposta ottenuta per
+ * campionamento e con la sola politica euristica. La differenza media di punti della prima è il
+ * guadagno atteso sfruttando il bersaglio (il gioco è simmetrico, quindi 0 significa non sfruttabile);
+ * lo scarto rispetto alla seconda è quanto rende conoscere le regole dell'avversario. Il valore
+ * trovato è un limite inferiore della vera sfruttabilità. Le partite sono giocate in parallelo,
+ * una per compito, con semi riproducibili e primo giocatore alternato.
+ * <p>
+ * Uso: {@code ExploitabilityCalculator [partite] [campioni per carta] [thread] [seme]}
+ */
+public class ExploitabilityCalculator {
+
+    private static final Card[] CARDS = new Card[CardCodec.NUM_CARDS];
+
+    static {
+        for (int id = 0; id < CardCodec.NUM_CARDS; id++) {
+            CARDS[id] = CardCodec.card(id);
+        }
+    }
+
+    /**
+     * Calcola la sfruttabilità delle tre difficoltà a regole.
+     *
+     * @param args numero di partite, campioni per carta candidata, numero di thread e seme
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        report("Easy", EasyDifficulty::new, games, samples, threads, seed);
+        report("Medium", MediumDifficulty::new, games, samples, threads, seed);
+        report("Hard", HardDifficulty::new, games, samples, threads, seed);
+    }
+
+    /**
+     * Gioca le partite dello sfruttatore contro la strategia bersaglio.
+     *
+     * @param target  crea un'istanza della strategia bersaglio (una per compito)
+     * @param games   numero di partite
+     * @param samples completamenti casuali per carta candidata; con 0 lo sfruttatore gioca
+     *                solo con la politica euristica
+     * @param threads numero di thread
+     * @param seed    seme della prima partita (le successive usano semi consecutivi)
+     * @return il risultato dal punto di vista dello sfruttatore
+     */
+    public static HardDifficultyTuner.MatchResult exploit(Supplier<CpuDifficulty> target, int games, int samples,
+                                                          int threads, long seed) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seed + i;
+                int firstPlayer = i % 2;
+                tasks.add(() -> new Exploiter(target.get(), samples, gameSeed).play(firstPlayer));
+            }
+
+            HardDifficultyTuner.MatchResult result = new HardDifficultyTuner.MatchResult();
+            for (Future<Integer> future : pool.invokeAll(tasks)) {
+                try {
+                    result.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Errore durante il calcolo della risposta ottima", e.getCause());
+                }
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void report(String name, Supplier<CpuDifficulty> target, int games, int samples, int threads,
+                               long seed) throws InterruptedException {
+        long start = System.nanoTime();
+        HardDifficultyTuner.MatchResult exploit = exploit(target, games, samples, threads, seed);
+        HardDifficultyTuner.MatchResult baseline = exploit(target, games, 0, threads, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("%s (%d partite, %.1f s):", name, games, seconds));
+        System.out.println(String.format("  risposta ottima:    %+.2f punti a partita (IC 95%%: ±%.2f), %.1f%% vinte",
+                exploit.getMeanDifference(), exploit.differenceHalfWidth(),
+                100.0 * exploit.getWins() / exploit.getGames()));
+        System.out.println(String.format("  politica euristica: %+.2f punti a partita (IC 95%%: ±%.2f), %.1f%% vinte",
+                baseline.getMeanDifference(), baseline.differenceHalfWidth(),
+                100.0 * baseline.getWins() / baseline.getGames()));
+        System.out.println(String.format("  guadagno dallo sfruttamento: %+.2f punti a partita",
+                exploit.getMeanDifference() - baseline.getMeanDifference()));
+    }
+
+    /**
+     * Aggiorna la memoria della strategia bersaglio alla fine di una mano.
+     */
+    private static void observeTrick(Memory memory, int lead, int reply, boolean targetLed, boolean targetWon) {
+        memory.recordOwnPlay(CARDS[targetLed ? lead : reply]);
+        memory.updateAfterTurn(CardTables.points(lead) + CardTables.points(reply),
+                List.of(CARDS[lead], CARDS[reply]), targetWon);
+    }
+
+    /**
+     * Una partita tra lo sfruttatore (giocatore 0) e la strategia bersaglio (giocatore 1).
+     */
+    private static class Exploiter {
+
+        private static final int EXPLOITER = 0;
+        private static final int TARGET = 1;
+
+        private final CpuDifficulty target;
+        private final int samples;
+        private final RolloutPolicy policy = new HeuristicRolloutPolicy();
+        private final FastRandom random;
+        private final FastRandom sampleRandom = new FastRandom(0);
+        private final RolloutState state = new RolloutState();
+        private final RolloutState rollout = new RolloutState();
+
+        // Oggetti del model passati alla strategia bersaglio
+        private final Player exploiterPlayer = new Human("Sfruttatore");
+        private final Player targetPlayer = new Human("Bersaglio");
+        private final Table table = new Table();
+
+        // Memoria del bersaglio costruita dalle sole informazioni pubbliche, copiata per ogni simulazione
+        private Memory publicMemory;
+
+        Exploiter(CpuDifficulty target, int samples, long seed) {
+            this.target = target;
+            this.samples = samples;
+            this.random = new FastRandom(seed);
+        }
+
+        /**
+         * Gioca la partita e restituisce la differenza di punti dello sfruttatore.
+         */
+        int play(int firstPlayer) {
+            state.deal(random, firstPlayer);
+            Memory memory = newMemory();
+            publicMemory = newMemory();
+
+            while (!state.isOver()) {
+                int card = state.getToMove() == EXPLOITER
+                        ? chooseExploiterCard()
+                        : chooseTargetCard(state, memory);
+                playAndObserve(state, card, memory, true);
+            }
+            return state.getPoints(EXPLOITER) - state.getPoints(TARGET);
+        }
+
+        private int chooseExploiterCard() {
+            long hand = state.getHand(EXPLOITER);
+            if (samples == 0 || Long.bitCount(hand) == 1) {
+                return policy.chooseCard(state, random);
+            }
+
+            long unseen = CardCodec.ALL_CARDS & ~hand & ~state.getPlayed();
+            int tableCard = state.getTableCard();
+            if (tableCard != CardCodec.NO_CARD) {
+                unseen &= ~(1L << tableCard);
+            }
+            Position position = new Position(hand, unseen, tableCard, state.getBriscolaCard(),
+                    tableCard == CardCodec.NO_CARD, state.isLastDraw(),
+                    state.getPoints(EXPLOITER), state.getPoints(TARGET));
+
+            int bestCard = CardCodec.NO_CARD;
+            long bestTotal = Long.MIN_VALUE;
+            long sampleSeed = random.nextLong();
+            for (long m = hand; m != 0; m &= m - 1) {
+                int card = Long.numberOfTrailingZeros(m);
+                long total = 0;
+                // Stessi completamenti per tutte le carte: le differenze non dipendono dalla fortuna
+                sampleRandom.setSeed(sampleSeed);
+                for (int s = 0; s < samples; s++) {
+                    total += simulate(position, card);
+                }
+                if (total > bestTotal) {
+                    bestTotal = total;
+                    bestCard = card;
+                }
+            }
+            return bestCard;
+        }
+
+        /**
+         * Completa a caso le carte nascoste, gioca la carta indicata e poi la partita fino alla fine.
+         */
+        private int simulate(Position position, int card) {
+            rollout.determinize(position, sampleRandom);
+            Memory memory = publicMemory.copy();
+            playAndObserve(rollout, card, memory, false);
+            while (!rollout.isOver()) {
+                int next = rollout.getToMove() == EXPLOITER
+                        ? policy.chooseCard(rollout, sampleRandom)
+                        : chooseTargetCard(rollout, memory);
+                playAndObserve(rollout, next, memory, false);
+            }
+            return rollout.getPoints(EXPLOITER) - rollout.getPoints(TARGET);
+        }
+
+        /**
+         * Chiede la carta alla strategia bersaglio, presentandole la situazione con gli oggetti del model.
+         */
+        private int chooseTargetCard(RolloutState current, Memory memory) {
+            Hand hand = new Hand();
+            for (long m = current.getHand(TARGET); m != 0; m &= m - 1) {
+                hand.addCard(CARDS[Long.numberOfTrailingZeros(m)]);
+            }
+            table.clear();
+            int tableCard = current.getTableCard();
+            if (tableCard == CardCodec.NO_CARD) {
+                table.setPlayersOrder(targetPlayer, exploiterPlayer);
+            } else {
+                table.setPlayersOrder(exploiterPlayer, targetPlayer);
+                table.playCard(exploiterPlayer, CARDS[tableCard]);
+            }
+            GameContext context = new GameContext(hand, table, CARDS[current.getBriscolaCard()],
+                    tableCard == CardCodec.NO_CARD, current.isLastDraw());
+            return CardCodec.id(target.chooseCard(context, memory));
+        }
+
+        /**
+         * Gioca la carta e, se chiude la mano, aggiorna la memoria del bersaglio
+         * (e, nella partita vera, anche quella pubblica).
+         */
+        private void playAndObserve(RolloutState current, int card, Memory memory, boolean real) {
+            int lead = current.getTableCard();
+            boolean targetLed = current.getLeader() == TARGET;
+            current.play(card);
+            if (lead == CardCodec.NO_CARD) {
+                return;
+            }
+            boolean targetWon = current.getLeader() == TARGET;
+            observeTrick(memory, lead, card, targetLed, targetWon);
+            if (real) {
+                observeTrick(publicMemory, lead, card, targetLed, targetWon);
+            }
+        }
+
+        private Memory newMemory() {
+            Memory memory = new Memory();
+            memory.initialize(List.of(CARDS));
+            memory.setBriscolaCard(CARDS[state.getBriscolaCard()]);
+            return memory;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.GameContext;
+
+import java.util.Random;
+
+/**
+ * Gioca in modo automatico partite complete tra due CPU usando il model reale ({@link BriscolaGame}).
+ * <p>
+ * È il ciclo di gioco usato dagli strumenti di confronto e di regolazione delle strategie.
+ * Con un generatore inizializzato con un seme, la partita è completamente riproducibile
+ * (le strategie incluse nel progetto sono deterministiche, tranne Easy).
+ */
+public final class GameSimulator {
+
+    private GameSimulator() {
+    }
+
+    /**
+     * Gioca una partita completa tra due CPU; la prima CPU gioca per prima la prima mano.
+     *
+     * @param cpu1   la prima CPU
+     * @param cpu2   la seconda CPU
+     * @param random il generatore usato per mescolare il mazzo
+     * @return la differenza tra i punti finali della prima e della seconda CPU
+     */
+    public static int play(Cpu cpu1, Cpu cpu2, Random random) {
+        BriscolaGame game = new BriscolaGame(cpu1, cpu2);
+        game.resetGame();
+        game.setupGame(random);
+
+        while (!game.isGameOver()) {
+            Table table = game.getTable();
+            Player first = table.getFirstPlayer();
+            Player second = table.getSecondPlayer();
+
+            // Primo giocatore gioca la carta
+            Card card1 = ((Cpu) first).chooseCard(createContext(game, first, true));
+            game.playCard(first, card1);
+
+            // Secondo giocatore gioca la carta
+            Card card2 = ((Cpu) second).chooseCard(createContext(game, second, false));
+            game.playCard(second, card2);
+
+            // Valuta la mano di gioco e pulisce il tavolo
+            game.evaluateHand();
+            table.clear();
+
+            // I giocatori pescano una carta
+            game.drawCard(table.getFirstPlayer());
+            game.drawCard(table.getSecondPlayer());
+        }
+
+        return cpu1.getPoints() - cpu2.getPoints();
+    }
+
+    /**
+     * Gioca una partita riproducibile tra due strategie.
+     *
+     * @param difficulty1 la strategia della prima CPU (gioca per prima)
+     * @param difficulty2 la strategia della seconda CPU
+     * @param seed        il seme con cui mescolare il mazzo
+     * @return la differenza tra i punti finali della prima e della seconda strategia
+     */
+    public static int play(CpuDifficulty difficulty1, CpuDifficulty difficulty2, long seed) {
+        return play(new Cpu("CPU1", difficulty1), new Cpu("CPU2", difficulty2), new Random(seed));
+    }
+
+    // == METODI PRIVATI ==
+
+    private static GameContext createContext(BriscolaGame game, Player player, boolean isFirst) {
+        return new GameContext(
+                player.getHand(),
+                game.getTable(),
+                game.getBriscola(),
+                isFirst,
+                game.getDeck().size() == 2 || game.getDeck().size() == 1  // ultimo turno di pesca
+        );
+    }
+}
@@ -0,0 +1,270 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.HardParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Regola automaticamente i parametri di {@link HardDifficulty} con l'algoritmo SPSA
+ * (Simultaneous Perturbation Stochastic Approximation) e partite di auto-gioco.
+ * <p>
+ * A ogni iterazione il vettore dei parametri viene perturbato in una direzione casuale in entrambi
+ * i versi e le due varianti si sfidano direttamente: la differenza media di punti stima la derivata
+ * lungo la direzione, e il vettore si sposta verso la variante migliore. Ogni confronto usa coppie di
+ * partite con lo stesso mazzo e i posti invertiti, così la fortuna della distribuzione si annulla.
+ * Le partite sono giocate in parallelo, ciascuna con un seme riproducibile.
+ * <p>
+ * Al termine la configurazione trovata sfida i parametri originali e viene stampata con
+ * gli intervalli di confidenza al 95% della percentuale di punti partita e della differenza media.
+ * <p>
+ * Uso: {@code HardDifficultyTuner [iterazioni] [coppie per iterazione] [coppie finali] [thread] [seme]}
+ */
+public class HardDifficultyTuner {
+
+    private static final double Z_95 = 1.96;
+
+    // Scala di ciascun parametro: SPSA lavora su coordinate normalizzate
+    private static final double[] SCALES = {3.0, 1.0, 3.0, 1.5};
+    private static final double STEP = 2.0;
+    private static final double PERTURBATION = 1.0;
+    private static final double STABILITY = 5.0;
+
+    /**
+     * Esegue la regolazione e stampa la configurazione migliore.
+     *
+     * @param args iterazioni, coppie di partite per iterazione, coppie per la verifica finale,
+     *             numero di thread e seme
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int pairsPerIteration = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int finalPairs = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            HardParameters best = tune(HardParameters.defaults(), iterations, pairsPerIteration, seed, pool, threads);
+            MatchResult result = match(best, HardParameters.defaults(), finalPairs, seed ^ 0x5DEECE66DL, pool, threads);
+
+            System.out.println("Configurazione migliore: " + best);
+            System.out.println("Contro i parametri originali su " + result.getGames() + " partite:");
+            double[] score = result.scoreInterval();
+            System.out.println(String.format("  punti partita: %.2f%% (IC 95%%: %.2f%% - %.2f%%)",
+                    100.0 * result.getScore(), 100.0 * score[0], 100.0 * score[1]));
+            System.out.println(String.format("  differenza media di punti: %+.2f (IC 95%%: ±%.2f)",
+                    result.getMeanDifference(), result.differenceHalfWidth()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Regola i parametri partendo da quelli indicati.
+     *
+     * @param start             i parametri iniziali
+     * @param iterations        numero di iterazioni SPSA
+     * @param pairsPerIteration coppie di partite giocate per ogni stima del gradiente
+     * @param seed              seme per le perturbazioni e i mazzi
+     * @param pool              esecutore su cui giocare le partite
+     * @param threads           numero di compiti paralleli per confronto
+     * @return i parametri trovati
+     */
+    public static HardParameters tune(HardParameters start, int iterations, int pairsPerIteration,
+                                      long seed, ExecutorService pool, int threads) throws InterruptedException {
+        Random random = new Random(seed);
+        double[] theta = normalize(start.toVector());
+
+        for (int k = 0; k < iterations; k++) {
+            double a = STEP / Math.pow(k + 1 + STABILITY, 0.602);
+            double c = PERTURBATION / Math.pow(k + 1, 0.101);
+
+            double[] delta = new double[theta.length];
+            double[] plus = new double[theta.length];
+            double[] minus = new double[theta.length];
+            for (int i = 0; i < theta.length; i++) {
+                delta[i] = random.nextBoolean() ? 1.0 : -1.0;
+                plus[i] = theta[i] + c * delta[i];
+                minus[i] = theta[i] - c * delta[i];
+            }
+
+            HardParameters plusParameters = HardParameters.fromVector(denormalize(plus));
+            HardParameters minusParameters = HardParameters.fromVector(denormalize(minus));
+            // Se l'arrotondamento rende uguali le due varianti, il confronto non dà informazioni
+            if (plusParameters.equals(minusParameters)) {
+                continue;
+            }
+            MatchResult result = match(plusParameters, minusParameters, pairsPerIteration,
+                    random.nextLong(), pool, threads);
+
+            double gradient = result.getMeanDifference() / (2 * c);
+            for (int i = 0; i < theta.length; i++) {
+                theta[i] += a * gradient * delta[i];
+            }
+            System.out.println(String.format("Iterazione %d: %+.2f punti, parametri %s",
+                    k + 1, result.getMeanDifference(), HardParameters.fromVector(denormalize(theta))));
+        }
+        return HardParameters.fromVector(denormalize(theta));
+    }
+
+    /**
+     * Gioca coppie di partite tra due configurazioni: per ogni seme entrambe giocano per prime una volta.
+     *
+     * @param first   i parametri della prima configurazione
+     * @param second  i parametri della seconda configurazione
+     * @param pairs   numero di coppie di partite
+     * @param seed    seme della prima coppia (le successive usano semi consecutivi)
+     * @param pool    esecutore su cui giocare le partite
+     * @param threads numero di compiti paralleli
+     * @return il risultato dal punto di vista della prima configurazione
+     */
+    public static MatchResult match(HardParameters first, HardParameters second, int pairs, long seed,
+                                    ExecutorService pool, int threads) throws InterruptedException {
+        List<Callable<MatchResult>> tasks = new ArrayList<>();
+        int perTask = (pairs + threads - 1) / threads;
+        for (int from = 0; from < pairs; from += perTask) {
+            int start = from;
+            int end = Math.min(pairs, from + perTask);
+            tasks.add(() -> playPairs(first, second, seed, start, end));
+        }
+
+        MatchResult total = new MatchResult();
+        for (Future<MatchResult> future : pool.invokeAll(tasks)) {
+            try {
+                total.merge(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Errore durante le partite di auto-gioco", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static MatchResult playPairs(HardParameters first, HardParameters second, long seed, int from, int to) {
+        Cpu cpuFirst = new Cpu("A", new HardDifficulty(first));
+        Cpu cpuSecond = new Cpu("B", new HardDifficulty(second));
+        MatchResult result = new MatchResult();
+        for (int i = from; i < to; i++) {
+            result.add(GameSimulator.play(cpuFirst, cpuSecond, new Random(seed + i)));
+            result.add(-GameSimulator.play(cpuSecond, cpuFirst, new Random(seed + i)));
+        }
+        return result;
+    }
+
+    private static double[] normalize(double[] vector) {
+        double[] normalized = new double[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / SCALES[i];
+        }
+        return normalized;
+    }
+
+    private static double[] denormalize(double[] vector) {
+        double[] denormalized = new double[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            denormalized[i] = vector[i] * SCALES[i];
+        }
+        return denormalized;
+    }
+
+    /**
+     * Risultato aggregato di una serie di partite, dal punto di vista della prima configurazione.
+     */
+    public static class MatchResult {
+
+        private int wins;
+        private int losses;
+        private int draws;
+        private long sumDifference;
+        private long sumSquaredDifference;
+
+        // == METODI PUBBLICI ==
+
+        /**
+         * Registra una partita con la differenza di punti indicata.
+         */
+        public void add(int difference) {
+            if (difference > 0) wins++;
+            else if (difference < 0) losses++;
+            else draws++;
+            sumDifference += difference;
+            sumSquaredDifference += (long) difference * difference;
+        }
+
+        public void merge(MatchResult other) {
+            wins += other.wins;
+            losses += other.losses;
+            draws += other.draws;
+            sumDifference += other.sumDifference;
+            sumSquaredDifference += other.sumSquaredDifference;
+        }
+
+        /**
+         * Intervallo di Wilson al 95% per la percentuale di punti partita (pareggi a metà).
+         *
+         * @return limite inferiore e superiore
+         */
+        public double[] scoreInterval() {
+            int n = getGames();
+            if (n == 0) {
+                return new double[] {0.0, 1.0};
+            }
+            double p = getScore();
+            double z2 = Z_95 * Z_95;
+            double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+            double half = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+            return new double[] {center - half, center + half};
+        }
+
+        /**
+         * Semiampiezza dell'intervallo di confidenza al 95% della differenza media di punti.
+         */
+        public double differenceHalfWidth() {
+            int n = getGames();
+            if (n < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double mean = getMeanDifference();
+            double variance = (sumSquaredDifference - n * mean * mean) / (n - 1);
+            return Z_95 * Math.sqrt(Math.max(0.0, variance) / n);
+        }
+
+        // == GETTER E SETTER ==
+
+        public int getGames() {
+            return wins + losses + draws;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getLosses() {
+            return losses;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        public double getScore() {
+            int n = getGames();
+            return n == 0 ? 0.0 : (wins + 0.5 * draws) / n;
+        }
+
+        public double getMeanDifference() {
+            int n = getGames();
+            return n == 0 ? 0.0 : (double) sumDifference / n;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.learning.NeuralEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Misura il costo dell'inferenza di {@link NeuralEvaluator} per posizione, su un singolo thread,
+ * con le istruzioni SIMD della Vector API e con l'implementazione scalare.
+ * <p>
+ * Vengono misurati lotti di 3 ingressi (le carte candidate di una mano) e lotti grandi
+ * (le foglie di una simulazione). Per usare la Vector API il progetto va compilato con il profilo
+ * Maven {@code vector} e la JVM avviata con {@code --add-modules jdk.incubator.vector}; altrimenti
+ * entrambe le misure sono scalari.
+ * <p>
+ * Uso: {@code NeuralEvaluatorBenchmark [file dei pesi]} (senza file si usano pesi casuali)
+ */
+public class NeuralEvaluatorBenchmark {
+
+    private static final int WARMUP_POSITIONS = 200_000;
+    private static final int MEASURED_POSITIONS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        NeuralEvaluator evaluator = args.length > 0
+                ? NeuralEvaluator.load(Path.of(args[0]))
+                : NeuralEvaluator.random(NeuralEvaluator.DEFAULT_LAYER_SIZES, 42L);
+
+        for (boolean vectorized : new boolean[] {true, false}) {
+            NeuralEvaluator copy = evaluator.copy(vectorized);
+            String name = copy.isVectorized() ? "SIMD" : "Scalare";
+            measure(name, copy, 3);
+            measure(name, copy, copy.getMaxBatch());
+        }
+    }
+
+    private static void measure(String name, NeuralEvaluator evaluator, int batch) {
+        float[] inputs = new float[batch * evaluator.getInputSize()];
+        float[] outputs = new float[batch];
+        Random random = new Random(1);
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextFloat() < 0.1f ? 1f : 0f;
+        }
+
+        run(evaluator, inputs, outputs, batch, WARMUP_POSITIONS);
+        long start = System.nanoTime();
+        double checksum = run(evaluator, inputs, outputs, batch, MEASURED_POSITIONS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(String.format("%-8s lotti da %3d: %.0f ns/posizione (controllo %.3f)",
+                name, batch, (double) elapsed / MEASURED_POSITIONS, checksum));
+    }
+
+    private static double run(NeuralEvaluator evaluator, float[] inputs, float[] outputs, int batch, int positions) {
+        double total = 0;
+        for (int done = 0; done < positions; done += batch) {
+            evaluator.evaluate(inputs, batch, outputs);
+            total += outputs[0];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,59 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.rollout.FastRandom;
+import it.filippo.casadei.model.player.cpu.rollout.GreedyRolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.HeuristicRolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.RandomRolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutEngine;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutPolicy;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutState;
+
+/**
+ * Misura il numero di partite complete simulate al secondo da {@link RolloutEngine}
+ * su un singolo thread, per ciascuna politica di simulazione.
+ * <p>
+ * Ogni partita parte da un mazzo mescolato nuovo; prima della misura viene eseguito
+ * un riscaldamento per lasciare compilare il codice al JIT.
+ */
+public class RolloutBenchmark {
+
+    private static final int WARMUP_PLAYOUTS = 2_000_000;
+    private static final int MEASURED_PLAYOUTS = 10_000_000;
+
+    /**
+     * Esegue la misura per le politiche casuale, avida ed euristica.
+     *
+     * @param args eventuale numero di partite da misurare per politica
+     */
+    public static void main(String[] args) {
+        int playouts = args.length > 0 ? Integer.parseInt(args[0]) : MEASURED_PLAYOUTS;
+
+        measure("Casuale", new RandomRolloutPolicy(), playouts);
+        measure("Avida", new GreedyRolloutPolicy(), playouts);
+        measure("Euristica", new HeuristicRolloutPolicy(), playouts);
+    }
+
+    private static void measure(String name, RolloutPolicy policy, int playouts) {
+        RolloutEngine engine = new RolloutEngine(policy);
+        RolloutState state = new RolloutState();
+        FastRandom random = new FastRandom(42);
+
+        run(engine, state, random, WARMUP_PLAYOUTS);
+        long start = System.nanoTime();
+        long checksum = run(engine, state, random, playouts);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(String.format("%-10s %,d partite in %d ms: %,.0f partite/s (media punti G0: %.2f)",
+                name, playouts, elapsed / 1_000_000, playouts * 1e9 / elapsed, (double) checksum / playouts));
+    }
+
+    private static long run(RolloutEngine engine, RolloutState state, FastRandom random, int playouts) {
+        long total = 0;
+        for (int i = 0; i < playouts; i++) {
+            state.deal(random);
+            engine.playout(state, random);
+            total += state.getPoints(0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,171 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.Deadline;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.model.player.cpu.learning.TrainingDataWriter;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Genera dati di addestramento giocando partite simulate tra due CPU con la strategia di riferimento
+ * ({@link HardDifficulty}) e registrando ogni punto di decisione con {@link TrainingDataWriter}.
+ * <p>
+ * Ogni thread di simulazione scrive il proprio file ({@code shard-NN.bin}) nella cartella indicata,
+ * così i thread non si contendono mai il disco né un lock. La partita {@code i} usa il seme
+ * {@code seme + i}: rigenerare con gli stessi argomenti produce gli stessi dati.
+ * <p>
+ * Con {@link #export(Path, int, int, long, Supplier, double)} si possono registrare le partite di
+ * un'altra strategia e, con una probabilità di esplorazione, far giocare una carta a caso: così i dati
+ * contengono anche mosse diverse da quelle che la strategia sceglierebbe.
+ * <p>
+ * Uso: {@code TrainingDataExporter <cartella> [partite] [thread] [seme]}
+ */
+public class TrainingDataExporter {
+
+    /**
+     * Genera i dati di addestramento.
+     *
+     * @param args cartella di destinazione, numero di partite, numero di thread e seme
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: TrainingDataExporter <cartella> [partite] [thread] [seme]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        long start = System.nanoTime();
+        long records = export(directory, games, threads, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%,d partite, %,d decisioni in %.1f s (%,.0f decisioni/s) in %s",
+                games, records, seconds, records / seconds, directory));
+    }
+
+    /**
+     * Gioca le partite in parallelo e scrive un file per thread.
+     *
+     * @param directory cartella di destinazione (creata se non esiste)
+     * @param games     numero totale di partite
+     * @param threads   numero di thread di simulazione
+     * @param seed      seme della prima partita
+     * @return il numero di decisioni registrate
+     */
+    public static long export(Path directory, int games, int threads, long seed)
+            throws IOException, InterruptedException {
+        return export(directory, games, threads, seed, HardDifficulty::new, 0.0);
+    }
+
+    /**
+     * Come {@link #export(Path, int, int, long)}, registrando le partite della strategia indicata.
+     *
+     * @param directory   cartella di destinazione (creata se non esiste)
+     * @param games       numero totale di partite
+     * @param threads     numero di thread di simulazione
+     * @param seed        seme della prima partita
+     * @param players     crea la strategia di ciascuna CPU (due per thread)
+     * @param exploration probabilità di giocare una carta a caso invece di quella scelta dalla strategia
+     * @return il numero di decisioni registrate
+     */
+    public static long export(Path directory, int games, int threads, long seed,
+                              Supplier<CpuDifficulty> players, double exploration)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Long>> tasks = new ArrayList<>();
+            int perShard = (games + threads - 1) / threads;
+            for (int shard = 0; shard < threads; shard++) {
+                int from = shard * perShard;
+                int to = Math.min(games, from + perShard);
+                Path file = directory.resolve(String.format("shard-%02d.bin", shard));
+                tasks.add(() -> exportShard(file, seed, from, to, players, exploration));
+            }
+
+            long records = 0;
+            for (Future<Long> future : pool.invokeAll(tasks)) {
+                try {
+                    records += future.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Errore durante la generazione dei dati", e.getCause());
+                }
+            }
+            return records;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    private static long exportShard(Path file, long seed, int from, int to,
+                                    Supplier<CpuDifficulty> players, double exploration) throws IOException {
+        try (TrainingDataWriter writer = new TrainingDataWriter(file)) {
+            Random random = new Random(seed ^ from);
+            Cpu cpu1 = new Cpu("CPU1", new RecordingDifficulty(players.get(), writer, 0, exploration, random));
+            Cpu cpu2 = new Cpu("CPU2", new RecordingDifficulty(players.get(), writer, 1, exploration, random));
+            for (int i = from; i < to; i++) {
+                int difference = GameSimulator.play(cpu1, cpu2, new Random(seed + i));
+                writer.endGame(difference);
+            }
+            return writer.getRecordsWritten();
+        }
+    }
+
+    /**
+     * Strategia che registra ogni decisione di un'altra strategia.
+     */
+    private static class RecordingDifficulty implements CpuDifficulty {
+
+        private final CpuDifficulty delegate;
+        private final TrainingDataWriter writer;
+        private final int player;
+        private final double exploration;
+        private final Random random;
+
+        RecordingDifficulty(CpuDifficulty delegate, TrainingDataWriter writer, int player,
+                            double exploration, Random random) {
+            this.delegate = delegate;
+            this.writer = writer;
+            this.player = player;
+            this.exploration = exploration;
+            this.random = random;
+        }
+
+        @Override
+        public Card chooseCard(GameContext context, Memory memory) {
+            return chooseCard(context, memory, Deadline.none());
+        }
+
+        @Override
+        public Card chooseCard(GameContext context, Memory memory, Deadline deadline) {
+            Card chosen = delegate.chooseCard(context, memory, deadline);
+            if (exploration > 0 && random.nextDouble() < exploration) {
+                List<Card> cards = context.getCpuHand().getCards();
+                chosen = cards.get(random.nextInt(cards.size()));
+            }
+            writer.add(Position.of(context, memory), CardCodec.id(chosen), player);
+            return chosen;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package it.filippo.casadei.controller;
 
-import javax.swing.Timer;   // per gestire i delay nell'interfaccia grafica
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import it.filippo.casadei.model.*;
 import it.filippo.casadei.model.card.Card;
 import it.filippo.casadei.model.player.*;
 import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.CpuDecision;
 import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.Deadline;
 import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.Ponderer;
 import it.filippo.casadei.view.*;
 
 /**
@@ -16,6 +20,16 @@ import it.filippo.casadei.view.*;
  * Controller del gioco Briscola che gestisce la logica del gioco e l'interazione
  * tra il modello (BriscolaGame) e la vista (BriscolaView).
  * Implementa una macchina a stati per gestire i vari momenti del gioco.
+ * <p>
+ * I passi della macchina a stati e le pause tra un passo e l'altro sono gestiti da un
+ * {@link GameScheduler}: nell'applicazione grafica vengono eseguiti sull'Event Dispatch Thread con
+ * timer Swing, nei test su un orologio virtuale. Le transizioni di stato sono eseguite in un ciclo,
+ * non con chiamate annidate, quindi una partita non fa crescere lo stack.
+ * <p>
+ * La scelta della CPU viene calcolata sui thread dello scheduler, così l'interfaccia resta reattiva
+ * anche con strategie che cercano a lungo; la carta scelta viene giocata sul thread di gioco.
+ * Mentre l'utente sceglie la carta con cui aprire la mano, la CPU calcola in anticipo la risposta
+ * a ciascuna delle sue carte ({@link Ponderer}), con un budget di tempo molto più ampio.
  */
 public class BriscolaController implements BriscolaViewObserver {
     
@@ -23,16 +37,64 @@ public class BriscolaController implements BriscolaViewObserver {
     private BriscolaGame model;  // non final perché inizializzato dopo la scelta della difficoltà CPU
     private GameState currentState;
 
+    private final GameScheduler scheduler;
+    private final Random dealRandom;  // mescola il mazzo di ogni partita
+    private final Ponderer ponderer;
+    // Decisione in corso (null se nessuna) e risposta calcolata in anticipo alla carta dell'utente
+    private CompletableFuture<CpuDecision> pendingDecision;
+    private Deadline pendingDeadline;
+    private GameScheduler.ScheduledTask pendingTimer;
+    private CompletableFuture<CpuDecision> ponderedReply;
+    // Stato del ciclo che esegue le transizioni
+    private boolean processing = false;
+    private boolean stateChanged = false;
+
     private static final int DELAY_THINKING_CPU = 1000;
     private static final int DELAY_CLEAR_TABLE = 2000;
+    private static final int PONDER_BUDGET = 10000;
     
     // === COSTRUTTORE ===
 
     /**
-     * Crea un nuovo controller per il gioco.
+     * Crea un nuovo controller per il gioco con la view grafica predefinita.
      */
     public BriscolaController() {
-        this.view = new BriscolaViewImpl();
+        this(new BriscolaViewImpl());
+    }
+
+    /**
+     * Crea un nuovo controller per il gioco con la view indicata.
+     *
+     * @param view la view con cui interagire con l'utente
+     */
+    public BriscolaController(BriscolaView view) {
+        this(view, new SwingScheduler());
+    }
+
+    /**
+     * Crea un nuovo controller per il gioco con la view e lo scheduler indicati.
+     *
+     * @param view      la view con cui interagire con l'utente
+     * @param scheduler lo scheduler che esegue i passi della partita
+     */
+    public BriscolaController(BriscolaView view, GameScheduler scheduler) {
+        this(view, scheduler, new Random());
+    }
+
+    /**
+     * Crea un nuovo controller che mescola il mazzo con il generatore indicato: con lo stesso seme
+     * le partite partono sempre dalle stesse distribuzioni di carte (per registrare e rigiocare
+     * una sessione).
+     *
+     * @param view       la view con cui interagire con l'utente
+     * @param scheduler  lo scheduler che esegue i passi della partita
+     * @param dealRandom il generatore con cui mescolare il mazzo a ogni partita
+     */
+    public BriscolaController(BriscolaView view, GameScheduler scheduler, Random dealRandom) {
+        this.view = view;
+        this.scheduler = scheduler;
+        this.dealRandom = dealRandom;
+        this.ponderer = new Ponderer(scheduler.workers());
         this.view.setObserver(this);
         this.view.start();
         // Chiede la difficoltà della CPU per creare il model in createModel()
@@ -50,6 +112,9 @@ public class BriscolaController implements BriscolaViewObserver {
         model.playCard(humanPlayer, cardChosen);
         view.disableCardSelection();
         view.showPlayedCard(humanPlayer, cardChosen);
+
+        // Se la CPU ha già pensato alla risposta a questa carta la usa, le altre vengono scartate
+        ponderedReply = ponderer.take(cardChosen, DELAY_THINKING_CPU);
         
         // Transizione allo stato successivo
         GameState nextState = (currentState == GameState.PLAYER1_TURN) 
@@ -68,13 +133,17 @@ public class BriscolaController implements BriscolaViewObserver {
     @Override
     public void restartGame(boolean playAgain) {
 
+        // Una scelta della CPU ancora in corso appartiene alla partita precedente
+        cancelCpuDecision();
+
         // Se l'utente vuole giocare di nuovo, resetta il gioco e avvia una nuova partita
         if (playAgain) {
             model.resetGame();
             startGame();
-        // Altrimenti termina applicazione
+        // Altrimenti chiude la view e ferma lo scheduler
         } else {
-            System.exit(0);  
+            scheduler.shutdown();
+            view.close();
         }
     }
 
@@ -84,12 +153,11 @@ public class BriscolaController implements BriscolaViewObserver {
      * Avvia il gioco.
      */
     private void startGame() {
-        model.setupGame();
+        model.setupGame(dealRandom);
         view.showSetup(model.getBriscola(), model.getPlayer1(), model.getPlayer2());
         
         // Stato di gioco iniziale dopo il setup
-        currentState = GameState.PLAYER1_TURN;
-        processCurrentState();
+        transitionTo(GameState.PLAYER1_TURN);
     }
 
     /*
@@ -139,30 +207,93 @@ public class BriscolaController implements BriscolaViewObserver {
     private void handlePlayerTurn(Player player, GameState nextState) {
         // Turno della CPU
         if (player instanceof Cpu) {
-            // delay per simulare il pensiero della CPU
-            Timer timer = new Timer(DELAY_THINKING_CPU, e -> {
-                cpuPlaysCard((Cpu) player);
-                transitionTo(nextState);
-            });
-            timer.setRepeats(false);
-            timer.start();
+            // la CPU usa il tempo di "pensiero" come budget per la decisione e la calcola
+            // fuori dall'EDT, poi attende solo il tempo rimanente prima di mostrare la carta
+            Cpu cpu = (Cpu) player;
+            Deadline deadline = Deadline.after(DELAY_THINKING_CPU);
+            CompletableFuture<CpuDecision> decision;
+            if (ponderedReply != null) {
+                decision = ponderedReply;
+                ponderedReply = null;
+            } else {
+                CpuDecision cpuDecision = cpu.newDecision(createGameContext(cpu));
+                decision = CompletableFuture.supplyAsync(() -> {
+                    cpuDecision.compute(deadline);
+                    return cpuDecision;
+                }, scheduler.workers());
+            }
+            pendingDecision = decision;
+            pendingDeadline = deadline;
+            decision.whenComplete((chosen, error) -> scheduler.execute(
+                    () -> cpuDecided(decision, deadline, chosen, error, nextState)));
         // Turno dell'utente
         } else {
+            // se l'utente apre la mano la CPU inizia a pensare alle risposte
+            Player opponent = model.getTable().getSecondPlayer();
+            if (currentState == GameState.PLAYER1_TURN && opponent instanceof Cpu) {
+                ponderer.start((Cpu) opponent, player, player.getHand().getCards(), model.getBriscola(),
+                        model.getDeck().size() == 1, PONDER_BUDGET);
+            }
             // abilita selezione carta nella view e aspetta l'interazione dell'utente
             view.enableCardSelection(player);
             // Il flusso riprenderà in humanPlaysCard()
         }
     }
     
+    /*
+     * Riceve sul thread di gioco la carta scelta dalla CPU e la gioca allo scadere del tempo di "pensiero".
+     * Le decisioni annullate nel frattempo vengono ignorate.
+     */
+    private void cpuDecided(CompletableFuture<CpuDecision> decision, Deadline deadline, CpuDecision chosen,
+                            Throwable error, GameState nextState) {
+        if (decision != pendingDecision) {
+            return;
+        }
+        if (error != null) {
+            pendingDecision = null;
+            throw new IllegalStateException("La CPU non è riuscita a scegliere una carta", error);
+        }
+        pendingTimer = scheduler.schedule(deadline.remainingMillis(), () -> {
+            if (decision != pendingDecision) {
+                return;
+            }
+            pendingDecision = null;
+            pendingDeadline = null;
+            pendingTimer = null;
+            chosen.commit();
+            cpuPlaysCard(chosen.getCpu(), chosen.getCard());
+            transitionTo(nextState);
+        });
+    }
+
+    /*
+     * Annulla la scelta della CPU in corso, se presente: la ricerca termina alla prima verifica
+     * della scadenza e la carta eventualmente scelta non viene giocata.
+     */
+    private void cancelCpuDecision() {
+        ponderer.cancel();
+        ponderedReply = null;
+        if (pendingDeadline != null) {
+            pendingDeadline.cancel();
+        }
+        if (pendingDecision != null) {
+            pendingDecision.cancel(true);
+        }
+        if (pendingTimer != null) {
+            pendingTimer.cancel();
+        }
+        pendingDecision = null;
+        pendingDeadline = null;
+        pendingTimer = null;
+    }
+
     /*
      * Gestisce la logica per far giocare una carta alla CPU.
      * 
      * @param cpu la CPU che deve giocare una carta
+     * @param chosen la carta scelta dalla CPU
      */
-    private void cpuPlaysCard(Cpu cpu) {
-        GameContext context = createGameContext(cpu);
-        Card chosen = cpu.chooseCard(context);
-        
+    private void cpuPlaysCard(Cpu cpu, Card chosen) {
         model.playCard(cpu, chosen);
         view.showPlayedCard(cpu, chosen);
     }
@@ -174,13 +305,11 @@ public class BriscolaController implements BriscolaViewObserver {
         model.evaluateHand();
         
         // Pausa per lasciare sul tavolo le carte per un po' prima di pulire
-        Timer timer = new Timer(DELAY_CLEAR_TABLE, e -> {  
+        scheduler.schedule(DELAY_CLEAR_TABLE, () -> {
             model.getTable().clear();
             view.clearTable();
             transitionTo(GameState.DRAWING_CARDS);
         });
-        timer.setRepeats(false);
-        timer.start();
     }
     
     /*
@@ -249,18 +378,43 @@ public class BriscolaController implements BriscolaViewObserver {
      */
     private void transitionTo(GameState newState) {
         currentState = newState;
-        processCurrentState();
+        stateChanged = true;
+        // Se il ciclo è già in corso (transizione chiesta da un passo) il nuovo stato
+        // viene processato alla prossima iterazione
+        if (processing) {
+            return;
+        }
+        processing = true;
+        try {
+            while (stateChanged) {
+                stateChanged = false;
+                processCurrentState();
+            }
+        } finally {
+            processing = false;
+        }
     }
     
     /*
      * Crea il contesto di gioco per il giocatore specificato.
+     * La scelta della CPU viene calcolata su un altro thread, quindi mano e tavolo sono copiati:
+     * se la partita viene riavviata durante il calcolo, la ricerca continua sulla partita vecchia
+     * senza leggere le carte della nuova.
      */
     private GameContext createGameContext(Player player) {
+        Hand hand = new Hand();
+        player.getHand().getCards().forEach(hand::addCard);
+        Table live = model.getTable();
+        Table table = new Table();
+        table.setPlayersOrder(live.getFirstPlayer(), live.getSecondPlayer());
+        if (live.getFirstCard() != null) {
+            table.playCard(live.getFirstPlayer(), live.getFirstCard());
+        }
         return new GameContext(
-            player.getHand(),
-            model.getTable(),
+            hand,
+            table,
             model.getBriscola(),
-            model.getTable().getFirstPlayer().equals(player),
+            live.getFirstPlayer().equals(player),
             model.getDeck().size() == 1
         );
     }
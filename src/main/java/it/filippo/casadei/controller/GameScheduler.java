@@ -0,0 +1,57 @@
+package it.filippo.casadei.controller;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Decide quando e su quale thread vengono eseguiti i passi della macchina a stati del controller.
+ * <p>
+ * Tutti i passi della partita vengono eseguiti sul "thread di gioco" dello scheduler, uno alla
+ * volta. Le implementazioni sono:
+ * <ul>
+ *     <li>{@link SwingScheduler}: il thread di gioco è l'Event Dispatch Thread e i ritardi sono
+ *     timer Swing reali (l'applicazione grafica);</li>
+ *     <li>{@link ImmediateScheduler}: ignora i ritardi ed esegue i passi appena possibile sul thread
+ *     chiamante;</li>
+ *     <li>{@link VirtualClockScheduler}: i ritardi avanzano un orologio virtuale, controllato da chi
+ *     usa lo scheduler (test e simulazioni).</li>
+ * </ul>
+ */
+public interface GameScheduler {
+
+    /**
+     * Esegue un passo sul thread di gioco dopo il ritardo indicato.
+     *
+     * @param delayMillis il ritardo in millisecondi
+     * @param task        il passo da eseguire
+     * @return il passo programmato, per poterlo annullare
+     */
+    ScheduledTask schedule(long delayMillis, Runnable task);
+
+    /**
+     * Esegue un passo sul thread di gioco appena possibile. Può essere chiamato da qualsiasi thread.
+     *
+     * @param task il passo da eseguire
+     */
+    void execute(Runnable task);
+
+    /**
+     * Restituisce l'executor su cui calcolare le scelte della CPU, fuori dal thread di gioco.
+     */
+    Executor workers();
+
+    /**
+     * Annulla i passi programmati e libera i thread dello scheduler.
+     */
+    void shutdown();
+
+    /**
+     * Passo programmato con {@link #schedule(long, Runnable)}.
+     */
+    interface ScheduledTask {
+
+        /**
+         * Annulla il passo, se non è ancora stato eseguito.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,85 @@
+package it.filippo.casadei.controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * Scheduler che ignora i ritardi: ogni passo viene eseguito appena possibile sul thread che lo
+ * programma, e anche le scelte della CPU vengono calcolate su quel thread.
+ * <p>
+ * I passi programmati mentre un altro passo è in esecuzione vengono messi in coda ed eseguiti
+ * subito dopo, in un ciclo, invece che annidati: una partita intera non fa crescere lo stack.
+ * Non è thread-safe: va usato da un solo thread.
+ */
+public class ImmediateScheduler implements GameScheduler {
+
+    private final Deque<QueuedTask> queue = new ArrayDeque<>();
+    private boolean running = false;
+    private boolean shutdown = false;
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public ScheduledTask schedule(long delayMillis, Runnable task) {
+        QueuedTask queued = new QueuedTask(task);
+        queue.addLast(queued);
+        drain();
+        return queued;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        schedule(0, task);
+    }
+
+    @Override
+    public Executor workers() {
+        return Runnable::run;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        queue.clear();
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Esegue i passi in coda, a meno che non lo stia già facendo una chiamata più esterna.
+     */
+    private void drain() {
+        if (running) {
+            return;
+        }
+        running = true;
+        try {
+            while (!shutdown && !queue.isEmpty()) {
+                QueuedTask next = queue.removeFirst();
+                if (!next.cancelled) {
+                    next.task.run();
+                }
+            }
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Passo in coda, annullabile finché non viene eseguito.
+     */
+    private static final class QueuedTask implements ScheduledTask {
+        private final Runnable task;
+        private boolean cancelled = false;
+
+        QueuedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package it.filippo.casadei.controller;
+
+import it.filippo.casadei.model.player.Hand;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler dell'applicazione grafica: i passi della partita vengono eseguiti sull'Event Dispatch
+ * Thread, i ritardi sono {@link Timer} Swing e le scelte della CPU vengono calcolate su thread daemon
+ * dedicati (uno per ogni carta in mano, per poter pensare in anticipo a tutte le risposte).
+ * I ritardi possono essere scalati, per esempio azzerati per rigiocare una sessione alla massima
+ * velocità sull'interfaccia reale.
+ * <p>
+ * Dopo {@link #shutdown()} i timer ancora in attesa vengono fermati e i nuovi passi ignorati.
+ */
+public class SwingScheduler implements GameScheduler {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(Hand.MAX_CARDS_IN_HAND, runnable -> {
+        Thread thread = new Thread(runnable, "cpu-decision-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final double delayScale;
+    private final Set<Timer> pending = new HashSet<>();
+    private volatile boolean shutdown = false;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea uno scheduler con i ritardi reali.
+     */
+    public SwingScheduler() {
+        this(1.0);
+    }
+
+    /**
+     * Crea uno scheduler che moltiplica tutti i ritardi per il fattore indicato.
+     *
+     * @param delayScale il fattore dei ritardi (0 per eseguire i passi appena possibile)
+     */
+    public SwingScheduler(double delayScale) {
+        this.delayScale = delayScale;
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public ScheduledTask schedule(long delayMillis, Runnable task) {
+        if (shutdown) {
+            return () -> { };
+        }
+        Timer timer = new Timer((int) Math.max(0, Math.round(delayMillis * delayScale)), null);
+        timer.addActionListener(e -> {
+            forget(timer);
+            if (!shutdown) {
+                task.run();
+            }
+        });
+        timer.setRepeats(false);
+        synchronized (pending) {
+            pending.add(timer);
+        }
+        timer.start();
+        return () -> {
+            timer.stop();
+            forget(timer);
+        };
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (!shutdown) {
+                task.run();
+            }
+        });
+    }
+
+    @Override
+    public Executor workers() {
+        return workers;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        List<Timer> timers;
+        synchronized (pending) {
+            timers = new ArrayList<>(pending);
+            pending.clear();
+        }
+        timers.forEach(Timer::stop);
+        workers.shutdownNow();
+    }
+
+    /**
+     * Restituisce il numero di passi programmati non ancora eseguiti.
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    private void forget(Timer timer) {
+        synchronized (pending) {
+            pending.remove(timer);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package it.filippo.casadei.controller;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Scheduler con un orologio virtuale, per test e simulazioni.
+ * <p>
+ * I passi programmati non vengono eseguiti finché chi usa lo scheduler non fa avanzare l'orologio
+ * con {@link #advance(long)} o {@link #runUntilIdle()}; vengono eseguiti in ordine di tempo
+ * virtuale (a parità di tempo, in ordine di programmazione) senza attese reali. Le scelte della CPU
+ * vengono calcolate sul thread chiamante, quindi una partita è deterministica.
+ * Non è thread-safe: va usato da un solo thread.
+ */
+public class VirtualClockScheduler implements GameScheduler {
+
+    private final PriorityQueue<TimedTask> queue = new PriorityQueue<>();
+    private long now = 0;
+    private long sequence = 0;
+    private long executed = 0;
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public ScheduledTask schedule(long delayMillis, Runnable task) {
+        TimedTask timed = new TimedTask(now + Math.max(0, delayMillis), sequence++, task);
+        queue.add(timed);
+        return timed;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        schedule(0, task);
+    }
+
+    @Override
+    public Executor workers() {
+        return Runnable::run;
+    }
+
+    @Override
+    public void shutdown() {
+        queue.clear();
+    }
+
+    /**
+     * Fa avanzare l'orologio dei millisecondi indicati, eseguendo i passi che scadono nel frattempo.
+     *
+     * @param millis millisecondi virtuali da far trascorrere
+     * @return il numero di passi eseguiti
+     */
+    public long advance(long millis) {
+        long target = now + millis;
+        long before = executed;
+        while (!queue.isEmpty() && queue.peek().time <= target) {
+            runNext();
+        }
+        now = target;
+        return executed - before;
+    }
+
+    /**
+     * Esegue tutti i passi programmati, compresi quelli programmati nel frattempo, finché la coda
+     * è vuota; l'orologio salta direttamente al tempo di ogni passo.
+     *
+     * @return il numero di passi eseguiti
+     */
+    public long runUntilIdle() {
+        long before = executed;
+        while (!queue.isEmpty()) {
+            runNext();
+        }
+        return executed - before;
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce il tempo virtuale corrente in millisecondi.
+     */
+    public long getNow() {
+        return now;
+    }
+
+    /**
+     * Restituisce il numero di passi in attesa di essere eseguiti.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // == METODI PRIVATI ==
+
+    private void runNext() {
+        TimedTask next = queue.poll();
+        now = Math.max(now, next.time);
+        executed++;
+        next.task.run();
+    }
+
+    /**
+     * Passo programmato a un certo tempo virtuale.
+     */
+    private final class TimedTask implements ScheduledTask, Comparable<TimedTask> {
+        private final long time;
+        private final long sequence;
+        private final Runnable task;
+
+        TimedTask(long time, long sequence, Runnable task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            queue.remove(this);
+        }
+
+        @Override
+        public int compareTo(TimedTask other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
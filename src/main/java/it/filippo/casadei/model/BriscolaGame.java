@@ -7,6 +7,7 @@ import it.filippo.casadei.model.player.Hand;
 import it.filippo.casadei.model.player.Player;
 
 import java.util.Optional;
+import java.util.Random;
 
 /**
  * Classe Model dell'architettura MVC.
@@ -52,23 +53,19 @@ public class BriscolaGame {
         deck.populate();
         // Mescola il mazzo
         deck.shuffle();
-        
-        // Inizializza la memoria della CPU
-        if (player1 instanceof Cpu) {
-            ((Cpu) player1).initializeMemory(deck.getCards());
-        }
-        if (player2 instanceof Cpu) {
-            ((Cpu) player2).initializeMemory(deck.getCards());
-        }
-        
-        // Distribuisce inizialmente 3 carte a ciascun giocatore
-        table.setPlayersOrder(player1, player2);
-        for (int i = 0; i < Hand.MAX_CARDS_IN_HAND; i++) {
-            player1.addCardToHand(deck.draw());
-            player2.addCardToHand(deck.draw());
-        }
-        // Pesca la briscola
-        this.briscola = deck.draw();
+        dealCards();
+    }
+
+    /**
+     * Inizializza il gioco come {@link #setupGame()}, mescolando il mazzo con il generatore indicato.
+     * Con lo stesso seme la partita parte sempre dalla stessa distribuzione di carte.
+     *
+     * @param random il generatore casuale da usare per mescolare il mazzo
+     */
+    public void setupGame(Random random) {
+        deck.populate();
+        deck.shuffle(random);
+        dealCards();
     }
 
     /**
@@ -155,8 +152,9 @@ public class BriscolaGame {
      * Resetta lo stato del gioco per una nuova partita.
      */
     public void resetGame() {
-        // Ripulisci il tavolo
+        // Ripulisci il tavolo e il mazzo (la partita può essere interrotta prima della fine)
         table.reset();
+        deck.clear();
 
         // Svuota le mani e i punti dei giocatori
         player1.getHand().clear();
@@ -206,6 +204,31 @@ public class BriscolaGame {
         return winner;
     }
 
+    // == METODI PRIVATI ==
+
+    /**
+     * Inizializza la memoria delle CPU, distribuisce 3 carte a ciascun giocatore
+     * e pesca la briscola dal mazzo già mescolato.
+     */
+    private void dealCards() {
+        // Inizializza la memoria della CPU
+        if (player1 instanceof Cpu) {
+            ((Cpu) player1).initializeMemory(deck.getCards());
+        }
+        if (player2 instanceof Cpu) {
+            ((Cpu) player2).initializeMemory(deck.getCards());
+        }
+        
+        // Distribuisce inizialmente 3 carte a ciascun giocatore
+        table.setPlayersOrder(player1, player2);
+        for (int i = 0; i < Hand.MAX_CARDS_IN_HAND; i++) {
+            player1.addCardToHand(deck.draw());
+            player2.addCardToHand(deck.draw());
+        }
+        // Pesca la briscola
+        this.briscola = deck.draw();
+    }
+
     // === GETTER E SETTER ===
     public Player getPlayer1() {
         return player1;
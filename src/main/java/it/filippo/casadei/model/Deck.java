@@ -6,6 +6,7 @@ import it.filippo.casadei.model.card.Suit;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.Stack;
 
 /**
@@ -45,6 +46,16 @@ public class Deck {
         Collections.shuffle(this.deck);
     }
 
+    /**
+     * Mescola le carte del mazzo usando il generatore indicato: con lo stesso seme
+     * si ottiene sempre lo stesso ordine (utile per simulazioni riproducibili).
+     *
+     * @param random il generatore casuale da usare
+     */
+    public void shuffle(Random random) {
+        Collections.shuffle(this.deck, random);
+    }
+
     /**
      * Estrae e restituisce la prima carta in cima al mazzo.
      * Se il mazzo è vuoto viene restituito null.
@@ -65,6 +76,13 @@ public class Deck {
         return deck.size();
     }
 
+    /**
+     * Rimuove tutte le carte dal mazzo.
+     */
+    public void clear() {
+        deck.clear();
+    }
+
     /**
      * Verifica se il mazzo è vuoto.
      *
@@ -0,0 +1,117 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.cache.DecisionCache;
+import it.filippo.casadei.model.player.cpu.position.CanonicalPosition;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import it.filippo.casadei.model.player.cpu.position.SuitCanonicalizer;
+
+import java.util.List;
+
+/**
+ * Difficoltà che memorizza le decisioni di un'altra strategia in una {@link DecisionCache}.
+ * <p>
+ * La posizione viene ridotta in forma canonica rispetto ai semi, quindi situazioni equivalenti
+ * a meno di una rinomina dei semi condividono la stessa decisione. Le decisioni di strategie
+ * diverse sono separate da uno spazio dei nomi mescolato nella chiave.
+ * Ha senso solo per strategie deterministiche e costose (es. basate su ricerca): per queste
+ * un riscontro in cache trasforma una decisione lunga in una semplice lettura.
+ */
+public class CachingDifficulty implements CpuDifficulty {
+
+    private final CpuDifficulty delegate;
+    private final DecisionCache cache;
+    private final long namespace;
+
+    // == COSTRUTTORI ==
+
+    /**
+     * Crea una difficoltà che usa la cache condivisa della JVM.
+     * <p>
+     * Lo spazio dei nomi deve identificare sia la strategia sia la sua configurazione: due istanze
+     * della stessa classe con parametri diversi (es. {@link HardDifficulty} con
+     * {@link HardParameters} diversi) prendono decisioni diverse e non devono condividere le chiavi.
+     * Per la strategia Hard si può usare {@link #namespaceOf(HardParameters)}.
+     *
+     * @param delegate  la strategia di cui memorizzare le decisioni
+     * @param namespace identificativo della strategia e dei suoi parametri
+     */
+    public CachingDifficulty(CpuDifficulty delegate, long namespace) {
+        this(delegate, DecisionCache.shared(), namespace);
+    }
+
+    /**
+     * Crea una difficoltà che usa la cache e lo spazio dei nomi indicati.
+     *
+     * @param delegate  la strategia di cui memorizzare le decisioni
+     * @param cache     la cache in cui memorizzare le decisioni
+     * @param namespace identificativo della strategia (diverso per strategie o parametri diversi)
+     */
+    public CachingDifficulty(CpuDifficulty delegate, DecisionCache cache, long namespace) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.namespace = mix(namespace);
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory) {
+        return chooseCard(context, memory, Deadline.none());
+    }
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory, Deadline deadline) {
+        CanonicalPosition canonical = SuitCanonicalizer.canonicalize(Position.of(context, memory));
+        long key = canonical.getPosition().hash64() ^ namespace;
+        List<Card> cards = context.getCpuHand().getCards();
+
+        // Riscontro in cache: riporta la carta canonica sulla mano reale
+        int cached = cache.get(key);
+        if (cached != DecisionCache.NO_DECISION) {
+            Card card = canonical.getPermutation().originalCardIn(cached, cards);
+            if (card != null) {
+                return card;
+            }
+            // collisione di hash: la carta non è in mano, si ricalcola la decisione
+        }
+
+        Card chosen = delegate.chooseCard(context, memory, deadline);
+        // Una decisione interrotta o fermata dalla scadenza è solo la migliore trovata fin lì:
+        // non va condivisa come se fosse una decisione completa
+        if (!deadline.isExpired()) {
+            cache.put(key, canonical.getPermutation().cardToCanonical(CardCodec.id(chosen)));
+        }
+        return chosen;
+    }
+
+    /**
+     * Restituisce lo spazio dei nomi delle decisioni di {@link HardDifficulty} con i parametri indicati:
+     * parametri uguali danno lo stesso spazio dei nomi, parametri diversi spazi diversi.
+     *
+     * @param parameters i parametri della strategia
+     * @return lo spazio dei nomi da passare al costruttore
+     */
+    public static long namespaceOf(HardParameters parameters) {
+        return ((long) HardDifficulty.class.getName().hashCode() << 32) ^ (parameters.hashCode() & 0xFFFFFFFFL);
+    }
+
+    // == GETTER E SETTER ==
+
+    public CpuDifficulty getDelegate() {
+        return delegate;
+    }
+
+    public DecisionCache getCache() {
+        return cache;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
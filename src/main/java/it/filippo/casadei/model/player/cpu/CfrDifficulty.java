@@ -0,0 +1,66 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.cfr.CfrAbstraction;
+import it.filippo.casadei.model.player.cpu.cfr.CfrPolicy;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+import java.util.Random;
+
+/**
+ * Difficoltà che gioca la strategia di equilibrio approssimato calcolata da
+ * {@link it.filippo.casadei.model.player.cpu.cfr.CfrSolver}.
+ * <p>
+ * La situazione viene ridotta all'insieme di informazione di {@link CfrAbstraction} e l'azione
+ * astratta è estratta a caso con le probabilità della strategia: a differenza delle strategie
+ * a regole, la CPU non ripete sempre la stessa giocata nella stessa situazione, e un avversario
+ * umano non può approfittare di schemi fissi. L'azione viene poi giocata con la carta di valore
+ * minore che le corrisponde.
+ */
+public class CfrDifficulty implements CpuDifficulty {
+
+    private final CfrPolicy policy;
+    private final Random random;
+    private final float[] probabilities = new float[CfrAbstraction.MAX_LEGAL_ACTIONS];
+
+    // == COSTRUTTORI ==
+
+    public CfrDifficulty(CfrPolicy policy) {
+        this(policy, new Random());
+    }
+
+    /**
+     * Crea una difficoltà con la strategia e il generatore indicati.
+     *
+     * @param policy la strategia calcolata dal risolutore (condivisibile tra più CPU)
+     * @param random il generatore usato per estrarre le azioni
+     */
+    public CfrDifficulty(CfrPolicy policy, Random random) {
+        this.policy = policy;
+        this.random = random;
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory) {
+        Position position = Position.of(context, memory);
+        long hand = position.getHand();
+        int tableCard = position.getTableCard();
+        int briscolaSuit = position.getBriscolaSuit();
+
+        int legal = CfrAbstraction.legalActions(hand, tableCard, briscolaSuit);
+        int count = Integer.bitCount(legal);
+        int slot = count == 1 ? 0 : policy.sample(CfrAbstraction.infoSet(position), count, random.nextDouble());
+
+        int card = CfrAbstraction.cardFor(hand, tableCard, briscolaSuit, CfrAbstraction.actionAt(legal, slot));
+        return CardCodec.find(context.getCpuHand().getCards(), card);
+    }
+
+    // == GETTER E SETTER ==
+
+    public CfrPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,115 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.GameRules;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.policy.HardPolicyTable;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+import java.util.List;
+
+/**
+ * Difficoltà che gioca esattamente come {@link HardDifficulty} leggendo le scelte da una
+ * {@link HardPolicyTable} precalcolata.
+ * <p>
+ * Ogni decisione costa una lettura dalla tabella più i due controlli sui punti che Hard fa da secondi
+ * di mano (prendere se si supera la soglia di vittoria, non lasciarla superare all'avversario),
+ * ripetuti qui senza stream né allocazioni: il gioco è quello di Hard al costo di Easy, utile
+ * quando servono molte CPU contemporaneamente.
+ */
+public class CompiledHardDifficulty implements CpuDifficulty {
+
+    private final HardPolicyTable table;
+    private final int winThreshold;
+    private final int[] hand = new int[Hand.MAX_CARDS_IN_HAND];
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una difficoltà che legge le scelte dalla tabella indicata.
+     *
+     * @param table la tabella generata per i parametri di Hard da imitare (condivisibile tra più CPU)
+     */
+    public CompiledHardDifficulty(HardPolicyTable table) {
+        this.table = table;
+        this.winThreshold = table.getParameters().getWinThreshold();
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory) {
+        // Aggiorna la memoria come farebbe Hard
+        memory.updateFromContext(context);
+
+        List<Card> cards = context.getCpuHand().getCards();
+        Suit briscolaSuit = context.getBriscolaSuit();
+        Card firstCard = context.isCpuFirst() ? null : context.getTable().getFirstCard();
+
+        // Da secondi: se una carta prende e fa superare la soglia, la prima che lo fa
+        if (firstCard != null) {
+            for (Card c : cards) {
+                if (GameRules.compareCards(firstCard, c, briscolaSuit) == 1
+                        && memory.getMyPoints() + firstCard.getPoints() + c.getPoints() > winThreshold) {
+                    return c;
+                }
+            }
+        }
+
+        long seen = 0L;
+        for (int i = 0; i < cards.size(); i++) {
+            hand[i] = CardCodec.id(cards.get(i));
+            seen |= 1L << hand[i];
+        }
+        int tableCard = firstCard == null ? CardCodec.NO_CARD : CardCodec.id(firstCard);
+        if (firstCard != null) {
+            seen |= 1L << tableCard;
+        }
+        long remaining = CardCodec.mask(memory.getRemainingCards()) & ~seen;
+        boolean takeBriscola = context.isLastDraw() && context.getBriscolaCard().isCarico();
+        Card chosen = cards.get(table.choose(hand, cards.size(), tableCard, briscolaSuit.ordinal(), remaining,
+                takeBriscola));
+
+        // Da secondi: se l'avversario prenderebbe superando la soglia, prova a prendere
+        if (firstCard != null && GameRules.compareCards(firstCard, chosen, briscolaSuit) == 0
+                && memory.getOpponentPoints() + firstCard.getPoints() + chosen.getPoints() > winThreshold) {
+            Card taking = chooseToNotLose(cards, firstCard, briscolaSuit);
+            if (taking != null) {
+                return taking;
+            }
+        }
+        return chosen;
+    }
+
+    // == GETTER E SETTER ==
+
+    public HardPolicyTable getTable() {
+        return table;
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Come in Hard: la carta dello stesso seme più alta che vale più punti, altrimenti la briscola più alta.
+     * A parità resta la prima nell'ordine della mano.
+     */
+    private static Card chooseToNotLose(List<Card> cards, Card firstCard, Suit briscolaSuit) {
+        Card best = null;
+        for (Card c : cards) {
+            if (c.getSuit() == firstCard.getSuit() && c.getRank().ordinal() > firstCard.getRank().ordinal()
+                    && (best == null || c.getPoints() > best.getPoints())) {
+                best = c;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        for (Card c : cards) {
+            if (c.getSuit() == briscolaSuit && (best == null || c.getRank().ordinal() > best.getRank().ordinal())) {
+                best = c;
+            }
+        }
+        return best;
+    }
+}
@@ -36,9 +36,48 @@ public class Cpu extends Player {
      * @return la carta scelta per essere giocata
      */
     public Card chooseCard(GameContext context) {
+        memory.setBriscolaCard(context.getBriscolaCard());
         return difficulty.chooseCard(context, memory); 
     }
 
+    /**
+     * Seleziona una carta da giocare entro la scadenza indicata.
+     * Le strategie basate su ricerca sfruttano il tempo disponibile e restituiscono
+     * la migliore scelta trovata quando la scadenza si esaurisce.
+     *
+     * @param context  contesto del gioco attuale
+     * @param deadline il tempo a disposizione per decidere
+     * @return la carta scelta per essere giocata
+     */
+    public Card chooseCard(GameContext context, Deadline deadline) {
+        memory.setBriscolaCard(context.getBriscolaCard());
+        return difficulty.chooseCard(context, memory, deadline);
+    }
+
+    /**
+     * Prepara una decisione da calcolare su un altro thread: la strategia ragiona su una copia
+     * della memoria, che diventa la memoria della CPU solo con {@link CpuDecision#commit()}.
+     * Va chiamato dal thread che gestisce la partita.
+     *
+     * @param context contesto del gioco, reale o ipotetico
+     * @return la decisione da calcolare
+     */
+    public CpuDecision newDecision(GameContext context) {
+        return new CpuDecision(this, context, memory.copy());
+    }
+
+    /**
+     * Gioca la carta e la registra in memoria, così da distinguerla dalla carta
+     * dell'avversario quando la mano viene valutata.
+     *
+     * @param card la carta da giocare e rimuovere dalla mano
+     */
+    @Override
+    public void playCard(Card card) {
+        super.playCard(card);
+        memory.recordOwnPlay(card);
+    }
+
     /**
      * Inizializza la memoria della CPU con il mazzo di carte completo (nessuna carta è uscita).
      *
@@ -58,4 +97,14 @@ public class Cpu extends Player {
     public void updateAfterTurn(int handPoints, List<Card> playedCards, boolean cpuWon) {
         memory.updateAfterTurn(handPoints, playedCards, cpuWon);
     }
+
+    // == GETTER E SETTER ==
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    public CpuDifficulty getDifficulty() {
+        return difficulty;
+    }
 }
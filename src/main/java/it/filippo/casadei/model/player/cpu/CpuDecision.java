@@ -0,0 +1,69 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+
+/**
+ * Scelta della CPU calcolata fuori dal thread della partita.
+ * <p>
+ * La strategia lavora su una copia della memoria della CPU, così il calcolo può avvenire su
+ * un altro thread (o su una situazione ipotetica) senza toccare la memoria reale. Se la
+ * decisione viene usata, {@link #commit()} copia nella CPU la memoria aggiornata dalla strategia,
+ * esattamente come se la scelta fosse stata fatta con {@link Cpu#chooseCard(GameContext, Deadline)}.
+ */
+public final class CpuDecision {
+
+    private final Cpu cpu;
+    private final GameContext context;
+    private final Memory memory;
+    private volatile Card card;
+
+    // == COSTRUTTORE ==
+
+    CpuDecision(Cpu cpu, GameContext context, Memory memory) {
+        this.cpu = cpu;
+        this.context = context;
+        this.memory = memory;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Calcola la carta da giocare entro la scadenza indicata. Può essere chiamato da qualsiasi thread.
+     *
+     * @param deadline il tempo a disposizione per decidere
+     * @return la carta scelta
+     */
+    public Card compute(Deadline deadline) {
+        memory.setBriscolaCard(context.getBriscolaCard());
+        card = cpu.getDifficulty().chooseCard(context, memory, deadline);
+        return card;
+    }
+
+    /**
+     * Rende definitiva la decisione copiando nella CPU la memoria usata per il calcolo.
+     * Va chiamato dal thread che gestisce la partita, dopo {@link #compute(Deadline)}.
+     */
+    public void commit() {
+        if (card == null) {
+            throw new IllegalStateException("La decisione non è ancora stata calcolata");
+        }
+        cpu.getMemory().copyFrom(memory);
+    }
+
+    // == GETTER E SETTER ==
+
+    public Cpu getCpu() {
+        return cpu;
+    }
+
+    public GameContext getContext() {
+        return context;
+    }
+
+    /**
+     * Restituisce la carta scelta, oppure null se la decisione non è ancora stata calcolata.
+     */
+    public Card getCard() {
+        return card;
+    }
+}
@@ -17,4 +17,20 @@ public interface CpuDifficulty {
      * @return la carta scelta dalla CPU
      */
     Card chooseCard(GameContext context, Memory memory);
-}
\ No newline at end of file
+
+    /**
+     * Sceglie la carta da giocare entro la scadenza indicata.
+     * Le strategie basate su ricerca usano il tempo disponibile per migliorare la scelta e,
+     * quando la scadenza si esaurisce o viene annullata, restituiscono la migliore carta
+     * trovata fino a quel momento. Le strategie euristiche decidono subito, per questo
+     * l'implementazione predefinita ignora la scadenza.
+     *
+     * @param context  informazioni sullo stato del gioco (mano, tavolo, briscola)
+     * @param memory   la memoria della CPU fino a questo momento
+     * @param deadline il tempo a disposizione per decidere
+     * @return la carta scelta dalla CPU
+     */
+    default Card chooseCard(GameContext context, Memory memory, Deadline deadline) {
+        return chooseCard(context, memory);
+    }
+}
@@ -0,0 +1,107 @@
+package it.filippo.casadei.model.player.cpu;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rappresenta il tempo a disposizione della CPU per scegliere una carta.
+ * Una scadenza può esaurirsi perché è trascorso il budget di tempo oppure perché
+ * è stata annullata esplicitamente (es. partita riavviata o applicazione chiusa).
+ * <p>
+ * Le strategie che effettuano una ricerca devono controllare periodicamente
+ * {@link #isExpired()} e, appena la scadenza è esaurita, restituire la migliore
+ * carta trovata fino a quel momento.
+ */
+public final class Deadline {
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final long startNanos;
+    private final long budgetNanos;
+    private volatile boolean cancelled = false;
+
+    // == COSTRUTTORE ==
+
+    private Deadline(long budgetNanos) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetNanos;
+    }
+
+    // == METODI STATICI ==
+
+    /**
+     * Crea una scadenza che si esaurisce dopo il numero di millisecondi indicato.
+     *
+     * @param millis budget di tempo in millisecondi
+     * @return la nuova scadenza
+     */
+    public static Deadline after(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Il budget di tempo non può essere negativo: " + millis);
+        }
+        return new Deadline(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Crea una scadenza senza limite di tempo, che si esaurisce solo se annullata.
+     *
+     * @return la nuova scadenza
+     */
+    public static Deadline none() {
+        return new Deadline(NO_LIMIT);
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Annulla la scadenza: da questo momento {@link #isExpired()} restituisce sempre true.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Verifica se la scadenza è esaurita (tempo finito o annullata).
+     *
+     * @return true se la CPU deve restituire subito la sua scelta migliore
+     */
+    public boolean isExpired() {
+        return cancelled || remainingNanos() <= 0;
+    }
+
+    /**
+     * Restituisce i millisecondi ancora disponibili (0 se la scadenza è esaurita).
+     *
+     * @return millisecondi rimanenti
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remainingNanos()));
+    }
+
+    /**
+     * Restituisce i millisecondi trascorsi dalla creazione della scadenza.
+     *
+     * @return millisecondi trascorsi
+     */
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // == GETTER E SETTER ==
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean hasTimeLimit() {
+        return budgetNanos != NO_LIMIT;
+    }
+
+    // == METODI PRIVATI ==
+
+    private long remainingNanos() {
+        if (!hasTimeLimit()) {
+            return Long.MAX_VALUE;
+        }
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+}
@@ -1,6 +1,5 @@
 package it.filippo.casadei.model.player.cpu;
 
-import it.filippo.casadei.model.BriscolaGame;
 import it.filippo.casadei.model.card.Card;
 import it.filippo.casadei.model.GameRules;
 import it.filippo.casadei.model.Table;
@@ -48,6 +47,30 @@ import java.util.Optional;
 
 public class HardDifficulty implements CpuDifficulty {
 
+    private final HardParameters parameters;
+    private final int[] carichiOutOrder;
+
+    // == COSTRUTTORI ==
+
+    /**
+     * Crea la strategia con i parametri originali ({@link HardParameters#defaults()}).
+     */
+    public HardDifficulty() {
+        this(HardParameters.defaults());
+    }
+
+    /**
+     * Crea la strategia con i parametri indicati.
+     *
+     * @param parameters le soglie di gioco da usare
+     */
+    public HardDifficulty(HardParameters parameters) {
+        this.parameters = parameters;
+        this.carichiOutOrder = parameters.getCarichiOutOrder();
+    }
+
+    // == METODI PUBBLICI ==
+
     @Override
     public Card chooseCard(GameContext context, Memory memory) {
         Hand hand = context.getCpuHand();
@@ -103,20 +126,9 @@ public class HardDifficulty implements CpuDifficulty {
         }
 
         // Caso normale
-        // 1. Alta non carico/non briscola di seme con 2 carichi usciti
-        Optional<Card> highNonCaricoTwoOut = getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 2);
-        if (highNonCaricoTwoOut.isPresent()) {
-            return highNonCaricoTwoOut.get();
-        }
-
-        // 2. Alta non carico/non briscola di seme con 1 carico uscito
-        Optional<Card> highNonCaricoOneOut = getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 1);
-        if (highNonCaricoOneOut.isPresent()) {
-            return highNonCaricoOneOut.get();
-        }
-
-        // 3. Alta non carico/non briscola qualsiasi
-        Optional<Card> highNonCarico = getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 0);
+        // 1-3. Alta non carico/non briscola, scegliendo i semi nell'ordine dei carichi usciti
+        //      (di default: prima 2 carichi usciti, poi 1, poi qualsiasi)
+        Optional<Card> highNonCarico = getHighestNonCaricoNonBriscolaByCarichiOrder(cards, briscolaSuit, memory);
         if (highNonCarico.isPresent()) {
             return highNonCarico.get();
         }
@@ -215,8 +227,10 @@ public class HardDifficulty implements CpuDifficulty {
         Card worst = getWorstCard(hand, briscolaSuit, memory);
         long briscolaCount = cards.stream().filter(c -> c.isBriscola(briscolaSuit)).count();
 
-        // se concedo più di 5 punti e ho almeno 2 briscole, gioco la briscola più alta (non asso)
-        if (firstCard.getPoints()+worst.getPoints() > 5 && briscolaCount >= 2) {
+        // se concedo più della soglia (di default 5 punti) e ho abbastanza briscole (di default 2),
+        // gioco la briscola più alta (non asso)
+        if (firstCard.getPoints()+worst.getPoints() > parameters.getConcedeThreshold()
+                && briscolaCount >= parameters.getMinBriscoleToCut()) {
             return cards.stream()
                     .filter(c -> c.isBriscola(briscolaSuit) && !c.getRank().equals(Rank.ACE))
                     .max(Comparator.comparingInt(Card::getPoints))
@@ -240,8 +254,7 @@ public class HardDifficulty implements CpuDifficulty {
      */
     private Card getWorstCard(Hand hand, Suit briscolaSuit, Memory memory) {
         List<Card> cards = hand.getCards();
-        return getLowestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 2)
-                .or(() -> getLowestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 1))
+        return getLowestNonCaricoNonBriscolaByCarichiOrder(cards, briscolaSuit, memory)
                 // non carico/non briscola più bassa
                 .or(() -> cards.stream()
                         .filter(c -> !c.isCarico())
@@ -254,6 +267,38 @@ public class HardDifficulty implements CpuDifficulty {
                 .get();
     }
 
+    /**
+     * Cerca la carta più alta non carico/non briscola provando i semi nell'ordine dei carichi usciti.
+     */
+    private Optional<Card> getHighestNonCaricoNonBriscolaByCarichiOrder(
+            List<Card> cards, Suit briscolaSuit, Memory memory) {
+        for (int carichiUsciti : carichiOutOrder) {
+            Optional<Card> card = getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, carichiUsciti);
+            if (card.isPresent()) {
+                return card;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Cerca la carta più bassa non carico/non briscola provando, nell'ordine dei carichi usciti,
+     * solo i semi con almeno un carico già uscito (gli altri sono gestiti dai casi successivi).
+     */
+    private Optional<Card> getLowestNonCaricoNonBriscolaByCarichiOrder(
+            List<Card> cards, Suit briscolaSuit, Memory memory) {
+        for (int carichiUsciti : carichiOutOrder) {
+            if (carichiUsciti == 0) {
+                continue;
+            }
+            Optional<Card> card = getLowestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, carichiUsciti);
+            if (card.isPresent()) {
+                return card;
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Filtra la carta più alta non carico/non briscola che ha un certo numero di carichi già usciti.
      */
@@ -336,7 +381,7 @@ public class HardDifficulty implements CpuDifficulty {
     private boolean canCpuWinWith(int cpuPoints, Card cpuCard, Card firstCard, Suit briscolaSuit) {
         int winner = GameRules.compareCards(firstCard, cpuCard, briscolaSuit);
         int possibleCpuPoints = cpuPoints + firstCard.getPoints() + cpuCard.getPoints();
-        return (winner == 1) && (possibleCpuPoints > BriscolaGame.HALF_TOTAL_POINTS);
+        return (winner == 1) && (possibleCpuPoints > parameters.getWinThreshold());
     }
 
     /**
@@ -346,7 +391,7 @@ public class HardDifficulty implements CpuDifficulty {
     private boolean wouldCpuLose(Card cpuCard, Card firstCard, Suit briscolaSuit, int opponentPoints) {
         int winner = GameRules.compareCards(firstCard, cpuCard, briscolaSuit);
         int possibleOpponentPoints = opponentPoints + firstCard.getPoints() + cpuCard.getPoints();
-        return (winner == 0) && (possibleOpponentPoints > BriscolaGame.HALF_TOTAL_POINTS);
+        return (winner == 0) && (possibleOpponentPoints > parameters.getWinThreshold());
     }
 
     /**
@@ -384,14 +429,9 @@ public class HardDifficulty implements CpuDifficulty {
         }
         
         // 2. Se non ho un carico gioca una carta non di briscola che vale più punti possibile
-        if (getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 2).isPresent()) {
-            return getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 2).get();
-        }
-        if (getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 1).isPresent()) {
-            return getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 1).get(); 
-        }
-        if (getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 0).isPresent()) {
-            return getHighestNonCaricoNonBriscolaWithCarichi(cards, briscolaSuit, memory, 0).get();
+        Optional<Card> highNonCarico = getHighestNonCaricoNonBriscolaByCarichiOrder(cards, briscolaSuit, memory);
+        if (highNonCarico.isPresent()) {
+            return highNonCarico.get();
         }
 
         // 3. Altrimenti gioca la briscola più bassa possibile
@@ -401,4 +441,10 @@ public class HardDifficulty implements CpuDifficulty {
                         .thenComparing(c -> c.getRank().ordinal()))
                 .get();
     }
+
+    // == GETTER E SETTER ==
+
+    public HardParameters getParameters() {
+        return parameters;
+    }
 }
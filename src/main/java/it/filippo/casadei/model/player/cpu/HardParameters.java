@@ -0,0 +1,132 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.BriscolaGame;
+
+import java.util.Arrays;
+
+/**
+ * Parametri di gioco della strategia {@link HardDifficulty}.
+ * <p>
+ * Raccoglie le soglie che la strategia usava come costanti, in modo da poterle regolare
+ * automaticamente (vedi {@code HardDifficultyTuner}). I valori di {@link #defaults()}
+ * riproducono esattamente il comportamento originale.
+ * <ul>
+ *   <li>{@code concedeThreshold}: punti concessi oltre i quali, da secondi, si taglia con una briscola</li>
+ *   <li>{@code minBriscoleToCut}: briscole in mano necessarie per tagliare in quel caso</li>
+ *   <li>{@code winThreshold}: punti oltre i quali si considera chiusa la partita</li>
+ *   <li>{@code carichiOutOrder}: ordine di preferenza dei semi in base ai carichi già usciti
+ *       (permutazione di 2, 1, 0)</li>
+ * </ul>
+ */
+public final class HardParameters {
+
+    /** Tutti gli ordini possibili dei semi in base ai carichi usciti. */
+    public static final int[][] CARICHI_OUT_ORDERS = {
+            {2, 1, 0}, {2, 0, 1}, {1, 2, 0}, {1, 0, 2}, {0, 2, 1}, {0, 1, 2}
+    };
+
+    private final int concedeThreshold;
+    private final int minBriscoleToCut;
+    private final int winThreshold;
+    private final int carichiOutOrder;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un insieme di parametri.
+     *
+     * @param concedeThreshold punti concessi oltre i quali si taglia con una briscola
+     * @param minBriscoleToCut briscole in mano necessarie per tagliare
+     * @param winThreshold     punti oltre i quali la partita è vinta
+     * @param carichiOutOrder  indice in {@link #CARICHI_OUT_ORDERS} dell'ordine di preferenza dei semi
+     */
+    public HardParameters(int concedeThreshold, int minBriscoleToCut, int winThreshold, int carichiOutOrder) {
+        if (carichiOutOrder < 0 || carichiOutOrder >= CARICHI_OUT_ORDERS.length) {
+            throw new IllegalArgumentException("Ordine dei carichi non valido: " + carichiOutOrder);
+        }
+        this.concedeThreshold = concedeThreshold;
+        this.minBriscoleToCut = minBriscoleToCut;
+        this.winThreshold = winThreshold;
+        this.carichiOutOrder = carichiOutOrder;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce i parametri originali della strategia Hard.
+     */
+    public static HardParameters defaults() {
+        return new HardParameters(5, 2, BriscolaGame.HALF_TOTAL_POINTS, 0);
+    }
+
+    /**
+     * Converte i parametri in un vettore numerico (per gli algoritmi di ottimizzazione).
+     */
+    public double[] toVector() {
+        return new double[] {concedeThreshold, minBriscoleToCut, winThreshold, carichiOutOrder};
+    }
+
+    /**
+     * Crea i parametri da un vettore numerico, arrotondando e limitando ogni componente
+     * all'intervallo ammesso.
+     *
+     * @param vector vettore con quattro componenti, nell'ordine di {@link #toVector()}
+     * @return i parametri corrispondenti
+     */
+    public static HardParameters fromVector(double[] vector) {
+        return new HardParameters(
+                clamp(vector[0], 0, 30),
+                clamp(vector[1], 1, 3),
+                clamp(vector[2], 40, 80),
+                clamp(vector[3], 0, CARICHI_OUT_ORDERS.length - 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HardParameters)) return false;
+        HardParameters that = (HardParameters) o;
+        return concedeThreshold == that.concedeThreshold && minBriscoleToCut == that.minBriscoleToCut
+                && winThreshold == that.winThreshold && carichiOutOrder == that.carichiOutOrder;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((concedeThreshold * 31 + minBriscoleToCut) * 31 + winThreshold) * 31 + carichiOutOrder;
+    }
+
+    @Override
+    public String toString() {
+        return "HardParameters{concedeThreshold=" + concedeThreshold
+                + ", minBriscoleToCut=" + minBriscoleToCut
+                + ", winThreshold=" + winThreshold
+                + ", carichiOutOrder=" + Arrays.toString(getCarichiOutOrder()) + "}";
+    }
+
+    // == GETTER E SETTER ==
+
+    public int getConcedeThreshold() {
+        return concedeThreshold;
+    }
+
+    public int getMinBriscoleToCut() {
+        return minBriscoleToCut;
+    }
+
+    public int getWinThreshold() {
+        return winThreshold;
+    }
+
+    /**
+     * Restituisce l'ordine di preferenza dei semi in base al numero di carichi già usciti.
+     */
+    public int[] getCarichiOutOrder() {
+        return CARICHI_OUT_ORDERS[carichiOutOrder].clone();
+    }
+
+    // == METODI PRIVATI ==
+
+    private static int clamp(double value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, Math.round(value)));
+    }
+}
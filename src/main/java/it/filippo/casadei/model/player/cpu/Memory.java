@@ -3,20 +3,29 @@ package it.filippo.casadei.model.player.cpu;
 import it.filippo.casadei.model.card.Card;
 import it.filippo.casadei.model.card.Rank;
 import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Rappresenta la memoria di gioco di un giocatore CPU, tenendo traccia dei propri punti e di quelli
- * dell'avversario e delle carte rimanenti nel mazzo.
+ * dell'avversario, delle carte rimanenti nel mazzo e di un modello probabilistico della mano
+ * dell'avversario ({@link OpponentBelief}).
  */
 public class Memory {
     private int myPoints;
     private int opponentPoints;
     private List<Card> remainingCards;
+    private final OpponentBelief belief = new OpponentBelief();
+    private Card briscolaCard;
+    private Card lastPlayedCard;
+    private int tricksPlayed;
 
     private static final int TOTAL_CARICHI_FOR_SUIT = 2;  // In totale per seme ci sono 2 carichi: Asso + 3
+    // Mani dopo le quali si pesca: le carte fuori dalle mani iniziali divise tra i due giocatori
+    private static final int DRAWING_TRICKS = (CardCodec.NUM_CARDS - 2 * Hand.MAX_CARDS_IN_HAND) / 2;
     
     // == METODI PUBBLICI ==
 
@@ -29,6 +38,48 @@ public class Memory {
         this.myPoints = 0;
         this.opponentPoints = 0;
         this.remainingCards = new ArrayList<>(deck);
+        this.belief.reset();
+        this.briscolaCard = null;
+        this.lastPlayedCard = null;
+        this.tricksPlayed = 0;
+    }
+
+    /**
+     * Restituisce una copia indipendente della memoria (utile per ragionare su situazioni ipotetiche
+     * senza modificare quella reale).
+     *
+     * @return la copia della memoria
+     */
+    public Memory copy() {
+        Memory copy = new Memory();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Sostituisce il contenuto di questa memoria con quello di un'altra (per esempio una copia
+     * su cui la CPU ha ragionato in anticipo).
+     *
+     * @param other la memoria da copiare
+     */
+    public void copyFrom(Memory other) {
+        this.myPoints = other.myPoints;
+        this.opponentPoints = other.opponentPoints;
+        this.remainingCards = other.remainingCards == null ? null : new ArrayList<>(other.remainingCards);
+        this.belief.copyFrom(other.belief);
+        this.briscolaCard = other.briscolaCard;
+        this.lastPlayedCard = other.lastPlayedCard;
+        this.tricksPlayed = other.tricksPlayed;
+    }
+
+    /**
+     * Registra la carta appena giocata dalla CPU, per distinguerla da quella dell'avversario
+     * quando la mano viene valutata.
+     *
+     * @param card la carta giocata dalla CPU
+     */
+    public void recordOwnPlay(Card card) {
+        this.lastPlayedCard = card;
     }
 
     /**
@@ -72,10 +123,34 @@ public class Memory {
 
         // rimuove le carte giocate nel turno
         removeSeenCards(playedCards);
+
+        // aggiorna il modello della mano avversaria con la carta giocata dall'avversario
+        updateBelief(playedCards);
+        tricksPlayed++;
+        if (tricksPlayed <= DRAWING_TRICKS) {
+            belief.observeDraw();
+        }
+        lastPlayedCard = null;
     }
 
     // == METODI PRIVATI ==
 
+    /**
+     * Passa al modello dell'avversario la mano appena conclusa, se le carte della CPU
+     * e dell'avversario sono riconoscibili.
+     *
+     * @param playedCards le carte giocate nel turno, nell'ordine di gioco
+     */
+    private void updateBelief(List<Card> playedCards) {
+        if (briscolaCard == null || lastPlayedCard == null || playedCards == null || playedCards.size() != 2) {
+            return;
+        }
+        boolean opponentLed = playedCards.get(0) != lastPlayedCard;
+        Card opponentCard = opponentLed ? playedCards.get(0) : playedCards.get(1);
+        belief.observeTrick(CardCodec.id(opponentCard), CardCodec.id(lastPlayedCard), opponentLed,
+                briscolaCard.getSuit().ordinal(), CardCodec.mask(remainingCards));
+    }
+
     /**
      * Rimuove le carte viste dalla lista delle carte rimanenti.
      *
@@ -129,4 +204,16 @@ public class Memory {
     public List<Card> getRemainingBriscole(Suit briscolaSuit) {
         return remainingCards.stream().filter(c -> c.isBriscola(briscolaSuit)).toList();
     }
+
+    public OpponentBelief getBelief() {
+        return belief;
+    }
+
+    public Card getBriscolaCard() {
+        return briscolaCard;
+    }
+
+    public void setBriscolaCard(Card briscolaCard) {
+        this.briscolaCard = briscolaCard;
+    }
 }
\ No newline at end of file
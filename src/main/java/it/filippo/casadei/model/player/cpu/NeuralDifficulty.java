@@ -0,0 +1,70 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.learning.NeuralEvaluator;
+import it.filippo.casadei.model.player.cpu.learning.PositionEncoder;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+import java.util.List;
+
+/**
+ * Difficoltà che sceglie la carta con una funzione di valutazione appresa ({@link NeuralEvaluator}).
+ * <p>
+ * Per ogni carta in mano viene costruito l'ingresso "posizione + carta candidata" e tutte le candidate
+ * sono valutate con una sola chiamata in lotto; viene giocata la carta con la stima migliore.
+ * Il valutatore non è thread-safe: ogni CPU deve avere il proprio (vedi {@link NeuralEvaluator#copy()}).
+ */
+public class NeuralDifficulty implements CpuDifficulty {
+
+    private final NeuralEvaluator evaluator;
+    private final float[] inputs = new float[Hand.MAX_CARDS_IN_HAND * NeuralEvaluator.INPUT_SIZE];
+    private final float[] scores = new float[Hand.MAX_CARDS_IN_HAND];
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una difficoltà basata sul valutatore indicato.
+     *
+     * @param evaluator il valutatore, con ingresso di {@link NeuralEvaluator#INPUT_SIZE} componenti
+     */
+    public NeuralDifficulty(NeuralEvaluator evaluator) {
+        if (evaluator.getInputSize() != NeuralEvaluator.INPUT_SIZE) {
+            throw new IllegalArgumentException("Il valutatore deve avere " + NeuralEvaluator.INPUT_SIZE
+                    + " ingressi, non " + evaluator.getInputSize());
+        }
+        this.evaluator = evaluator;
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory) {
+        List<Card> cards = context.getCpuHand().getCards();
+        Position position = Position.of(context, memory);
+
+        int count = cards.size();
+        for (int i = 0; i < count; i++) {
+            int offset = i * NeuralEvaluator.INPUT_SIZE;
+            PositionEncoder.encode(position, inputs, offset);
+            PositionEncoder.encodeMove(CardCodec.id(cards.get(i)), position.getBriscolaCard(), inputs,
+                    offset + PositionEncoder.FEATURES);
+        }
+        evaluator.evaluate(inputs, count, scores);
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        return cards.get(best);
+    }
+
+    // == GETTER E SETTER ==
+
+    public NeuralEvaluator getEvaluator() {
+        return evaluator;
+    }
+}
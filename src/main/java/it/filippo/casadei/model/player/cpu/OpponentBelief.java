@@ -0,0 +1,198 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.rollout.CardTables;
+import it.filippo.casadei.model.player.cpu.rollout.FastRandom;
+
+import java.util.Arrays;
+
+/**
+ * Modello probabilistico della mano dell'avversario, aggiornato dopo ogni mano di gioco.
+ * <p>
+ * Per ogni carta non ancora vista mantiene un peso relativo: 1 significa "nessuna informazione",
+ * valori minori indicano che le giocate dell'avversario rendono meno probabile che la carta sia
+ * nella sua mano (invece che nel mazzo). Ad esempio, un avversario che lascia passare un carico senza
+ * tagliare probabilmente non ha briscole. Ogni osservazione moltiplica i pesi delle carte coinvolte
+ * per un fattore di verosimiglianza; a ogni pescata i pesi tornano in parte verso 1, perché
+ * la carta nuova non ha nulla a che vedere con le giocate precedenti.
+ * <p>
+ * I pesi servono a campionare mani dell'avversario coerenti con le sue giocate: una
+ * determinizzazione pesata rappresenta meglio la situazione reale e richiede meno campioni.
+ */
+public class OpponentBelief {
+
+    /** Fattore per le briscole quando l'avversario non taglia un carico. */
+    static final double NO_BRISCOLA_FACTOR = 0.3;
+    /** Fattore per le carte più alte dello stesso seme quando l'avversario non prende una carta con punti. */
+    static final double NO_HIGHER_FACTOR = 0.4;
+    /** Fattore per i lisci quando l'avversario gioca punti che avrebbe potuto risparmiare. */
+    static final double NO_LISCIO_FACTOR = 0.7;
+    /** Quota dell'informazione persa a ogni pescata (una carta su tre è nuova). */
+    static final double DRAW_RELAXATION = 1.0 / 3;
+
+    private static final double MIN_WEIGHT = 1e-3;
+    private static final long LISCI = zeroPointCards();
+
+    private final double[] weights = new double[CardCodec.NUM_CARDS];
+
+    // == COSTRUTTORE ==
+
+    public OpponentBelief() {
+        reset();
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Riporta tutti i pesi a 1 (nessuna informazione sull'avversario).
+     */
+    public void reset() {
+        Arrays.fill(weights, 1.0);
+    }
+
+    /**
+     * Restituisce una copia indipendente del modello.
+     */
+    public OpponentBelief copy() {
+        OpponentBelief copy = new OpponentBelief();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Copia in questo modello i pesi del modello indicato.
+     */
+    public void copyFrom(OpponentBelief other) {
+        System.arraycopy(other.weights, 0, weights, 0, weights.length);
+    }
+
+    /**
+     * Aggiorna i pesi dopo una mano di gioco.
+     *
+     * @param opponentCard id della carta giocata dall'avversario
+     * @param cpuCard      id della carta giocata dalla CPU
+     * @param opponentLed  true se l'avversario ha giocato per primo
+     * @param briscolaSuit ordinale del seme di briscola
+     * @param unseen       maschera delle carte non ancora viste dalla CPU
+     */
+    public void observeTrick(int opponentCard, int cpuCard, boolean opponentLed, int briscolaSuit, long unseen) {
+        long briscole = unseen & CardCodec.suitMask(briscolaSuit);
+        long lisci = unseen & ~briscole & LISCI;
+
+        if (opponentLed) {
+            // Aprire con un carico o una briscola suggerisce di non avere lisci da giocare
+            if (CardCodec.isCarico(opponentCard) || CardCodec.suit(opponentCard) == briscolaSuit) {
+                scale(lisci, NO_LISCIO_FACTOR);
+            }
+            return;
+        }
+
+        int lead = cpuCard;
+        boolean opponentWon = (CardTables.beaters(lead, briscolaSuit) & (1L << opponentCard)) != 0;
+        if (opponentWon) {
+            return;
+        }
+
+        int leadSuit = CardCodec.suit(lead);
+        if (leadSuit != briscolaSuit && CardTables.points(lead) > 0) {
+            // Non ha preso con lo stesso seme: probabilmente non ha carte più alte di quel seme
+            long higher = unseen & CardCodec.suitMask(leadSuit) & ~((2L << lead) - 1);
+            scale(higher, NO_HIGHER_FACTOR);
+        }
+        if (leadSuit != briscolaSuit && CardCodec.isCarico(lead)) {
+            // Ha lasciato un carico senza tagliare: probabilmente non ha briscole
+            scale(briscole, NO_BRISCOLA_FACTOR);
+        }
+        if (CardTables.points(opponentCard) > 0 && CardCodec.suit(opponentCard) != briscolaSuit) {
+            // Ha regalato punti: probabilmente non aveva lisci da scartare
+            scale(lisci, NO_LISCIO_FACTOR);
+        }
+    }
+
+    /**
+     * Attenua le informazioni raccolte quando l'avversario pesca una carta nuova.
+     */
+    public void observeDraw() {
+        for (int id = 0; id < weights.length; id++) {
+            weights[id] += (1.0 - weights[id]) * DRAW_RELAXATION;
+        }
+    }
+
+    /**
+     * Stima la probabilità che una carta sia nella mano dell'avversario.
+     *
+     * @param id         la carta
+     * @param candidates maschera delle carte che possono essere in mano all'avversario
+     * @param handSize   numero di carte in mano all'avversario
+     * @return la probabilità stimata (proporzionale al peso, al massimo 1)
+     */
+    public double probability(int id, long candidates, int handSize) {
+        if ((candidates & (1L << id)) == 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, handSize * weights[id] / totalWeight(candidates));
+    }
+
+    /**
+     * Estrae una mano dell'avversario tra le carte candidate, con probabilità proporzionale ai pesi
+     * (estrazione pesata senza reinserimento).
+     *
+     * @param candidates maschera delle carte che possono essere in mano all'avversario
+     * @param handSize   numero di carte da estrarre
+     * @param random     il generatore da usare
+     * @return la maschera della mano estratta
+     */
+    public long sampleHand(long candidates, int handSize, FastRandom random) {
+        long hand = 0L;
+        long available = candidates;
+        double total = totalWeight(available);
+        for (int i = 0; i < handSize && available != 0; i++) {
+            double target = random.nextDouble() * total;
+            int chosen = Long.numberOfTrailingZeros(available);
+            for (long m = available; m != 0; m &= m - 1) {
+                chosen = Long.numberOfTrailingZeros(m);
+                target -= weights[chosen];
+                if (target < 0) {
+                    break;
+                }
+            }
+            hand |= 1L << chosen;
+            available &= ~(1L << chosen);
+            total -= weights[chosen];
+        }
+        return hand;
+    }
+
+    // == GETTER E SETTER ==
+
+    public double getWeight(int id) {
+        return weights[id];
+    }
+
+    // == METODI PRIVATI ==
+
+    private void scale(long cards, double factor) {
+        for (long m = cards; m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            weights[id] = Math.max(MIN_WEIGHT, weights[id] * factor);
+        }
+    }
+
+    private double totalWeight(long cards) {
+        double total = 0.0;
+        for (long m = cards; m != 0; m &= m - 1) {
+            total += weights[Long.numberOfTrailingZeros(m)];
+        }
+        return total;
+    }
+
+    private static long zeroPointCards() {
+        long mask = 0L;
+        for (int id = 0; id < CardCodec.NUM_CARDS; id++) {
+            if (CardTables.points(id) == 0) {
+                mask |= 1L << id;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,128 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fa "pensare" la CPU durante il turno dell'avversario.
+ * <p>
+ * Quando l'avversario deve aprire la mano, la CPU calcola in anticipo la propria risposta a
+ * ciascuna delle carte che l'avversario potrebbe giocare, una per thread. Quando l'avversario
+ * gioca, {@link #take(Card, long)} restituisce la risposta già calcolata (o in calcolo) per quella
+ * carta e annulla le altre. Ogni risposta lavora su una copia del tavolo, della mano e della memoria
+ * (vedi {@link CpuDecision}), quindi la partita reale non viene toccata.
+ * <p>
+ * I metodi possono essere chiamati da più thread.
+ */
+public final class Ponderer {
+
+    private final Executor executor;
+    private final Map<Card, Pondering> ponderings = new HashMap<>();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un "pensatore" che calcola le risposte sull'executor indicato.
+     *
+     * @param executor l'executor su cui calcolare le risposte (almeno un thread per carta in mano
+     *                 per calcolarle tutte in parallelo)
+     */
+    public Ponderer(Executor executor) {
+        this.executor = executor;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Avvia il calcolo delle risposte della CPU a ogni carta dell'avversario, annullando quelle
+     * di un turno precedente.
+     *
+     * @param cpu           la CPU che risponderà
+     * @param opponent      l'avversario che apre la mano
+     * @param opponentCards le carte che l'avversario può giocare
+     * @param briscolaCard  la carta di briscola
+     * @param isLastDraw    vero se dopo questa mano resta l'ultima pescata
+     * @param budgetMillis  tempo massimo di calcolo per ogni risposta
+     */
+    public synchronized void start(Cpu cpu, Player opponent, List<Card> opponentCards, Card briscolaCard,
+                                   boolean isLastDraw, long budgetMillis) {
+        cancel();
+        for (Card card : opponentCards) {
+            Table table = new Table();
+            table.setPlayersOrder(opponent, cpu);
+            table.playCard(opponent, card);
+            Hand hand = new Hand();
+            cpu.getHand().getCards().forEach(hand::addCard);
+
+            CpuDecision decision = cpu.newDecision(new GameContext(hand, table, briscolaCard, false, isLastDraw));
+            Deadline deadline = Deadline.after(budgetMillis);
+            CompletableFuture<CpuDecision> future = CompletableFuture.supplyAsync(() -> {
+                decision.compute(deadline);
+                return decision;
+            }, executor);
+            ponderings.put(card, new Pondering(deadline, future));
+        }
+    }
+
+    /**
+     * Restituisce la risposta calcolata per la carta giocata dall'avversario e annulla le altre.
+     * Se il calcolo non è ancora finito, la ricerca viene fermata dopo {@code thinkMillis}
+     * millisecondi e restituisce la migliore carta trovata.
+     *
+     * @param opponentCard la carta giocata dall'avversario
+     * @param thinkMillis  tempo concesso per finire il calcolo
+     * @return la risposta (da rendere definitiva con {@link CpuDecision#commit()}), oppure null
+     *         se per quella carta non c'è un calcolo in corso
+     */
+    public synchronized CompletableFuture<CpuDecision> take(Card opponentCard, long thinkMillis) {
+        Pondering chosen = ponderings.remove(opponentCard);
+        cancel();
+        if (chosen == null) {
+            return null;
+        }
+        if (!chosen.future.isDone()) {
+            CompletableFuture.delayedExecutor(thinkMillis, TimeUnit.MILLISECONDS).execute(chosen.deadline::cancel);
+        }
+        return chosen.future;
+    }
+
+    /**
+     * Annulla tutti i calcoli in corso: le ricerche terminano alla prima verifica della scadenza.
+     */
+    public synchronized void cancel() {
+        for (Pondering pondering : ponderings.values()) {
+            pondering.deadline.cancel();
+            pondering.future.cancel(false);
+        }
+        ponderings.clear();
+    }
+
+    /**
+     * Restituisce true se ci sono risposte in calcolo o pronte da usare.
+     */
+    public synchronized boolean isPondering() {
+        return !ponderings.isEmpty();
+    }
+
+    /**
+     * Calcolo della risposta a una carta dell'avversario.
+     */
+    private static final class Pondering {
+        private final Deadline deadline;
+        private final CompletableFuture<CpuDecision> future;
+
+        Pondering(Deadline deadline, CompletableFuture<CpuDecision> future) {
+            this.deadline = deadline;
+            this.future = future;
+        }
+    }
+}
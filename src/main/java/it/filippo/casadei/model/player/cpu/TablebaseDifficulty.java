@@ -0,0 +1,61 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import it.filippo.casadei.model.player.cpu.search.EndgameTablebase;
+
+/**
+ * Difficoltà che gioca in modo perfetto i finali coperti da una {@link EndgameTablebase}.
+ * <p>
+ * Quando il mazzo è vuoto e le carte in mano rientrano nella tablebase, la mossa si ottiene
+ * con poche letture dal file mappato in memoria, senza alcuna ricerca. In tutte le altre
+ * situazioni la decisione è lasciata alla strategia delegata.
+ */
+public class TablebaseDifficulty implements CpuDifficulty {
+
+    private final CpuDifficulty delegate;
+    private final EndgameTablebase tablebase;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una difficoltà che consulta la tablebase nei finali.
+     *
+     * @param delegate  la strategia usata fuori dai finali coperti
+     * @param tablebase la tablebase dei finali (condivisibile tra più CPU e thread)
+     */
+    public TablebaseDifficulty(CpuDifficulty delegate, EndgameTablebase tablebase) {
+        this.delegate = delegate;
+        this.tablebase = tablebase;
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory) {
+        return chooseCard(context, memory, Deadline.none());
+    }
+
+    @Override
+    public Card chooseCard(GameContext context, Memory memory, Deadline deadline) {
+        Position position = Position.of(context, memory);
+        if (tablebase.covers(position)) {
+            Card card = CardCodec.find(context.getCpuHand().getCards(), tablebase.bestMove(position));
+            if (card != null) {
+                return card;
+            }
+        }
+        return delegate.chooseCard(context, memory, deadline);
+    }
+
+    // == GETTER E SETTER ==
+
+    public CpuDifficulty getDelegate() {
+        return delegate;
+    }
+
+    public EndgameTablebase getTablebase() {
+        return tablebase;
+    }
+}
@@ -0,0 +1,68 @@
+package it.filippo.casadei.model.player.cpu.cache;
+
+/**
+ * Fotografia delle statistiche di una {@link DecisionCache}.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+    private final long size;
+
+    // == COSTRUTTORE ==
+
+    CacheStats(long hits, long misses, long evictions, long rejections, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.size = size;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce la percentuale di richieste servite dalla cache (tra 0 e 1).
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Restituisce il numero di elementi rimossi dalla cache per fare spazio a elementi più frequenti.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Restituisce il numero di nuovi elementi scartati dalla politica di ammissione
+     * perché meno frequenti dell'elemento che avrebbero sostituito.
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[hitRate=%.2f%%, hits=%d, misses=%d, evictions=%d, rejections=%d, size=%d]",
+                100.0 * hitRate(), hits, misses, evictions, rejections, size);
+    }
+}
@@ -0,0 +1,280 @@
+package it.filippo.casadei.model.player.cpu.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache thread-safe delle decisioni della CPU, indicizzata dall'hash compatto di una posizione
+ * (tipicamente in forma canonica) e condivisa da tutte le CPU della JVM.
+ * <p>
+ * La capacità è limitata e la politica di ammissione/rimozione segue lo schema W-TinyLFU:
+ * <ul>
+ *   <li>i nuovi elementi entrano in una piccola finestra LRU (circa 1% della capacità)</li>
+ *   <li>quando la finestra è piena, l'elemento più vecchio della finestra entra nell'area
+ *   principale solo se la sua frequenza stimata supera quella dell'elemento che andrebbe rimosso</li>
+ *   <li>l'area principale è una LRU segmentata: un elemento letto di nuovo passa dalla zona
+ *   "in prova" a quella "protetta" (80% dell'area principale)</li>
+ * </ul>
+ * La cache è divisa in segmenti indipendenti, ciascuno protetto dal proprio lock, per ridurre
+ * la contesa quando molte CPU giocano in parallelo.
+ */
+public final class DecisionCache {
+
+    public static final int NO_DECISION = -1;
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int ENTRIES_PER_SEGMENT = 64;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una nuova cache con la capacità massima indicata.
+     *
+     * @param capacity numero massimo di decisioni memorizzate
+     */
+    public DecisionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacità deve essere positiva: " + capacity);
+        }
+        int segmentCount = Math.min(MAX_SEGMENTS, Math.max(1, Integer.highestOneBit(capacity / ENTRIES_PER_SEGMENT)));
+
+        this.capacity = capacity;
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        // La capacità è ripartita esattamente tra i segmenti: la somma non supera mai quella richiesta
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce la cache condivisa da tutte le CPU della JVM.
+     * La capacità può essere impostata con la proprietà di sistema {@code briscola.decisionCache.size}.
+     */
+    public static DecisionCache shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Cerca la decisione associata alla chiave.
+     *
+     * @param key hash della posizione
+     * @return la decisione memorizzata, oppure {@link #NO_DECISION} se assente
+     */
+    public int get(long key) {
+        int decision = segmentFor(key).get(key);
+        if (decision == NO_DECISION) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return decision;
+    }
+
+    /**
+     * Memorizza la decisione associata alla chiave, se la politica di ammissione lo consente.
+     *
+     * @param key      hash della posizione
+     * @param decision la decisione da memorizzare (non negativa)
+     */
+    public void put(long key, int decision) {
+        if (decision < 0) {
+            throw new IllegalArgumentException("Decisione non valida: " + decision);
+        }
+        segmentFor(key).put(key, decision);
+    }
+
+    /**
+     * Svuota la cache senza azzerare le statistiche.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Restituisce il numero di decisioni attualmente memorizzate.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Restituisce le statistiche di utilizzo della cache.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), rejections.sum(), size());
+    }
+
+    // == GETTER E SETTER ==
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // == METODI PRIVATI ==
+
+    private Segment segmentFor(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h ^= h >>> 16;
+        return segments[h & segmentMask];
+    }
+
+    /**
+     * Inizializzazione pigra e thread-safe della cache condivisa.
+     */
+    private static final class SharedHolder {
+        private static final DecisionCache INSTANCE =
+                new DecisionCache(Integer.getInteger("briscola.decisionCache.size", DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Segmento della cache con finestra LRU, area principale LRU segmentata e sketch delle frequenze.
+     */
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final FrequencySketch sketch;
+        private final LinkedHashMap<Long, Integer> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Long, Integer> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Long, Integer> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final int protectedCapacity;
+
+        Segment(int capacity) {
+            this.sketch = new FrequencySketch(capacity);
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            this.protectedCapacity = Math.max(1, mainCapacity * 8 / 10);
+        }
+
+        int get(long key) {
+            lock.lock();
+            try {
+                sketch.increment(key);
+
+                Integer decision = window.get(key);
+                if (decision != null) {
+                    return decision;
+                }
+                decision = protectedArea.get(key);
+                if (decision != null) {
+                    return decision;
+                }
+                // Un elemento in prova letto di nuovo viene promosso nella zona protetta
+                decision = probation.remove(key);
+                if (decision != null) {
+                    protectedArea.put(key, decision);
+                    if (protectedArea.size() > protectedCapacity) {
+                        Map.Entry<Long, Integer> demoted = removeEldest(protectedArea);
+                        probation.put(demoted.getKey(), demoted.getValue());
+                    }
+                    return decision;
+                }
+                return NO_DECISION;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(long key, int decision) {
+            lock.lock();
+            try {
+                sketch.increment(key);
+
+                if (window.containsKey(key)) {
+                    window.put(key, decision);
+                    return;
+                }
+                if (protectedArea.containsKey(key)) {
+                    protectedArea.put(key, decision);
+                    return;
+                }
+                if (probation.containsKey(key)) {
+                    probation.put(key, decision);
+                    return;
+                }
+
+                window.put(key, decision);
+                if (window.size() > windowCapacity) {
+                    Map.Entry<Long, Integer> candidate = removeEldest(window);
+                    admit(candidate.getKey(), candidate.getValue());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Decide se l'elemento uscito dalla finestra può entrare nell'area principale.
+         */
+        private void admit(long candidateKey, int candidateDecision) {
+            if (mainCapacity == 0) {
+                // Capacità di un solo elemento: c'è posto solo nella finestra
+                rejections.increment();
+                return;
+            }
+            if (probation.size() + protectedArea.size() < mainCapacity) {
+                probation.put(candidateKey, candidateDecision);
+                return;
+            }
+
+            LinkedHashMap<Long, Integer> victimArea = probation.isEmpty() ? protectedArea : probation;
+            long victimKey = victimArea.keySet().iterator().next();
+            if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+                victimArea.remove(victimKey);
+                probation.put(candidateKey, candidateDecision);
+                evictions.increment();
+            } else {
+                rejections.increment();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                window.clear();
+                probation.clear();
+                protectedArea.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return window.size() + probation.size() + protectedArea.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Map.Entry<Long, Integer> removeEldest(LinkedHashMap<Long, Integer> map) {
+            Iterator<Map.Entry<Long, Integer>> it = map.entrySet().iterator();
+            Map.Entry<Long, Integer> entry = it.next();
+            Map.Entry<Long, Integer> eldest = Map.entry(entry.getKey(), entry.getValue());
+            it.remove();
+            return eldest;
+        }
+    }
+}
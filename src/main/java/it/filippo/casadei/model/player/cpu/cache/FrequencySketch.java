@@ -0,0 +1,91 @@
+package it.filippo.casadei.model.player.cpu.cache;
+
+/**
+ * Stima approssimata della frequenza di accesso delle chiavi (Count-Min Sketch a 4 bit).
+ * <p>
+ * Ogni chiave incrementa quattro contatori da 4 bit scelti con hash diversi; la frequenza
+ * stimata è il minimo dei quattro. Quando il numero di incrementi raggiunge la dimensione
+ * del campione tutti i contatori vengono dimezzati, così la stima segue i cambi di popolarità.
+ * <p>
+ * La classe non è thread-safe: l'accesso è protetto dal lock del segmento che la possiede.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea uno sketch dimensionato per il numero massimo di elementi della cache.
+     *
+     * @param maximumSize capacità della cache servita dallo sketch
+     */
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * Math.max(1, maximumSize);
+    }
+
+    // == METODI ==
+
+    /**
+     * Restituisce la frequenza stimata della chiave (da 0 a 15).
+     */
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            int index = (int) (hash >>> 32) & tableMask;
+            int offset = ((int) hash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xF));
+        }
+        return frequency;
+    }
+
+    /**
+     * Registra un accesso alla chiave.
+     */
+    void increment(long key) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            int index = (int) (hash >>> 32) & tableMask;
+            int offset = ((int) hash & 15) << 2;
+            if (((table[index] >>> offset) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Dimezza tutti i contatori (invecchiamento della stima).
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long hash(long key, int i) {
+        long z = key + SEEDS[i];
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
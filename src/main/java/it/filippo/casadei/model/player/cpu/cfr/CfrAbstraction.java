@@ -0,0 +1,177 @@
+package it.filippo.casadei.model.player.cpu.cfr;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import it.filippo.casadei.model.player.cpu.rollout.CardTables;
+
+/**
+ * Astrazione della Briscola usata dal risolutore CFR.
+ * <p>
+ * <b>Azioni.</b> Le carte sono raggruppate in cinque tipi: liscio, figura e carico di un seme
+ * qualsiasi, briscola bassa e carico di briscola. Da secondi di mano il tipo è combinato con
+ * l'esito della presa (la carta vince o perde), da primi l'esito vale sempre "perde": in tutto
+ * {@link #NUM_ACTIONS} azioni astratte. Un'azione si gioca con la carta di valore minore
+ * tra quelle in mano che le corrispondono.
+ * <p>
+ * <b>Insiemi di informazione.</b> Ciò che un giocatore sa viene ridotto a pochi indicatori:
+ * le azioni disponibili in mano, il tipo della carta sul tavolo, i carichi non di briscola e
+ * i carichi di briscola non ancora visti, le briscole non ancora viste, i punti propri e avversari
+ * rispetto a 60 e la fase della partita (mazzo pieno, ultima pescata, mazzo vuoto).
+ * Ogni combinazione corrisponde a un indice in {@code [0, }{@link #NUM_INFO_SETS}{@code )}.
+ * Nello stesso insieme le azioni disponibili sono sempre le stesse: la {@code k}-esima
+ * azione disponibile (in ordine crescente) occupa la posizione {@code k} delle tabelle.
+ */
+public final class CfrAbstraction {
+
+    public static final int NUM_CARD_TYPES = 5;
+    public static final int NUM_ACTIONS = 2 * NUM_CARD_TYPES;
+    public static final int MAX_LEGAL_ACTIONS = 3;
+
+    public static final int LISCIO = 0;
+    public static final int FIGURA = 1;
+    public static final int CARICO = 2;
+    public static final int BRISCOLA_BASSA = 3;
+    public static final int BRISCOLA_CARICO = 4;
+
+    private static final int[] MASK_RANK = new int[1 << NUM_ACTIONS];
+    private static final int NUM_MASKS;
+
+    private static final int LEAD_CLASSES = NUM_CARD_TYPES + 1;
+    private static final int CARICHI_BUCKETS = 3;
+    private static final int BRISCOLA_CARICHI_BUCKETS = 3;
+    private static final int BRISCOLE_BUCKETS = 3;
+    private static final int SCORE_BUCKETS = 3;
+    private static final int PHASES = 3;
+
+    static {
+        int rank = 0;
+        for (int mask = 0; mask < MASK_RANK.length; mask++) {
+            int count = Integer.bitCount(mask);
+            MASK_RANK[mask] = count >= 1 && count <= MAX_LEGAL_ACTIONS ? rank++ : -1;
+        }
+        NUM_MASKS = rank;
+    }
+
+    /** Numero di insiemi di informazione dell'astrazione. */
+    public static final int NUM_INFO_SETS = NUM_MASKS * LEAD_CLASSES * CARICHI_BUCKETS * BRISCOLA_CARICHI_BUCKETS
+            * BRISCOLE_BUCKETS * SCORE_BUCKETS * SCORE_BUCKETS * PHASES;
+
+    private CfrAbstraction() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    /**
+     * Restituisce il tipo della carta (da {@link #LISCIO} a {@link #BRISCOLA_CARICO}).
+     */
+    public static int cardType(int card, int briscolaSuit) {
+        int points = CardTables.points(card);
+        if (CardCodec.suit(card) == briscolaSuit) {
+            return points >= 10 ? BRISCOLA_CARICO : BRISCOLA_BASSA;
+        }
+        return points == 0 ? LISCIO : points < 10 ? FIGURA : CARICO;
+    }
+
+    /**
+     * Restituisce l'azione astratta corrispondente a una carta.
+     *
+     * @param card         la carta
+     * @param tableCard    la carta sul tavolo, oppure {@link CardCodec#NO_CARD} se si gioca per primi
+     * @param briscolaSuit il seme di briscola
+     */
+    public static int action(int card, int tableCard, int briscolaSuit) {
+        boolean wins = tableCard != CardCodec.NO_CARD
+                && (CardTables.beaters(tableCard, briscolaSuit) & (1L << card)) != 0;
+        return 2 * cardType(card, briscolaSuit) + (wins ? 1 : 0);
+    }
+
+    /**
+     * Restituisce la maschera ({@link #NUM_ACTIONS} bit) delle azioni disponibili con la mano indicata.
+     */
+    public static int legalActions(long hand, int tableCard, int briscolaSuit) {
+        int mask = 0;
+        for (long m = hand; m != 0; m &= m - 1) {
+            mask |= 1 << action(Long.numberOfTrailingZeros(m), tableCard, briscolaSuit);
+        }
+        return mask;
+    }
+
+    /**
+     * Restituisce l'azione che occupa la posizione indicata tra quelle disponibili.
+     */
+    public static int actionAt(int legalActions, int slot) {
+        int mask = legalActions;
+        for (int i = 0; i < slot; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Restituisce la carta con cui giocare un'azione: quella di valore minore tra le carte della mano
+     * che corrispondono all'azione.
+     *
+     * @return l'id della carta, oppure {@link CardCodec#NO_CARD} se nessuna carta corrisponde
+     */
+    public static int cardFor(long hand, int tableCard, int briscolaSuit, int action) {
+        int best = CardCodec.NO_CARD;
+        for (long m = hand; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            if (action(card, tableCard, briscolaSuit) == action
+                    && (best == CardCodec.NO_CARD || CardTables.value(card) < CardTables.value(best))) {
+                best = card;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calcola l'insieme di informazione di chi deve giocare.
+     *
+     * @param hand           la mano di chi gioca
+     * @param unseen         le carte che chi gioca non ha ancora visto (mano avversaria e mazzo)
+     * @param tableCard      la carta sul tavolo, oppure {@link CardCodec#NO_CARD}
+     * @param briscolaSuit   il seme di briscola
+     * @param myPoints       i punti di chi gioca
+     * @param opponentPoints i punti dell'avversario
+     * @param deckSize       le carte ancora da pescare, briscola scoperta compresa
+     * @return l'indice dell'insieme di informazione
+     */
+    public static int infoSet(long hand, long unseen, int tableCard, int briscolaSuit,
+                              int myPoints, int opponentPoints, int deckSize) {
+        long briscole = unseen & CardCodec.suitMask(briscolaSuit);
+        long carichi = unseen & CardTables.CARICHI;
+        int otherCarichi = Long.bitCount(carichi & ~briscole);
+        int briscolaCarichi = Long.bitCount(carichi & briscole);
+        int briscoleLeft = Long.bitCount(briscole);
+
+        int index = MASK_RANK[legalActions(hand, tableCard, briscolaSuit)];
+        index = index * LEAD_CLASSES + (tableCard == CardCodec.NO_CARD ? 0 : 1 + cardType(tableCard, briscolaSuit));
+        index = index * CARICHI_BUCKETS + (otherCarichi <= 1 ? 0 : otherCarichi <= 3 ? 1 : 2);
+        index = index * BRISCOLA_CARICHI_BUCKETS + briscolaCarichi;
+        index = index * BRISCOLE_BUCKETS + (briscoleLeft <= 2 ? 0 : briscoleLeft <= 5 ? 1 : 2);
+        index = index * SCORE_BUCKETS + scoreBucket(myPoints);
+        index = index * SCORE_BUCKETS + scoreBucket(opponentPoints);
+        return index * PHASES + (deckSize == 0 ? 2 : deckSize == 2 ? 1 : 0);
+    }
+
+    /**
+     * Calcola l'insieme di informazione della CPU nella posizione indicata.
+     */
+    public static int infoSet(Position position) {
+        long hand = position.getHand();
+        long remaining = position.getRemaining();
+        int handSize = Long.bitCount(hand);
+        int opponentSize = position.getTableCard() == CardCodec.NO_CARD ? handSize : handSize - 1;
+        int deckSize = Math.max(0, Long.bitCount(remaining) - opponentSize);
+        return infoSet(hand, remaining, position.getTableCard(), position.getBriscolaSuit(),
+                position.getMyPoints(), position.getOpponentPoints(), deckSize);
+    }
+
+    // == METODI PRIVATI ==
+
+    private static int scoreBucket(int points) {
+        return points < 40 ? 0 : points <= BriscolaGame.HALF_TOTAL_POINTS ? 1 : 2;
+    }
+}
@@ -0,0 +1,149 @@
+package it.filippo.casadei.model.player.cpu.cfr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Strategia media calcolata dal risolutore CFR, in forma compatta e di sola lettura.
+ * <p>
+ * Per ogni insieme di informazione di {@link CfrAbstraction} sono salvate le probabilità delle
+ * azioni disponibili, quantizzate su un byte ciascuna: l'intera strategia occupa pochi MB e si carica
+ * in un array. Un insieme mai visitato durante l'addestramento ha tutti i valori a zero e viene
+ * giocato con probabilità uniforme.
+ * <p>
+ * Formato del file (little-endian): {@link #MAGIC}, versione, numero di insiemi, poi i byte delle probabilità.
+ */
+public final class CfrPolicy {
+
+    public static final long MAGIC = 0x3152464353495242L;  // "BRISCFR1"
+    public static final int VERSION = 1;
+
+    private static final int SLOTS = CfrAbstraction.MAX_LEGAL_ACTIONS;
+    private static final int HEADER_BYTES = 16;
+    private static final float LEVELS = 255f;
+
+    private final byte[] probabilities;
+
+    // == COSTRUTTORE ==
+
+    private CfrPolicy(byte[] probabilities) {
+        this.probabilities = probabilities;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Estrae la strategia media dalle tabelle del risolutore.
+     */
+    public static CfrPolicy of(RegretTable table) {
+        byte[] probabilities = new byte[CfrAbstraction.NUM_INFO_SETS * SLOTS];
+        float[] average = new float[SLOTS];
+        for (int infoSet = 0; infoSet < CfrAbstraction.NUM_INFO_SETS; infoSet++) {
+            if (!table.isVisited(infoSet)) {
+                continue;
+            }
+            table.averageStrategy(infoSet, SLOTS, average);
+            for (int a = 0; a < SLOTS; a++) {
+                probabilities[infoSet * SLOTS + a] = (byte) Math.round(average[a] * LEVELS);
+            }
+        }
+        return new CfrPolicy(probabilities);
+    }
+
+    /**
+     * Carica una strategia salvata con {@link #save(Path)}.
+     *
+     * @param file il file della strategia
+     * @throws IOException se il file non è leggibile o non corrisponde all'astrazione corrente
+     */
+    public static CfrPolicy load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION
+                    || header.getInt(12) != CfrAbstraction.NUM_INFO_SETS) {
+                throw new IOException("Il file " + file + " non contiene una strategia CFR compatibile");
+            }
+            byte[] probabilities = new byte[CfrAbstraction.NUM_INFO_SETS * SLOTS];
+            readFully(channel, ByteBuffer.wrap(probabilities));
+            return new CfrPolicy(probabilities);
+        }
+    }
+
+    /**
+     * Salva la strategia sul file indicato, sovrascrivendolo.
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(CfrAbstraction.NUM_INFO_SETS).flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(probabilities);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    /**
+     * Restituisce le probabilità delle azioni disponibili nell'insieme di informazione indicato.
+     *
+     * @param infoSet l'insieme di informazione
+     * @param actions numero di azioni disponibili
+     * @param out     vettore in cui scrivere le {@code actions} probabilità
+     */
+    public void probabilities(int infoSet, int actions, float[] out) {
+        float sum = 0f;
+        for (int a = 0; a < actions; a++) {
+            out[a] = probabilities[infoSet * SLOTS + a] & 0xFF;
+            sum += out[a];
+        }
+        for (int a = 0; a < actions; a++) {
+            out[a] = sum > 0f ? out[a] / sum : 1f / actions;
+        }
+    }
+
+    /**
+     * Sceglie un'azione con le probabilità della strategia.
+     *
+     * @param infoSet l'insieme di informazione
+     * @param actions numero di azioni disponibili
+     * @param sample  numero casuale uniforme in [0, 1)
+     * @return la posizione dell'azione scelta tra quelle disponibili
+     */
+    public int sample(int infoSet, int actions, double sample) {
+        int sum = 0;
+        for (int a = 0; a < actions; a++) {
+            sum += probabilities[infoSet * SLOTS + a] & 0xFF;
+        }
+        if (sum == 0) {
+            return Math.min(actions - 1, (int) (sample * actions));
+        }
+        double threshold = sample * sum;
+        int cumulative = 0;
+        for (int a = 0; a < actions - 1; a++) {
+            cumulative += probabilities[infoSet * SLOTS + a] & 0xFF;
+            if (threshold < cumulative) {
+                return a;
+            }
+        }
+        return actions - 1;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("File della strategia CFR troncato");
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package it.filippo.casadei.model.player.cpu.cfr;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.rollout.FastRandom;
+import it.filippo.casadei.model.player.cpu.rollout.RolloutState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Risolutore della Briscola astratta ({@link CfrAbstraction}) con Monte Carlo CFR a campionamento
+ * degli esiti (outcome sampling).
+ * <p>
+ * Ogni iterazione distribuisce un mazzo nuovo e gioca una sola partita fino alla fine: il giocatore
+ * che si sta aggiornando sceglie le azioni con la strategia corrente mescolata a una quota di
+ * esplorazione, l'avversario con la strategia corrente. Alla fine il risultato, pesato con l'inverso
+ * della probabilità di campionamento, aggiorna i rimpianti degli insiemi visitati dal giocatore
+ * aggiornato e la strategia media di quelli dell'avversario. Un'iterazione costa quindi quanto una
+ * partita simulata, senza ricorsione né allocazioni.
+ * <p>
+ * Più thread eseguono iterazioni indipendenti sulle stesse tabelle ({@link RegretTable}),
+ * aggiornate senza lock. Al termine la strategia media si esporta con {@link #toPolicy()}.
+ * <p>
+ * Uso: {@code CfrSolver <file> [iterazioni] [thread] [seme]}
+ */
+public class CfrSolver {
+
+    private static final float EXPLORATION = 0.6f;
+    private static final int MAX_DECISIONS = CardCodec.NUM_CARDS;
+    private static final int SLOTS = CfrAbstraction.MAX_LEGAL_ACTIONS;
+
+    private final RegretTable table = new RegretTable();
+
+    /**
+     * Addestra la strategia e la salva nel file indicato.
+     *
+     * @param args file di destinazione, numero di iterazioni, numero di thread e seme
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: CfrSolver <file> [iterazioni] [thread] [seme]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : 50_000_000L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        CfrSolver solver = new CfrSolver();
+        long start = System.nanoTime();
+        solver.train(iterations, threads, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        solver.toPolicy().save(file);
+
+        System.out.println(String.format("%,d iterazioni in %.1f s (%,.0f/s), %,d insiemi visitati su %,d: %s",
+                iterations, seconds, iterations / seconds, solver.visitedInfoSets(),
+                CfrAbstraction.NUM_INFO_SETS, file));
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Esegue le iterazioni indicate, divise tra i thread.
+     *
+     * @param iterations numero totale di iterazioni (partite campionate)
+     * @param threads    numero di thread
+     * @param seed       seme dei generatori (ogni thread usa un seme diverso)
+     */
+    public void train(long iterations, int threads, long seed) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            long perThread = (iterations + threads - 1) / threads;
+            for (int t = 0; t < threads; t++) {
+                long count = Math.max(0, Math.min(perThread, iterations - t * perThread));
+                Traversal traversal = new Traversal(new FastRandom(seed + t * 0x9E3779B97F4A7C15L));
+                tasks.add(() -> {
+                    for (long i = 0; i < count; i++) {
+                        traversal.iterate((int) (i & 1));
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Errore durante l'addestramento CFR", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Esporta la strategia media calcolata finora.
+     */
+    public CfrPolicy toPolicy() {
+        return CfrPolicy.of(table);
+    }
+
+    /**
+     * Conta gli insiemi di informazione visitati almeno una volta.
+     */
+    public int visitedInfoSets() {
+        int visited = 0;
+        for (int infoSet = 0; infoSet < CfrAbstraction.NUM_INFO_SETS; infoSet++) {
+            if (table.isVisited(infoSet)) {
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    // == GETTER E SETTER ==
+
+    public RegretTable getTable() {
+        return table;
+    }
+
+    /**
+     * Stato di un thread: la partita simulata e il percorso delle decisioni dell'iterazione in corso.
+     */
+    private class Traversal {
+
+        private final FastRandom random;
+        private final RolloutState state = new RolloutState();
+        private final float[] sampling = new float[SLOTS];
+
+        // Percorso: per ogni decisione insieme, azione scelta, azioni disponibili e giocatore
+        private final int[] infoSets = new int[MAX_DECISIONS];
+        private final int[] chosen = new int[MAX_DECISIONS];
+        private final int[] actions = new int[MAX_DECISIONS];
+        private final int[] players = new int[MAX_DECISIONS];
+        private final float[] strategies = new float[MAX_DECISIONS * SLOTS];
+        private final float[] opponentReach = new float[MAX_DECISIONS];
+        private final float[] samplingReach = new float[MAX_DECISIONS];
+
+        Traversal(FastRandom random) {
+            this.random = random;
+        }
+
+        /**
+         * Gioca una partita campionata e aggiorna le tabelle per il giocatore indicato.
+         */
+        void iterate(int traverser) {
+            state.deal(random);
+            int depth = 0;
+            float reachOpponent = 1f;
+            float reachSampling = 1f;
+
+            while (!state.isOver()) {
+                int player = state.getToMove();
+                long hand = state.getHand(player);
+                int tableCard = state.getTableCard();
+                int briscolaSuit = state.getBriscolaSuit();
+                int legal = CfrAbstraction.legalActions(hand, tableCard, briscolaSuit);
+                int count = Integer.bitCount(legal);
+
+                int slot = 0;
+                if (count > 1) {
+                    long unseen = CardCodec.ALL_CARDS & ~hand & ~state.getPlayed();
+                    if (tableCard != CardCodec.NO_CARD) {
+                        unseen &= ~(1L << tableCard);
+                    }
+                    int infoSet = CfrAbstraction.infoSet(hand, unseen, tableCard, briscolaSuit,
+                            state.getPoints(player), state.getPoints(1 - player), state.getDeckSize());
+                    int base = depth * SLOTS;
+                    table.currentStrategy(infoSet, count, sampling);
+                    System.arraycopy(sampling, 0, strategies, base, count);
+                    if (player == traverser) {
+                        for (int a = 0; a < count; a++) {
+                            sampling[a] = EXPLORATION / count + (1f - EXPLORATION) * sampling[a];
+                        }
+                    }
+                    slot = sample(sampling, count);
+
+                    infoSets[depth] = infoSet;
+                    chosen[depth] = slot;
+                    actions[depth] = count;
+                    players[depth] = player;
+                    opponentReach[depth] = reachOpponent;
+                    samplingReach[depth] = reachSampling;
+                    depth++;
+
+                    if (player != traverser) {
+                        reachOpponent *= strategies[base + slot];
+                    }
+                    reachSampling *= sampling[slot];
+                }
+
+                int action = CfrAbstraction.actionAt(legal, slot);
+                state.play(CfrAbstraction.cardFor(hand, tableCard, briscolaSuit, action));
+            }
+
+            float utility = (state.getPoints(traverser) - state.getPoints(1 - traverser))
+                    / (float) BriscolaGame.TOTAL_POINTS;
+            update(traverser, depth, utility / reachSampling);
+        }
+
+        /**
+         * Ripercorre le decisioni dall'ultima alla prima, tenendo il prodotto delle probabilità
+         * delle azioni successive (la probabilità di arrivare alla fine da quel punto).
+         *
+         * @param value il risultato diviso per la probabilità di averlo campionato
+         */
+        private void update(int traverser, int depth, float value) {
+            float tail = 1f;
+            for (int d = depth - 1; d >= 0; d--) {
+                int base = d * SLOTS;
+                int slot = chosen[d];
+                int count = actions[d];
+                float probability = strategies[base + slot];
+
+                if (players[d] == traverser) {
+                    // Valore controfattuale: pesato con la probabilità dell'avversario di arrivare qui
+                    float weight = value * opponentReach[d];
+                    float regretChosen = weight * tail * (1f - probability);
+                    float regretOthers = -weight * tail * probability;
+                    for (int a = 0; a < count; a++) {
+                        table.addRegret(infoSets[d], a, a == slot ? regretChosen : regretOthers);
+                    }
+                } else {
+                    float reach = opponentReach[d] / samplingReach[d];
+                    for (int a = 0; a < count; a++) {
+                        table.addStrategy(infoSets[d], a, reach * strategies[base + a]);
+                    }
+                }
+                tail *= probability;
+            }
+        }
+
+        private int sample(float[] probabilities, int count) {
+            float r = (float) random.nextDouble();
+            for (int a = 0; a < count - 1; a++) {
+                r -= probabilities[a];
+                if (r < 0f) {
+                    return a;
+                }
+            }
+            return count - 1;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package it.filippo.casadei.model.player.cpu.cfr;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Tabelle dei rimpianti cumulati e delle strategie cumulate di tutti gli insiemi di informazione
+ * di {@link CfrAbstraction}, condivise da tutti i thread del risolutore.
+ * <p>
+ * Ogni insieme occupa {@link CfrAbstraction#MAX_LEGAL_ACTIONS} {@code float} in ciascuna tabella.
+ * Le tabelle sono in memoria fuori dallo heap (buffer diretti), così non pesano sul garbage collector
+ * né sulla sua scansione. Le somme usano un ciclo di compare-and-set sul singolo valore:
+ * i thread aggiornano le tabelle senza lock e senza perdere contributi.
+ */
+public final class RegretTable {
+
+    private static final int SLOTS = CfrAbstraction.MAX_LEGAL_ACTIONS;
+
+    private static final VarHandle FLOATS =
+            MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer regrets;
+    private final ByteBuffer strategies;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea tabelle azzerate per tutti gli insiemi di informazione.
+     */
+    public RegretTable() {
+        long bytes = (long) CfrAbstraction.NUM_INFO_SETS * SLOTS * Float.BYTES;
+        regrets = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        strategies = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Calcola la strategia corrente con il regret matching: ogni azione riceve una probabilità
+     * proporzionale al suo rimpianto positivo, oppure la stessa probabilità se nessuno è positivo.
+     *
+     * @param infoSet l'insieme di informazione
+     * @param actions numero di azioni disponibili
+     * @param out     vettore in cui scrivere le {@code actions} probabilità
+     */
+    public void currentStrategy(int infoSet, int actions, float[] out) {
+        int base = offset(infoSet, 0);
+        float sum = 0f;
+        for (int a = 0; a < actions; a++) {
+            float regret = (float) FLOATS.getOpaque(regrets, base + a * Float.BYTES);
+            out[a] = regret > 0f ? regret : 0f;
+            sum += out[a];
+        }
+        normalize(out, actions, sum);
+    }
+
+    /**
+     * Calcola la strategia media, che converge all'equilibrio.
+     *
+     * @param infoSet l'insieme di informazione
+     * @param actions numero di azioni disponibili
+     * @param out     vettore in cui scrivere le {@code actions} probabilità
+     */
+    public void averageStrategy(int infoSet, int actions, float[] out) {
+        int base = offset(infoSet, 0);
+        float sum = 0f;
+        for (int a = 0; a < actions; a++) {
+            out[a] = (float) FLOATS.getOpaque(strategies, base + a * Float.BYTES);
+            sum += out[a];
+        }
+        normalize(out, actions, sum);
+    }
+
+    /**
+     * Verifica se l'insieme di informazione è stato aggiornato almeno una volta nella strategia media.
+     */
+    public boolean isVisited(int infoSet) {
+        int base = offset(infoSet, 0);
+        for (int a = 0; a < SLOTS; a++) {
+            if ((float) FLOATS.getOpaque(strategies, base + a * Float.BYTES) != 0f) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addRegret(int infoSet, int slot, float delta) {
+        add(regrets, offset(infoSet, slot), delta);
+    }
+
+    public void addStrategy(int infoSet, int slot, float delta) {
+        add(strategies, offset(infoSet, slot), delta);
+    }
+
+    // == METODI PRIVATI ==
+
+    private static int offset(int infoSet, int slot) {
+        return (infoSet * SLOTS + slot) * Float.BYTES;
+    }
+
+    private static void add(ByteBuffer buffer, int offset, float delta) {
+        float current;
+        do {
+            current = (float) FLOATS.getVolatile(buffer, offset);
+        } while (!FLOATS.compareAndSet(buffer, offset, current, current + delta));
+    }
+
+    private static void normalize(float[] values, int count, float sum) {
+        for (int a = 0; a < count; a++) {
+            values[a] = sum > 0f ? values[a] / sum : 1f / count;
+        }
+    }
+}
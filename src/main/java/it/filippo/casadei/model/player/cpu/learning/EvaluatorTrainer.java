@@ -0,0 +1,354 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.model.BriscolaGame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Addestra un {@link NeuralEvaluator} sui punti di decisione registrati da {@link TrainingDataWriter}.
+ * <p>
+ * Ogni record diventa un esempio "posizione + carta scelta → risultato finale / 120" e la rete
+ * minimizza l'errore quadratico con la discesa del gradiente stocastica a minibatch e momento.
+ * L'addestramento è parallelo sui dati: ogni minibatch è diviso tra i thread, ciascuno calcola
+ * il gradiente della propria parte in buffer privati e, finiti tutti, i gradienti vengono sommati
+ * in un ordine fisso e applicati ai pesi. A parità di numero di thread e di seme il risultato è
+ * quindi riproducibile. Tutti i calcoli lavorano su array primitivi preallocati.
+ * <p>
+ * I pesi aggiornati sono quelli del valutatore passato al costruttore: durante l'addestramento
+ * non va usato da altri thread.
+ */
+public class EvaluatorTrainer {
+
+    private static final float MOMENTUM = 0.9f;
+    private static final float VALIDATION_FRACTION = 0.05f;
+
+    private final NeuralEvaluator model;
+    private final int[] sizes;
+    private final ExecutorService pool;
+    private final float learningRate;
+    private final int batchSize;
+    private final Worker[] workers;
+    private final List<Callable<Double>> tasks = new ArrayList<>();
+    private final float[][] velocityWeights;
+    private final float[][] velocityBiases;
+
+    private TrainingBlock data;
+    private int[] order;
+    private int trainingSize;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un addestratore.
+     *
+     * @param model        il valutatore di cui aggiornare i pesi
+     * @param pool         esecutore su cui calcolare i gradienti
+     * @param threads      numero di parti in cui dividere ogni minibatch
+     * @param learningRate passo della discesa del gradiente
+     * @param batchSize    numero di esempi per aggiornamento dei pesi
+     */
+    public EvaluatorTrainer(NeuralEvaluator model, ExecutorService pool, int threads, float learningRate,
+                            int batchSize) {
+        if (model.getInputSize() != NeuralEvaluator.INPUT_SIZE) {
+            throw new IllegalArgumentException("Il valutatore deve avere " + NeuralEvaluator.INPUT_SIZE + " ingressi");
+        }
+        this.model = model;
+        this.sizes = model.getLayerSizes();
+        this.pool = pool;
+        this.learningRate = learningRate;
+        this.batchSize = batchSize;
+
+        int layers = sizes.length - 1;
+        velocityWeights = new float[layers][];
+        velocityBiases = new float[layers][];
+        for (int l = 0; l < layers; l++) {
+            velocityWeights[l] = new float[sizes[l] * sizes[l + 1]];
+            velocityBiases[l] = new float[sizes[l + 1]];
+        }
+
+        workers = new Worker[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Worker();
+            tasks.add(workers[t]);
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Carica in memoria i record dei file indicati e ne riserva una parte per la validazione.
+     *
+     * @param files  i file prodotti da {@link TrainingDataWriter}
+     * @param random generatore usato per scegliere i record di validazione
+     * @return il numero di record caricati
+     */
+    public int load(List<Path> files, Random random) throws IOException {
+        long total = 0;
+        for (Path file : files) {
+            try (TrainingDataReader reader = new TrainingDataReader(file)) {
+                for (TrainingBlock block = reader.nextBlock(); block != null; block = reader.nextBlock()) {
+                    total += block.size();
+                }
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Troppi record per un solo addestramento: " + total);
+        }
+
+        data = new TrainingBlock((int) total);
+        for (Path file : files) {
+            try (TrainingDataReader reader = new TrainingDataReader(file)) {
+                for (TrainingBlock block = reader.nextBlock(); block != null; block = reader.nextBlock()) {
+                    for (int i = 0; i < block.size(); i++) {
+                        data.add(block.getHand(i), block.getRemaining(i), block.getTableCard(i),
+                                block.getBriscolaCard(i), block.isCpuFirst(i), block.isLastDraw(i),
+                                block.getMyPoints(i), block.getOpponentPoints(i), block.getChosenCard(i),
+                                block.getOutcome(i));
+                    }
+                }
+            }
+        }
+
+        order = new int[data.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        shuffle(order, 0, order.length, random);
+        trainingSize = order.length - (int) (order.length * VALIDATION_FRACTION);
+        return data.size();
+    }
+
+    /**
+     * Esegue un'epoca: un passaggio su tutti i record di addestramento, in ordine casuale.
+     *
+     * @param random generatore usato per mescolare i record
+     * @return l'errore quadratico medio sui record di addestramento, calcolato durante l'epoca
+     */
+    public double trainEpoch(Random random) throws InterruptedException {
+        requireData();
+        shuffle(order, 0, trainingSize, random);
+
+        double loss = 0;
+        for (int from = 0; from < trainingSize; from += batchSize) {
+            int to = Math.min(trainingSize, from + batchSize);
+            loss += runWorkers(from, to, true);
+            applyGradients(to - from);
+        }
+        return trainingSize == 0 ? 0 : loss / trainingSize;
+    }
+
+    /**
+     * Calcola l'errore quadratico medio sui record riservati alla validazione, senza modificare i pesi.
+     */
+    public double validationLoss() throws InterruptedException {
+        requireData();
+        int count = order.length - trainingSize;
+        return count == 0 ? 0 : runWorkers(trainingSize, order.length, false) / count;
+    }
+
+    // == GETTER E SETTER ==
+
+    public NeuralEvaluator getModel() {
+        return model;
+    }
+
+    public int getTrainingSize() {
+        return trainingSize;
+    }
+
+    public int getValidationSize() {
+        return order == null ? 0 : order.length - trainingSize;
+    }
+
+    // == METODI PRIVATI ==
+
+    private void requireData() {
+        if (data == null) {
+            throw new IllegalStateException("Nessun dato caricato: chiamare prima load()");
+        }
+    }
+
+    /**
+     * Divide l'intervallo di record tra i thread e ne attende il completamento.
+     *
+     * @return la somma degli errori quadratici dell'intervallo
+     */
+    private double runWorkers(int from, int to, boolean gradients) throws InterruptedException {
+        int perWorker = (to - from + workers.length - 1) / workers.length;
+        for (int t = 0; t < workers.length; t++) {
+            int start = Math.min(to, from + t * perWorker);
+            workers[t].prepare(start, Math.min(to, start + perWorker), gradients);
+        }
+
+        double loss = 0;
+        for (Future<Double> future : pool.invokeAll(tasks)) {
+            try {
+                loss += future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Errore durante l'addestramento", e.getCause());
+            }
+        }
+        return loss;
+    }
+
+    /**
+     * Somma i gradienti dei thread e aggiorna i pesi con il momento.
+     */
+    private void applyGradients(int count) {
+        float scale = learningRate / count;
+        for (int l = 0; l < sizes.length - 1; l++) {
+            update(model.getWeights(l), velocityWeights[l], l, true, scale);
+            update(model.getBiases(l), velocityBiases[l], l, false, scale);
+        }
+    }
+
+    private void update(float[] parameters, float[] velocity, int layer, boolean weights, float scale) {
+        for (int i = 0; i < parameters.length; i++) {
+            float gradient = 0f;
+            for (Worker worker : workers) {
+                float[] g = weights ? worker.gradientWeights[layer] : worker.gradientBiases[layer];
+                gradient += g[i];
+                g[i] = 0f;
+            }
+            velocity[i] = MOMENTUM * velocity[i] - scale * gradient;
+            parameters[i] += velocity[i];
+        }
+    }
+
+    private static void shuffle(int[] values, int from, int to, Random random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * Calcola propagazione in avanti e all'indietro per una parte del minibatch,
+     * accumulando i gradienti nei propri buffer.
+     */
+    private class Worker implements Callable<Double> {
+
+        private final float[][] activations;
+        private final float[][] deltas;
+        private final float[][] gradientWeights;
+        private final float[][] gradientBiases;
+        private int from;
+        private int to;
+        private boolean gradients;
+
+        Worker() {
+            int layers = sizes.length - 1;
+            activations = new float[sizes.length][];
+            deltas = new float[sizes.length][];
+            for (int l = 0; l < sizes.length; l++) {
+                activations[l] = new float[sizes[l]];
+                deltas[l] = new float[sizes[l]];
+            }
+            gradientWeights = new float[layers][];
+            gradientBiases = new float[layers][];
+            for (int l = 0; l < layers; l++) {
+                gradientWeights[l] = new float[sizes[l] * sizes[l + 1]];
+                gradientBiases[l] = new float[sizes[l + 1]];
+            }
+        }
+
+        void prepare(int from, int to, boolean gradients) {
+            this.from = from;
+            this.to = to;
+            this.gradients = gradients;
+        }
+
+        @Override
+        public Double call() {
+            double loss = 0;
+            for (int k = from; k < to; k++) {
+                int record = order[k];
+                float[] input = activations[0];
+                data.encode(record, input, 0);
+                PositionEncoder.encodeMove(data.getChosenCard(record), data.getBriscolaCard(record), input,
+                        PositionEncoder.FEATURES);
+
+                float error = forward() - data.getOutcome(record) / (float) BriscolaGame.TOTAL_POINTS;
+                loss += error * error;
+                if (gradients) {
+                    backward(error);
+                }
+            }
+            return loss;
+        }
+
+        private float forward() {
+            int layers = sizes.length - 1;
+            for (int l = 0; l < layers; l++) {
+                float[] w = model.getWeights(l);
+                float[] b = model.getBiases(l);
+                float[] in = activations[l];
+                float[] out = activations[l + 1];
+                int inSize = sizes[l];
+                for (int o = 0; o < sizes[l + 1]; o++) {
+                    float sum = b[o];
+                    int row = o * inSize;
+                    for (int i = 0; i < inSize; i++) {
+                        sum += w[row + i] * in[i];
+                    }
+                    out[o] = l < layers - 1 && sum < 0f ? 0f : sum;
+                }
+            }
+            return activations[layers][0];
+        }
+
+        private void backward(float error) {
+            int layers = sizes.length - 1;
+            deltas[layers][0] = error;
+            for (int l = layers - 1; l >= 0; l--) {
+                float[] w = model.getWeights(l);
+                float[] in = activations[l];
+                float[] deltaOut = deltas[l + 1];
+                float[] deltaIn = deltas[l];
+                float[] gw = gradientWeights[l];
+                float[] gb = gradientBiases[l];
+                int inSize = sizes[l];
+
+                if (l > 0) {
+                    for (int i = 0; i < inSize; i++) {
+                        deltaIn[i] = 0f;
+                    }
+                }
+                for (int o = 0; o < sizes[l + 1]; o++) {
+                    float d = deltaOut[o];
+                    if (d == 0f) {
+                        continue;
+                    }
+                    gb[o] += d;
+                    int row = o * inSize;
+                    for (int i = 0; i < inSize; i++) {
+                        gw[row + i] += d * in[i];
+                    }
+                    if (l > 0) {
+                        for (int i = 0; i < inSize; i++) {
+                            deltaIn[i] += d * w[row + i];
+                        }
+                    }
+                }
+                // Derivata della ReLU dello strato nascosto sottostante
+                if (l > 0) {
+                    for (int i = 0; i < inSize; i++) {
+                        if (in[i] <= 0f) {
+                            deltaIn[i] = 0f;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
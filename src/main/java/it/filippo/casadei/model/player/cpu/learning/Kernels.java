@@ -0,0 +1,50 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+/**
+ * Operazioni numeriche di base usate dall'inferenza di {@link NeuralEvaluator}.
+ * <p>
+ * Esistono due implementazioni con lo stesso risultato (a meno degli arrotondamenti): una SIMD basata su
+ * {@code jdk.incubator.vector} e una scalare. La versione SIMD si trova in {@code src/vector/java} ed è
+ * compilata solo con il profilo Maven {@code vector} ({@code mvn -Pvector ...}), che abilita anche il modulo
+ * incubator ({@code --add-modules jdk.incubator.vector}); se la classe o il modulo non sono presenti si usa
+ * automaticamente la versione scalare.
+ */
+interface Kernels {
+
+    /** Nome della versione SIMD, caricata per riflessione perché non fa parte della build predefinita. */
+    String VECTOR_KERNELS = "it.filippo.casadei.model.player.cpu.learning.VectorKernels";
+
+    /**
+     * Prodotto scalare tra due tratti di vettore della stessa lunghezza.
+     *
+     * @param a       il primo vettore
+     * @param aOffset indice di partenza nel primo vettore
+     * @param b       il secondo vettore
+     * @param bOffset indice di partenza nel secondo vettore
+     * @param length  numero di componenti
+     * @return la somma dei prodotti
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Verifica se l'implementazione usa istruzioni SIMD.
+     */
+    boolean isVectorized();
+
+    /**
+     * Restituisce l'implementazione migliore disponibile nella JVM corrente.
+     *
+     * @param vectorized se false restituisce comunque l'implementazione scalare
+     */
+    static Kernels select(boolean vectorized) {
+        if (vectorized) {
+            try {
+                Class.forName("jdk.incubator.vector.FloatVector");
+                return (Kernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Modulo incubator non abilitato o build senza profilo vector: si ripiega sulla versione scalare
+            }
+        }
+        return new ScalarKernels();
+    }
+}
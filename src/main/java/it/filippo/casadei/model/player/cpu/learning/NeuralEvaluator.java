@@ -0,0 +1,295 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Funzione di valutazione appresa: una piccola rete neurale con strati densi e attivazioni ReLU.
+ * <p>
+ * L'ingresso è il vettore di una posizione seguito da quello della carta candidata
+ * ({@link PositionEncoder}); l'uscita stima la differenza finale di punti divisa per
+ * {@link it.filippo.casadei.model.BriscolaGame#TOTAL_POINTS}. Un'unica chiamata a
+ * {@link #evaluate(float[], int, float[])} valuta un intero lotto di ingressi (tutte le carte
+ * candidate o molte foglie di una simulazione), riutilizzando ogni riga di pesi su più ingressi mentre è in cache.
+ * <p>
+ * I prodotti scalari usano la Vector API se il progetto è compilato con il profilo Maven {@code vector}
+ * e il modulo {@code jdk.incubator.vector} è abilitato, altrimenti un'implementazione scalare. L'inferenza non alloca oggetti: i buffer intermedi
+ * sono creati una volta sola, per questo un'istanza non è thread-safe. Con {@link #copy()}
+ * si ottiene un valutatore per un altro thread che condivide gli stessi pesi.
+ * <p>
+ * Formato del file dei pesi (little-endian): {@link #MAGIC}, versione, numero di strati,
+ * dimensioni degli strati, poi per ogni strato la matrice dei pesi per righe e il vettore dei bias.
+ */
+public class NeuralEvaluator {
+
+    public static final long MAGIC = 0x3154454E53495242L;  // "BRISNET1"
+    public static final int VERSION = 1;
+    public static final int INPUT_SIZE = PositionEncoder.FEATURES + PositionEncoder.MOVE_FEATURES;
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private static final int TILE_ROWS = 8;
+
+    /** Architettura predefinita: ingresso, due strati nascosti, uscita scalare. */
+    public static final int[] DEFAULT_LAYER_SIZES = {INPUT_SIZE, 64, 32, 1};
+
+    private final int[] sizes;
+    private final float[][] weights;
+    private final float[][] biases;
+    private final Kernels kernels;
+    private final int maxBatch;
+    private final float[] activationsA;
+    private final float[] activationsB;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un valutatore con i pesi indicati (non copiati).
+     *
+     * @param sizes    dimensioni degli strati, dall'ingresso all'uscita (l'ultima deve essere 1)
+     * @param weights  per ogni strato, la matrice {@code sizes[l + 1] x sizes[l]} per righe
+     * @param biases   per ogni strato, i {@code sizes[l + 1]} bias
+     * @param maxBatch numero massimo di ingressi valutati in una chiamata
+     */
+    public NeuralEvaluator(int[] sizes, float[][] weights, float[][] biases, int maxBatch) {
+        this(sizes, weights, biases, maxBatch, Kernels.select(true));
+    }
+
+    private NeuralEvaluator(int[] sizes, float[][] weights, float[][] biases, int maxBatch, Kernels kernels) {
+        if (sizes.length < 2 || sizes[sizes.length - 1] != 1) {
+            throw new IllegalArgumentException("La rete deve avere almeno due strati e un'uscita scalare");
+        }
+        for (int l = 0; l < sizes.length - 1; l++) {
+            if (weights[l].length != sizes[l] * sizes[l + 1] || biases[l].length != sizes[l + 1]) {
+                throw new IllegalArgumentException("Dimensioni dei pesi non valide nello strato " + l);
+            }
+        }
+        this.sizes = sizes.clone();
+        this.weights = weights;
+        this.biases = biases;
+        this.kernels = kernels;
+        this.maxBatch = maxBatch;
+
+        int widest = 1;
+        for (int l = 1; l < sizes.length; l++) {
+            widest = Math.max(widest, sizes[l]);
+        }
+        this.activationsA = new float[maxBatch * widest];
+        this.activationsB = new float[maxBatch * widest];
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Crea un valutatore con pesi casuali (inizializzazione di He), punto di partenza dell'addestramento.
+     *
+     * @param sizes dimensioni degli strati, dall'ingresso all'uscita
+     * @param seed  seme del generatore
+     */
+    public static NeuralEvaluator random(int[] sizes, long seed) {
+        Random random = new Random(seed);
+        float[][] weights = new float[sizes.length - 1][];
+        float[][] biases = new float[sizes.length - 1][];
+        for (int l = 0; l < sizes.length - 1; l++) {
+            weights[l] = new float[sizes[l] * sizes[l + 1]];
+            biases[l] = new float[sizes[l + 1]];
+            double scale = Math.sqrt(2.0 / sizes[l]);
+            for (int i = 0; i < weights[l].length; i++) {
+                weights[l][i] = (float) (random.nextGaussian() * scale);
+            }
+        }
+        return new NeuralEvaluator(sizes, weights, biases, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Carica i pesi da un file scritto con {@link #save(Path)}.
+     *
+     * @param file il file dei pesi
+     * @throws IOException se il file non è leggibile o non contiene pesi validi
+     */
+    public static NeuralEvaluator load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("File dei pesi troppo grande: " + file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // continua a leggere fino alla fine del file
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < 16 || buffer.getLong() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Il file " + file + " non contiene pesi validi");
+            }
+            int layers = buffer.getInt();
+            if (layers < 2 || buffer.remaining() < layers * Integer.BYTES) {
+                throw new IOException("Il file " + file + " non contiene pesi validi");
+            }
+            int[] sizes = new int[layers];
+            for (int l = 0; l < layers; l++) {
+                sizes[l] = buffer.getInt();
+            }
+
+            float[][] weights = new float[layers - 1][];
+            float[][] biases = new float[layers - 1][];
+            for (int l = 0; l < layers - 1; l++) {
+                weights[l] = new float[sizes[l] * sizes[l + 1]];
+                biases[l] = new float[sizes[l + 1]];
+                if (buffer.remaining() < (weights[l].length + biases[l].length) * Float.BYTES) {
+                    throw new IOException("File dei pesi troncato: " + file);
+                }
+                buffer.asFloatBuffer().get(weights[l]).get(biases[l]);
+                buffer.position(buffer.position() + (weights[l].length + biases[l].length) * Float.BYTES);
+            }
+            return new NeuralEvaluator(sizes, weights, biases, DEFAULT_MAX_BATCH);
+        }
+    }
+
+    /**
+     * Salva i pesi sul file indicato, sovrascrivendolo.
+     *
+     * @param file il file di destinazione
+     */
+    public void save(Path file) throws IOException {
+        int floats = 0;
+        for (int l = 0; l < weights.length; l++) {
+            floats += weights[l].length + biases[l].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16 + sizes.length * Integer.BYTES + floats * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC).putInt(VERSION).putInt(sizes.length);
+        for (int size : sizes) {
+            buffer.putInt(size);
+        }
+        for (int l = 0; l < weights.length; l++) {
+            for (float w : weights[l]) buffer.putFloat(w);
+            for (float b : biases[l]) buffer.putFloat(b);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Crea un valutatore con buffer propri che condivide i pesi di questo.
+     */
+    public NeuralEvaluator copy() {
+        return copy(kernels.isVectorized());
+    }
+
+    /**
+     * Come {@link #copy()}, scegliendo se usare le istruzioni SIMD (se disponibili).
+     */
+    public NeuralEvaluator copy(boolean vectorized) {
+        return new NeuralEvaluator(sizes, weights, biases, maxBatch, Kernels.select(vectorized));
+    }
+
+    /**
+     * Valuta un singolo ingresso.
+     *
+     * @param input  vettore con {@link #getInputSize()} componenti a partire da {@code offset}
+     * @param offset indice della prima componente
+     * @return il valore stimato
+     */
+    public float evaluate(float[] input, int offset) {
+        forward(input, offset, 1);
+        return lastActivations()[0];
+    }
+
+    /**
+     * Valuta un lotto di ingressi memorizzati uno dopo l'altro.
+     *
+     * @param inputs  {@code count} vettori consecutivi di {@link #getInputSize()} componenti
+     * @param count   numero di ingressi (al massimo {@link #getMaxBatch()})
+     * @param outputs vettore in cui scrivere i {@code count} valori stimati
+     */
+    public void evaluate(float[] inputs, int count, float[] outputs) {
+        if (count > maxBatch) {
+            throw new IllegalArgumentException("Lotto troppo grande: " + count + " > " + maxBatch);
+        }
+        forward(inputs, 0, count);
+        System.arraycopy(lastActivations(), 0, outputs, 0, count);
+    }
+
+    // == GETTER E SETTER ==
+
+    public int getInputSize() {
+        return sizes[0];
+    }
+
+    public int[] getLayerSizes() {
+        return sizes.clone();
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    /**
+     * Verifica se l'inferenza usa le istruzioni SIMD della Vector API.
+     */
+    public boolean isVectorized() {
+        return kernels.isVectorized();
+    }
+
+    /**
+     * Matrice dei pesi dello strato indicato (condivisa: la modifica altera il valutatore).
+     */
+    float[] getWeights(int layer) {
+        return weights[layer];
+    }
+
+    /**
+     * Bias dello strato indicato (condivisi: la modifica altera il valutatore).
+     */
+    float[] getBiases(int layer) {
+        return biases[layer];
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Propaga il lotto attraverso gli strati, alternando i due buffer delle attivazioni.
+     * Il lotto è diviso in gruppi di {@link #TILE_ROWS} ingressi che restano in cache L1:
+     * ogni riga di pesi viene applicata a tutto il gruppo prima di passare alla successiva.
+     */
+    private void forward(float[] inputs, int offset, int count) {
+        float[] in = inputs;
+        int inOffset = offset;
+        float[] out = activationsA;
+        for (int l = 0; l < weights.length; l++) {
+            int inSize = sizes[l];
+            int outSize = sizes[l + 1];
+            float[] w = weights[l];
+            float[] b = biases[l];
+            boolean hidden = l < weights.length - 1;
+            for (int tile = 0; tile < count; tile += TILE_ROWS) {
+                int tileEnd = Math.min(count, tile + TILE_ROWS);
+                for (int o = 0; o < outSize; o++) {
+                    int row = o * inSize;
+                    for (int r = tile; r < tileEnd; r++) {
+                        float value = b[o] + kernels.dot(w, row, in, inOffset + r * inSize, inSize);
+                        out[r * outSize + o] = hidden && value < 0f ? 0f : value;
+                    }
+                }
+            }
+            in = out;
+            inOffset = 0;
+            out = out == activationsA ? activationsB : activationsA;
+        }
+    }
+
+    private float[] lastActivations() {
+        return weights.length % 2 == 1 ? activationsA : activationsB;
+    }
+}
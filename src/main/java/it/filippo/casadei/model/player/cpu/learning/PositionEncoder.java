@@ -0,0 +1,116 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+/**
+ * Trasforma una posizione in un vettore di caratteristiche numeriche per le funzioni di valutazione.
+ * <p>
+ * I semi vengono ruotati in modo che la briscola sia sempre il seme 0: la stessa situazione con
+ * una briscola diversa produce lo stesso vettore. Il vettore della posizione ha {@link #FEATURES}
+ * componenti:
+ * <ul>
+ *   <li>40 per le carte in mano</li>
+ *   <li>40 per le carte non ancora viste</li>
+ *   <li>40 per la carta sul tavolo</li>
+ *   <li>rango della briscola scoperta, turno, ultima pescata, punti propri e avversari,
+ *       carte ancora da pescare (normalizzati tra 0 e 1), più due componenti di riserva a zero</li>
+ * </ul>
+ * La carta candidata da valutare si codifica a parte con {@link #encodeMove(int, int, float[], int)}
+ * in {@link #MOVE_FEATURES} componenti. La codifica non alloca oggetti.
+ */
+public final class PositionEncoder {
+
+    public static final int FEATURES = 128;
+    public static final int MOVE_FEATURES = CardCodec.NUM_CARDS;
+
+    private static final int HAND_OFFSET = 0;
+    private static final int UNSEEN_OFFSET = CardCodec.NUM_CARDS;
+    private static final int TABLE_OFFSET = 2 * CardCodec.NUM_CARDS;
+    private static final int SCALARS_OFFSET = 3 * CardCodec.NUM_CARDS;
+    private static final float MAX_DECK = CardCodec.NUM_CARDS - 6;
+
+    private PositionEncoder() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    /**
+     * Codifica la posizione vista dalla CPU.
+     *
+     * @param position la posizione
+     * @param out      vettore di destinazione
+     * @param offset   indice da cui scrivere le {@link #FEATURES} componenti
+     */
+    public static void encode(Position position, float[] out, int offset) {
+        encode(position.getHand(), position.getRemaining(), position.getTableCard(), position.getBriscolaCard(),
+                position.isCpuFirst(), position.isLastDraw(), position.getMyPoints(), position.getOpponentPoints(),
+                out, offset);
+    }
+
+    /**
+     * Codifica una posizione espressa con tipi primitivi (vedi {@link Position} per il significato dei campi).
+     */
+    public static void encode(long hand, long remaining, int tableCard, int briscolaCard, boolean cpuFirst,
+                              boolean lastDraw, int myPoints, int opponentPoints, float[] out, int offset) {
+        int briscolaSuit = CardCodec.suit(briscolaCard);
+        writeMask(rotateMask(hand, briscolaSuit), out, offset + HAND_OFFSET);
+        writeMask(rotateMask(remaining, briscolaSuit), out, offset + UNSEEN_OFFSET);
+        writeMask(tableCard == CardCodec.NO_CARD ? 0L : 1L << rotateCard(tableCard, briscolaSuit),
+                out, offset + TABLE_OFFSET);
+
+        int handSize = Long.bitCount(hand);
+        int opponentSize = tableCard == CardCodec.NO_CARD ? handSize : handSize - 1;
+        int deckSize = Math.max(0, Long.bitCount(remaining) - opponentSize);
+
+        int s = offset + SCALARS_OFFSET;
+        out[s] = CardCodec.rank(briscolaCard) / (float) (CardCodec.CARDS_PER_SUIT - 1);
+        out[s + 1] = cpuFirst ? 1f : 0f;
+        out[s + 2] = lastDraw ? 1f : 0f;
+        out[s + 3] = myPoints / (float) BriscolaGame.TOTAL_POINTS;
+        out[s + 4] = opponentPoints / (float) BriscolaGame.TOTAL_POINTS;
+        out[s + 5] = deckSize / MAX_DECK;
+        out[s + 6] = 0f;
+        out[s + 7] = 0f;
+    }
+
+    /**
+     * Codifica la carta candidata come vettore one-hot, con la stessa rotazione dei semi della posizione.
+     *
+     * @param card         id della carta candidata
+     * @param briscolaCard id della briscola scoperta
+     * @param out          vettore di destinazione
+     * @param offset       indice da cui scrivere le {@link #MOVE_FEATURES} componenti
+     */
+    public static void encodeMove(int card, int briscolaCard, float[] out, int offset) {
+        writeMask(1L << rotateCard(card, CardCodec.suit(briscolaCard)), out, offset);
+    }
+
+    /**
+     * Ruota i semi di una carta in modo che il seme di briscola diventi il seme 0.
+     */
+    public static int rotateCard(int card, int briscolaSuit) {
+        int suit = (CardCodec.suit(card) - briscolaSuit + CardCodec.NUM_SUITS) % CardCodec.NUM_SUITS;
+        return suit * CardCodec.CARDS_PER_SUIT + CardCodec.rank(card);
+    }
+
+    /**
+     * Ruota i semi di una maschera di carte in modo che il seme di briscola diventi il seme 0.
+     */
+    public static long rotateMask(long mask, int briscolaSuit) {
+        if (briscolaSuit == 0) {
+            return mask;
+        }
+        int shift = briscolaSuit * CardCodec.CARDS_PER_SUIT;
+        return ((mask >>> shift) | (mask << (CardCodec.NUM_CARDS - shift))) & CardCodec.ALL_CARDS;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void writeMask(long mask, float[] out, int offset) {
+        for (int id = 0; id < CardCodec.NUM_CARDS; id++) {
+            out[offset + id] = (mask >>> id & 1L) != 0 ? 1f : 0f;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+/**
+ * Implementazione scalare di {@link Kernels}, disponibile su qualsiasi JVM.
+ * <p>
+ * Il ciclo usa quattro accumulatori indipendenti, così la catena di somme non limita
+ * il numero di moltiplicazioni eseguite per ciclo di clock.
+ */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+}
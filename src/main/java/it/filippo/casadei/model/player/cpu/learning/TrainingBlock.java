@@ -0,0 +1,171 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Blocco di record di addestramento memorizzati per colonne (un array primitivo per campo).
+ * <p>
+ * Ogni record è un punto di decisione: la posizione vista dalla strategia di riferimento
+ * (come in {@link it.filippo.casadei.model.player.cpu.position.Position}), la carta scelta e il risultato
+ * finale della partita dal punto di vista di chi ha deciso. Su file il blocco è scritto colonna per
+ * colonna, in little-endian, preceduto dal numero di record: le colonne omogenee si comprimono
+ * bene e possono essere lette senza decodificare i campi che non servono.
+ */
+public final class TrainingBlock {
+
+    /** Byte occupati da un record su file. */
+    public static final int RECORD_BYTES = 8 + 8 + 7;
+
+    private final long[] hand;
+    private final long[] remaining;
+    private final byte[] tableCard;
+    private final byte[] briscolaCard;
+    private final byte[] flags;
+    private final byte[] myPoints;
+    private final byte[] opponentPoints;
+    private final byte[] chosenCard;
+    private final byte[] outcome;
+    private int size;
+
+    static final int FLAG_CPU_FIRST = 1;
+    static final int FLAG_LAST_DRAW = 2;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un blocco vuoto.
+     *
+     * @param capacity numero massimo di record contenuti
+     */
+    public TrainingBlock(int capacity) {
+        hand = new long[capacity];
+        remaining = new long[capacity];
+        tableCard = new byte[capacity];
+        briscolaCard = new byte[capacity];
+        flags = new byte[capacity];
+        myPoints = new byte[capacity];
+        opponentPoints = new byte[capacity];
+        chosenCard = new byte[capacity];
+        outcome = new byte[capacity];
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Aggiunge un record in fondo al blocco.
+     */
+    public void add(long hand, long remaining, int tableCard, int briscolaCard, boolean cpuFirst, boolean lastDraw,
+                    int myPoints, int opponentPoints, int chosenCard, int outcome) {
+        int i = size++;
+        this.hand[i] = hand;
+        this.remaining[i] = remaining;
+        this.tableCard[i] = (byte) tableCard;
+        this.briscolaCard[i] = (byte) briscolaCard;
+        this.flags[i] = (byte) ((cpuFirst ? FLAG_CPU_FIRST : 0) | (lastDraw ? FLAG_LAST_DRAW : 0));
+        this.myPoints[i] = (byte) myPoints;
+        this.opponentPoints[i] = (byte) opponentPoints;
+        this.chosenCard[i] = (byte) chosenCard;
+        this.outcome[i] = (byte) outcome;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isFull() {
+        return size == hand.length;
+    }
+
+    /**
+     * Scrive il blocco nel buffer, colonna per colonna.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) buffer.putLong(hand[i]);
+        for (int i = 0; i < size; i++) buffer.putLong(remaining[i]);
+        buffer.put(tableCard, 0, size);
+        buffer.put(briscolaCard, 0, size);
+        buffer.put(flags, 0, size);
+        buffer.put(myPoints, 0, size);
+        buffer.put(opponentPoints, 0, size);
+        buffer.put(chosenCard, 0, size);
+        buffer.put(outcome, 0, size);
+    }
+
+    /**
+     * Legge dal buffer le colonne di un blocco di cui è già stato letto il numero di record.
+     */
+    void readFrom(ByteBuffer buffer, int count) {
+        size = count;
+        for (int i = 0; i < size; i++) hand[i] = buffer.getLong();
+        for (int i = 0; i < size; i++) remaining[i] = buffer.getLong();
+        buffer.get(tableCard, 0, size);
+        buffer.get(briscolaCard, 0, size);
+        buffer.get(flags, 0, size);
+        buffer.get(myPoints, 0, size);
+        buffer.get(opponentPoints, 0, size);
+        buffer.get(chosenCard, 0, size);
+        buffer.get(outcome, 0, size);
+    }
+
+    /**
+     * Codifica la posizione del record indicato con {@link PositionEncoder}.
+     */
+    public void encode(int i, float[] out, int offset) {
+        PositionEncoder.encode(hand[i], remaining[i], tableCard[i], briscolaCard[i], isCpuFirst(i), isLastDraw(i),
+                myPoints[i], opponentPoints[i], out, offset);
+    }
+
+    // == GETTER E SETTER ==
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return hand.length;
+    }
+
+    public long getHand(int i) {
+        return hand[i];
+    }
+
+    public long getRemaining(int i) {
+        return remaining[i];
+    }
+
+    public int getTableCard(int i) {
+        return tableCard[i];
+    }
+
+    public int getBriscolaCard(int i) {
+        return briscolaCard[i];
+    }
+
+    public boolean isCpuFirst(int i) {
+        return (flags[i] & FLAG_CPU_FIRST) != 0;
+    }
+
+    public boolean isLastDraw(int i) {
+        return (flags[i] & FLAG_LAST_DRAW) != 0;
+    }
+
+    public int getMyPoints(int i) {
+        return myPoints[i];
+    }
+
+    public int getOpponentPoints(int i) {
+        return opponentPoints[i];
+    }
+
+    public int getChosenCard(int i) {
+        return chosenCard[i];
+    }
+
+    /**
+     * Differenza finale di punti per il giocatore che ha preso la decisione.
+     */
+    public int getOutcome(int i) {
+        return outcome[i];
+    }
+}
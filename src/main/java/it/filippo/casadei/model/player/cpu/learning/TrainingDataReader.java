@@ -0,0 +1,91 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Legge, un blocco alla volta, i file prodotti da {@link TrainingDataWriter}.
+ * <p>
+ * Il blocco restituito da {@link #nextBlock()} viene riutilizzato alla lettura successiva:
+ * i dati che servono più a lungo vanno copiati.
+ */
+public class TrainingDataReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer buffer;
+    private TrainingBlock block;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Apre il file indicato e ne verifica l'intestazione.
+     *
+     * @param file il file da leggere
+     * @throws IOException se il file non può essere letto o non contiene dati di addestramento
+     */
+    public TrainingDataReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(TrainingDataWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(header) || header.getLong(0) != TrainingDataWriter.MAGIC
+                || header.getInt(8) != TrainingDataWriter.VERSION) {
+            channel.close();
+            throw new IOException("Il file " + file + " non contiene dati di addestramento validi");
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Legge il blocco successivo.
+     *
+     * @return il blocco letto, oppure null se il file è finito
+     * @throws IOException se il file è troncato o non leggibile
+     */
+    public TrainingBlock nextBlock() throws IOException {
+        count.clear();
+        if (!readFully(count)) {
+            return null;
+        }
+        int records = count.getInt(0);
+        if (block == null || block.capacity() < records) {
+            block = new TrainingBlock(records);
+            buffer = ByteBuffer.allocateDirect(records * TrainingBlock.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear().limit(records * TrainingBlock.RECORD_BYTES);
+        if (!readFully(buffer)) {
+            throw new EOFException("Blocco di addestramento troncato");
+        }
+        buffer.flip();
+        block.readFrom(buffer, records);
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Riempie il buffer; restituisce false se il file è finito prima di leggere qualcosa.
+     */
+    private boolean readFully(ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                if (target.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("File di addestramento troncato");
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scrive su file, in streaming, i punti di decisione delle partite simulate.
+ * <p>
+ * Le decisioni di una partita restano in memoria finché la partita non termina, poi vengono
+ * completate con il risultato finale e accodate al blocco corrente. Quando un blocco
+ * ({@link TrainingBlock}) è pieno viene passato a un thread dedicato che lo serializza e lo scrive
+ * con un {@link FileChannel}, mentre la simulazione continua a riempire un secondo blocco: il
+ * simulatore si ferma solo se il disco è più lento di un intero blocco di partite.
+ * <p>
+ * Ogni scrittore produce un file indipendente (uno per thread di simulazione) e non è thread-safe.
+ * Formato: intestazione di 16 byte ({@link #MAGIC}, versione, riservato) seguita dai blocchi.
+ */
+public class TrainingDataWriter implements Closeable {
+
+    public static final long MAGIC = 0x314E525453495242L;  // "BRISTRN1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int DEFAULT_BLOCK_RECORDS = 1 << 16;
+
+    private static final int MAX_DECISIONS_PER_GAME = CardCodec.NUM_CARDS;
+
+    private final FileChannel channel;
+    private final ExecutorService io;
+    private final ByteBuffer buffer;
+    private TrainingBlock filling;
+    private TrainingBlock writing;
+    private Future<?> pendingWrite;
+    private long recordsWritten;
+
+    // Decisioni della partita in corso, in attesa del risultato
+    private final long[] gameHand = new long[MAX_DECISIONS_PER_GAME];
+    private final long[] gameRemaining = new long[MAX_DECISIONS_PER_GAME];
+    private final int[] gameSmall = new int[MAX_DECISIONS_PER_GAME];
+    private final int[] gamePoints = new int[MAX_DECISIONS_PER_GAME];
+    private final int[] gamePlayer = new int[MAX_DECISIONS_PER_GAME];
+    private int gameSize;
+
+    // == COSTRUTTORI ==
+
+    public TrainingDataWriter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_RECORDS);
+    }
+
+    /**
+     * Crea (o sovrascrive) il file indicato.
+     *
+     * @param file         il file di destinazione
+     * @param blockRecords numero di record per blocco
+     */
+    public TrainingDataWriter(Path file, int blockRecords) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "training-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.buffer = ByteBuffer.allocateDirect(Integer.BYTES + blockRecords * TrainingBlock.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.filling = new TrainingBlock(blockRecords);
+        this.writing = new TrainingBlock(blockRecords);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(0).flip();
+        writeFully(header);
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Registra un punto di decisione della partita in corso.
+     *
+     * @param position   la posizione vista dal giocatore che decide
+     * @param chosenCard id della carta scelta
+     * @param player     il giocatore che decide (0 o 1)
+     */
+    public void add(Position position, int chosenCard, int player) {
+        int i = gameSize++;
+        gameHand[i] = position.getHand();
+        gameRemaining[i] = position.getRemaining();
+        gameSmall[i] = (position.getTableCard() & 0xFF) | (position.getBriscolaCard() << 8) | (chosenCard << 16)
+                | (position.isCpuFirst() ? 1 << 24 : 0) | (position.isLastDraw() ? 1 << 25 : 0);
+        gamePoints[i] = position.getMyPoints() | (position.getOpponentPoints() << 8);
+        gamePlayer[i] = player;
+    }
+
+    /**
+     * Conclude la partita in corso, assegnando a ogni decisione il risultato finale.
+     *
+     * @param player0Difference differenza finale tra i punti del giocatore 0 e quelli del giocatore 1
+     */
+    public void endGame(int player0Difference) {
+        for (int i = 0; i < gameSize; i++) {
+            int small = gameSmall[i];
+            filling.add(gameHand[i], gameRemaining[i], (byte) small, (small >>> 8) & 0xFF,
+                    (small & (1 << 24)) != 0, (small & (1 << 25)) != 0,
+                    gamePoints[i] & 0xFF, gamePoints[i] >>> 8, (small >>> 16) & 0xFF,
+                    gamePlayer[i] == 0 ? player0Difference : -player0Difference);
+            if (filling.isFull()) {
+                submitBlock();
+            }
+        }
+        gameSize = 0;
+    }
+
+    /**
+     * Scarta le decisioni della partita in corso (ad esempio se la partita è stata interrotta).
+     */
+    public void abortGame() {
+        gameSize = 0;
+    }
+
+    /**
+     * Scrive l'ultimo blocco parziale e chiude il file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (filling.size() > 0) {
+                submitBlock();
+            }
+            awaitPendingWrite();
+        } finally {
+            io.shutdown();
+            channel.close();
+        }
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce il numero di record completati (con il risultato) finora.
+     */
+    public long getRecordsWritten() {
+        return recordsWritten + filling.size();
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Passa il blocco pieno al thread di scrittura e continua su quello già scritto.
+     */
+    private void submitBlock() {
+        awaitPendingWrite();
+        TrainingBlock full = filling;
+        filling = writing;
+        writing = full;
+        recordsWritten += full.size();
+        pendingWrite = io.submit(() -> {
+            buffer.clear();
+            full.writeTo(buffer);
+            buffer.flip();
+            try {
+                writeFully(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            full.clear();
+        });
+    }
+
+    private void awaitPendingWrite() {
+        if (pendingWrite == null) {
+            return;
+        }
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scrittura interrotta", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Errore di scrittura dei dati di addestramento", e.getCause());
+        } finally {
+            pendingWrite = null;
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package it.filippo.casadei.model.player.cpu.policy;
+
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.HardParameters;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabella precalcolata delle scelte di {@link HardDifficulty}, salvata in un file mappato in memoria.
+ * <p>
+ * La strategia Hard è una funzione deterministica di pochi elementi: la mano (in ordine, perché
+ * a parità di carte sceglie la prima), la carta sul tavolo, il seme di briscola, quali carichi
+ * di ogni seme non di briscola sono ancora da uscire, se l'Asso di briscola è ancora in gioco,
+ * se all'ultima pescata la briscola scoperta è un carico e i punti rispetto alla soglia di vittoria.
+ * Per ogni combinazione dei primi il file contiene la posizione nella mano della carta scelta
+ * (2 bit). I punti non fanno parte della chiave: da secondi di mano Hard li usa solo in un controllo
+ * iniziale e in uno finale, che {@link it.filippo.casadei.model.player.cpu.CompiledHardDifficulty}
+ * ripete uguali prima e dopo la lettura.
+ * <p>
+ * Le carte sono espresse con la briscola nel seme 0, quindi una sola tabella copre ogni seme
+ * di briscola. Le chiavi si dividono in due sezioni:
+ * <ul>
+ *   <li>primi di mano: mano × (Asso e Tre rimasti per i tre semi non di briscola) ×
+ *       Asso di briscola rimasto × briscola da prendere</li>
+ *   <li>secondi di mano: mano × carta sul tavolo × (carichi usciti per i tre semi non di briscola) ×
+ *       briscola da prendere</li>
+ * </ul>
+ * La tabella vale per i parametri con cui è stata generata ({@link HardPolicyTableGenerator}),
+ * salvati nell'intestazione.
+ */
+public final class HardPolicyTable {
+
+    static final long MAGIC = 0x3154504853495242L;  // "BRISHPT1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int PARAMETERS_OFFSET = 16;
+
+    /** Mani ordinate da 1, 2 o 3 carte (comprese quelle con carte ripetute, mai usate). */
+    static final int HAND_INDICES = CardCodec.NUM_CARDS
+            + CardCodec.NUM_CARDS * CardCodec.NUM_CARDS
+            + CardCodec.NUM_CARDS * CardCodec.NUM_CARDS * CardCodec.NUM_CARDS;
+    static final int SUIT_STATES = 1 << 6;
+    static final int CARICHI_STATES = 27;
+    static final int LEADING_PER_HAND = SUIT_STATES * 2 * 2;
+    static final int REPLY_PER_HAND = CardCodec.NUM_CARDS * CARICHI_STATES * 2;
+    static final long LEADING_ENTRIES = (long) HAND_INDICES * LEADING_PER_HAND;
+    static final long ENTRIES = LEADING_ENTRIES + (long) HAND_INDICES * REPLY_PER_HAND;
+    static final long DATA_BYTES = ENTRIES / 4;
+
+    private static final int ACE = Rank.ACE.ordinal();
+    private static final int THREE = Rank.THREE.ordinal();
+
+    private final MappedByteBuffer buffer;
+    private final HardParameters parameters;
+
+    // == COSTRUTTORE ==
+
+    HardPolicyTable(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.parameters = new HardParameters(buffer.getInt(PARAMETERS_OFFSET), buffer.getInt(PARAMETERS_OFFSET + 4),
+                buffer.getInt(PARAMETERS_OFFSET + 8), buffer.getInt(PARAMETERS_OFFSET + 12));
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Apre in sola lettura la tabella salvata nel file indicato.
+     *
+     * @param file il file generato da {@link HardPolicyTableGenerator}
+     * @return la tabella
+     * @throws IOException se il file non può essere letto o non è una tabella completa
+     */
+    public static HardPolicyTable open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + DATA_BYTES) {
+                throw new IOException("Il file " + file + " non è una tabella della strategia Hard completa");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+                throw new IOException("Il file " + file + " non è una tabella della strategia Hard valida");
+            }
+            return new HardPolicyTable(buffer);
+        }
+    }
+
+    /**
+     * Restituisce la posizione nella mano della carta che Hard sceglierebbe, esclusi i controlli
+     * sui punti (vedi {@link it.filippo.casadei.model.player.cpu.CompiledHardDifficulty}).
+     * Può essere chiamato da più thread.
+     *
+     * @param hand         le carte della mano, nell'ordine in cui la CPU le tiene
+     * @param size         il numero di carte della mano (da 1 a 3)
+     * @param tableCard    la carta sul tavolo, oppure {@link CardCodec#NO_CARD} se la CPU gioca per prima
+     * @param briscolaSuit il seme di briscola
+     * @param remaining    le carte ancora da uscire, esclusi mano e tavolo
+     * @param takeBriscola true se è l'ultima pescata e la briscola scoperta è un carico
+     * @return l'indice in {@code hand} della carta scelta
+     */
+    public int choose(int[] hand, int size, int tableCard, int briscolaSuit, long remaining, boolean takeBriscola) {
+        // L'indice della mano ruotata si calcola carta per carta, senza copiare la mano
+        int handIndex = switch (size) {
+            case 1 -> 0;
+            case 2 -> CardCodec.NUM_CARDS;
+            case 3 -> CardCodec.NUM_CARDS + CardCodec.NUM_CARDS * CardCodec.NUM_CARDS;
+            default -> throw new IllegalArgumentException("Mano non valida: " + size + " carte");
+        };
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            offset = offset * CardCodec.NUM_CARDS + rotate(hand[i], briscolaSuit);
+        }
+        int table = tableCard == CardCodec.NO_CARD ? CardCodec.NO_CARD : rotate(tableCard, briscolaSuit);
+        return entry(entryIndex(handIndex + offset, table, rotate(remaining, briscolaSuit), takeBriscola));
+    }
+
+    // == GETTER E SETTER ==
+
+    public HardParameters getParameters() {
+        return parameters;
+    }
+
+    // == METODI PACKAGE-PRIVATE (condivisi con il generatore) ==
+
+    /**
+     * Indice della chiave di una situazione con la briscola nel seme 0.
+     */
+    static long entryIndex(int[] hand, int size, int tableCard, long remaining, boolean takeBriscola) {
+        return entryIndex(handIndex(hand, size), tableCard, remaining, takeBriscola);
+    }
+
+    /**
+     * Indice della chiave di una situazione con la briscola nel seme 0, dato l'indice della mano.
+     */
+    static long entryIndex(long handIndex, int tableCard, long remaining, boolean takeBriscola) {
+        int take = takeBriscola ? 1 : 0;
+        if (tableCard == CardCodec.NO_CARD) {
+            int suitStates = 0;
+            for (int suit = 1; suit < CardCodec.NUM_SUITS; suit++) {
+                int state = (isIn(remaining, suit, ACE) ? 1 : 0) | (isIn(remaining, suit, THREE) ? 2 : 0);
+                suitStates |= state << (2 * (suit - 1));
+            }
+            int briscolaAce = isIn(remaining, 0, ACE) ? 1 : 0;
+            return handIndex * LEADING_PER_HAND + (suitStates * 2 + briscolaAce) * 2 + take;
+        }
+
+        int carichi = 0;
+        for (int suit = CardCodec.NUM_SUITS - 1; suit >= 1; suit--) {
+            int out = 2 - (isIn(remaining, suit, ACE) ? 1 : 0) - (isIn(remaining, suit, THREE) ? 1 : 0);
+            carichi = carichi * 3 + out;
+        }
+        return LEADING_ENTRIES + handIndex * REPLY_PER_HAND + ((long) tableCard * CARICHI_STATES + carichi) * 2 + take;
+    }
+
+    /**
+     * Indice denso di una mano ordinata.
+     */
+    static int handIndex(int[] hand, int size) {
+        int n = CardCodec.NUM_CARDS;
+        return switch (size) {
+            case 1 -> hand[0];
+            case 2 -> n + hand[0] * n + hand[1];
+            case 3 -> n + n * n + (hand[0] * n + hand[1]) * n + hand[2];
+            default -> throw new IllegalArgumentException("Mano non valida: " + size + " carte");
+        };
+    }
+
+    int entry(long index) {
+        int packed = buffer.get(HEADER_BYTES + (int) (index >>> 2));
+        return (packed >>> (2 * (int) (index & 3))) & 3;
+    }
+
+    /**
+     * Scrive una chiave. Le quattro chiavi di uno stesso byte vanno scritte dallo stesso thread.
+     */
+    void setEntry(long index, int slot) {
+        int position = HEADER_BYTES + (int) (index >>> 2);
+        int shift = 2 * (int) (index & 3);
+        int packed = buffer.get(position) & ~(3 << shift) | (slot << shift);
+        buffer.put(position, (byte) packed);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    static int rotate(int card, int briscolaSuit) {
+        int suit = (CardCodec.suit(card) - briscolaSuit + CardCodec.NUM_SUITS) % CardCodec.NUM_SUITS;
+        return suit * CardCodec.CARDS_PER_SUIT + CardCodec.rank(card);
+    }
+
+    static long rotate(long mask, int briscolaSuit) {
+        if (briscolaSuit == 0) {
+            return mask;
+        }
+        int shift = briscolaSuit * CardCodec.CARDS_PER_SUIT;
+        return ((mask >>> shift) | (mask << (CardCodec.NUM_CARDS - shift))) & CardCodec.ALL_CARDS;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static boolean isIn(long mask, int suit, int rank) {
+        return (mask & (1L << (suit * CardCodec.CARDS_PER_SUIT + rank))) != 0;
+    }
+}
@@ -0,0 +1,270 @@
+package it.filippo.casadei.model.player.cpu.policy;
+
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.HardParameters;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Generatore offline della {@link HardPolicyTable}.
+ * <p>
+ * Per ogni chiave della tabella ricostruisce una situazione di gioco che la rappresenta
+ * (mano, tavolo, briscola nel seme 0 e memoria con i soli carichi rilevanti) e chiede la scelta
+ * alla vera {@link HardDifficulty}, con i punti a zero perché i controlli sui punti sono ripetuti
+ * a ogni lettura. Le chiavi impossibili (carte ripetute, carta sul tavolo anche in mano) valgono 0.
+ * Le mani sono divise in blocchi elaborati in parallelo; ogni mano occupa byte propri del file,
+ * quindi i thread non si sovrappongono.
+ * <p>
+ * Uso: {@code HardPolicyTableGenerator <file> [thread = numero di core]}
+ */
+public final class HardPolicyTableGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(HardPolicyTableGenerator.class.getName());
+    private static final int HANDS_PER_CHUNK = 512;
+    private static final int MAX_TRICK_POINTS = 22;
+    private static final int ACE = Rank.ACE.ordinal();
+    private static final int THREE = Rank.THREE.ordinal();
+
+    private HardPolicyTableGenerator() {
+    }
+
+    /**
+     * Genera la tabella della strategia Hard con i parametri originali.
+     *
+     * @param args file di destinazione e numero di thread
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: HardPolicyTableGenerator <file> [thread]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        generate(file, HardParameters.defaults(), threads);
+        System.out.println(String.format("Tabella di %,d chiavi generata in %.1f s: %s",
+                HardPolicyTable.ENTRIES, (System.nanoTime() - start) / 1e9, file));
+    }
+
+    /**
+     * Genera la tabella nel file indicato, sovrascrivendolo.
+     * L'avanzamento viene registrato nel log a livello FINE.
+     *
+     * @param file       il file della tabella
+     * @param parameters i parametri della strategia Hard da compilare
+     * @param threads    numero di thread di generazione
+     * @throws IOException se il file non può essere scritto
+     */
+    public static void generate(Path file, HardParameters parameters, int threads)
+            throws IOException, InterruptedException {
+        HardPolicyTable table = create(file, parameters);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            AtomicInteger done = new AtomicInteger();
+            int chunks = (HardPolicyTable.HAND_INDICES + HANDS_PER_CHUNK - 1) / HANDS_PER_CHUNK;
+            for (int from = 0; from < HardPolicyTable.HAND_INDICES; from += HANDS_PER_CHUNK) {
+                int first = from;
+                int last = Math.min(HardPolicyTable.HAND_INDICES, from + HANDS_PER_CHUNK);
+                tasks.add(() -> {
+                    generateHands(table, new HardDifficulty(parameters), first, last);
+                    int count = done.incrementAndGet();
+                    if (count % 16 == 0) {
+                        LOGGER.fine(() -> "Blocchi completati: " + count + " di " + chunks);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Errore durante la generazione della tabella", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        table.force();
+    }
+
+    // == METODI PACKAGE-PRIVATE ==
+
+    /**
+     * Crea il file della tabella con l'intestazione e tutte le chiavi a 0.
+     */
+    static HardPolicyTable create(Path file, HardParameters parameters) throws IOException {
+        if (parameters.getWinThreshold() < MAX_TRICK_POINTS) {
+            throw new IllegalArgumentException("Soglia di vittoria troppo bassa per la tabella: "
+                    + parameters.getWinThreshold());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HardPolicyTable.HEADER_BYTES + HardPolicyTable.DATA_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(0, HardPolicyTable.MAGIC);
+            buffer.putInt(8, HardPolicyTable.VERSION);
+            double[] vector = parameters.toVector();
+            for (int i = 0; i < vector.length; i++) {
+                buffer.putInt(HardPolicyTable.PARAMETERS_OFFSET + 4 * i, (int) vector[i]);
+            }
+            return new HardPolicyTable(buffer);
+        }
+    }
+
+    /**
+     * Calcola la scelta di Hard per la chiave indicata.
+     *
+     * @return la posizione nella mano della carta scelta, 0 per le chiavi impossibili
+     */
+    static int evaluate(long index, HardDifficulty hard) {
+        boolean leading = index < HardPolicyTable.LEADING_ENTRIES;
+        long local = leading ? index : index - HardPolicyTable.LEADING_ENTRIES;
+        int perHand = leading ? HardPolicyTable.LEADING_PER_HAND : HardPolicyTable.REPLY_PER_HAND;
+        int[] hand = new int[Hand.MAX_CARDS_IN_HAND];
+        int size = decodeHand((int) (local / perHand), hand);
+        long handMask = 0L;
+        for (int i = 0; i < size; i++) {
+            handMask |= 1L << hand[i];
+        }
+        if (Long.bitCount(handMask) != size) {
+            return 0;
+        }
+
+        int key = (int) (local % perHand);
+        boolean takeBriscola = (key & 1) != 0;
+        key >>= 1;
+        int tableCard = CardCodec.NO_CARD;
+        long remaining = 0L;
+        if (leading) {
+            if ((key & 1) != 0) {
+                remaining |= 1L << CardCodec.id(Suit.values()[0], Rank.ACE);
+            }
+            int suitStates = key >> 1;
+            for (int suit = 1; suit < CardCodec.NUM_SUITS; suit++) {
+                int state = (suitStates >> (2 * (suit - 1))) & 3;
+                if ((state & 1) != 0) {
+                    remaining |= 1L << (suit * CardCodec.CARDS_PER_SUIT + ACE);
+                }
+                if ((state & 2) != 0) {
+                    remaining |= 1L << (suit * CardCodec.CARDS_PER_SUIT + THREE);
+                }
+            }
+        } else {
+            tableCard = key / HardPolicyTable.CARICHI_STATES;
+            if ((handMask & (1L << tableCard)) != 0) {
+                return 0;
+            }
+            long seen = handMask | (1L << tableCard);
+            int carichi = key % HardPolicyTable.CARICHI_STATES;
+            for (int suit = 1; suit < CardCodec.NUM_SUITS; suit++) {
+                int inGame = 2 - carichi % 3;
+                carichi /= 3;
+                // I carichi ancora da uscire non possono essere in mano o sul tavolo
+                for (int rank : new int[] {ACE, THREE}) {
+                    long card = 1L << (suit * CardCodec.CARDS_PER_SUIT + rank);
+                    if (inGame > 0 && (seen & card) == 0) {
+                        remaining |= card;
+                        inGame--;
+                    }
+                }
+            }
+        }
+        return choose(hard, hand, size, tableCard, remaining, takeBriscola);
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void generateHands(HardPolicyTable table, HardDifficulty hard, int first, int last) {
+        for (int handIndex = first; handIndex < last; handIndex++) {
+            long leading = (long) handIndex * HardPolicyTable.LEADING_PER_HAND;
+            for (int k = 0; k < HardPolicyTable.LEADING_PER_HAND; k++) {
+                table.setEntry(leading + k, evaluate(leading + k, hard));
+            }
+            long reply = HardPolicyTable.LEADING_ENTRIES + (long) handIndex * HardPolicyTable.REPLY_PER_HAND;
+            for (int k = 0; k < HardPolicyTable.REPLY_PER_HAND; k++) {
+                table.setEntry(reply + k, evaluate(reply + k, hard));
+            }
+        }
+    }
+
+    /**
+     * Ricostruisce la mano ordinata dal suo indice (inverso di {@link HardPolicyTable#handIndex}).
+     *
+     * @return il numero di carte della mano
+     */
+    private static int decodeHand(int index, int[] hand) {
+        int n = CardCodec.NUM_CARDS;
+        if (index < n) {
+            hand[0] = index;
+            return 1;
+        }
+        index -= n;
+        if (index < n * n) {
+            hand[0] = index / n;
+            hand[1] = index % n;
+            return 2;
+        }
+        index -= n * n;
+        hand[0] = index / (n * n);
+        hand[1] = index / n % n;
+        hand[2] = index % n;
+        return 3;
+    }
+
+    /**
+     * Costruisce la situazione di gioco (briscola nel seme 0, punti a zero) e la fa decidere a Hard.
+     */
+    private static int choose(HardDifficulty hard, int[] handCards, int size, int tableCard, long remaining,
+                              boolean takeBriscola) {
+        Hand hand = new Hand();
+        for (int i = 0; i < size; i++) {
+            hand.addCard(CardCodec.card(handCards[i]));
+        }
+        Player cpu = new Human("CPU");
+        Player opponent = new Human("Avversario");
+        Table table = new Table();
+        if (tableCard == CardCodec.NO_CARD) {
+            table.setPlayersOrder(cpu, opponent);
+        } else {
+            table.setPlayersOrder(opponent, cpu);
+            table.playCard(opponent, CardCodec.card(tableCard));
+        }
+        // Hard guarda la briscola scoperta solo all'ultima pescata, e solo per sapere se è un carico
+        Card briscolaCard = CardCodec.card(CardCodec.id(Suit.values()[0], takeBriscola ? Rank.ACE : Rank.TWO));
+        GameContext context = new GameContext(hand, table, briscolaCard, tableCard == CardCodec.NO_CARD, takeBriscola);
+
+        Memory memory = new Memory();
+        memory.initialize(CardCodec.cards(remaining));
+        memory.setBriscolaCard(briscolaCard);
+
+        Card chosen = hard.chooseCard(context, memory);
+        return hand.getCards().indexOf(chosen);
+    }
+}
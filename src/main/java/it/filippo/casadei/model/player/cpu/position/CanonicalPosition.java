@@ -0,0 +1,33 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+/**
+ * Forma canonica di una posizione, insieme alla permutazione dei semi che la genera.
+ */
+public final class CanonicalPosition {
+
+    private final Position position;
+    private final SuitPermutation permutation;
+
+    // == COSTRUTTORE ==
+
+    CanonicalPosition(Position position, SuitPermutation permutation) {
+        this.position = position;
+        this.permutation = permutation;
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce la posizione con i semi rinominati in forma canonica.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Restituisce la permutazione che porta dai semi originali a quelli canonici.
+     */
+    public SuitPermutation getPermutation() {
+        return permutation;
+    }
+}
@@ -0,0 +1,180 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Codifica compatta delle carte usata dalle strategie basate su ricerca.
+ * <p>
+ * Ogni carta è identificata da un intero {@code id = seme * 10 + valore}, dove seme e valore
+ * sono gli ordinali di {@link Suit} e {@link Rank}. Poiché {@link Rank} è ordinato per forza,
+ * all'interno dello stesso seme un id più alto indica sempre una carta più forte.
+ * Un insieme di carte è rappresentato da una maschera di 40 bit in un {@code long}.
+ */
+public final class CardCodec {
+
+    public static final int NUM_SUITS = Suit.values().length;
+    public static final int CARDS_PER_SUIT = Rank.values().length;
+    public static final int NUM_CARDS = NUM_SUITS * CARDS_PER_SUIT;
+    public static final long ALL_CARDS = (1L << NUM_CARDS) - 1;
+    public static final long SUIT_BITS = (1L << CARDS_PER_SUIT) - 1;
+    public static final int NO_CARD = -1;
+
+    private static final Suit[] SUITS = Suit.values();
+    private static final Rank[] RANKS = Rank.values();
+    private static final Card[] CARDS = new Card[NUM_CARDS];
+    private static final int[] POINTS = new int[NUM_CARDS];
+
+    static {
+        for (Suit suit : SUITS) {
+            for (Rank rank : RANKS) {
+                int id = id(suit, rank);
+                CARDS[id] = new Card(suit, rank);
+                POINTS[id] = rank.getCardPoints();
+            }
+        }
+    }
+
+    private CardCodec() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    /**
+     * Restituisce l'id della carta indicata.
+     */
+    public static int id(Card card) {
+        return id(card.getSuit(), card.getRank());
+    }
+
+    /**
+     * Restituisce l'id della carta con seme e valore indicati.
+     */
+    public static int id(Suit suit, Rank rank) {
+        return suit.ordinal() * CARDS_PER_SUIT + rank.ordinal();
+    }
+
+    /**
+     * Restituisce l'ordinale del seme della carta con l'id indicato.
+     */
+    public static int suit(int id) {
+        return id / CARDS_PER_SUIT;
+    }
+
+    /**
+     * Restituisce l'ordinale del valore della carta con l'id indicato.
+     */
+    public static int rank(int id) {
+        return id % CARDS_PER_SUIT;
+    }
+
+    /**
+     * Restituisce i punti della carta con l'id indicato.
+     */
+    public static int points(int id) {
+        return POINTS[id];
+    }
+
+    /**
+     * Verifica se la carta con l'id indicato è un carico (Asso o Tre).
+     */
+    public static boolean isCarico(int id) {
+        int rank = rank(id);
+        return rank == Rank.ACE.ordinal() || rank == Rank.THREE.ordinal();
+    }
+
+    /**
+     * Restituisce un'istanza condivisa della carta con l'id indicato.
+     * Va usata solo in simulazioni che costruiscono tutte le carte tramite questo metodo,
+     * perché {@link Card} usa l'uguaglianza per identità.
+     */
+    public static Card card(int id) {
+        return CARDS[id];
+    }
+
+    /**
+     * Restituisce la maschera di bit delle carte indicate (le carte null sono ignorate).
+     */
+    public static long mask(Collection<Card> cards) {
+        long mask = 0L;
+        for (Card card : cards) {
+            if (card != null) {
+                mask |= 1L << id(card);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Restituisce la maschera con tutte le carte del seme indicato.
+     */
+    public static long suitMask(int suit) {
+        return SUIT_BITS << (suit * CARDS_PER_SUIT);
+    }
+
+    /**
+     * Restituisce i 10 bit del seme indicato presenti nella maschera.
+     */
+    public static int suitBits(long mask, int suit) {
+        return (int) ((mask >>> (suit * CARDS_PER_SUIT)) & SUIT_BITS);
+    }
+
+    /**
+     * Somma i punti di tutte le carte presenti nella maschera.
+     */
+    public static int points(long mask) {
+        int total = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            total += POINTS[Long.numberOfTrailingZeros(m)];
+        }
+        return total;
+    }
+
+    /**
+     * Determina se la seconda carta giocata vince la mano, con la stessa logica di
+     * {@link it.filippo.casadei.model.GameRules#compareCards(Card, Card, Suit)}.
+     *
+     * @param first        id della carta giocata per prima
+     * @param second       id della carta giocata per seconda
+     * @param briscolaSuit ordinale del seme di briscola
+     * @return true se vince la seconda carta
+     */
+    public static boolean secondWins(int first, int second, int briscolaSuit) {
+        int firstSuit = suit(first);
+        int secondSuit = suit(second);
+        if (firstSuit == secondSuit) {
+            return second > first;
+        }
+        return secondSuit == briscolaSuit;
+    }
+
+    /**
+     * Restituisce le carte corrispondenti agli id presenti nella maschera, in ordine di id.
+     */
+    public static List<Card> cards(long mask) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0; m &= m - 1) {
+            cards.add(CARDS[Long.numberOfTrailingZeros(m)]);
+        }
+        return cards;
+    }
+
+    /**
+     * Cerca nella lista la carta con l'id indicato.
+     *
+     * @return la carta trovata, oppure null se non presente
+     */
+    public static Card find(List<Card> cards, int id) {
+        for (Card card : cards) {
+            if (id(card) == id) {
+                return card;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,179 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.Memory;
+
+import java.util.List;
+
+/**
+ * Fotografia immutabile e compatta della situazione di gioco vista da una CPU.
+ * <p>
+ * Contiene tutte le informazioni su cui si basano le strategie: la mano della CPU,
+ * le carte che la memoria considera ancora da uscire, la carta sul tavolo, la briscola,
+ * i punti e i flag di turno. Le carte sono codificate con {@link CardCodec}.
+ */
+public final class Position {
+
+    private final long hand;
+    private final long remaining;
+    private final int tableCard;
+    private final int briscolaCard;
+    private final boolean cpuFirst;
+    private final boolean lastDraw;
+    private final int myPoints;
+    private final int opponentPoints;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una nuova posizione.
+     *
+     * @param hand           maschera delle carte in mano alla CPU
+     * @param remaining      maschera delle carte ancora da uscire secondo la memoria
+     *                       (esclusi mano e tavolo, inclusa la briscola scoperta se non ancora giocata)
+     * @param tableCard      id della carta giocata dall'avversario, oppure {@link CardCodec#NO_CARD}
+     * @param briscolaCard   id della carta di briscola
+     * @param cpuFirst       true se la CPU gioca per prima
+     * @param lastDraw       true se è l'ultimo turno di pesca
+     * @param myPoints       punti della CPU
+     * @param opponentPoints punti dell'avversario
+     */
+    public Position(long hand, long remaining, int tableCard, int briscolaCard,
+                    boolean cpuFirst, boolean lastDraw, int myPoints, int opponentPoints) {
+        this.hand = hand;
+        this.remaining = remaining;
+        this.tableCard = tableCard;
+        this.briscolaCard = briscolaCard;
+        this.cpuFirst = cpuFirst;
+        this.lastDraw = lastDraw;
+        this.myPoints = myPoints;
+        this.opponentPoints = opponentPoints;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Crea la posizione corrispondente al contesto e alla memoria della CPU.
+     *
+     * @param context il contesto di gioco attuale
+     * @param memory  la memoria della CPU
+     * @return la posizione vista dalla CPU
+     */
+    public static Position of(GameContext context, Memory memory) {
+        long hand = CardCodec.mask(context.getCpuHand().getCards());
+        Card first = context.getTable().getFirstCard();
+        int tableCard = (!context.isCpuFirst() && first != null) ? CardCodec.id(first) : CardCodec.NO_CARD;
+
+        long remaining = 0L;
+        List<Card> remainingCards = memory.getRemainingCards();
+        if (remainingCards != null) {
+            remaining = CardCodec.mask(remainingCards);
+        }
+        remaining &= ~hand;
+        if (tableCard != CardCodec.NO_CARD) {
+            remaining &= ~(1L << tableCard);
+        }
+
+        return new Position(hand, remaining, tableCard, CardCodec.id(context.getBriscolaCard()),
+                context.isCpuFirst(), context.isLastDraw(), memory.getMyPoints(), memory.getOpponentPoints());
+    }
+
+    /**
+     * Restituisce un hash a 64 bit della posizione, adatto come chiave di cache e tabelle.
+     *
+     * @return l'hash della posizione
+     */
+    public long hash64() {
+        long h = mix(hand ^ 0x9E3779B97F4A7C15L);
+        h = mix(h ^ remaining);
+        long small = (tableCard + 1L)
+                | ((long) briscolaCard << 6)
+                | ((cpuFirst ? 1L : 0L) << 12)
+                | ((lastDraw ? 1L : 0L) << 13)
+                | ((long) myPoints << 14)
+                | ((long) opponentPoints << 24);
+        return mix(h ^ small);
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getHand() {
+        return hand;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public int getTableCard() {
+        return tableCard;
+    }
+
+    public int getBriscolaCard() {
+        return briscolaCard;
+    }
+
+    public int getBriscolaSuit() {
+        return CardCodec.suit(briscolaCard);
+    }
+
+    public boolean isCpuFirst() {
+        return cpuFirst;
+    }
+
+    public boolean isLastDraw() {
+        return lastDraw;
+    }
+
+    public int getMyPoints() {
+        return myPoints;
+    }
+
+    public int getOpponentPoints() {
+        return opponentPoints;
+    }
+
+    // == EQUALS, HASHCODE E TOSTRING ==
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Position)) return false;
+        Position other = (Position) o;
+        return hand == other.hand
+                && remaining == other.remaining
+                && tableCard == other.tableCard
+                && briscolaCard == other.briscolaCard
+                && cpuFirst == other.cpuFirst
+                && lastDraw == other.lastDraw
+                && myPoints == other.myPoints
+                && opponentPoints == other.opponentPoints;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash64());
+    }
+
+    @Override
+    public String toString() {
+        return "Position[hand=" + CardCodec.cards(hand)
+                + ", table=" + (tableCard == CardCodec.NO_CARD ? "-" : CardCodec.card(tableCard))
+                + ", briscola=" + CardCodec.card(briscolaCard)
+                + ", remaining=" + Long.bitCount(remaining)
+                + ", first=" + cpuFirst + ", lastDraw=" + lastDraw
+                + ", points=" + myPoints + "/" + opponentPoints + "]";
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Funzione di mescolamento (finalizzatore di MurmurHash3).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
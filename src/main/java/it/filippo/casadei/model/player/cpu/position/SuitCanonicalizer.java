@@ -0,0 +1,105 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+/**
+ * Riduce le posizioni alla loro forma canonica rispetto alle simmetrie dei semi.
+ * <p>
+ * Nella Briscola i semi contano solo per il fatto di essere o meno di briscola, quindi:
+ * <ul>
+ *   <li>il seme di briscola viene sempre rinominato nel seme canonico 0</li>
+ *   <li>i tre semi non di briscola sono intercambiabili e vengono ordinati (semi canonici 1, 2 e 3)
+ *   in base alle carte che contengono in mano, sul tavolo e tra quelle ancora da uscire</li>
+ * </ul>
+ * Due posizioni equivalenti a meno di una rinomina dei semi hanno quindi la stessa forma
+ * canonica: cache e tabelle indicizzate in questo modo occupano fino a 24 volte meno spazio.
+ */
+public final class SuitCanonicalizer {
+
+    private SuitCanonicalizer() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    /**
+     * Restituisce la forma canonica della posizione e la permutazione usata per ottenerla.
+     *
+     * @param position la posizione da canonicalizzare
+     * @return la posizione canonica con la relativa permutazione dei semi
+     */
+    public static CanonicalPosition canonicalize(Position position) {
+        long tableMask = position.getTableCard() == CardCodec.NO_CARD ? 0L : 1L << position.getTableCard();
+        SuitPermutation permutation = canonicalPermutation(position.getBriscolaSuit(),
+                position.getHand(), tableMask, position.getRemaining());
+
+        Position canonical = new Position(
+                permutation.maskToCanonical(position.getHand()),
+                permutation.maskToCanonical(position.getRemaining()),
+                permutation.cardToCanonical(position.getTableCard()),
+                permutation.cardToCanonical(position.getBriscolaCard()),
+                position.isCpuFirst(),
+                position.isLastDraw(),
+                position.getMyPoints(),
+                position.getOpponentPoints());
+        return new CanonicalPosition(canonical, permutation);
+    }
+
+    /**
+     * Calcola la permutazione canonica dei semi per un insieme di maschere di carte.
+     * Il seme di briscola diventa il seme 0; gli altri semi sono ordinati in modo decrescente
+     * in base ai bit che occupano in ciascuna maschera, considerate nell'ordine dato.
+     * Semi con la stessa firma sono indistinguibili, quindi qualsiasi ordine tra loro
+     * produce la stessa forma canonica.
+     *
+     * @param briscolaSuit ordinale del seme di briscola
+     * @param masks        al massimo sei maschere di carte che descrivono la posizione
+     * @return la permutazione dei semi
+     */
+    public static SuitPermutation canonicalPermutation(int briscolaSuit, long... masks) {
+        if (masks.length * CardCodec.CARDS_PER_SUIT >= Long.SIZE) {
+            throw new IllegalArgumentException("Troppe maschere per la firma dei semi: " + masks.length);
+        }
+
+        int[] plainSuits = new int[CardCodec.NUM_SUITS - 1];
+        long[] signatures = new long[CardCodec.NUM_SUITS - 1];
+        int count = 0;
+        for (int suit = 0; suit < CardCodec.NUM_SUITS; suit++) {
+            if (suit == briscolaSuit) continue;
+            plainSuits[count] = suit;
+            signatures[count] = signature(suit, masks);
+            count++;
+        }
+
+        // Insertion sort decrescente: sono solo tre elementi
+        for (int i = 1; i < count; i++) {
+            int suit = plainSuits[i];
+            long signature = signatures[i];
+            int j = i - 1;
+            while (j >= 0 && signatures[j] < signature) {
+                plainSuits[j + 1] = plainSuits[j];
+                signatures[j + 1] = signatures[j];
+                j--;
+            }
+            plainSuits[j + 1] = suit;
+            signatures[j + 1] = signature;
+        }
+
+        int[] toCanonical = new int[CardCodec.NUM_SUITS];
+        toCanonical[briscolaSuit] = 0;
+        for (int i = 0; i < count; i++) {
+            toCanonical[plainSuits[i]] = i + 1;
+        }
+        return new SuitPermutation(toCanonical);
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Concatena i bit che il seme occupa in ciascuna maschera.
+     */
+    private static long signature(int suit, long[] masks) {
+        long signature = 0L;
+        for (long mask : masks) {
+            signature = (signature << CardCodec.CARDS_PER_SUIT) | CardCodec.suitBits(mask, suit);
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,102 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+import it.filippo.casadei.model.card.Card;
+
+import java.util.List;
+
+/**
+ * Permutazione dei semi che porta una posizione nella sua forma canonica.
+ * Permette di tradurre carte e maschere di carte dalla numerazione originale a quella
+ * canonica e viceversa (es. per riportare sulla mano reale la mossa scelta in forma canonica).
+ */
+public final class SuitPermutation {
+
+    private static final SuitPermutation IDENTITY = new SuitPermutation(new int[]{0, 1, 2, 3});
+
+    private final int[] toCanonical;
+    private final int[] toOriginal;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una permutazione dei semi.
+     *
+     * @param toCanonical per ogni seme originale, il seme canonico corrispondente
+     */
+    SuitPermutation(int[] toCanonical) {
+        this.toCanonical = toCanonical.clone();
+        this.toOriginal = new int[toCanonical.length];
+        for (int suit = 0; suit < toCanonical.length; suit++) {
+            this.toOriginal[toCanonical[suit]] = suit;
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce la permutazione identità.
+     */
+    public static SuitPermutation identity() {
+        return IDENTITY;
+    }
+
+    public int suitToCanonical(int suit) {
+        return toCanonical[suit];
+    }
+
+    public int suitToOriginal(int suit) {
+        return toOriginal[suit];
+    }
+
+    /**
+     * Traduce l'id di una carta nella numerazione canonica.
+     */
+    public int cardToCanonical(int id) {
+        if (id == CardCodec.NO_CARD) return id;
+        return toCanonical[CardCodec.suit(id)] * CardCodec.CARDS_PER_SUIT + CardCodec.rank(id);
+    }
+
+    /**
+     * Traduce l'id di una carta canonica nella numerazione originale.
+     */
+    public int cardToOriginal(int id) {
+        if (id == CardCodec.NO_CARD) return id;
+        return toOriginal[CardCodec.suit(id)] * CardCodec.CARDS_PER_SUIT + CardCodec.rank(id);
+    }
+
+    /**
+     * Traduce una maschera di carte nella numerazione canonica.
+     */
+    public long maskToCanonical(long mask) {
+        return permute(mask, toCanonical);
+    }
+
+    /**
+     * Traduce una maschera di carte canonica nella numerazione originale.
+     */
+    public long maskToOriginal(long mask) {
+        return permute(mask, toOriginal);
+    }
+
+    /**
+     * Restituisce la carta della lista che corrisponde alla carta canonica indicata.
+     *
+     * @param canonicalId id canonico della carta scelta
+     * @param cards       le carte reali (es. la mano della CPU)
+     * @return la carta reale corrispondente, oppure null se non presente
+     */
+    public Card originalCardIn(int canonicalId, List<Card> cards) {
+        return CardCodec.find(cards, cardToOriginal(canonicalId));
+    }
+
+    // == METODI PRIVATI ==
+
+    private static long permute(long mask, int[] map) {
+        long result = 0L;
+        for (int suit = 0; suit < map.length; suit++) {
+            long bits = CardCodec.suitBits(mask, suit);
+            result |= bits << (map[suit] * CardCodec.CARDS_PER_SUIT);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+/**
+ * Tabelle precalcolate sulle carte codificate con {@link CardCodec}, usate nei cicli più caldi
+ * delle simulazioni al posto dei confronti tra oggetti {@link it.filippo.casadei.model.card.Card}.
+ */
+public final class CardTables {
+
+    /** Maschera degli Assi e dei Tre di tutti i semi. */
+    public static final long CARICHI;
+
+    private static final int[] POINTS = new int[CardCodec.NUM_CARDS];
+    private static final int[] VALUE = new int[CardCodec.NUM_CARDS];
+    private static final long[][] BEATERS = new long[CardCodec.NUM_SUITS][CardCodec.NUM_CARDS];
+
+    static {
+        long carichi = 0L;
+        for (int id = 0; id < CardCodec.NUM_CARDS; id++) {
+            POINTS[id] = CardCodec.points(id);
+            VALUE[id] = POINTS[id] * CardCodec.CARDS_PER_SUIT + CardCodec.rank(id);
+            if (CardCodec.isCarico(id)) {
+                carichi |= 1L << id;
+            }
+        }
+        CARICHI = carichi;
+
+        for (int briscola = 0; briscola < CardCodec.NUM_SUITS; briscola++) {
+            for (int lead = 0; lead < CardCodec.NUM_CARDS; lead++) {
+                long beaters = 0L;
+                for (int reply = 0; reply < CardCodec.NUM_CARDS; reply++) {
+                    if (reply != lead && CardCodec.secondWins(lead, reply, briscola)) {
+                        beaters |= 1L << reply;
+                    }
+                }
+                BEATERS[briscola][lead] = beaters;
+            }
+        }
+    }
+
+    private CardTables() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    public static int points(int id) {
+        return POINTS[id];
+    }
+
+    /**
+     * Valore di scarto della carta: prima i punti, a parità di punti il rango.
+     * Una carta con valore minore è meno preziosa da perdere.
+     */
+    public static int value(int id) {
+        return VALUE[id];
+    }
+
+    /**
+     * Restituisce la maschera delle carte che, giocate per seconde, battono la carta indicata.
+     */
+    public static long beaters(int lead, int briscolaSuit) {
+        return BEATERS[briscolaSuit][lead];
+    }
+
+    /**
+     * Restituisce la carta con il valore di scarto minore tra quelle della maschera (non vuota).
+     */
+    public static int cheapest(long mask) {
+        int best = Long.numberOfTrailingZeros(mask);
+        for (long m = mask & (mask - 1); m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            if (VALUE[id] < VALUE[best]) {
+                best = id;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Restituisce la carta con il valore di scarto maggiore tra quelle della maschera (non vuota).
+     */
+    public static int dearest(long mask) {
+        int best = Long.numberOfTrailingZeros(mask);
+        for (long m = mask & (mask - 1); m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            if (VALUE[id] > VALUE[best]) {
+                best = id;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Restituisce l'id dell'Asso del seme indicato.
+     */
+    public static int ace(int suit) {
+        return suit * CardCodec.CARDS_PER_SUIT + Rank.ACE.ordinal();
+    }
+
+    /**
+     * Restituisce l'id del Tre del seme indicato.
+     */
+    public static int three(int suit) {
+        return suit * CardCodec.CARDS_PER_SUIT + Rank.THREE.ordinal();
+    }
+}
@@ -0,0 +1,71 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+/**
+ * Generatore pseudo-casuale xorshift64* per le simulazioni.
+ * <p>
+ * Molto più economico di {@link java.util.Random} (nessuna sincronizzazione, nessuna allocazione)
+ * e di qualità sufficiente per le partite simulate. Non è thread-safe: ogni thread usa la propria istanza.
+ */
+public final class FastRandom {
+
+    private long state;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un generatore a partire dal seme indicato (due semi uguali producono la stessa sequenza).
+     *
+     * @param seed il seme iniziale
+     */
+    public FastRandom(long seed) {
+        setSeed(seed);
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Reimposta il seme del generatore.
+     */
+    public void setSeed(long seed) {
+        // SplitMix64 per ottenere uno stato ben distribuito e mai nullo
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        this.state = z != 0 ? z : 0x9E3779B97F4A7C15L;
+    }
+
+    public long nextLong() {
+        long x = state;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    /**
+     * Restituisce un intero uniforme in [0, bound).
+     *
+     * @param bound limite superiore esclusivo, positivo
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Restituisce un double uniforme in [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Restituisce l'id di una carta scelta uniformemente tra quelle della maschera (non vuota).
+     */
+    public int nextCard(long mask) {
+        // Long.expand deposita il bit k sul k-esimo bit della maschera (PDEP dove disponibile)
+        int k = nextInt(Long.bitCount(mask));
+        return Long.numberOfTrailingZeros(Long.expand(1L << k, mask));
+    }
+}
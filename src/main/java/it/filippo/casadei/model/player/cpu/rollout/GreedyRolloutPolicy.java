@@ -0,0 +1,32 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+/**
+ * Politica avida che guarda solo la mano in corso.
+ * <p>
+ * Per primo gioca la carta meno preziosa, preferendo le non briscole. Per secondo prende
+ * la mano con la carta vincente meno preziosa se ci sono punti sul tavolo, altrimenti scarta
+ * la carta meno preziosa.
+ */
+public class GreedyRolloutPolicy implements RolloutPolicy {
+
+    @Override
+    public int chooseCard(RolloutState state, FastRandom random) {
+        long hand = state.getHand(state.getToMove());
+        long briscole = CardCodec.suitMask(state.getBriscolaSuit());
+        int lead = state.getTableCard();
+
+        if (lead == CardCodec.NO_CARD) {
+            long plain = hand & ~briscole;
+            return CardTables.cheapest(plain != 0 ? plain : hand);
+        }
+
+        long winners = hand & CardTables.beaters(lead, state.getBriscolaSuit());
+        if (winners != 0 && CardTables.points(lead) > 0) {
+            return CardTables.cheapest(winners);
+        }
+        long plain = hand & ~briscole;
+        return CardTables.cheapest(plain != 0 ? plain : hand);
+    }
+}
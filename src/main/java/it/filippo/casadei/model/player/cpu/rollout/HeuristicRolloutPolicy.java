@@ -0,0 +1,190 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+
+/**
+ * Politica che riproduce su maschere di bit le regole principali di
+ * {@link it.filippo.casadei.model.player.cpu.HardDifficulty}.
+ * <p>
+ * Per primo gioca la carta alta non carico e non briscola dei semi con più carichi già usciti,
+ * poi la briscola più bassa (evitando il Tre se l'Asso è ancora in gioco), poi i carichi.
+ * Per secondo prende con lo stesso seme, usa le briscole per catturare i carichi, chiude la partita
+ * se può superare 60 punti e impedisce all'avversario di farlo. Le carte già uscite sono lette
+ * dallo stato della simulazione invece che dalla {@link it.filippo.casadei.model.player.cpu.Memory}.
+ */
+public class HeuristicRolloutPolicy implements RolloutPolicy {
+
+    private static final int CONCEDE_THRESHOLD = 5;
+
+    @Override
+    public int chooseCard(RolloutState state, FastRandom random) {
+        int me = state.getToMove();
+        long hand = state.getHand(me);
+        if (state.getTableCard() == CardCodec.NO_CARD) {
+            return chooseAsFirst(state, hand);
+        }
+        return chooseAsSecond(state, hand, me);
+    }
+
+    // == METODI PRIVATI ==
+
+    private int chooseAsFirst(RolloutState state, long hand) {
+        int briscolaSuit = state.getBriscolaSuit();
+        long briscole = hand & CardCodec.suitMask(briscolaSuit);
+        long plain = hand & ~briscole;
+
+        // Ultima pescata con un carico di briscola scoperto: si cerca di perdere la mano
+        if (state.isLastDraw() && CardCodec.isCarico(state.getBriscolaCard())) {
+            long carichi = plain & CardTables.CARICHI;
+            if (carichi != 0) {
+                return CardTables.cheapest(carichi);
+            }
+            return CardTables.dearest(plain != 0 ? plain : hand);
+        }
+
+        // 1. Alta non carico e non briscola, preferendo i semi con più carichi usciti
+        long lisci = plain & ~CardTables.CARICHI;
+        if (lisci != 0) {
+            int best = CardCodec.NO_CARD;
+            int bestScore = Integer.MIN_VALUE;
+            for (long m = lisci; m != 0; m &= m - 1) {
+                int id = Long.numberOfTrailingZeros(m);
+                int score = carichiOut(state, CardCodec.suit(id)) * 1000 + CardTables.value(id);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = id;
+                }
+            }
+            return best;
+        }
+
+        // 2. Briscola più bassa, evitando il Tre se l'Asso è ancora in gioco
+        if (briscole != 0) {
+            long candidates = briscole;
+            if (isAceLive(state, hand, briscolaSuit)) {
+                candidates &= ~(1L << CardTables.three(briscolaSuit));
+            }
+            if (candidates != 0) {
+                return CardTables.cheapest(candidates);
+            }
+        }
+
+        // 3. Carico non di briscola, prima il Tre il cui Asso è già uscito
+        if (plain != 0) {
+            for (long m = plain; m != 0; m &= m - 1) {
+                int id = Long.numberOfTrailingZeros(m);
+                if (id == CardTables.three(CardCodec.suit(id)) && !isAceLive(state, hand, CardCodec.suit(id))) {
+                    return id;
+                }
+            }
+            return CardTables.dearest(plain);
+        }
+
+        return CardTables.cheapest(hand);
+    }
+
+    private int chooseAsSecond(RolloutState state, long hand, int me) {
+        int briscolaSuit = state.getBriscolaSuit();
+        int lead = state.getTableCard();
+        int leadPoints = CardTables.points(lead);
+        long briscole = hand & CardCodec.suitMask(briscolaSuit);
+        long winners = hand & CardTables.beaters(lead, briscolaSuit);
+
+        // Se può vincere e superare 60 punti, chiude la partita
+        for (long m = winners; m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            if (state.getPoints(me) + leadPoints + CardTables.points(id) > BriscolaGame.HALF_TOTAL_POINTS) {
+                return id;
+            }
+        }
+
+        int chosen = chooseReply(state, hand, lead, briscole, winners);
+
+        // Se la scelta fa superare 60 punti all'avversario, prova a prendere comunque
+        boolean loses = (winners & (1L << chosen)) == 0;
+        if (loses && winners != 0 && state.getPoints(1 - me) + leadPoints + CardTables.points(chosen)
+                > BriscolaGame.HALF_TOTAL_POINTS) {
+            long sameSuit = winners & CardCodec.suitMask(CardCodec.suit(lead));
+            return CardTables.dearest(sameSuit != 0 ? sameSuit : winners);
+        }
+        return chosen;
+    }
+
+    private int chooseReply(RolloutState state, long hand, int lead, long briscole, long winners) {
+        int briscolaSuit = state.getBriscolaSuit();
+
+        // Ultima pescata con un carico di briscola scoperto: si lascia la mano
+        if (state.isLastDraw() && CardCodec.isCarico(state.getBriscolaCard())) {
+            return worstCard(state, hand, briscolaSuit);
+        }
+
+        // 1. Briscola sul tavolo: si prende solo il Tre con l'Asso
+        if (CardCodec.suit(lead) == briscolaSuit) {
+            int ace = CardTables.ace(briscolaSuit);
+            if (lead == CardTables.three(briscolaSuit) && (hand & (1L << ace)) != 0) {
+                return ace;
+            }
+            return worstCard(state, hand, briscolaSuit);
+        }
+
+        // 2. Si prende con una carta dello stesso seme
+        long sameSuit = winners & CardCodec.suitMask(CardCodec.suit(lead));
+        if (sameSuit != 0) {
+            return CardTables.dearest(sameSuit);
+        }
+
+        // 3. Carico sul tavolo: si prende con la briscola più ricca, l'Asso solo se è l'unica
+        if (CardCodec.isCarico(lead)) {
+            long noAce = briscole & ~(1L << CardTables.ace(briscolaSuit));
+            if (noAce != 0) {
+                return CardTables.dearest(noAce);
+            }
+            if (briscole != 0) {
+                return Long.numberOfTrailingZeros(briscole);
+            }
+            return worstCard(state, hand, briscolaSuit);
+        }
+
+        // 4. Se si concedono troppi punti e ci sono almeno due briscole, si taglia
+        int worst = worstCard(state, hand, briscolaSuit);
+        if (CardTables.points(lead) + CardTables.points(worst) > CONCEDE_THRESHOLD && Long.bitCount(briscole) >= 2) {
+            long noAce = briscole & ~(1L << CardTables.ace(briscolaSuit));
+            if (noAce != 0) {
+                return CardTables.dearest(noAce);
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Carta più bassa non carico e non briscola, preferendo i semi con più carichi usciti.
+     */
+    private static int worstCard(RolloutState state, long hand, int briscolaSuit) {
+        long lisci = hand & ~CardTables.CARICHI & ~CardCodec.suitMask(briscolaSuit);
+        if (lisci != 0) {
+            int best = CardCodec.NO_CARD;
+            int bestScore = Integer.MAX_VALUE;
+            for (long m = lisci; m != 0; m &= m - 1) {
+                int id = Long.numberOfTrailingZeros(m);
+                int score = -carichiOut(state, CardCodec.suit(id)) * 1000 + CardTables.value(id);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = id;
+                }
+            }
+            return best;
+        }
+        long nonCarichi = hand & ~CardTables.CARICHI;
+        return CardTables.cheapest(nonCarichi != 0 ? nonCarichi : hand);
+    }
+
+    private static int carichiOut(RolloutState state, int suit) {
+        return Long.bitCount(state.getPlayed() & CardTables.CARICHI & CardCodec.suitMask(suit));
+    }
+
+    private static boolean isAceLive(RolloutState state, long hand, int suit) {
+        long ace = 1L << CardTables.ace(suit);
+        return ((state.getPlayed() | hand) & ace) == 0;
+    }
+}
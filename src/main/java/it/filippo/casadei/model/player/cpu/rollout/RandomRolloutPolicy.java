@@ -0,0 +1,12 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+/**
+ * Politica che gioca una carta a caso tra quelle in mano.
+ */
+public class RandomRolloutPolicy implements RolloutPolicy {
+
+    @Override
+    public int chooseCard(RolloutState state, FastRandom random) {
+        return random.nextCard(state.getHand(state.getToMove()));
+    }
+}
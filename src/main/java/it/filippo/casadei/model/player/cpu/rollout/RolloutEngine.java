@@ -0,0 +1,71 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+/**
+ * Motore di simulazione veloce: gioca fino alla fine una partita rappresentata da un {@link RolloutState}.
+ * <p>
+ * Non passa per {@code BriscolaGame}, {@code Player}, {@code Hand} o {@code Table} e non alloca oggetti:
+ * ogni mano costa due chiamate alle politiche e qualche operazione sui bit. Le strategie
+ * basate sul campionamento possono quindi permettersi milioni di simulazioni per decisione.
+ * Un'istanza non ha stato mutabile e può essere condivisa tra thread, purché ognuno usi
+ * il proprio {@link RolloutState} e il proprio {@link FastRandom}.
+ */
+public class RolloutEngine {
+
+    private final RolloutPolicy[] policies;
+
+    // == COSTRUTTORI ==
+
+    /**
+     * Crea un motore in cui entrambi i giocatori usano la stessa politica.
+     *
+     * @param policy la politica dei due giocatori
+     */
+    public RolloutEngine(RolloutPolicy policy) {
+        this(policy, policy);
+    }
+
+    /**
+     * Crea un motore con una politica per ciascun giocatore.
+     *
+     * @param policy0 la politica del giocatore 0 (la CPU che simula)
+     * @param policy1 la politica del giocatore 1 (l'avversario)
+     */
+    public RolloutEngine(RolloutPolicy policy0, RolloutPolicy policy1) {
+        this.policies = new RolloutPolicy[] {policy0, policy1};
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Gioca la partita fino alla fine, modificando lo stato.
+     *
+     * @param state  lo stato da cui partire (al termine contiene la partita conclusa)
+     * @param random il generatore della simulazione
+     * @return la differenza tra i punti finali del giocatore 0 e quelli del giocatore 1
+     */
+    public int playout(RolloutState state, FastRandom random) {
+        while (!state.isOver()) {
+            state.play(policies[state.getToMove()].chooseCard(state, random));
+        }
+        return state.getPoints(0) - state.getPoints(1);
+    }
+
+    /**
+     * Gioca la carta indicata per il giocatore di turno e poi la partita fino alla fine.
+     *
+     * @param state  lo stato da cui partire
+     * @param card   la carta da giocare subito
+     * @param random il generatore della simulazione
+     * @return la differenza tra i punti finali del giocatore 0 e quelli del giocatore 1
+     */
+    public int playout(RolloutState state, int card, FastRandom random) {
+        state.play(card);
+        return playout(state, random);
+    }
+
+    // == GETTER E SETTER ==
+
+    public RolloutPolicy getPolicy(int player) {
+        return policies[player];
+    }
+}
@@ -0,0 +1,19 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+/**
+ * Politica di gioco leggera usata nelle partite simulate da {@link RolloutEngine}.
+ * <p>
+ * A differenza di {@link it.filippo.casadei.model.player.cpu.CpuDifficulty} lavora direttamente
+ * sullo stato primitivo e non deve allocare oggetti: viene chiamata decine di volte per ogni simulazione.
+ */
+public interface RolloutPolicy {
+
+    /**
+     * Sceglie la carta da giocare per il giocatore di turno.
+     *
+     * @param state  lo stato della partita simulata (da non modificare)
+     * @param random il generatore della simulazione
+     * @return l'id di una carta in mano al giocatore di turno
+     */
+    int chooseCard(RolloutState state, FastRandom random);
+}
@@ -0,0 +1,268 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.OpponentBelief;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+/**
+ * Stato completo e mutabile di una partita simulata, fatto solo di tipi primitivi.
+ * <p>
+ * Le mani sono maschere di bit, il mazzo è un array di id con un indice della prossima carta
+ * da pescare (la briscola scoperta è sempre l'ultima) e i punti sono due interi. Giocare una mano
+ * non alloca nulla: un'istanza può essere riutilizzata per milioni di simulazioni,
+ * ripristinandola con {@link #copyFrom(RolloutState)} o {@link #determinize(Position, FastRandom)}.
+ * Il giocatore 0 è sempre la CPU che sta simulando.
+ */
+public final class RolloutState {
+
+    private final long[] hands = new long[2];
+    private final int[] points = new int[2];
+    private final int[] deck = new int[CardCodec.NUM_CARDS];
+    private final int[] scratch = new int[CardCodec.NUM_CARDS];
+    private int deckPointer;
+    private int deckEnd;
+    private long played;
+    private int leader;
+    private int tableCard = CardCodec.NO_CARD;
+    private int briscolaCard;
+    private int briscolaSuit;
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Prepara una nuova partita mescolando il mazzo, come {@code BriscolaGame.setupGame()}:
+     * tre carte a testa in modo alternato, poi la briscola scoperta in fondo al mazzo.
+     *
+     * @param random il generatore da usare per mescolare
+     */
+    public void deal(FastRandom random) {
+        deal(random, 0);
+    }
+
+    /**
+     * Come {@link #deal(FastRandom)}, scegliendo chi gioca per primo la prima mano.
+     *
+     * @param random      il generatore da usare per mescolare
+     * @param firstPlayer il giocatore (0 o 1) che apre la partita
+     */
+    public void deal(FastRandom random, int firstPlayer) {
+        for (int id = 0; id < CardCodec.NUM_CARDS; id++) {
+            deck[id] = id;
+        }
+        shuffle(deck, 0, CardCodec.NUM_CARDS, random);
+
+        hands[0] = 0L;
+        hands[1] = 0L;
+        int pointer = 0;
+        for (int i = 0; i < Hand.MAX_CARDS_IN_HAND; i++) {
+            hands[0] |= 1L << deck[pointer++];
+            hands[1] |= 1L << deck[pointer++];
+        }
+        // La briscola viene spostata in fondo: sarà l'ultima carta pescata
+        briscolaCard = deck[pointer];
+        deck[pointer] = deck[CardCodec.NUM_CARDS - 1];
+        deck[CardCodec.NUM_CARDS - 1] = briscolaCard;
+        briscolaSuit = CardCodec.suit(briscolaCard);
+
+        deckPointer = pointer;
+        deckEnd = CardCodec.NUM_CARDS;
+        points[0] = 0;
+        points[1] = 0;
+        played = 0L;
+        leader = firstPlayer;
+        tableCard = CardCodec.NO_CARD;
+    }
+
+    /**
+     * Completa in modo casuale le informazioni nascoste della posizione vista dalla CPU:
+     * la mano dell'avversario e l'ordine del mazzo vengono estratti uniformemente
+     * tra le carte non ancora viste, tenendo la briscola scoperta in fondo al mazzo.
+     *
+     * @param position la posizione vista dalla CPU (giocatore 0)
+     * @param random   il generatore da usare per l'estrazione
+     */
+    public void determinize(Position position, FastRandom random) {
+        determinize(position, null, random);
+    }
+
+    /**
+     * Come {@link #determinize(Position, FastRandom)}, ma la mano dell'avversario viene estratta
+     * con probabilità proporzionali ai pesi del modello dell'avversario.
+     *
+     * @param position la posizione vista dalla CPU (giocatore 0)
+     * @param belief   il modello della mano avversaria, oppure null per un'estrazione uniforme
+     * @param random   il generatore da usare per l'estrazione
+     */
+    public void determinize(Position position, OpponentBelief belief, FastRandom random) {
+        long hand = position.getHand();
+        long unseen = position.getRemaining();
+        tableCard = position.getTableCard();
+        leader = tableCard == CardCodec.NO_CARD ? 0 : 1;
+        briscolaCard = position.getBriscolaCard();
+        briscolaSuit = CardCodec.suit(briscolaCard);
+        points[0] = position.getMyPoints();
+        points[1] = position.getOpponentPoints();
+        played = CardCodec.ALL_CARDS & ~hand & ~unseen;
+        if (tableCard != CardCodec.NO_CARD) {
+            played &= ~(1L << tableCard);
+        }
+
+        int handSize = Long.bitCount(hand);
+        int opponentSize = Math.min(leader == 0 ? handSize : handSize - 1, Long.bitCount(unseen));
+        int deckSize = Long.bitCount(unseen) - opponentSize;
+
+        // Con il mazzo non vuoto la briscola scoperta non può essere in mano all'avversario
+        long briscolaBit = 1L << briscolaCard;
+        boolean briscolaInDeck = deckSize > 0 && (unseen & briscolaBit) != 0;
+        if (briscolaInDeck) {
+            unseen &= ~briscolaBit;
+        }
+
+        hands[0] = hand;
+        hands[1] = 0L;
+        if (belief != null) {
+            hands[1] = belief.sampleHand(unseen, opponentSize, random);
+            unseen &= ~hands[1];
+        }
+
+        int count = 0;
+        for (long m = unseen; m != 0; m &= m - 1) {
+            scratch[count++] = Long.numberOfTrailingZeros(m);
+        }
+        shuffle(scratch, 0, count, random);
+
+        int dealt = 0;
+        while (Long.bitCount(hands[1]) < opponentSize) {
+            hands[1] |= 1L << scratch[dealt++];
+        }
+        deckPointer = 0;
+        deckEnd = 0;
+        for (int i = dealt; i < count; i++) {
+            deck[deckEnd++] = scratch[i];
+        }
+        if (briscolaInDeck) {
+            deck[deckEnd++] = briscolaCard;
+        }
+    }
+
+    /**
+     * Copia in questo stato lo stato indicato, senza allocare.
+     */
+    public void copyFrom(RolloutState other) {
+        hands[0] = other.hands[0];
+        hands[1] = other.hands[1];
+        points[0] = other.points[0];
+        points[1] = other.points[1];
+        System.arraycopy(other.deck, other.deckPointer, deck, other.deckPointer, other.deckEnd - other.deckPointer);
+        deckPointer = other.deckPointer;
+        deckEnd = other.deckEnd;
+        played = other.played;
+        leader = other.leader;
+        tableCard = other.tableCard;
+        briscolaCard = other.briscolaCard;
+        briscolaSuit = other.briscolaSuit;
+    }
+
+    /**
+     * Gioca una carta per il giocatore di turno. Se è la seconda carta della mano,
+     * la mano viene valutata, i punti assegnati e i giocatori pescano (prima il vincitore).
+     *
+     * @param card id di una carta in mano al giocatore di turno
+     */
+    public void play(int card) {
+        int mover = getToMove();
+        hands[mover] &= ~(1L << card);
+        if (tableCard == CardCodec.NO_CARD) {
+            tableCard = card;
+            return;
+        }
+
+        int lead = tableCard;
+        int winner = (CardTables.beaters(lead, briscolaSuit) & (1L << card)) != 0 ? mover : leader;
+        points[winner] += CardTables.points(lead) + CardTables.points(card);
+        played |= (1L << lead) | (1L << card);
+        tableCard = CardCodec.NO_CARD;
+        leader = winner;
+
+        if (deckPointer < deckEnd) {
+            hands[winner] |= 1L << deck[deckPointer++];
+            hands[1 - winner] |= 1L << deck[deckPointer++];
+        }
+    }
+
+    /**
+     * Verifica se la partita è finita (entrambe le mani vuote e nessuna carta sul tavolo).
+     */
+    public boolean isOver() {
+        return (hands[0] | hands[1]) == 0 && tableCard == CardCodec.NO_CARD;
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getHand(int player) {
+        return hands[player];
+    }
+
+    public int getPoints(int player) {
+        return points[player];
+    }
+
+    /**
+     * Restituisce il giocatore che deve giocare la prossima carta.
+     */
+    public int getToMove() {
+        return tableCard == CardCodec.NO_CARD ? leader : 1 - leader;
+    }
+
+    public int getLeader() {
+        return leader;
+    }
+
+    /**
+     * Restituisce la carta giocata per prima nella mano in corso, oppure {@link CardCodec#NO_CARD}.
+     */
+    public int getTableCard() {
+        return tableCard;
+    }
+
+    public int getBriscolaCard() {
+        return briscolaCard;
+    }
+
+    public int getBriscolaSuit() {
+        return briscolaSuit;
+    }
+
+    /**
+     * Restituisce la maschera delle carte già uscite nelle mani concluse.
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * Restituisce il numero di carte ancora da pescare, briscola scoperta compresa.
+     */
+    public int getDeckSize() {
+        return deckEnd - deckPointer;
+    }
+
+    /**
+     * Verifica se la prossima pescata sarà l'ultima (come {@code GameContext.isLastDraw()}).
+     */
+    public boolean isLastDraw() {
+        return getDeckSize() == 2;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void shuffle(int[] cards, int from, int to, FastRandom random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logica comune delle tabelle delle trasposizioni lock-free.
+ * <p>
+ * Le voci sono organizzate in gruppi di due: la prima è sostituita solo da ricerche
+ * di profondità almeno uguale (o dalla stessa posizione), la seconda è sempre sostituita.
+ * Ogni voce memorizza {@code chiave ^ dati} accanto ai dati: se una scrittura concorrente
+ * viene letta a metà la verifica fallisce e la lettura è trattata come un mancato riscontro.
+ * Le sottoclassi forniscono solo l'accesso atomico ai singoli {@code long} della voce.
+ */
+public abstract class AbstractTranspositionTable implements TranspositionTable {
+
+    protected static final int SLOTS_PER_BUCKET = 2;
+
+    private final long slots;
+    private final long bucketMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * @param slots numero di voci, potenza di due non inferiore a {@link #SLOTS_PER_BUCKET}
+     */
+    protected AbstractTranspositionTable(long slots) {
+        if (slots < SLOTS_PER_BUCKET || Long.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Il numero di voci deve essere una potenza di due: " + slots);
+        }
+        this.slots = slots;
+        this.bucketMask = slots / SLOTS_PER_BUCKET - 1;
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public long probe(long key) {
+        probes.increment();
+        long bucket = bucketOf(key);
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            long data = readData(bucket + i);
+            long check = readCheck(bucket + i);
+            if (data != TTEntry.EMPTY && (check ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return TTEntry.EMPTY;
+    }
+
+    @Override
+    public void store(long key, int depth, int value, int bound, int move) {
+        stores.increment();
+        long data = TTEntry.pack(depth, value, bound, move);
+        long bucket = bucketOf(key);
+
+        // Prima voce: sostituita se vuota, se è la stessa posizione o se la nuova ricerca è più profonda
+        long firstData = readData(bucket);
+        long firstCheck = readCheck(bucket);
+        boolean sameKey = firstData != TTEntry.EMPTY && (firstCheck ^ firstData) == key;
+        if (firstData == TTEntry.EMPTY || sameKey || depth >= TTEntry.depth(firstData)) {
+            if (!sameKey && firstData != TTEntry.EMPTY) {
+                collisions.increment();
+            }
+            write(bucket, key ^ data, data);
+            return;
+        }
+
+        // Seconda voce: sempre sostituita
+        long secondData = readData(bucket + 1);
+        if (secondData != TTEntry.EMPTY && (readCheck(bucket + 1) ^ secondData) != key) {
+            collisions.increment();
+        }
+        write(bucket + 1, key ^ data, data);
+    }
+
+    @Override
+    public void clear() {
+        for (long slot = 0; slot < slots; slot++) {
+            write(slot, 0L, 0L);
+        }
+    }
+
+    @Override
+    public long capacity() {
+        return slots;
+    }
+
+    /**
+     * Restituisce la percentuale di ricerche che hanno trovato la posizione (tra 0 e 1).
+     */
+    public double hitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Azzera le statistiche di utilizzo.
+     */
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Restituisce il numero di scritture che hanno sovrascritto una posizione diversa.
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[capacity=%d, hitRate=%.2f%%, probes=%d, stores=%d, collisions=%d]",
+                getClass().getSimpleName(), slots, 100.0 * hitRate(), getProbes(), getStores(), getCollisions());
+    }
+
+    // == METODI DI ACCESSO ALLE VOCI ==
+
+    /**
+     * Legge la parte di verifica ({@code chiave ^ dati}) della voce.
+     */
+    protected abstract long readCheck(long slot);
+
+    /**
+     * Legge i dati della voce.
+     */
+    protected abstract long readData(long slot);
+
+    /**
+     * Scrive la voce: prima la verifica, poi i dati.
+     */
+    protected abstract void write(long slot, long check, long data);
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Restituisce l'indice della prima voce del gruppo associato alla chiave.
+     */
+    private long bucketOf(long key) {
+        key ^= key >>> 31;
+        key *= 0x7FB5D329728EA185L;
+        key ^= key >>> 27;
+        return (key & bucketMask) * SLOTS_PER_BUCKET;
+    }
+}
@@ -0,0 +1,63 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+/**
+ * Indicizzazione compatta dei sottoinsiemi di carte (sistema numerico combinatorio).
+ * <p>
+ * Un insieme di k carte, rappresentato come maschera di bit, viene trasformato nel suo rango
+ * in ordine colessicografico, un intero compreso tra 0 e C(n, k) - 1. Permette di memorizzare
+ * tabelle dense, senza buchi, indicizzate da mani di carte.
+ */
+final class Combinations {
+
+    private static final int MAX_N = 64;
+    private static final int MAX_K = 4;
+    private static final long[][] BINOMIAL = new long[MAX_N + 1][MAX_K + 1];
+
+    static {
+        for (int n = 0; n <= MAX_N; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= MAX_K; k++) {
+                BINOMIAL[n][k] = n == 0 ? 0 : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private Combinations() {
+    }
+
+    /**
+     * Restituisce il coefficiente binomiale C(n, k) per k al massimo 4.
+     */
+    static long binomial(int n, int k) {
+        return n < 0 || k < 0 || k > n ? 0 : BINOMIAL[n][k];
+    }
+
+    /**
+     * Restituisce il rango colessicografico dell'insieme di bit indicato.
+     */
+    static long rank(long mask) {
+        long rank = 0;
+        int i = 1;
+        for (long m = mask; m != 0; m &= m - 1, i++) {
+            rank += BINOMIAL[Long.numberOfTrailingZeros(m)][i];
+        }
+        return rank;
+    }
+
+    /**
+     * Restituisce l'insieme di k bit con il rango colessicografico indicato.
+     */
+    static long unrank(long rank, int k) {
+        long mask = 0L;
+        int position = MAX_N - 1;
+        for (int i = k; i >= 1; i--) {
+            while (BINOMIAL[position][i] > rank) {
+                position--;
+            }
+            mask |= 1L << position;
+            rank -= BINOMIAL[position][i];
+            position--;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,412 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import it.filippo.casadei.model.player.cpu.Deadline;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Risolutore esatto dei finali di Briscola a mazzo vuoto.
+ * <p>
+ * Quando il mazzo e la briscola sono stati pescati, le carte non ancora viste sono esattamente
+ * quelle in mano all'avversario: il finale è a informazione perfetta e può essere risolto con
+ * una ricerca alfa-beta (negamax) completa. Il valore di una posizione è la differenza tra i punti
+ * che il giocatore di turno e l'avversario conquisteranno da quel momento, carta sul tavolo compresa.
+ * <p>
+ * La ricerca parallela segue lo schema "Lazy SMP": più thread cercano la stessa posizione con un
+ * ordine delle mosse diverso, condividendo una {@link TranspositionTable} lock-free; il primo che
+ * termina fornisce il risultato e ferma gli altri. Ogni thread approfondisce la ricerca una mano
+ * alla volta (iterative deepening): se la scadenza si esaurisce prima della fine, si usa la mossa
+ * migliore dell'ultima profondità completata.
+ */
+public final class EndgameSolver {
+
+    private static final int INFINITY = 1000;
+    private static final int DEADLINE_CHECK_NODES = 1024;
+
+    private static final ExecutorService HELPERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "endgame-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TranspositionTable table;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un risolutore che usa la tabella delle trasposizioni indicata.
+     *
+     * @param table tabella condivisa tra tutte le ricerche del risolutore
+     */
+    public EndgameSolver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Verifica se la posizione è un finale a mazzo vuoto, cioè se le carte non ancora viste
+     * sono esattamente quelle in mano all'avversario.
+     *
+     * @param position la posizione vista dalla CPU
+     * @return true se il finale può essere risolto in modo esatto
+     */
+    public static boolean isEndgame(Position position) {
+        int handSize = Long.bitCount(position.getHand());
+        int opponentHandSize = position.isCpuFirst() ? handSize : handSize - 1;
+        return handSize > 0 && Long.bitCount(position.getRemaining()) == opponentHandSize;
+    }
+
+    /**
+     * Risolve con un solo thread il finale visto dalla CPU.
+     *
+     * @param position un finale a mazzo vuoto (vedi {@link #isEndgame(Position)})
+     * @return valore e mossa migliore per la CPU
+     */
+    public Result solve(Position position) {
+        return solve(position.getHand(), position.getRemaining(), position.getTableCard(), position.getBriscolaSuit());
+    }
+
+    /**
+     * Risolve con un solo thread il finale indicato.
+     *
+     * @param moverHand    carte del giocatore di turno
+     * @param otherHand    carte dell'avversario
+     * @param leadCard     carta giocata dall'avversario, oppure {@link CardCodec#NO_CARD} se il giocatore di turno è primo
+     * @param briscolaSuit ordinale del seme di briscola
+     * @return valore e mossa migliore per il giocatore di turno
+     */
+    public Result solve(long moverHand, long otherHand, int leadCard, int briscolaSuit) {
+        Searcher searcher = new Searcher(briscolaSuit, 0, new AtomicBoolean(false), Deadline.none());
+        return searcher.searchRoot(moverHand, otherHand, leadCard, false);
+    }
+
+    /**
+     * Risolve il finale con più thread in parallelo (Lazy SMP), entro la scadenza indicata.
+     * Se la scadenza si esaurisce prima della fine, il risultato non è completo e contiene
+     * la migliore mossa nota in quel momento: quella della ricerca completata alla profondità
+     * maggiore, con il suo valore (i punti conquistati entro quell'orizzonte). Almeno la mano
+     * in corso viene sempre valutata, anche con una scadenza già esaurita.
+     *
+     * @param moverHand    carte del giocatore di turno
+     * @param otherHand    carte dell'avversario
+     * @param leadCard     carta giocata dall'avversario, oppure {@link CardCodec#NO_CARD}
+     * @param briscolaSuit ordinale del seme di briscola
+     * @param threads      numero di thread di ricerca
+     * @param deadline     tempo a disposizione
+     * @return valore e mossa migliore per il giocatore di turno
+     */
+    public Result solveParallel(long moverHand, long otherHand, int leadCard, int briscolaSuit,
+                                int threads, Deadline deadline) {
+        if (moverHand == 0) {
+            throw new IllegalArgumentException("Il giocatore di turno non ha carte");
+        }
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicReference<Result> first = new AtomicReference<>();
+
+        List<Searcher> searchers = new ArrayList<>();
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Searcher helper = new Searcher(briscolaSuit, i, stop, deadline);
+            searchers.add(helper);
+            helpers.add(HELPERS.submit(() -> publish(helper, moverHand, otherHand, leadCard, stop, first)));
+        }
+        Searcher main = new Searcher(briscolaSuit, 0, stop, deadline);
+        searchers.add(main);
+        publish(main, moverHand, otherHand, leadCard, stop, first);
+
+        stop.set(true);
+        for (Future<?> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                throw new IllegalStateException("Errore durante la ricerca parallela", e);
+            }
+        }
+
+        Result result = first.get();
+        return result != null ? result : partialResult(searchers, moverHand);
+    }
+
+    // == GETTER E SETTER ==
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // == METODI PRIVATI ==
+
+    private static void publish(Searcher searcher, long moverHand, long otherHand, int leadCard,
+                                AtomicBoolean stop, AtomicReference<Result> first) {
+        try {
+            Result result = searcher.searchRoot(moverHand, otherHand, leadCard, true);
+            if (first.compareAndSet(null, result)) {
+                stop.set(true);
+            }
+        } catch (SearchAborted e) {
+            // un altro thread ha già terminato o la scadenza è esaurita
+        }
+    }
+
+    /**
+     * Costruisce il risultato di una ricerca interrotta: la mossa del thread che ha completato
+     * la profondità maggiore.
+     */
+    private static Result partialResult(List<Searcher> searchers, long moverHand) {
+        Searcher deepest = null;
+        long nodes = 0;
+        for (Searcher searcher : searchers) {
+            nodes += searcher.nodes;
+            if (searcher.completedDepth > 0 && (deepest == null || searcher.completedDepth > deepest.completedDepth)) {
+                deepest = searcher;
+            }
+        }
+        if (deepest == null) {
+            return new Result(0, Long.numberOfTrailingZeros(moverHand), false, nodes);
+        }
+        return new Result(deepest.completedValue, deepest.completedMove, false, nodes);
+    }
+
+    /**
+     * Hash della posizione dal punto di vista del giocatore di turno.
+     */
+    static long hash(long moverHand, long otherHand, int leadCard, int briscolaSuit) {
+        long h = mix(moverHand ^ 0x9E3779B97F4A7C15L);
+        h = mix(h ^ (otherHand * 0xBF58476D1CE4E5B9L));
+        return mix(h ^ ((leadCard + 1L) | ((long) briscolaSuit << 8)));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Segnala l'interruzione di una ricerca.
+     */
+    private static final class SearchAborted extends RuntimeException {
+        SearchAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Ricerca alfa-beta eseguita da un singolo thread.
+     */
+    private final class Searcher {
+        private final int briscolaSuit;
+        private final int rotation;
+        private final AtomicBoolean stop;
+        private final Deadline deadline;
+        private long nodes;
+        // Risultato dell'ultima profondità completata alla radice (letto da solveParallel dopo la fine del thread)
+        private int completedDepth = 0;
+        private int completedValue;
+        private int completedMove = TTEntry.NO_MOVE;
+
+        Searcher(int briscolaSuit, int rotation, AtomicBoolean stop, Deadline deadline) {
+            this.briscolaSuit = briscolaSuit;
+            this.rotation = rotation;
+            this.stop = stop;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cerca la mossa migliore alla radice.
+         *
+         * @param iterative se true approfondisce una mano alla volta, ricordando il risultato
+         *                  di ogni profondità completata; altrimenti cerca subito fino alla fine
+         */
+        Result searchRoot(long moverHand, long otherHand, int leadCard, boolean iterative) {
+            if (moverHand == 0) {
+                throw new IllegalArgumentException("Il giocatore di turno non ha carte");
+            }
+            // La profondità è il numero di carte da giocare: i passi seguono la fine di ogni mano
+            int fullDepth = Long.bitCount(moverHand) + Long.bitCount(otherHand);
+            int depth = iterative ? Math.min(fullDepth, leadCard == CardCodec.NO_CARD ? 2 : 1) : fullDepth;
+            while (true) {
+                searchRootAt(moverHand, otherHand, leadCard, depth);
+                if (depth == fullDepth) {
+                    return new Result(completedValue, completedMove, true, nodes);
+                }
+                depth = Math.min(fullDepth, depth + 2);
+            }
+        }
+
+        /**
+         * Ricerca alla radice limitata alla profondità indicata; la mossa migliore della profondità
+         * precedente viene provata per prima.
+         */
+        private void searchRootAt(long moverHand, long otherHand, int leadCard, int depth) {
+            int bestValue = -INFINITY;
+            int bestMove = TTEntry.NO_MOVE;
+            int alpha = -INFINITY;
+            int previous = completedMove;
+            if (previous != TTEntry.NO_MOVE) {
+                bestValue = child(moverHand, otherHand, leadCard, previous, alpha, INFINITY, depth);
+                bestMove = previous;
+                alpha = bestValue;
+            }
+            int count = Long.bitCount(moverHand);
+            for (int i = 0; i < count; i++) {
+                int card = moveAt(moverHand, i);
+                if (card == previous) continue;
+                int value = child(moverHand, otherHand, leadCard, card, alpha, INFINITY, depth);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestMove = card;
+                    alpha = Math.max(alpha, value);
+                }
+            }
+            table.store(hash(moverHand, otherHand, leadCard, briscolaSuit), depth, bestValue, TTEntry.BOUND_EXACT, bestMove);
+            completedValue = bestValue;
+            completedMove = bestMove;
+            completedDepth = depth;
+        }
+
+        /**
+         * Negamax alfa-beta limitato a {@code depth} carte: oltre l'orizzonte i punti non ancora
+         * conquistati valgono 0. Con la profondità pari alle carte rimaste il valore è esatto.
+         */
+        private int search(long moverHand, long otherHand, int leadCard, int alpha, int beta, int depth) {
+            nodes++;
+            // La prima profondità alla radice viene sempre completata, così c'è sempre una mossa valutata
+            if (completedDepth > 0 && (stop.get() || (nodes % DEADLINE_CHECK_NODES == 0 && deadline.isExpired()))) {
+                throw new SearchAborted();
+            }
+            if (moverHand == 0 || depth == 0) {
+                return 0;  // nessuna carta rimasta (fine partita) oppure orizzonte raggiunto
+            }
+
+            long key = hash(moverHand, otherHand, leadCard, briscolaSuit);
+            int ttMove = TTEntry.NO_MOVE;
+            long data = table.probe(key);
+            if (data != TTEntry.EMPTY) {
+                ttMove = TTEntry.move(data);
+                if (TTEntry.depth(data) >= depth) {
+                    int value = TTEntry.value(data);
+                    int bound = TTEntry.bound(data);
+                    if (bound == TTEntry.BOUND_EXACT
+                            || (bound == TTEntry.BOUND_LOWER && value >= beta)
+                            || (bound == TTEntry.BOUND_UPPER && value <= alpha)) {
+                        return value;
+                    }
+                }
+            }
+
+            int originalAlpha = alpha;
+            int bestValue = -INFINITY;
+            int bestMove = TTEntry.NO_MOVE;
+
+            // Prima la mossa suggerita dalla tabella, poi le altre nell'ordine del thread
+            if (ttMove != TTEntry.NO_MOVE && (moverHand & (1L << ttMove)) != 0) {
+                bestValue = child(moverHand, otherHand, leadCard, ttMove, alpha, beta, depth);
+                bestMove = ttMove;
+                alpha = Math.max(alpha, bestValue);
+            }
+            int count = Long.bitCount(moverHand);
+            for (int i = 0; i < count && alpha < beta; i++) {
+                int card = moveAt(moverHand, i);
+                if (card == ttMove) continue;
+                int value = child(moverHand, otherHand, leadCard, card, alpha, beta, depth);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestMove = card;
+                    alpha = Math.max(alpha, value);
+                }
+            }
+
+            int bound = bestValue <= originalAlpha ? TTEntry.BOUND_UPPER
+                    : bestValue >= beta ? TTEntry.BOUND_LOWER
+                    : TTEntry.BOUND_EXACT;
+            table.store(key, depth, bestValue, bound, bestMove);
+            return bestValue;
+        }
+
+        /**
+         * Valore per il giocatore di turno dopo aver giocato la carta indicata, cercando fino alla
+         * profondità indicata (carta giocata compresa).
+         */
+        private int child(long moverHand, long otherHand, int leadCard, int card, int alpha, int beta, int depth) {
+            long rest = moverHand & ~(1L << card);
+            if (leadCard == CardCodec.NO_CARD) {
+                // Il giocatore di turno apre la mano: ora risponde l'avversario
+                return -search(otherHand, rest, card, -beta, -alpha, depth - 1);
+            }
+            int points = CardCodec.points(leadCard) + CardCodec.points(card);
+            if (CardCodec.secondWins(leadCard, card, briscolaSuit)) {
+                // Il giocatore di turno prende e apre la mano successiva
+                return points + search(rest, otherHand, CardCodec.NO_CARD, alpha - points, beta - points, depth - 1);
+            }
+            // L'avversario prende e apre la mano successiva
+            return -points - search(otherHand, rest, CardCodec.NO_CARD, -points - beta, -points - alpha, depth - 1);
+        }
+
+        /**
+         * Restituisce la carta della mano che occupa la posizione indicata, ruotata in base al thread
+         * così che ogni thread visiti le mosse in un ordine diverso.
+         */
+        private int moveAt(long hand, int position) {
+            int count = Long.bitCount(hand);
+            int target = (position + rotation) % count;
+            long h = hand;
+            for (int i = 0; i < target; i++) {
+                h &= h - 1;
+            }
+            return Long.numberOfTrailingZeros(h);
+        }
+    }
+
+    /**
+     * Risultato della risoluzione di un finale.
+     */
+    public static final class Result {
+        private final int value;
+        private final int bestMove;
+        private final boolean complete;
+        private final long nodes;
+
+        Result(int value, int bestMove, boolean complete, long nodes) {
+            this.value = value;
+            this.bestMove = bestMove;
+            this.complete = complete;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Differenza tra i punti del giocatore di turno e quelli dell'avversario nel resto della partita.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * Id della carta migliore da giocare.
+         */
+        public int getBestMove() {
+            return bestMove;
+        }
+
+        /**
+         * True se la ricerca è terminata e il valore è esatto.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import it.filippo.casadei.model.player.cpu.position.SuitCanonicalizer;
+import it.filippo.casadei.model.player.cpu.position.SuitPermutation;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tablebase dei finali a mazzo vuoto, salvata in un file mappato in memoria (fuori dallo heap).
+ * <p>
+ * Per ogni finale in cui il giocatore di turno apre la mano ed entrambi hanno n carte
+ * (n da 1 a 3) il file contiene un byte: la differenza esatta tra i punti che il giocatore di turno
+ * e l'avversario conquisteranno fino alla fine. Le posizioni sono ridotte per simmetria dei semi:
+ * la briscola è sempre il seme 0 e i tre semi non di briscola sono in forma canonica, quindi
+ * una sola tabella copre ogni seme di briscola. L'indice è denso: rango della mano del giocatore
+ * di turno per rango della mano avversaria tra le carte rimaste.
+ * <p>
+ * Le posizioni in cui si risponde a una carta già giocata non sono memorizzate: il loro valore
+ * si ottiene con al massimo tre letture del livello inferiore. La tabella è generata da
+ * {@link EndgameTablebaseGenerator}.
+ */
+public final class EndgameTablebase {
+
+    public static final int MAX_CARDS = 3;
+    public static final byte UNKNOWN = Byte.MIN_VALUE;
+
+    static final long MAGIC = 0x4252495343544231L;  // "BRISCTB1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4096;
+    static final int MAX_CHUNKS = 256;
+    static final int LEVELS_OFFSET = 16;
+    static final int CHUNK_FLAGS_OFFSET = 64;
+
+    private final MappedByteBuffer buffer;
+    private final int maxCards;
+    private final long[] levelOffsets = new long[MAX_CARDS + 1];
+
+    // == COSTRUTTORE ==
+
+    EndgameTablebase(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.maxCards = buffer.getInt(12);
+        for (int n = 1; n <= maxCards; n++) {
+            levelOffsets[n] = buffer.getLong(LEVELS_OFFSET + (n - 1) * 16);
+        }
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Apre in sola lettura la tablebase salvata nel file indicato.
+     *
+     * @param file il file generato da {@link EndgameTablebaseGenerator}
+     * @return la tablebase
+     * @throws IOException se il file non può essere letto o non è una tablebase completa
+     */
+    public static EndgameTablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+                throw new IOException("Il file " + file + " non è una tablebase valida");
+            }
+            EndgameTablebase tablebase = new EndgameTablebase(buffer);
+            for (int n = 1; n <= tablebase.maxCards; n++) {
+                if (!tablebase.isLevelComplete(n)) {
+                    throw new IOException("La tablebase " + file + " non è completa (livello " + n + ")");
+                }
+            }
+            return tablebase;
+        }
+    }
+
+    /**
+     * Verifica se la tablebase contiene i finali in cui il giocatore di turno ha le carte indicate.
+     */
+    public boolean covers(int handSize) {
+        return handSize >= 1 && handSize <= maxCards;
+    }
+
+    /**
+     * Verifica se la tablebase può risolvere la posizione vista dalla CPU.
+     */
+    public boolean covers(Position position) {
+        return EndgameSolver.isEndgame(position) && covers(Long.bitCount(position.getHand()));
+    }
+
+    /**
+     * Restituisce il valore esatto del finale per il giocatore di turno.
+     *
+     * @param moverHand    carte del giocatore di turno
+     * @param otherHand    carte dell'avversario
+     * @param leadCard     carta giocata dall'avversario, oppure {@link CardCodec#NO_CARD}
+     * @param briscolaSuit ordinale del seme di briscola
+     * @return differenza tra i punti del giocatore di turno e quelli dell'avversario fino alla fine
+     */
+    public int value(long moverHand, long otherHand, int leadCard, int briscolaSuit) {
+        if (leadCard == CardCodec.NO_CARD) {
+            return leadingValue(moverHand, otherHand, briscolaSuit);
+        }
+        return replyValue(moverHand, otherHand, leadCard, briscolaSuit, null);
+    }
+
+    /**
+     * Restituisce la carta migliore da giocare nel finale.
+     *
+     * @return l'id della carta migliore per il giocatore di turno
+     */
+    public int bestMove(long moverHand, long otherHand, int leadCard, int briscolaSuit) {
+        if (leadCard != CardCodec.NO_CARD) {
+            int[] best = new int[1];
+            replyValue(moverHand, otherHand, leadCard, briscolaSuit, best);
+            return best[0];
+        }
+
+        int bestValue = Integer.MIN_VALUE;
+        int bestMove = Long.numberOfTrailingZeros(moverHand);
+        for (long m = moverHand; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            int value = -replyValue(otherHand, moverHand & ~(1L << card), card, briscolaSuit, null);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = card;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Restituisce la carta migliore per la CPU nella posizione indicata.
+     *
+     * @param position un finale coperto dalla tablebase (vedi {@link #covers(Position)})
+     * @return l'id della carta migliore
+     */
+    public int bestMove(Position position) {
+        return bestMove(position.getHand(), position.getRemaining(), position.getTableCard(), position.getBriscolaSuit());
+    }
+
+    // == GETTER E SETTER ==
+
+    public int getMaxCards() {
+        return maxCards;
+    }
+
+    // == METODI PACKAGE-PRIVATE (condivisi con il generatore) ==
+
+    /**
+     * Valore di un finale in cui il giocatore di turno apre la mano.
+     */
+    int leadingValue(long moverHand, long otherHand, int briscolaSuit) {
+        int n = Long.bitCount(moverHand);
+        if (n == 0) {
+            return 0;
+        }
+        SuitPermutation permutation = SuitCanonicalizer.canonicalPermutation(briscolaSuit, moverHand, otherHand);
+        long mover = permutation.maskToCanonical(moverHand);
+        long other = permutation.maskToCanonical(otherHand);
+        byte value = buffer.get((int) (levelOffsets[n] + index(n, mover, other)));
+        if (value == UNKNOWN) {
+            throw new IllegalStateException("Finale non presente nella tablebase: " + n + " carte");
+        }
+        return value;
+    }
+
+    /**
+     * Valore di un finale in cui il giocatore di turno risponde alla carta dell'avversario,
+     * calcolato dal livello inferiore. Se {@code bestMove} non è null vi salva la carta migliore.
+     */
+    int replyValue(long moverHand, long otherHand, int leadCard, int briscolaSuit, int[] bestMove) {
+        int bestValue = Integer.MIN_VALUE;
+        for (long m = moverHand; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            long rest = moverHand & ~(1L << card);
+            int points = CardCodec.points(leadCard) + CardCodec.points(card);
+            int value = CardCodec.secondWins(leadCard, card, briscolaSuit)
+                    ? points + leadingValue(rest, otherHand, briscolaSuit)
+                    : -points - leadingValue(otherHand, rest, briscolaSuit);
+            if (value > bestValue) {
+                bestValue = value;
+                if (bestMove != null) {
+                    bestMove[0] = card;
+                }
+            }
+        }
+        return bestValue;
+    }
+
+    boolean isLevelComplete(int n) {
+        for (int chunk = 0; chunk < chunkCount(n); chunk++) {
+            if (!isChunkDone(n, chunk)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isChunkDone(int n, int chunk) {
+        return buffer.get(CHUNK_FLAGS_OFFSET + (n - 1) * MAX_CHUNKS + chunk) != 0;
+    }
+
+    /**
+     * Indice denso di un finale canonico con n carte per giocatore.
+     */
+    static long index(int n, long mover, long other) {
+        long otherCompressed = Long.compress(other, ~mover & CardCodec.ALL_CARDS);
+        return Combinations.rank(mover) * Combinations.binomial(CardCodec.NUM_CARDS - n, n)
+                + Combinations.rank(otherCompressed);
+    }
+
+    /**
+     * Numero di finali memorizzati per il livello con n carte per giocatore.
+     */
+    static long levelSize(int n) {
+        return Combinations.binomial(CardCodec.NUM_CARDS, n) * Combinations.binomial(CardCodec.NUM_CARDS - n, n);
+    }
+
+    /**
+     * Numero di mani del giocatore di turno elaborate da ciascun blocco di generazione.
+     */
+    static long chunkSize(int n) {
+        long hands = Combinations.binomial(CardCodec.NUM_CARDS, n);
+        return (hands + MAX_CHUNKS - 1) / MAX_CHUNKS;
+    }
+
+    static int chunkCount(int n) {
+        long hands = Combinations.binomial(CardCodec.NUM_CARDS, n);
+        return (int) ((hands + chunkSize(n) - 1) / chunkSize(n));
+    }
+}
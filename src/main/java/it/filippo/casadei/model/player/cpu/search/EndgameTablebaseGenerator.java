@@ -0,0 +1,216 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.SuitCanonicalizer;
+import it.filippo.casadei.model.player.cpu.position.SuitPermutation;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generatore offline della {@link EndgameTablebase} con analisi retrograda.
+ * <p>
+ * I livelli sono calcolati dal più piccolo al più grande: il valore di un finale con n carte
+ * per giocatore dipende solo dai finali con n - 1 carte, già presenti nel file, quindi ogni
+ * posizione costa al massimo nove letture e nessuna ricerca. Vengono calcolate solo le posizioni
+ * canoniche rispetto ai semi non di briscola.
+ * <p>
+ * Ogni livello è diviso in blocchi elaborati in parallelo; quando un blocco è stato scritto
+ * su disco viene segnato come completato nell'intestazione del file, così una generazione
+ * interrotta riprende dal primo blocco mancante.
+ * <p>
+ * Uso: {@code EndgameTablebaseGenerator <file> [carte per giocatore = 3] [thread = numero di core]}
+ */
+public final class EndgameTablebaseGenerator {
+
+    private EndgameTablebaseGenerator() {
+    }
+
+    /**
+     * Genera (o completa) la tablebase indicata da riga di comando.
+     *
+     * @param args file di destinazione, carte massime per giocatore e numero di thread
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: EndgameTablebaseGenerator <file> [carte per giocatore] [thread]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        int maxCards = args.length > 1 ? Integer.parseInt(args[1]) : EndgameTablebase.MAX_CARDS;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        generate(file, maxCards, threads);
+        System.out.println("Tablebase generata in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + file);
+    }
+
+    /**
+     * Genera la tablebase nel file indicato, riprendendo dai blocchi mancanti se il file esiste già.
+     * Un file con l'intestazione tutta a zero (generazione interrotta prima che l'intestazione
+     * arrivasse su disco) viene generato da capo.
+     *
+     * @param file     il file della tablebase
+     * @param maxCards numero massimo di carte per giocatore (da 1 a 3)
+     * @param threads  numero di thread di generazione
+     * @throws IOException se il file non può essere scritto o appartiene a una tablebase diversa
+     */
+    public static void generate(Path file, int maxCards, int threads) throws IOException, InterruptedException {
+        if (maxCards < 1 || maxCards > EndgameTablebase.MAX_CARDS) {
+            throw new IllegalArgumentException("Numero di carte non valido: " + maxCards);
+        }
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = EndgameTablebase.HEADER_BYTES;
+            for (int n = 1; n <= maxCards; n++) {
+                size += EndgameTablebase.levelSize(n);
+            }
+            boolean empty = channel.size() == 0;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            // Un'intestazione tutta a zero indica una generazione interrotta prima di scriverla
+            if (empty || isBlankHeader(buffer)) {
+                writeHeader(buffer, maxCards);
+            } else if (buffer.getLong(0) != EndgameTablebase.MAGIC
+                    || buffer.getInt(8) != EndgameTablebase.VERSION
+                    || buffer.getInt(12) != maxCards) {
+                throw new IOException("Il file " + file + " contiene una tablebase diversa");
+            }
+
+            EndgameTablebase tablebase = new EndgameTablebase(buffer);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (int n = 1; n <= maxCards; n++) {
+                    generateLevel(buffer, tablebase, n, executor);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            buffer.force();
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Scrive l'intestazione di un file nuovo e la forza su disco; il numero magico è scritto per ultimo.
+     */
+    private static void writeHeader(MappedByteBuffer buffer, int maxCards) {
+        buffer.putInt(8, EndgameTablebase.VERSION);
+        buffer.putInt(12, maxCards);
+        long offset = EndgameTablebase.HEADER_BYTES;
+        for (int n = 1; n <= maxCards; n++) {
+            buffer.putLong(EndgameTablebase.LEVELS_OFFSET + (n - 1) * 16, offset);
+            buffer.putLong(EndgameTablebase.LEVELS_OFFSET + (n - 1) * 16 + 8, EndgameTablebase.levelSize(n));
+            offset += EndgameTablebase.levelSize(n);
+        }
+        buffer.putLong(0, EndgameTablebase.MAGIC);
+        buffer.force(0, EndgameTablebase.HEADER_BYTES);
+    }
+
+    private static boolean isBlankHeader(MappedByteBuffer buffer) {
+        for (int i = 0; i < EndgameTablebase.HEADER_BYTES; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcola in parallelo i blocchi non ancora completati del livello con n carte.
+     */
+    private static void generateLevel(MappedByteBuffer buffer, EndgameTablebase tablebase, int n,
+                                      ExecutorService executor) throws InterruptedException, IOException {
+        long levelOffset = buffer.getLong(EndgameTablebase.LEVELS_OFFSET + (n - 1) * 16);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        int skipped = 0;
+        for (int chunk = 0; chunk < EndgameTablebase.chunkCount(n); chunk++) {
+            if (tablebase.isChunkDone(n, chunk)) {
+                skipped++;
+                continue;
+            }
+            int current = chunk;
+            tasks.add(() -> {
+                generateChunk(buffer, tablebase, n, current, levelOffset);
+                return null;
+            });
+        }
+        System.out.println("Livello " + n + ": " + tasks.size() + " blocchi da calcolare, "
+                + skipped + " già completati");
+
+        for (Future<Void> result : executor.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Errore durante la generazione del livello " + n, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Calcola tutti i finali di un blocco, li scrive su disco e segna il blocco come completato.
+     */
+    private static void generateChunk(MappedByteBuffer buffer, EndgameTablebase tablebase,
+                                      int n, int chunk, long levelOffset) {
+        long hands = Combinations.binomial(CardCodec.NUM_CARDS, n);
+        long otherHands = Combinations.binomial(CardCodec.NUM_CARDS - n, n);
+        long first = chunk * EndgameTablebase.chunkSize(n);
+        long last = Math.min(hands, first + EndgameTablebase.chunkSize(n));
+
+        for (long moverRank = first; moverRank < last; moverRank++) {
+            long mover = Combinations.unrank(moverRank, n);
+            long free = ~mover & CardCodec.ALL_CARDS;
+            for (long otherRank = 0; otherRank < otherHands; otherRank++) {
+                long other = Long.expand(Combinations.unrank(otherRank, n), free);
+                int index = (int) (levelOffset + moverRank * otherHands + otherRank);
+                buffer.put(index, isCanonical(mover, other)
+                        ? (byte) solveLeading(tablebase, mover, other)
+                        : EndgameTablebase.UNKNOWN);
+            }
+        }
+
+        int from = (int) (levelOffset + first * otherHands);
+        buffer.force(from, (int) ((last - first) * otherHands));
+        markChunkDone(buffer, n, chunk);
+    }
+
+    /**
+     * Valore di un finale in cui il giocatore di turno apre la mano, dal livello inferiore.
+     */
+    private static int solveLeading(EndgameTablebase tablebase, long mover, long other) {
+        int best = Integer.MIN_VALUE;
+        for (long m = mover; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            best = Math.max(best, -tablebase.replyValue(other, mover & ~(1L << card), card, 0, null));
+        }
+        return best;
+    }
+
+    /**
+     * Verifica se la posizione (con briscola nel seme 0) è già in forma canonica.
+     */
+    private static boolean isCanonical(long mover, long other) {
+        SuitPermutation permutation = SuitCanonicalizer.canonicalPermutation(0, mover, other);
+        return permutation.maskToCanonical(mover) == mover && permutation.maskToCanonical(other) == other;
+    }
+
+    private static synchronized void markChunkDone(MappedByteBuffer buffer, int n, int chunk) {
+        int flag = EndgameTablebase.CHUNK_FLAGS_OFFSET + (n - 1) * EndgameTablebase.MAX_CHUNKS + chunk;
+        buffer.put(flag, (byte) 1);
+        buffer.force(0, EndgameTablebase.HEADER_BYTES);
+    }
+}
@@ -0,0 +1,167 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabella delle trasposizioni persistente, salvata in un file mappato in memoria.
+ * <p>
+ * Il file contiene un'intestazione di 64 byte seguita da voci di dimensione fissa
+ * (16 byte: chiave verificata e dati). L'apertura è immediata perché il sistema operativo
+ * carica le pagine solo quando vengono lette, e il contenuto sopravvive ai riavvii della JVM:
+ * la CPU gioca alla massima forza già dalla prima mossa dopo un rilascio.
+ * Più processi sullo stesso host possono condividere lo stesso file.
+ * <p>
+ * I {@code long} sono salvati nell'ordine dei byte nativo, quindi il file non è portabile
+ * tra architetture diverse.
+ */
+public final class MappedTranspositionTable extends AbstractTranspositionTable implements AutoCloseable {
+
+    private static final long MAGIC = 0x4252495343545431L;  // "BRISCTT1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int ENTRY_BYTES = 16;
+    private static final long MAX_SLOTS = (Integer.MAX_VALUE - HEADER_BYTES) / ENTRY_BYTES;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // == COSTRUTTORE ==
+
+    private MappedTranspositionTable(FileChannel channel, MappedByteBuffer buffer, long slots) {
+        super(slots);
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Apre la tabella salvata nel file indicato, creandola se non esiste.
+     * Se il file esiste ma ha un numero di voci diverso da quello richiesto viene
+     * riutilizzata la dimensione salvata. Un file con l'intestazione tutta a zero (creazione
+     * interrotta) viene inizializzato come un file nuovo.
+     *
+     * @param file  il file della tabella
+     * @param slots numero di voci desiderato, arrotondato alla potenza di due inferiore
+     * @return la tabella aperta
+     * @throws IOException se il file non può essere aperto o non è una tabella valida
+     */
+    public static MappedTranspositionTable open(Path file, long slots) throws IOException {
+        if (slots < SLOTS_PER_BUCKET || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Numero di voci non valido: " + slots);
+        }
+        long requestedSlots = Long.highestOneBit(slots);
+
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = isBlank(channel);
+            long tableSlots = fresh ? requestedSlots : readSlots(channel, file);
+            long size = HEADER_BYTES + tableSlots * ENTRY_BYTES;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            if (fresh) {
+                // L'intestazione è scritta su disco subito, con il numero magico per ultimo
+                buffer.putLong(16, tableSlots);
+                buffer.putInt(8, VERSION);
+                buffer.putLong(0, MAGIC);
+                buffer.force(0, HEADER_BYTES);
+            }
+            return new MappedTranspositionTable(channel, buffer, tableSlots);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Forza la scrittura su disco delle pagine modificate.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Scrive su disco le modifiche e chiude il file. La mappatura resta valida
+     * fino a quando la tabella non viene raccolta dal garbage collector.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // == METODI DI ACCESSO ALLE VOCI ==
+
+    @Override
+    protected long readCheck(long slot) {
+        return (long) LONGS.getOpaque(buffer, offsetOf(slot));
+    }
+
+    @Override
+    protected long readData(long slot) {
+        return (long) LONGS.getOpaque(buffer, offsetOf(slot) + 8);
+    }
+
+    @Override
+    protected void write(long slot, long check, long data) {
+        int offset = offsetOf(slot);
+        LONGS.setOpaque(buffer, offset, check);
+        LONGS.setOpaque(buffer, offset + 8, data);
+    }
+
+    // == METODI PRIVATI ==
+
+    private static int offsetOf(long slot) {
+        return (int) (HEADER_BYTES + slot * ENTRY_BYTES);
+    }
+
+    /**
+     * Restituisce true se il file è vuoto o ha l'intestazione tutta a zero: è il caso di un file
+     * appena creato o di una creazione interrotta prima che l'intestazione arrivasse su disco,
+     * e in entrambi i casi la tabella viene inizializzata da capo.
+     */
+    private static boolean isBlank(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return true;
+        }
+        if (channel.size() < HEADER_BYTES) {
+            return false;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        for (int i = 0; i < HEADER_BYTES; i++) {
+            if (header.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Legge e verifica l'intestazione di un file esistente.
+     */
+    private static long readSlots(FileChannel channel, Path file) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.nativeOrder());
+        if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+            throw new IOException("Il file " + file + " non è una tabella delle trasposizioni valida");
+        }
+        long slots = header.getLong(16);
+        if (slots < SLOTS_PER_BUCKET || slots > MAX_SLOTS || Long.bitCount(slots) != 1
+                || channel.size() < HEADER_BYTES + slots * ENTRY_BYTES) {
+            throw new IOException("Intestazione non valida nel file " + file);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,51 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Tabella delle trasposizioni in memoria, a capacità fissa e lock-free, pensata per la
+ * ricerca parallela "Lazy SMP": più thread esplorano la stessa posizione condividendo
+ * la tabella, senza alcuna sincronizzazione tra loro.
+ * <p>
+ * Le voci sono coppie di {@code long} in un unico array primitivo
+ * (verifica {@code chiave ^ dati} e dati), lette e scritte con accesso opaco.
+ */
+public final class SharedTranspositionTable extends AbstractTranspositionTable {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAX_SLOTS = 1 << 29;
+
+    private final long[] entries;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una tabella con il numero di voci indicato (arrotondato alla potenza di due inferiore).
+     *
+     * @param slots numero di voci desiderato
+     */
+    public SharedTranspositionTable(int slots) {
+        super(Integer.highestOneBit(Math.max(SLOTS_PER_BUCKET, Math.min(slots, MAX_SLOTS))));
+        this.entries = new long[(int) capacity() * 2];
+    }
+
+    // == METODI DI ACCESSO ALLE VOCI ==
+
+    @Override
+    protected long readCheck(long slot) {
+        return (long) LONGS.getOpaque(entries, (int) slot * 2);
+    }
+
+    @Override
+    protected long readData(long slot) {
+        return (long) LONGS.getOpaque(entries, (int) slot * 2 + 1);
+    }
+
+    @Override
+    protected void write(long slot, long check, long data) {
+        int index = (int) slot * 2;
+        LONGS.setOpaque(entries, index, check);
+        LONGS.setOpaque(entries, index + 1, data);
+    }
+}
@@ -0,0 +1,73 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+/**
+ * Codifica in un singolo {@code long} dei dati di una voce della tabella delle trasposizioni.
+ * <p>
+ * Disposizione dei bit:
+ * <ul>
+ *   <li>0-15: valore della posizione (intero con segno a 16 bit)</li>
+ *   <li>16-23: profondità di ricerca</li>
+ *   <li>24-25: tipo di limite ({@link #BOUND_EXACT}, {@link #BOUND_LOWER}, {@link #BOUND_UPPER})</li>
+ *   <li>26-31: id della mossa migliore ({@link #NO_MOVE} se assente)</li>
+ *   <li>32: bit di validità, sempre a 1, così una voce valida non vale mai 0</li>
+ * </ul>
+ * Il valore 0 indica quindi una voce vuota o un mancato riscontro.
+ */
+public final class TTEntry {
+
+    public static final long EMPTY = 0L;
+
+    public static final int BOUND_EXACT = 0;
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+
+    public static final int NO_MOVE = 63;
+    public static final int MAX_DEPTH = 255;
+
+    private static final long VALID_BIT = 1L << 32;
+
+    private TTEntry() {
+    }
+
+    // == METODI PUBBLICI STATICI ==
+
+    /**
+     * Codifica i dati di una voce.
+     *
+     * @param depth profondità di ricerca (0-255)
+     * @param value valore della posizione (compreso nei 16 bit con segno)
+     * @param bound tipo di limite del valore
+     * @param move  id della mossa migliore, oppure {@link #NO_MOVE}
+     * @return i dati codificati, mai uguali a {@link #EMPTY}
+     */
+    public static long pack(int depth, int value, int bound, int move) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Valore fuori intervallo: " + value);
+        }
+        return VALID_BIT
+                | ((long) (move & 0x3F) << 26)
+                | ((long) (bound & 0x3) << 24)
+                | ((long) Math.min(depth, MAX_DEPTH) << 16)
+                | (value & 0xFFFFL);
+    }
+
+    public static int value(long data) {
+        return (short) (data & 0xFFFF);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 16) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 24) & 0x3);
+    }
+
+    public static int move(long data) {
+        return (int) ((data >>> 26) & 0x3F);
+    }
+
+    public static boolean isEmpty(long data) {
+        return data == EMPTY;
+    }
+}
@@ -0,0 +1,41 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+/**
+ * Tabella delle trasposizioni: memorizza i risultati della ricerca indicizzati
+ * dall'hash a 64 bit della posizione. I dati delle voci sono codificati con {@link TTEntry}.
+ * <p>
+ * Le implementazioni sono lock-free e possono essere usate da più thread di ricerca
+ * contemporaneamente; una scrittura interrotta a metà viene riconosciuta e trattata come
+ * un mancato riscontro.
+ */
+public interface TranspositionTable {
+
+    /**
+     * Cerca la voce associata alla chiave.
+     *
+     * @param key hash della posizione
+     * @return i dati codificati della voce, oppure {@link TTEntry#EMPTY} se assente
+     */
+    long probe(long key);
+
+    /**
+     * Memorizza il risultato della ricerca di una posizione.
+     *
+     * @param key   hash della posizione
+     * @param depth profondità di ricerca
+     * @param value valore della posizione
+     * @param bound tipo di limite del valore
+     * @param move  id della mossa migliore, oppure {@link TTEntry#NO_MOVE}
+     */
+    void store(long key, int depth, int value, int bound, int move);
+
+    /**
+     * Svuota la tabella.
+     */
+    void clear();
+
+    /**
+     * Restituisce il numero di voci della tabella.
+     */
+    long capacity();
+}
@@ -106,5 +106,10 @@ public interface BriscolaView {
      */
     void disableCardSelection();
 
+    /**
+     * Chiude la view quando l'utente non vuole più giocare.
+     */
+    void close();
+
     
 }
\ No newline at end of file
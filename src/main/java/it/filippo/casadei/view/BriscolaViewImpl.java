@@ -6,7 +6,10 @@ import it.filippo.casadei.model.player.cpu.CpuDifficulty;
 import it.filippo.casadei.model.player.cpu.EasyDifficulty;
 import it.filippo.casadei.model.player.cpu.HardDifficulty;
 import it.filippo.casadei.model.player.cpu.MediumDifficulty;
-import it.filippo.casadei.view.panels.*;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.panels.BackgroundPanel;
+import it.filippo.casadei.view.sprites.AssetPreloader;
+import it.filippo.casadei.view.sprites.CardSpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,7 +18,8 @@ import java.util.Optional;
 /**
  * Classe View dell'architettura MVC.
  * 
- * Implementazione GUI di BriscolaView.
+ * Implementazione GUI di BriscolaView. La finestra e i dialoghi sono gestiti qui, il disegno del
+ * tavolo è delegato a un {@link GameBoard}.
  */
 public class BriscolaViewImpl implements BriscolaView {
     private static final boolean SHOW_CPU_CARDS = false;
@@ -23,39 +27,47 @@ public class BriscolaViewImpl implements BriscolaView {
     private BriscolaViewObserver observer;
 
     private final JFrame frame;
-    private final HandPanel cpuHandPanel;
-    private final HandPanel humanHandPanel;
-    private final TablePanel tablePanel;
-    private final DeckPanel deckPanel;
-    private final BriscolaPanel briscolaPanel;
-    private final JPanel sidePanel;
+    private final GameBoard board;
+    private final AssetPreloader assets;
 
+    /**
+     * Crea la view con il tavolo composto da pannelli ({@link PanelGameBoard}).
+     */
     public BriscolaViewImpl() {
+        this(new PanelGameBoard());
+    }
+
+    /**
+     * Crea la view con il tavolo indicato.
+     *
+     * @param board il componente che disegna il tavolo da gioco
+     */
+    public BriscolaViewImpl(GameBoard board) {
+        this.board = board;
+        // Le immagini vengono caricate in parallelo mentre l'utente sceglie la difficoltà
+        this.assets = new AssetPreloader(CardSpriteCache.shared(), "/background.png").start();
         frame = new JFrame("Briscola Game");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(800, 600);
         frame.setLocationRelativeTo(null);
 
-        BackgroundPanel background = new BackgroundPanel("/background.png");
+        BackgroundPanel background = new BackgroundPanel();
+        background.setBackground(new Color(0x1F5F2F));
+        assets.background().thenAccept(image -> SwingUtilities.invokeLater(() -> background.setImage(image)));
         frame.setContentPane(background);
         frame.setLayout(new BorderLayout());
 
-        cpuHandPanel = new HandPanel(false);
-        humanHandPanel = new HandPanel(true);
-        tablePanel = new TablePanel();
-        deckPanel = new DeckPanel();
-        briscolaPanel = new BriscolaPanel();
+        board.install(frame.getContentPane());
 
-        sidePanel = new JPanel(new BorderLayout());
-        sidePanel.setOpaque(false);
-        sidePanel.add(deckPanel, BorderLayout.CENTER);
-        sidePanel.add(briscolaPanel, BorderLayout.SOUTH);
-
-        frame.add(cpuHandPanel, BorderLayout.NORTH);
-        frame.add(tablePanel, BorderLayout.CENTER);
-        frame.add(humanHandPanel, BorderLayout.SOUTH);
-        frame.add(sidePanel, BorderLayout.WEST);
+        // F12 scrive nel log le misure di reattività dell'interfaccia
+        frame.getRootPane().registerKeyboardAction(e -> UiMetrics.shared().logReport(),
+                KeyStroke.getKeyStroke("F12"), JComponent.WHEN_IN_FOCUSED_WINDOW);
 
+        // Se la finestra passa su uno schermo con un'altra scala le carte vanno ridimensionate di nuovo
+        frame.addPropertyChangeListener("graphicsConfiguration", e -> {
+            CardSpriteCache.shared().invalidate();
+            frame.repaint();
+        });
     }
 
     // ==  METODI DI INTERAZIONE E NOTIFICA ALL'OBSERVER ==
@@ -63,8 +75,8 @@ public class BriscolaViewImpl implements BriscolaView {
     @Override
     public void setObserver(BriscolaViewObserver observer) {
         this.observer = observer;
-        // passa l'observer anche al pannello della mano umana per gestire la selezione delle carte
-        humanHandPanel.setObserver(observer);
+        // passa l'observer anche al tavolo per gestire la selezione delle carte
+        board.setObserver(observer);
     }
 
     @Override
@@ -117,7 +129,7 @@ public class BriscolaViewImpl implements BriscolaView {
     @Override
     public void enableCardSelection(Player p) {
         if (!(p instanceof Human)) return;
-        humanHandPanel.enableCardSelection(p);
+        board.enableCardSelection(p);
     }
 
     // == METODI DI AGGIORNAMENTO ==
@@ -129,15 +141,17 @@ public class BriscolaViewImpl implements BriscolaView {
 
     @Override
     public void showSetup(Card briscolaCard, Player human, Player cpu) {
-        setAllPanelsVisible(true);
-        cpuHandPanel.updateHand(cpu.getHand(), SHOW_CPU_CARDS);
-        humanHandPanel.updateHand(human.getHand(), true);
-        briscolaPanel.show(briscolaCard);
+        // Di solito il caricamento è finito durante il dialogo della difficoltà
+        assets.awaitReady();
+        board.setVisible(true);
+        board.updateHand(false, cpu.getHand(), SHOW_CPU_CARDS);
+        board.updateHand(true, human.getHand(), true);
+        board.showBriscola(briscolaCard);
     }
 
     @Override
     public void disableCardSelection() {
-        humanHandPanel.disableCardSelection();
+        board.disableCardSelection();
     }
 
     @Override
@@ -145,29 +159,21 @@ public class BriscolaViewImpl implements BriscolaView {
         boolean isHuman = p instanceof Human;
 
         // Mostra la carta sul tavolo
-        tablePanel.playCard(card, isHuman);
-
-        if (!isHuman) {
-            cpuHandPanel.updateHand(p.getHand(), SHOW_CPU_CARDS);
-        } else {
-            humanHandPanel.updateHand(p.getHand(), true);
-        }
+        board.playCard(card, isHuman);
+        board.updateHand(isHuman, p.getHand(), isHuman || SHOW_CPU_CARDS);
     }
 
     @Override
     public void clearTable() {
-        tablePanel.clear();
+        board.clearTable();
     }
 
     @Override
     public void showDraw(Player p, Card drawnCard) {
-        deckPanel.showBack();
+        board.showDeck();
 
-        if (p instanceof Human) {
-            humanHandPanel.updateHand(p.getHand(), true);
-        } else {
-            cpuHandPanel.updateHand(p.getHand(), SHOW_CPU_CARDS);
-        }
+        boolean isHuman = p instanceof Human;
+        board.updateHand(isHuman, p.getHand(), isHuman || SHOW_CPU_CARDS);
     }
 
     @Override
@@ -200,19 +206,26 @@ public class BriscolaViewImpl implements BriscolaView {
 
     @Override
     public void hideBriscola() {
-        briscolaPanel.setVisible(false);
+        board.hideBriscola();
     }
 
     @Override
     public void hideDeck() {
-        deckPanel.setVisible(false);
+        board.hideDeck();
     }
 
-    private void setAllPanelsVisible(boolean visible) {
-        cpuHandPanel.setVisible(visible);
-        humanHandPanel.setVisible(visible);
-        tablePanel.setVisible(visible);
-        sidePanel.setVisible(visible);
+    /**
+     * Restituisce la finestra del gioco.
+     */
+    public JFrame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        // Termina l'applicazione
+        frame.dispose();
+        System.exit(0);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package it.filippo.casadei.view;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Player;
+
+import java.awt.Container;
+
+/**
+ * Parte della finestra che disegna il tavolo da gioco: le due mani, le carte giocate, il mazzo
+ * e la briscola.
+ * <p>
+ * {@link BriscolaViewImpl} gestisce finestra e dialoghi e delega il disegno a un'implementazione
+ * di questa interfaccia: {@link PanelGameBoard} usa un pannello Swing per ogni elemento,
+ * {@link it.filippo.casadei.view.panels.BoardCanvas} disegna tutto su un solo componente.
+ * Tutti i metodi vanno chiamati dall'Event Dispatch Thread.
+ */
+public interface GameBoard {
+
+    /**
+     * Aggiunge i componenti del tavolo al contenitore indicato (con {@code BorderLayout}).
+     */
+    void install(Container container);
+
+    /**
+     * Imposta l'observer da notificare quando l'utente sceglie una carta.
+     */
+    void setObserver(BriscolaViewObserver observer);
+
+    /**
+     * Mostra o nasconde l'intero tavolo.
+     */
+    void setVisible(boolean visible);
+
+    /**
+     * Aggiorna la mano di un giocatore.
+     *
+     * @param human     true per la mano dell'utente, false per quella della CPU
+     * @param hand      la mano da mostrare
+     * @param showCards true per mostrare le carte scoperte, false per mostrarne il dorso
+     */
+    void updateHand(boolean human, Hand hand, boolean showCards);
+
+    /**
+     * Mostra una carta giocata sul tavolo.
+     *
+     * @param card    la carta giocata
+     * @param isHuman true se l'ha giocata l'utente
+     */
+    void playCard(Card card, boolean isHuman);
+
+    /**
+     * Toglie le carte giocate dal tavolo.
+     */
+    void clearTable();
+
+    /**
+     * Mostra la briscola di una nuova partita.
+     */
+    void showBriscola(Card briscola);
+
+    /**
+     * Mostra il mazzo coperto.
+     */
+    void showDeck();
+
+    void hideBriscola();
+
+    void hideDeck();
+
+    /**
+     * Permette all'utente di scegliere una carta della propria mano.
+     *
+     * @param player il giocatore per cui notificare la scelta
+     */
+    void enableCardSelection(Player player);
+
+    void disableCardSelection();
+}
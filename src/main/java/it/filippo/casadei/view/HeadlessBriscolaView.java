@@ -0,0 +1,285 @@
+package it.filippo.casadei.view;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementazione di BriscolaView senza interfaccia grafica, per far giocare al controller reale
+ * molte partite di seguito (test di carico e simulazioni).
+ * <p>
+ * Le mosse dell'utente sono scelte da una {@link HumanPolicy} e, come i click dell'interfaccia
+ * grafica, vengono consegnate al controller come eventi separati tramite l'executor indicato
+ * (di solito {@code scheduler::execute}). La view conta le chiamate ricevute e controlla che la
+ * sequenza di ogni partita sia coerente (40 carte giocate una sola volta, 34 pescate, 120 punti
+ * in totale...): ogni incoerenza viene registrata tra le violazioni.
+ */
+public class HeadlessBriscolaView implements BriscolaView {
+
+    private static final int CARDS_PER_GAME = 40;
+    private static final int DRAWS_PER_GAME = CARDS_PER_GAME - 6;
+    private static final int MAX_VIOLATIONS = 100;
+
+    private final Executor input;
+    private final CpuDifficulty difficulty;
+    private final HumanPolicy policy;
+    private final int games;
+
+    private BriscolaViewObserver observer;
+    private final Map<String, Long> calls = new TreeMap<>();
+    private final List<String> violations = new ArrayList<>();
+    private int gamesPlayed = 0;
+    private boolean closed = false;
+
+    // Stato della partita in corso
+    private final Set<Card> playedCards = new HashSet<>();
+    private int cardsOnTable = 0;
+    private int draws = 0;
+    private boolean deckHidden = false;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una view che gioca il numero di partite indicato e poi chiede di chiudere.
+     *
+     * @param input      l'executor con cui consegnare al controller le scelte dell'utente
+     * @param difficulty la difficoltà della CPU da scegliere
+     * @param policy     la strategia con cui scegliere le carte dell'utente
+     * @param games      il numero di partite da giocare
+     */
+    public HeadlessBriscolaView(Executor input, CpuDifficulty difficulty, HumanPolicy policy, int games) {
+        this.input = input;
+        this.difficulty = difficulty;
+        this.policy = policy;
+        this.games = games;
+    }
+
+    // ==  METODI DI INTERAZIONE E NOTIFICA ALL'OBSERVER ==
+
+    @Override
+    public void setObserver(BriscolaViewObserver observer) {
+        record("setObserver");
+        this.observer = observer;
+    }
+
+    @Override
+    public void chooseCpuDifficulty() {
+        record("chooseCpuDifficulty");
+        observer.createModel(difficulty);
+    }
+
+    @Override
+    public void askPlayAgain() {
+        record("askPlayAgain");
+        boolean playAgain = gamesPlayed < games;
+        input.execute(() -> observer.restartGame(playAgain));
+    }
+
+    @Override
+    public void enableCardSelection(Player p) {
+        record("enableCardSelection");
+        if (!(p instanceof Human)) {
+            violation("selezione abilitata per " + p.getName());
+            return;
+        }
+        if (p.getHand().isEmpty()) {
+            violation("selezione abilitata con la mano vuota");
+            return;
+        }
+        Card card = policy.chooseCard(p);
+        input.execute(() -> observer.humanPlaysCard(p, card));
+    }
+
+    // == METODI DI AGGIORNAMENTO ==
+
+    @Override
+    public void start() {
+        record("start");
+    }
+
+    @Override
+    public void showSetup(Card briscolaCard, Player human, Player cpu) {
+        record("showSetup");
+        playedCards.clear();
+        cardsOnTable = 0;
+        draws = 0;
+        deckHidden = false;
+        if (human.getHand().getCards().size() != 3 || cpu.getHand().getCards().size() != 3) {
+            violation("mani iniziali di " + human.getHand().getCards().size() + " e "
+                    + cpu.getHand().getCards().size() + " carte");
+        }
+    }
+
+    @Override
+    public void showPlayedCard(Player p, Card playedCard) {
+        record("showPlayedCard");
+        if (!playedCards.add(playedCard)) {
+            violation("carta giocata due volte: " + playedCard);
+        }
+        if (++cardsOnTable > 2) {
+            violation("più di due carte sul tavolo");
+        }
+        if (p.getHand().getCards().contains(playedCard)) {
+            violation("carta giocata ancora in mano: " + playedCard);
+        }
+    }
+
+    @Override
+    public void clearTable() {
+        record("clearTable");
+        if (cardsOnTable != 2) {
+            violation("tavolo pulito con " + cardsOnTable + " carte");
+        }
+        cardsOnTable = 0;
+    }
+
+    @Override
+    public void showDraw(Player p, Card drawnCard) {
+        record("showDraw");
+        draws++;
+        if (playedCards.contains(drawnCard)) {
+            violation("pescata una carta già giocata: " + drawnCard);
+        }
+    }
+
+    @Override
+    public void showLastDrawingTurn() {
+        record("showLastDrawingTurn");
+    }
+
+    @Override
+    public void showFinalScores(Player player1, Player player2, int player1Points, int player2Points) {
+        record("showFinalScores");
+        gamesPlayed++;
+        if (player1Points + player2Points != BriscolaGame.TOTAL_POINTS) {
+            violation("punti totali " + (player1Points + player2Points));
+        }
+        if (playedCards.size() != CARDS_PER_GAME) {
+            violation("partita finita con " + playedCards.size() + " carte giocate");
+        }
+        if (draws != DRAWS_PER_GAME) {
+            violation("partita finita con " + draws + " pescate");
+        }
+        if (!deckHidden) {
+            violation("partita finita senza nascondere il mazzo");
+        }
+    }
+
+    @Override
+    public void showWinner(Optional<Player> winner) {
+        record("showWinner");
+    }
+
+    @Override
+    public void hideBriscola() {
+        record("hideBriscola");
+    }
+
+    @Override
+    public void hideDeck() {
+        record("hideDeck");
+        deckHidden = true;
+    }
+
+    @Override
+    public void disableCardSelection() {
+        record("disableCardSelection");
+    }
+
+    @Override
+    public void close() {
+        record("close");
+        closed = true;
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce il numero di partite concluse.
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Restituisce quante volte è stato chiamato il metodo della view con il nome indicato.
+     */
+    public long getCallCount(String method) {
+        return calls.getOrDefault(method, 0L);
+    }
+
+    /**
+     * Restituisce il numero di chiamate ricevute per ogni metodo della view.
+     */
+    public Map<String, Long> getCalls() {
+        return Collections.unmodifiableMap(calls);
+    }
+
+    /**
+     * Restituisce le incoerenze trovate (al massimo le prime 100).
+     */
+    public List<String> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // == METODI PRIVATI ==
+
+    private void record(String method) {
+        calls.merge(method, 1L, Long::sum);
+    }
+
+    private void violation(String message) {
+        if (violations.size() < MAX_VIOLATIONS) {
+            violations.add("partita " + (gamesPlayed + 1) + ": " + message);
+        }
+    }
+
+    /**
+     * Strategia con cui la view sceglie le carte dell'utente.
+     */
+    public interface HumanPolicy {
+
+        /**
+         * Sceglie la carta da giocare tra quelle in mano all'utente.
+         *
+         * @param human il giocatore umano
+         * @return una carta della sua mano
+         */
+        Card chooseCard(Player human);
+
+        /**
+         * Gioca sempre la prima carta della mano.
+         */
+        static HumanPolicy first() {
+            return human -> human.getHand().getCards().get(0);
+        }
+
+        /**
+         * Gioca una carta a caso, con una sequenza ripetibile a partire dal seme indicato.
+         */
+        static HumanPolicy random(long seed) {
+            Random random = new Random(seed);
+            return human -> {
+                List<Card> cards = human.getHand().getCards();
+                return cards.get(random.nextInt(cards.size()));
+            };
+        }
+    }
+}
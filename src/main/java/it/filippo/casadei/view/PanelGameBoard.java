@@ -0,0 +1,107 @@
+package it.filippo.casadei.view;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.view.panels.*;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Tavolo da gioco composto da un pannello Swing per ogni elemento (mani, tavolo, mazzo e briscola),
+ * disposti con un {@code BorderLayout}.
+ */
+public class PanelGameBoard implements GameBoard {
+
+    private final HandPanel cpuHandPanel;
+    private final HandPanel humanHandPanel;
+    private final TablePanel tablePanel;
+    private final DeckPanel deckPanel;
+    private final BriscolaPanel briscolaPanel;
+    private final JPanel sidePanel;
+
+    // == COSTRUTTORE ==
+
+    public PanelGameBoard() {
+        cpuHandPanel = new HandPanel(false);
+        humanHandPanel = new HandPanel(true);
+        tablePanel = new TablePanel();
+        deckPanel = new DeckPanel();
+        briscolaPanel = new BriscolaPanel();
+
+        sidePanel = new JPanel(new BorderLayout());
+        sidePanel.setOpaque(false);
+        sidePanel.add(deckPanel, BorderLayout.CENTER);
+        sidePanel.add(briscolaPanel, BorderLayout.SOUTH);
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public void install(Container container) {
+        container.add(cpuHandPanel, BorderLayout.NORTH);
+        container.add(tablePanel, BorderLayout.CENTER);
+        container.add(humanHandPanel, BorderLayout.SOUTH);
+        container.add(sidePanel, BorderLayout.WEST);
+    }
+
+    @Override
+    public void setObserver(BriscolaViewObserver observer) {
+        // solo la mano umana gestisce la selezione delle carte
+        humanHandPanel.setObserver(observer);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        cpuHandPanel.setVisible(visible);
+        humanHandPanel.setVisible(visible);
+        tablePanel.setVisible(visible);
+        sidePanel.setVisible(visible);
+    }
+
+    @Override
+    public void updateHand(boolean human, Hand hand, boolean showCards) {
+        (human ? humanHandPanel : cpuHandPanel).updateHand(hand, showCards);
+    }
+
+    @Override
+    public void playCard(Card card, boolean isHuman) {
+        tablePanel.playCard(card, isHuman);
+    }
+
+    @Override
+    public void clearTable() {
+        tablePanel.clear();
+    }
+
+    @Override
+    public void showBriscola(Card briscola) {
+        briscolaPanel.show(briscola);
+    }
+
+    @Override
+    public void showDeck() {
+        deckPanel.showBack();
+    }
+
+    @Override
+    public void hideBriscola() {
+        briscolaPanel.setVisible(false);
+    }
+
+    @Override
+    public void hideDeck() {
+        deckPanel.setVisible(false);
+    }
+
+    @Override
+    public void enableCardSelection(Player player) {
+        humanHandPanel.enableCardSelection(player);
+    }
+
+    @Override
+    public void disableCardSelection() {
+        humanHandPanel.disableCardSelection();
+    }
+}
@@ -0,0 +1,124 @@
+package it.filippo.casadei.view.metrics;
+
+import javax.swing.SwingUtilities;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Misura quanto l'Event Dispatch Thread tarda a rispondere.
+ * <p>
+ * Un thread daemon mette a intervalli regolari un evento "sonda" nella coda dell'EDT e misura dopo
+ * quanto tempo viene eseguito: il ritardo finisce nell'istogramma {@code "edt.latency"} di
+ * {@link UiMetrics}. C'è al massimo una sonda in coda alla volta. Se una sonda resta in coda oltre
+ * la soglia, il monitor scrive nel log lo stack dell'EDT in quel momento, cioè il codice che
+ * lo sta bloccando (un disegno, una decisione della CPU, un dialogo...).
+ */
+public final class EdtLatencyMonitor {
+
+    public static final String HISTOGRAM = "edt.latency";
+
+    private static final Logger LOGGER = Logger.getLogger(EdtLatencyMonitor.class.getName());
+    private static final int STACK_DEPTH = 25;
+
+    private final UiMetrics metrics;
+    private final long intervalMillis;
+    private final long thresholdNanos;
+    private ScheduledExecutorService timer;
+
+    // Sonda in coda (0 se nessuna), thread dell'EDT e blocco già segnalato
+    private volatile long probePostedNanos = 0;
+    private volatile Thread edt;
+    private volatile boolean stallReported = false;
+    private volatile long stallCount = 0;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un monitor che registra nelle misure indicate.
+     *
+     * @param metrics        dove registrare i ritardi
+     * @param intervalMillis ogni quanti millisecondi inviare una sonda
+     * @param thresholdMillis ritardo oltre il quale segnalare un blocco dell'EDT
+     */
+    public EdtLatencyMonitor(UiMetrics metrics, long intervalMillis, long thresholdMillis) {
+        this.metrics = metrics;
+        this.intervalMillis = intervalMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Avvia il monitor. Chiamate successive non hanno effetto.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edt-latency-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::tick, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ferma il monitor.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce quante volte l'EDT è rimasto bloccato oltre la soglia.
+     */
+    public long getStallCount() {
+        return stallCount;
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Invia una nuova sonda, oppure controlla da quanto aspetta quella in coda.
+     */
+    private void tick() {
+        long posted = probePostedNanos;
+        if (posted != 0) {
+            long waiting = System.nanoTime() - posted;
+            if (waiting > thresholdNanos && !stallReported) {
+                stallReported = true;
+                stallCount++;
+                reportStall(waiting);
+            }
+            return;
+        }
+        long now = System.nanoTime();
+        probePostedNanos = now;
+        SwingUtilities.invokeLater(() -> {
+            edt = Thread.currentThread();
+            // un blocco già segnalato con lo stack non viene scritto di nuovo nel log
+            metrics.record(HISTOGRAM, System.nanoTime() - now, stallReported ? Long.MAX_VALUE : thresholdNanos);
+            stallReported = false;
+            probePostedNanos = 0;
+        });
+    }
+
+    private void reportStall(long waitingNanos) {
+        Thread thread = edt;
+        String stack = thread == null ? "(EDT non ancora noto)" : Arrays.stream(thread.getStackTrace())
+                .limit(STACK_DEPTH)
+                .map(frame -> "\tat " + frame)
+                .collect(Collectors.joining("\n"));
+        LOGGER.warning(String.format("EDT bloccato da %.0f ms:%n%s", waitingNanos / 1e6, stack));
+    }
+}
@@ -0,0 +1,130 @@
+package it.filippo.casadei.view.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Istogramma di durate con intervalli a scala logaritmica.
+ * <p>
+ * Ogni intervallo copre un'ottava di microsecondi divisa in 4 parti: l'errore sui percentili è
+ * al massimo del 25%, abbastanza per distinguere un disegno da 2 ms da uno da 40 ms.
+ * Registrare un valore costa qualche operazione atomica e nessuna allocazione, quindi lo si può
+ * fare a ogni disegno. Può essere usato da più thread.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int OCTAVES = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(OCTAVES * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Registra una durata.
+     *
+     * @param nanos la durata in nanosecondi
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(value)));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Restituisce il percentile indicato, approssimato per eccesso al limite del suo intervallo.
+     *
+     * @param percentile il percentile tra 0 e 100
+     * @return la durata in nanosecondi, 0 se l'istogramma è vuoto
+     */
+    public long percentileNanos(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(upperBoundMicros(i)), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Azzera l'istogramma.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /**
+     * Restituisce un riepilogo leggibile (numero di campioni, media, percentili e massimo in ms).
+     */
+    @Override
+    public String toString() {
+        long total = count.get();
+        double mean = total == 0 ? 0 : totalNanos.get() / (double) total;
+        return String.format("n=%d media=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                total, mean / 1e6, percentileNanos(50) / 1e6, percentileNanos(90) / 1e6,
+                percentileNanos(99) / 1e6, maxNanos.get() / 1e6);
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Restituisce la somma di tutte le durate registrate, in nanosecondi.
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Restituisce l'intervallo di un valore in microsecondi: l'ottava è data dal bit più alto,
+     * la suddivisione dai due bit successivi.
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (octave - 2)) & (SUB_BUCKETS - 1);
+        int bucket = (octave - 1) * SUB_BUCKETS + sub;
+        return Math.min(bucket, OCTAVES * SUB_BUCKETS - 1);
+    }
+
+    /**
+     * Restituisce il limite superiore (escluso) in microsecondi dell'intervallo indicato.
+     */
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int octave = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (octave - 2);
+    }
+}
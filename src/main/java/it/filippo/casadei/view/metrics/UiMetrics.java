@@ -0,0 +1,141 @@
+package it.filippo.casadei.view.metrics;
+
+import javax.swing.SwingUtilities;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Raccoglie le misure di reattività dell'interfaccia: la durata del disegno dei pannelli e il
+ * ritardo dell'Event Dispatch Thread misurato da {@link EdtLatencyMonitor}.
+ * <p>
+ * Ogni misura ha un nome (per esempio {@code "paint.HandPanel"}) e un {@link LatencyHistogram};
+ * il prefisso indica il tipo: {@value #PAINT} (disegno), {@value #LAYOUT} (disposizione dei
+ * componenti) e {@value #IMAGE} (lettura e ridimensionamento delle immagini).
+ * Le misure oltre la soglia del loro tipo vengono anche scritte nel log, così un rallentamento
+ * visibile si può collegare al pannello che lo ha causato. Le immagini elaborate fuori dall'Event
+ * Dispatch Thread (per esempio dal caricamento iniziale) non bloccano l'interfaccia: vengono
+ * registrate negli istogrammi ma non nel log. {@link #report()} restituisce il
+ * riepilogo di tutti gli istogrammi. Può essere usato da più thread.
+ */
+public final class UiMetrics {
+
+    /**
+     * Durata oltre la quale un disegno fa perdere un fotogramma a 60 Hz.
+     */
+    public static final long PAINT_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private static final Logger LOGGER = Logger.getLogger(UiMetrics.class.getName());
+    private static final UiMetrics SHARED = new UiMetrics();
+
+    public static final String PAINT = "paint.";
+    public static final String LAYOUT = "layout.";
+    public static final String IMAGE = "image.";
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce le misure dell'applicazione.
+     */
+    public static UiMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Restituisce l'istogramma con il nome indicato, creandolo se non esiste.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Registra la durata di un disegno e la scrive nel log se supera {@link #PAINT_THRESHOLD_NANOS}.
+     *
+     * @param component il nome del componente disegnato (per esempio il nome della classe)
+     * @param nanos     la durata del disegno in nanosecondi
+     */
+    public void recordPaint(String component, long nanos) {
+        record(PAINT + component, nanos, PAINT_THRESHOLD_NANOS);
+    }
+
+    /**
+     * Registra la durata della disposizione dei figli di un componente.
+     *
+     * @param component il nome del componente
+     * @param nanos     la durata in nanosecondi
+     */
+    public void recordLayout(String component, long nanos) {
+        record(LAYOUT + component, nanos, PAINT_THRESHOLD_NANOS);
+    }
+
+    /**
+     * Registra la durata della lettura o del ridimensionamento di un'immagine. La misura viene
+     * scritta nel log solo se l'operazione è avvenuta sull'Event Dispatch Thread e supera
+     * {@link #PAINT_THRESHOLD_NANOS}.
+     *
+     * @param operation l'operazione (per esempio {@code "decode"})
+     * @param nanos     la durata in nanosecondi
+     */
+    public void recordImage(String operation, long nanos) {
+        long threshold = SwingUtilities.isEventDispatchThread() ? PAINT_THRESHOLD_NANOS : Long.MAX_VALUE;
+        record(IMAGE + operation, nanos, threshold);
+    }
+
+    /**
+     * Restituisce la somma delle durate di tutte le misure il cui nome inizia con il prefisso indicato.
+     *
+     * @param prefix il prefisso, per esempio {@link #PAINT}
+     * @return la durata totale in nanosecondi
+     */
+    public long totalNanos(String prefix) {
+        long total = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                total += entry.getValue().getTotalNanos();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Registra una misura e la scrive nel log se supera la soglia indicata.
+     *
+     * @param name            il nome della misura
+     * @param nanos           la durata in nanosecondi
+     * @param thresholdNanos  la soglia oltre la quale scrivere nel log
+     */
+    public void record(String name, long nanos, long thresholdNanos) {
+        histogram(name).record(nanos);
+        if (nanos > thresholdNanos) {
+            LOGGER.warning(String.format("%s: %.1f ms (soglia %.1f ms)", name, nanos / 1e6, thresholdNanos / 1e6));
+        }
+    }
+
+    /**
+     * Restituisce il riepilogo di tutti gli istogrammi, uno per riga in ordine di nome.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(histograms).forEach((name, histogram) ->
+                sb.append(name).append(": ").append(histogram).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Scrive nel log il riepilogo di tutti gli istogrammi.
+     */
+    public void logReport() {
+        LOGGER.info("Misure dell'interfaccia:\n" + report());
+    }
+
+    /**
+     * Azzera tutti gli istogrammi.
+     */
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+}
@@ -1,24 +1,110 @@
 package it.filippo.casadei.view.panels;
 
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.sprites.AssetPreloader;
+
 import javax.swing.*;
 import java.awt.*;
-import java.util.Objects;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 
 /**
  * Panel dello sfondo principale dell'applicazione.
+ * <p>
+ * L'immagine viene ridimensionata una sola volta per ogni dimensione del pannello (e scala dello
+ * schermo) in un'immagine compatibile con lo schermo; i disegni successivi la copiano senza
+ * ridimensionarla. Viene ricalcolata solo quando il pannello cambia dimensione o schermo.
+ * L'immagine può arrivare dopo la creazione del pannello con {@link #setImage(BufferedImage)}:
+ * fino ad allora viene disegnato solo il colore di sfondo.
  */
 public class BackgroundPanel extends JPanel {
-    private final Image image;
+    private BufferedImage image;
+    private BufferedImage scaled;
 
-    public BackgroundPanel(String resourcePath) {
+    /**
+     * Crea un pannello senza immagine, da impostare quando è stata caricata.
+     */
+    public BackgroundPanel() {
         setLayout(new BorderLayout());
-        this.image = new ImageIcon(Objects.requireNonNull(
-                getClass().getResource(resourcePath))).getImage();
     }
-    
+
+    public BackgroundPanel(String resourcePath) {
+        this();
+        this.image = AssetPreloader.read(resourcePath);
+    }
+
+    /**
+     * Imposta l'immagine di sfondo e ridisegna il pannello. Va chiamato dall'Event Dispatch Thread.
+     */
+    public void setImage(BufferedImage image) {
+        this.image = image;
+        this.scaled = null;
+        repaint();
+    }
+
+    /**
+     * Disegna lo sfondo e ne registra la durata in {@link UiMetrics} (senza i pannelli contenuti,
+     * che registrano la propria).
+     */
     @Override
     protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        try {
+            paintBackground(g);
+        } finally {
+            UiMetrics.shared().recordPaint("BackgroundPanel", System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void doLayout() {
+        long start = System.nanoTime();
+        try {
+            super.doLayout();
+        } finally {
+            UiMetrics.shared().recordLayout("BackgroundPanel", System.nanoTime() - start);
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    private void paintBackground(Graphics g) {
         super.paintComponent(g);
-        g.drawImage(image, 0, 0, getWidth(), getHeight(), this);
+        int width = getWidth();
+        int height = getHeight();
+        if (image == null || width <= 0 || height <= 0) {
+            return;
+        }
+        GraphicsConfiguration configuration = g instanceof Graphics2D g2
+                ? g2.getDeviceConfiguration()
+                : getGraphicsConfiguration();
+        g.drawImage(scaledImage(width, height, configuration), 0, 0, width, height, null);
+    }
+
+    /**
+     * Restituisce lo sfondo già ridimensionato, ricalcolandolo se la dimensione in pixel è cambiata.
+     */
+    private BufferedImage scaledImage(int width, int height, GraphicsConfiguration configuration) {
+        AffineTransform transform = configuration == null ? new AffineTransform() : configuration.getDefaultTransform();
+        int pixelWidth = (int) Math.ceil(width * transform.getScaleX());
+        int pixelHeight = (int) Math.ceil(height * transform.getScaleY());
+        if (scaled != null && scaled.getWidth() == pixelWidth && scaled.getHeight() == pixelHeight) {
+            return scaled;
+        }
+
+        long start = System.nanoTime();
+        scaled = configuration == null
+                ? new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_RGB)
+                : configuration.createCompatibleImage(pixelWidth, pixelHeight, Transparency.OPAQUE);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, pixelWidth, pixelHeight, null);
+        } finally {
+            g.dispose();
+        }
+        UiMetrics.shared().recordImage("background", System.nanoTime() - start);
+        return scaled;
     }
-}
\ No newline at end of file
+}
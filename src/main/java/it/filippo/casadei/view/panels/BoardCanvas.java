@@ -0,0 +1,315 @@
+package it.filippo.casadei.view.panels;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.view.BriscolaViewObserver;
+import it.filippo.casadei.view.GameBoard;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.sprites.CardSpriteCache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tavolo da gioco disegnato su un solo componente: mani, carte giocate, mazzo e briscola
+ * sono disegnati in {@link #paintComponent(Graphics)} senza creare un componente per ogni carta.
+ * <p>
+ * Un aggiornamento non ricostruisce componenti e non ricalcola il layout: cambia lo stato
+ * e ridisegna solo i rettangoli che contengono le carte cambiate (prima e dopo la modifica).
+ * I click sulle carte dell'utente sono riconosciuti confrontando il punto con le posizioni
+ * delle carte. Le immagini arrivano da {@link CardSpriteCache}.
+ */
+public class BoardCanvas extends JComponent implements GameBoard {
+    private static final int CARD_WIDTH = CardSpriteCache.CARD_WIDTH;
+    private static final int CARD_HEIGHT = CardSpriteCache.CARD_HEIGHT;
+    private static final int GAP = 10;
+    private static final int HOVER_BORDER = 2;
+    private static final String BRISCOLA_LABEL = "Briscola";
+
+    private final List<Card> cpuCards = new ArrayList<>();
+    private final List<Card> humanCards = new ArrayList<>();
+    private boolean showCpuCards;
+    private boolean showHumanCards;
+    private Card cpuTableCard;
+    private Card humanTableCard;
+    private Card briscola;
+    private boolean deckVisible = true;
+
+    private BriscolaViewObserver observer;
+    private Player currentPlayer;
+    private boolean selectionEnabled = false;
+    private boolean humanCardsGreyed = false;
+    private int hoverIndex = -1;
+
+    public BoardCanvas() {
+        setOpaque(false);
+        setPreferredSize(new Dimension(2 * (CARD_WIDTH + 2 * GAP) + 3 * CARD_WIDTH + 2 * GAP,
+                4 * CARD_HEIGHT + 6 * GAP));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverIndex(selectionEnabled ? humanCardAt(e.getPoint()) : -1);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverIndex(-1);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!selectionEnabled || observer == null) return;
+
+                int index = humanCardAt(e.getPoint());
+                if (index >= 0) {
+                    Card clickedCard = humanCards.get(index);
+                    // Disabilita immediatamente per evitare doppi click
+                    disableCardSelection();
+                    observer.humanPlaysCard(currentPlayer, clickedCard);
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    // == METODI PUBBLICI ==
+
+    @Override
+    public void install(Container container) {
+        container.add(this, BorderLayout.CENTER);
+    }
+
+    @Override
+    public void setObserver(BriscolaViewObserver observer) {
+        this.observer = observer;
+    }
+
+    @Override
+    public void updateHand(boolean human, Hand hand, boolean showCards) {
+        List<Card> cards = human ? humanCards : cpuCards;
+        Rectangle dirty = handBounds(human, cards.size());
+        cards.clear();
+        cards.addAll(hand.getCards());
+        if (human) {
+            showHumanCards = showCards;
+            humanCardsGreyed = false;
+            hoverIndex = -1;
+        } else {
+            showCpuCards = showCards;
+        }
+        dirty.add(handBounds(human, cards.size()));
+        repaint(dirty);
+    }
+
+    @Override
+    public void playCard(Card card, boolean isHuman) {
+        if (isHuman) {
+            humanTableCard = card;
+        } else {
+            cpuTableCard = card;
+        }
+        repaint(tableCardBounds(isHuman));
+    }
+
+    @Override
+    public void clearTable() {
+        humanTableCard = null;
+        cpuTableCard = null;
+        Rectangle dirty = tableCardBounds(true);
+        dirty.add(tableCardBounds(false));
+        repaint(dirty);
+    }
+
+    @Override
+    public void showBriscola(Card briscola) {
+        this.briscola = briscola;
+        this.deckVisible = true;
+        Rectangle dirty = sideBounds();
+        dirty.add(deckBounds());
+        repaint(dirty);
+    }
+
+    @Override
+    public void showDeck() {
+        deckVisible = true;
+        repaint(deckBounds());
+    }
+
+    @Override
+    public void hideBriscola() {
+        briscola = null;
+        repaint(sideBounds());
+    }
+
+    @Override
+    public void hideDeck() {
+        deckVisible = false;
+        repaint(deckBounds());
+    }
+
+    @Override
+    public void enableCardSelection(Player player) {
+        this.currentPlayer = player;
+        this.selectionEnabled = true;
+        this.humanCardsGreyed = false;
+        repaint(handBounds(true, humanCards.size()));
+    }
+
+    @Override
+    public void disableCardSelection() {
+        this.selectionEnabled = false;
+        this.humanCardsGreyed = true;
+        this.hoverIndex = -1;
+        setCursor(Cursor.getDefaultCursor());
+        repaint(handBounds(true, humanCards.size()));
+    }
+
+    // == DISEGNO ==
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        try {
+            paintBoard(g);
+        } finally {
+            UiMetrics.shared().recordPaint("BoardCanvas", System.nanoTime() - start);
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    private void paintBoard(Graphics g) {
+        super.paintComponent(g);
+        CardSpriteCache sprites = CardSpriteCache.shared();
+        Rectangle clip = g.getClipBounds();
+
+        paintHand(g, clip, false, cpuCards, showCpuCards, false);
+        paintHand(g, clip, true, humanCards, showHumanCards, humanCardsGreyed);
+        paintCard(g, clip, tableCardBounds(false), cpuTableCard == null ? null : sprites.icon(cpuTableCard));
+        paintCard(g, clip, tableCardBounds(true), humanTableCard == null ? null : sprites.icon(humanTableCard));
+        paintCard(g, clip, deckBounds(), deckVisible ? sprites.icon(CardSpriteCache.BACK) : null);
+
+        if (briscola != null) {
+            Rectangle bounds = briscolaBounds();
+            if (clip == null || clip.intersects(sideBounds())) {
+                g.setColor(getForeground());
+                g.drawString(BRISCOLA_LABEL, bounds.x, bounds.y - g.getFontMetrics().getDescent() - 2);
+            }
+            paintCard(g, clip, bounds, sprites.icon(briscola));
+        }
+
+        if (hoverIndex >= 0 && hoverIndex < humanCards.size()) {
+            // Bordo giallo sulla carta sotto il mouse
+            Rectangle bounds = handCardBounds(true, hoverIndex, humanCards.size());
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setColor(Color.YELLOW);
+                g2.setStroke(new BasicStroke(HOVER_BORDER));
+                g2.drawRect(bounds.x + HOVER_BORDER / 2, bounds.y + HOVER_BORDER / 2,
+                        bounds.width - HOVER_BORDER, bounds.height - HOVER_BORDER);
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+
+    private void paintHand(Graphics g, Rectangle clip, boolean human, List<Card> cards, boolean showCards,
+                           boolean greyed) {
+        CardSpriteCache sprites = CardSpriteCache.shared();
+        for (int i = 0; i < cards.size(); i++) {
+            String name = showCards ? cards.get(i).toFileName() : CardSpriteCache.BACK;
+            Icon icon = greyed && showCards ? sprites.disabledIcon(name) : sprites.icon(name);
+            paintCard(g, clip, handCardBounds(human, i, cards.size()), icon);
+        }
+    }
+
+    private void paintCard(Graphics g, Rectangle clip, Rectangle bounds, Icon icon) {
+        if (icon != null && (clip == null || clip.intersects(bounds))) {
+            icon.paintIcon(this, g, bounds.x, bounds.y);
+        }
+    }
+
+    private void setHoverIndex(int index) {
+        if (index == hoverIndex) {
+            return;
+        }
+        int size = humanCards.size();
+        if (hoverIndex >= 0 && hoverIndex < size) {
+            repaint(handCardBounds(true, hoverIndex, size));
+        }
+        hoverIndex = index;
+        if (index >= 0) {
+            repaint(handCardBounds(true, index, size));
+        }
+        setCursor(index >= 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    /**
+     * Restituisce l'indice della carta dell'utente che contiene il punto, oppure -1.
+     */
+    private int humanCardAt(Point point) {
+        for (int i = 0; i < humanCards.size(); i++) {
+            if (handCardBounds(true, i, humanCards.size()).contains(point)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // == GEOMETRIA ==
+    // Il mazzo e la briscola occupano una colonna a sinistra, le mani sono centrate in alto
+    // (CPU) e in basso (utente), le carte giocate nello spazio tra le due mani.
+
+    private int boardLeft() {
+        return CARD_WIDTH + 2 * GAP;
+    }
+
+    private Rectangle handCardBounds(boolean human, int index, int size) {
+        int left = boardLeft();
+        int width = size * CARD_WIDTH + (size - 1) * GAP;
+        int x = left + (getWidth() - left - width) / 2 + index * (CARD_WIDTH + GAP);
+        int y = human ? getHeight() - GAP - CARD_HEIGHT : GAP;
+        return new Rectangle(x, y, CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    private Rectangle handBounds(boolean human, int size) {
+        Rectangle bounds = handCardBounds(human, 0, Math.max(1, size));
+        bounds.add(handCardBounds(human, Math.max(0, size - 1), Math.max(1, size)));
+        return bounds;
+    }
+
+    private Rectangle tableCardBounds(boolean human) {
+        int left = boardLeft();
+        int centerX = left + (getWidth() - left) / 2;
+        int top = 2 * GAP + CARD_HEIGHT;
+        int bottom = getHeight() - 2 * GAP - CARD_HEIGHT;
+        // Carta della CPU in alto a sinistra del centro, dell'utente in basso a destra
+        int y = human ? Math.max(top, bottom - GAP - CARD_HEIGHT) : Math.min(top + GAP, bottom - CARD_HEIGHT);
+        int x = human ? centerX + GAP / 2 : centerX - GAP / 2 - CARD_WIDTH;
+        return new Rectangle(x, y, CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    private Rectangle deckBounds() {
+        return new Rectangle(GAP, getHeight() / 2 - CARD_HEIGHT - 2 * GAP, CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    private Rectangle briscolaBounds() {
+        return new Rectangle(GAP, getHeight() / 2 + 2 * GAP, CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    /**
+     * Rettangolo della briscola compresa la scritta sopra la carta.
+     */
+    private Rectangle sideBounds() {
+        Rectangle bounds = briscolaBounds();
+        bounds.add(new Point(bounds.x, bounds.y - 2 * GAP));
+        return bounds;
+    }
+}
@@ -1,6 +1,7 @@
 package it.filippo.casadei.view.panels;
 
 import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.view.sprites.CardSpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,7 +13,7 @@ public class BriscolaPanel extends JPanel {
     public BriscolaPanel() {
         super(new BorderLayout());
         setOpaque(false);
-        setPreferredSize(new Dimension(100,160));
+        setPreferredSize(new Dimension(CardSpriteCache.CARD_WIDTH, CardSpriteCache.CARD_HEIGHT));
         add(new JLabel("Briscola"), BorderLayout.NORTH);
     }
 
@@ -23,9 +24,7 @@ public class BriscolaPanel extends JPanel {
      */
     public void show(Card briscola) {
         removeAll();
-        add(new JLabel(new ImageIcon(new ImageIcon(
-                getClass().getResource("/cards/" + briscola.toFileName() + ".png"))
-                .getImage().getScaledInstance(100,160,Image.SCALE_SMOOTH))), BorderLayout.CENTER);
+        add(new JLabel(CardSpriteCache.shared().icon(briscola)), BorderLayout.CENTER);
         revalidate(); repaint();
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package it.filippo.casadei.view.panels;
 
+import it.filippo.casadei.view.sprites.CardSpriteCache;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -18,7 +20,7 @@ public class DeckPanel extends JPanel {
      */
     public void showBack() {
         removeAll();
-        add(cardLabel("back"));
+        add(cardLabel(CardSpriteCache.BACK));
         revalidate(); repaint();
     }
 
@@ -29,7 +31,6 @@ public class DeckPanel extends JPanel {
      * @return JLabel che rappresenta la carta mostrata
      */
     private JLabel cardLabel(String file) {
-        ImageIcon icon = new ImageIcon(getClass().getResource("/cards/" + file + ".png"));
-        return new JLabel(new ImageIcon(icon.getImage().getScaledInstance(100,160,Image.SCALE_SMOOTH)));
+        return new JLabel(CardSpriteCache.shared().icon(file));
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import it.filippo.casadei.model.card.Card;
 import it.filippo.casadei.model.player.Hand;
 import it.filippo.casadei.model.player.Player;
 import it.filippo.casadei.view.BriscolaViewObserver;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.sprites.CardSpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,8 +19,8 @@ import java.util.List;
  * Versione SEMPLIFICATA che usa direttamente l'observer.
  */
 public class HandPanel extends JPanel {
-    private static final int CARD_WIDTH = 100;
-    private static final int CARD_HEIGHT = 160;
+    private static final int CARD_WIDTH = CardSpriteCache.CARD_WIDTH;
+    private static final int CARD_HEIGHT = CardSpriteCache.CARD_HEIGHT;
 
     private final boolean isHuman;
     private final List<JLabel> cardLabels;
@@ -48,7 +50,7 @@ public class HandPanel extends JPanel {
         cardLabels.clear();
 
         for (Card card : hand.getCards()) {
-            String filename = showCards ? card.toFileName() : "back";
+            String filename = showCards ? card.toFileName() : CardSpriteCache.BACK;
             JLabel cardLabel = createCardLabel(filename);
 
             // Salva il riferimento alla carta
@@ -145,19 +147,37 @@ public class HandPanel extends JPanel {
     }
 
     /**
-     * Crea una JLabel per una carta.
+     * Crea una JLabel per una carta, con le icone (normale e in grigio) della cache condivisa.
      */
     private JLabel createCardLabel(String filename) {
-        ImageIcon icon = new ImageIcon(
-                getClass().getResource("/cards/" + filename + ".png")
-        );
-        Image scaledImage = icon.getImage().getScaledInstance(
-                CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH
-        );
-
-        JLabel label = new JLabel(new ImageIcon(scaledImage));
+        CardSpriteCache sprites = CardSpriteCache.shared();
+        JLabel label = new JLabel(sprites.icon(filename));
+        label.setDisabledIcon(sprites.disabledIcon(filename));
         label.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
 
         return label;
     }
-}
\ No newline at end of file
+
+    /**
+     * Disegna il pannello con le sue carte e registra la durata in {@link UiMetrics}.
+     */
+    @Override
+    public void paint(Graphics g) {
+        long start = System.nanoTime();
+        try {
+            super.paint(g);
+        } finally {
+            UiMetrics.shared().recordPaint("HandPanel", System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void doLayout() {
+        long start = System.nanoTime();
+        try {
+            super.doLayout();
+        } finally {
+            UiMetrics.shared().recordLayout("HandPanel", System.nanoTime() - start);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package it.filippo.casadei.view.panels;
 
 import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.view.metrics.UiMetrics;
+import it.filippo.casadei.view.sprites.CardSpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -9,7 +11,7 @@ import java.awt.*;
  * Panel che rappresenta il tavolo di gioco.
  */
 public class TablePanel extends JPanel {
-    private static final int CARD_W = 100, CARD_H = 160;
+    private static final int CARD_W = CardSpriteCache.CARD_WIDTH, CARD_H = CardSpriteCache.CARD_HEIGHT;
     private JLabel humanCardLabel, cpuCardLabel;
 
     /**
@@ -58,10 +60,31 @@ public class TablePanel extends JPanel {
      * @return
      */
     private JLabel createCardLabel(Card c) {
-        ImageIcon icon = new ImageIcon(getClass().getResource("/cards/" + c.toFileName() + ".png"));
-        Image img = icon.getImage().getScaledInstance(CARD_W, CARD_H, Image.SCALE_SMOOTH);
-        JLabel lbl = new JLabel(new ImageIcon(img));
+        JLabel lbl = new JLabel(CardSpriteCache.shared().icon(c));
         lbl.setPreferredSize(new Dimension(CARD_W, CARD_H));
         return lbl;
     }
+
+    /**
+     * Disegna il pannello con le sue carte e registra la durata in {@link UiMetrics}.
+     */
+    @Override
+    public void paint(Graphics g) {
+        long start = System.nanoTime();
+        try {
+            super.paint(g);
+        } finally {
+            UiMetrics.shared().recordPaint("TablePanel", System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void doLayout() {
+        long start = System.nanoTime();
+        try {
+            super.doLayout();
+        } finally {
+            UiMetrics.shared().recordLayout("TablePanel", System.nanoTime() - start);
+        }
+    }
 }
@@ -0,0 +1,161 @@
+package it.filippo.casadei.view.session;
+
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sessione di gioco registrata: il seme con cui il controller mescola i mazzi, la difficoltà della
+ * CPU e, per ogni partita conclusa, le carte giocate dall'utente nell'ordine.
+ * <p>
+ * Le scelte della CPU non vengono salvate: le difficoltà sono deterministiche, quindi con lo stesso
+ * seme e le stesse carte dell'utente la partita si ripete identica.
+ * Il file è di testo, una riga per partita:
+ * <pre>
+ * briscola-session 1
+ * seed -4962768465676381896
+ * difficulty it.filippo.casadei.model.player.cpu.HardDifficulty
+ * game denari1 coppe3 spade7 ...
+ * </pre>
+ * Le carte sono indicate con il nome del loro file ({@link it.filippo.casadei.model.card.Card#toFileName()}).
+ */
+public final class Session {
+
+    private static final String HEADER = "briscola-session 1";
+    private static final String SEED = "seed";
+    private static final String DIFFICULTY = "difficulty";
+    private static final String GAME = "game";
+
+    private final long seed;
+    private String difficulty;
+    private final List<List<String>> games = new ArrayList<>();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una sessione vuota.
+     *
+     * @param seed il seme con cui il controller mescola i mazzi
+     */
+    public Session(long seed) {
+        this.seed = seed;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Legge una sessione da file.
+     *
+     * @param file il file da leggere
+     * @return la sessione letta
+     * @throws IOException              se il file non può essere letto
+     * @throws IllegalArgumentException se il file non è una sessione valida
+     */
+    public static Session read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.size() < 3 || !lines.get(0).equals(HEADER)) {
+            throw new IllegalArgumentException("Il file non è una sessione registrata: " + file);
+        }
+        Session session = new Session(Long.parseLong(value(lines.get(1), SEED)));
+        session.setDifficulty(value(lines.get(2), DIFFICULTY));
+        for (String line : lines.subList(3, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] tokens = line.trim().split(" ");
+            if (!tokens[0].equals(GAME)) {
+                throw new IllegalArgumentException("Riga non valida nella sessione: " + line);
+            }
+            session.addGame(Arrays.asList(tokens).subList(1, tokens.length));
+        }
+        return session;
+    }
+
+    /**
+     * Scrive la sessione su file, sostituendone il contenuto.
+     *
+     * @param file il file da scrivere
+     * @throws IOException se il file non può essere scritto
+     */
+    public void write(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            out.write(SEED + " " + seed);
+            out.newLine();
+            out.write(DIFFICULTY + " " + difficulty);
+            out.newLine();
+            for (List<String> game : games) {
+                out.write(GAME);
+                for (String card : game) {
+                    out.write(' ');
+                    out.write(card);
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Aggiunge una partita conclusa.
+     *
+     * @param plays le carte giocate dall'utente, nell'ordine
+     */
+    public void addGame(List<String> plays) {
+        games.add(List.copyOf(plays));
+    }
+
+    /**
+     * Crea la difficoltà della CPU registrata.
+     *
+     * @throws IllegalStateException se la classe registrata non esiste o non ha un costruttore senza argomenti
+     */
+    public CpuDifficulty newDifficulty() {
+        try {
+            return Class.forName(difficulty).asSubclass(CpuDifficulty.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Difficoltà non valida nella sessione: " + difficulty, e);
+        }
+    }
+
+    // == GETTER E SETTER ==
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Imposta la difficoltà della CPU con il nome completo della sua classe.
+     */
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Restituisce le partite concluse: per ognuna le carte giocate dall'utente.
+     */
+    public List<List<String>> getGames() {
+        return Collections.unmodifiableList(games);
+    }
+
+    // == METODI PRIVATI ==
+
+    private static String value(String line, String key) {
+        if (!line.startsWith(key + " ")) {
+            throw new IllegalArgumentException("Attesa la riga '" + key + "', trovato: " + line);
+        }
+        return line.substring(key.length() + 1).trim();
+    }
+}
@@ -0,0 +1,153 @@
+package it.filippo.casadei.view.session;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.view.BriscolaView;
+import it.filippo.casadei.view.BriscolaViewObserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * View che registra la sessione dell'utente e delega tutto il resto a un'altra view.
+ * <p>
+ * Registra la difficoltà scelta e le carte giocate dall'utente; alla fine di ogni partita la
+ * aggiunge alla {@link Session} e riscrive il file, così una sessione interrotta conserva le
+ * partite già concluse. Il controller deve mescolare i mazzi con il seme della sessione.
+ */
+public class SessionRecorder implements BriscolaView {
+
+    private final BriscolaView delegate;
+    private final Session session;
+    private final Path file;
+    private final List<String> currentGame = new ArrayList<>();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una view che registra la sessione nel file indicato.
+     *
+     * @param delegate la view che mostra la partita
+     * @param session  la sessione in cui registrare, con il seme usato dal controller
+     * @param file     il file in cui salvare la sessione
+     */
+    public SessionRecorder(BriscolaView delegate, Session session, Path file) {
+        this.delegate = delegate;
+        this.session = session;
+        this.file = file;
+    }
+
+    // ==  METODI DI INTERAZIONE E NOTIFICA ALL'OBSERVER ==
+
+    @Override
+    public void setObserver(BriscolaViewObserver observer) {
+        // Intercetta le scelte dell'utente prima di passarle al controller
+        delegate.setObserver(new BriscolaViewObserver() {
+            @Override
+            public void humanPlaysCard(Player humanPlayer, Card card) {
+                currentGame.add(card.toFileName());
+                observer.humanPlaysCard(humanPlayer, card);
+            }
+
+            @Override
+            public void createModel(CpuDifficulty difficulty) {
+                session.setDifficulty(difficulty.getClass().getName());
+                observer.createModel(difficulty);
+            }
+
+            @Override
+            public void restartGame(boolean playAgain) {
+                observer.restartGame(playAgain);
+            }
+        });
+    }
+
+    @Override
+    public void chooseCpuDifficulty() {
+        delegate.chooseCpuDifficulty();
+    }
+
+    @Override
+    public void askPlayAgain() {
+        delegate.askPlayAgain();
+    }
+
+    @Override
+    public void enableCardSelection(Player p) {
+        delegate.enableCardSelection(p);
+    }
+
+    // == METODI DI AGGIORNAMENTO ==
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void showSetup(Card briscolaCard, Player human, Player cpu) {
+        currentGame.clear();
+        delegate.showSetup(briscolaCard, human, cpu);
+    }
+
+    @Override
+    public void showPlayedCard(Player p, Card playedCard) {
+        delegate.showPlayedCard(p, playedCard);
+    }
+
+    @Override
+    public void clearTable() {
+        delegate.clearTable();
+    }
+
+    @Override
+    public void showDraw(Player p, Card drawnCard) {
+        delegate.showDraw(p, drawnCard);
+    }
+
+    @Override
+    public void showLastDrawingTurn() {
+        delegate.showLastDrawingTurn();
+    }
+
+    @Override
+    public void showFinalScores(Player player1, Player player2, int player1Points, int player2Points) {
+        session.addGame(currentGame);
+        try {
+            session.write(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossibile salvare la sessione in " + file, e);
+        }
+        delegate.showFinalScores(player1, player2, player1Points, player2Points);
+    }
+
+    @Override
+    public void showWinner(Optional<Player> winner) {
+        delegate.showWinner(winner);
+    }
+
+    @Override
+    public void hideBriscola() {
+        delegate.hideBriscola();
+    }
+
+    @Override
+    public void hideDeck() {
+        delegate.hideDeck();
+    }
+
+    @Override
+    public void disableCardSelection() {
+        delegate.disableCardSelection();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,199 @@
+package it.filippo.casadei.view.session;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.view.BriscolaView;
+import it.filippo.casadei.view.BriscolaViewObserver;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * View che rigioca una {@link Session} registrata sopra un'altra view.
+ * <p>
+ * La difficoltà e le carte dell'utente vengono prese dalla sessione invece che dai dialoghi e dai
+ * click; le carte vengono consegnate al controller come eventi separati tramite l'executor indicato.
+ * Gli aggiornamenti del tavolo sono delegati alla view, mentre i dialoghi modali (ultimo turno di
+ * pesca, punteggi, vincitore, nuova partita) vengono saltati per non fermare la riproduzione.
+ * Il controller deve mescolare i mazzi con il seme della sessione.
+ */
+public class SessionReplayView implements BriscolaView {
+
+    /**
+     * Riceve gli eventi della riproduzione.
+     */
+    public interface Listener {
+
+        /**
+         * Una partita sta per essere mostrata.
+         *
+         * @param game l'indice della partita, da 0
+         */
+        void gameStarted(int game);
+
+        /**
+         * Una partita è finita.
+         *
+         * @param game l'indice della partita, da 0
+         */
+        void gameFinished(int game);
+
+        /**
+         * La riproduzione è terminata: tutte le partite sono state giocate oppure c'è stato un errore.
+         *
+         * @param error l'errore che ha interrotto la riproduzione, oppure null
+         */
+        void finished(RuntimeException error);
+    }
+
+    private final BriscolaView delegate;
+    private final Session session;
+    private final Executor input;
+    private final Listener listener;
+
+    private BriscolaViewObserver observer;
+    private int game = -1;
+    private Iterator<String> plays;
+    private boolean failed = false;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una view che rigioca la sessione sopra la view indicata.
+     *
+     * @param delegate la view che mostra la partita
+     * @param session  la sessione da rigiocare (con almeno una partita)
+     * @param input    l'executor con cui consegnare al controller le scelte dell'utente
+     * @param listener chi riceve gli eventi della riproduzione
+     */
+    public SessionReplayView(BriscolaView delegate, Session session, Executor input, Listener listener) {
+        if (session.getGames().isEmpty()) {
+            throw new IllegalArgumentException("La sessione non contiene partite");
+        }
+        this.delegate = delegate;
+        this.session = session;
+        this.input = input;
+        this.listener = listener;
+    }
+
+    // ==  METODI DI INTERAZIONE E NOTIFICA ALL'OBSERVER ==
+
+    @Override
+    public void setObserver(BriscolaViewObserver observer) {
+        this.observer = observer;
+        delegate.setObserver(observer);
+    }
+
+    @Override
+    public void chooseCpuDifficulty() {
+        observer.createModel(session.newDifficulty());
+    }
+
+    @Override
+    public void askPlayAgain() {
+        if (failed) {
+            return;
+        }
+        listener.gameFinished(game);
+        boolean playAgain = game + 1 < session.getGames().size();
+        input.execute(() -> observer.restartGame(playAgain));
+    }
+
+    @Override
+    public void enableCardSelection(Player p) {
+        delegate.enableCardSelection(p);
+        if (!(p instanceof Human) || failed) {
+            return;
+        }
+        if (!plays.hasNext()) {
+            fail("la partita " + (game + 1) + " richiede più carte di quelle registrate");
+            return;
+        }
+        String name = plays.next();
+        Optional<Card> card = p.getHand().getCards().stream()
+                .filter(c -> c.toFileName().equals(name))
+                .findFirst();
+        if (card.isEmpty()) {
+            fail("nella partita " + (game + 1) + " la carta " + name + " non è in mano " + p.getHand());
+            return;
+        }
+        input.execute(() -> observer.humanPlaysCard(p, card.get()));
+    }
+
+    // == METODI DI AGGIORNAMENTO ==
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void showSetup(Card briscolaCard, Player human, Player cpu) {
+        game++;
+        List<String> recorded = session.getGames().get(game);
+        plays = recorded.iterator();
+        listener.gameStarted(game);
+        delegate.showSetup(briscolaCard, human, cpu);
+    }
+
+    @Override
+    public void showPlayedCard(Player p, Card playedCard) {
+        delegate.showPlayedCard(p, playedCard);
+    }
+
+    @Override
+    public void clearTable() {
+        delegate.clearTable();
+    }
+
+    @Override
+    public void showDraw(Player p, Card drawnCard) {
+        delegate.showDraw(p, drawnCard);
+    }
+
+    @Override
+    public void showLastDrawingTurn() {
+        // dialogo modale: saltato
+    }
+
+    @Override
+    public void showFinalScores(Player player1, Player player2, int player1Points, int player2Points) {
+        // dialogo modale: saltato
+    }
+
+    @Override
+    public void showWinner(Optional<Player> winner) {
+        // dialogo modale: saltato
+    }
+
+    @Override
+    public void hideBriscola() {
+        delegate.hideBriscola();
+    }
+
+    @Override
+    public void hideDeck() {
+        delegate.hideDeck();
+    }
+
+    @Override
+    public void disableCardSelection() {
+        delegate.disableCardSelection();
+    }
+
+    @Override
+    public void close() {
+        // la view sottostante resta aperta: la chiude chi ha avviato la riproduzione
+        listener.finished(null);
+    }
+
+    // == METODI PRIVATI ==
+
+    private void fail(String message) {
+        failed = true;
+        listener.finished(new IllegalStateException("La sessione non corrisponde alla partita: " + message));
+    }
+}
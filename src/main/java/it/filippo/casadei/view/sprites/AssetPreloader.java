@@ -0,0 +1,163 @@
+package it.filippo.casadei.view.sprites;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+
+import javax.imageio.ImageIO;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carica in parallelo tutte le immagini del gioco (le 40 carte, il dorso e lo sfondo) mentre
+ * l'utente è ancora nel dialogo iniziale, così la prima distribuzione non deve leggere file.
+ * <p>
+ * Ogni immagine è un compito separato su un pool di thread daemon; le carte finiscono nella
+ * {@link CardSpriteCache} già ridimensionate per lo schermo principale. Il pool viene chiuso
+ * quando tutti i compiti sono terminati.
+ */
+public final class AssetPreloader {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final CardSpriteCache cache;
+    private final String backgroundPath;
+    private CompletableFuture<BufferedImage> background;
+    private CompletableFuture<Void> ready;
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea un caricatore per la cache e lo sfondo indicati; il caricamento parte con {@link #start()}.
+     *
+     * @param cache          la cache in cui caricare le carte
+     * @param backgroundPath il percorso nel classpath dell'immagine di sfondo
+     */
+    public AssetPreloader(CardSpriteCache cache, String backgroundPath) {
+        this.cache = cache;
+        this.backgroundPath = backgroundPath;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce i nomi di tutte le immagini delle carte: le 40 carte e il dorso.
+     */
+    public static List<String> cardNames() {
+        List<String> names = new ArrayList<>();
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                names.add(new Card(suit, rank).toFileName());
+            }
+        }
+        names.add(CardSpriteCache.BACK);
+        return names;
+    }
+
+    /**
+     * Avvia il caricamento in background e ritorna subito. Chiamate successive non hanno effetto.
+     *
+     * @return questo caricatore
+     */
+    public synchronized AssetPreloader start() {
+        if (ready != null) {
+            return this;
+        }
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-preloader-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        GraphicsConfiguration configuration = defaultConfiguration();
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        background = CompletableFuture.supplyAsync(() -> read(backgroundPath), executor);
+        tasks.add(background);
+        for (String name : cardNames()) {
+            tasks.add(CompletableFuture.runAsync(() -> cache.preload(name, configuration), executor));
+        }
+        ready = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+        ready.whenComplete((ignored, error) -> executor.shutdown());
+        return this;
+    }
+
+    /**
+     * Restituisce il caricamento dello sfondo, completato quando l'immagine è stata decodificata.
+     */
+    public synchronized CompletableFuture<BufferedImage> background() {
+        start();
+        return background;
+    }
+
+    /**
+     * Restituisce il caricamento di tutte le immagini, completato quando sono tutte pronte.
+     */
+    public synchronized CompletableFuture<Void> ready() {
+        start();
+        return ready;
+    }
+
+    /**
+     * Attende che tutte le immagini siano caricate.
+     *
+     * @throws UncheckedIOException     se un'immagine non può essere letta
+     * @throws IllegalArgumentException se un'immagine non esiste
+     */
+    public void awaitReady() {
+        try {
+            ready().join();
+        } catch (CompletionException | CancellationException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Restituisce true se tutte le immagini sono state caricate.
+     */
+    public boolean isReady() {
+        CompletableFuture<Void> loading = ready();
+        return loading.isDone() && !loading.isCompletedExceptionally();
+    }
+
+    /**
+     * Decodifica un'immagine del classpath.
+     */
+    public static BufferedImage read(String resourcePath) {
+        try (InputStream in = AssetPreloader.class.getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Immagine non trovata: " + resourcePath);
+            }
+            return ImageIO.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossibile leggere l'immagine " + resourcePath, e);
+        }
+    }
+
+    // == METODI PRIVATI ==
+
+    /**
+     * Restituisce la configurazione dello schermo principale, oppure null se non c'è uno schermo.
+     */
+    private static GraphicsConfiguration defaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
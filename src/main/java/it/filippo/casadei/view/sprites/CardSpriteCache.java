@@ -0,0 +1,245 @@
+package it.filippo.casadei.view.sprites;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.view.metrics.UiMetrics;
+
+import javax.imageio.ImageIO;
+import javax.swing.GrayFilter;
+import javax.swing.Icon;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache condivisa delle immagini delle carte.
+ * <p>
+ * Ogni PNG delle carte viene decodificato una sola volta; per ogni dimensione richiesta e ogni scala
+ * dello schermo (HiDPI) l'immagine viene poi ridimensionata una sola volta in una {@link BufferedImage}
+ * compatibile con lo schermo, che viene copiata senza ridimensionamenti a ogni disegno.
+ * I pannelli non usano direttamente le immagini ma le icone di {@link #icon(String)}: l'icona sceglie
+ * l'immagine adatta allo schermo su cui viene disegnata, quindi spostare la finestra su un monitor
+ * con scala diversa non richiede di ricostruire i componenti. {@link #invalidate()} scarta le immagini
+ * ridimensionate (per esempio quando cambia la configurazione dello schermo) mantenendo quelle decodificate.
+ * <p>
+ * Tutti i metodi possono essere chiamati da più thread.
+ */
+public final class CardSpriteCache {
+
+    public static final int CARD_WIDTH = 100;
+    public static final int CARD_HEIGHT = 160;
+    public static final String BACK = "back";
+
+    private static final CardSpriteCache SHARED = new CardSpriteCache("/cards/");
+    private static final GrayFilter DISABLED_FILTER = new GrayFilter(true, 50);
+
+    private final String directory;
+    private final Map<String, BufferedImage> sources = new ConcurrentHashMap<>();
+    private final Map<String, BufferedImage> sprites = new ConcurrentHashMap<>();
+    private final Map<String, Icon> icons = new ConcurrentHashMap<>();
+    private final AtomicInteger decoded = new AtomicInteger();
+    private final AtomicInteger rendered = new AtomicInteger();
+
+    // == COSTRUTTORE ==
+
+    /**
+     * Crea una cache che legge le immagini dalla cartella del classpath indicata.
+     *
+     * @param directory la cartella delle immagini, con la barra finale (per esempio {@code "/cards/"})
+     */
+    public CardSpriteCache(String directory) {
+        this.directory = directory;
+    }
+
+    // == METODI PUBBLICI ==
+
+    /**
+     * Restituisce la cache usata da tutti i pannelli dell'applicazione.
+     */
+    public static CardSpriteCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Restituisce l'icona della carta alla dimensione standard.
+     *
+     * @param name il nome del file senza estensione (vedi {@link Card#toFileName()} e {@link #BACK})
+     * @return l'icona, condivisa tra tutti i componenti che la mostrano
+     */
+    public Icon icon(String name) {
+        return icons.computeIfAbsent(name, n -> new SpriteIcon(n, CARD_WIDTH, CARD_HEIGHT, false));
+    }
+
+    /**
+     * Restituisce l'icona della carta alla dimensione standard.
+     */
+    public Icon icon(Card card) {
+        return icon(card.toFileName());
+    }
+
+    /**
+     * Restituisce l'icona della carta in grigio, da usare per le carte non selezionabili.
+     *
+     * @param name il nome del file senza estensione
+     */
+    public Icon disabledIcon(String name) {
+        return icons.computeIfAbsent(name + "#disabled", n -> new SpriteIcon(name, CARD_WIDTH, CARD_HEIGHT, true));
+    }
+
+    /**
+     * Restituisce l'immagine della carta già ridimensionata per lo schermo indicato.
+     *
+     * @param name          il nome del file senza estensione
+     * @param width         larghezza in punti logici
+     * @param height        altezza in punti logici
+     * @param disabled      true per la versione in grigio
+     * @param configuration lo schermo su cui verrà disegnata, oppure null se non è noto
+     * @return un'immagine di {@code width × height} punti moltiplicati per la scala dello schermo
+     */
+    public BufferedImage sprite(String name, int width, int height, boolean disabled,
+                                GraphicsConfiguration configuration) {
+        AffineTransform transform = configuration == null ? new AffineTransform() : configuration.getDefaultTransform();
+        int pixelWidth = (int) Math.ceil(width * transform.getScaleX());
+        int pixelHeight = (int) Math.ceil(height * transform.getScaleY());
+        String key = name + "@" + pixelWidth + "x" + pixelHeight + (disabled ? "#disabled" : "");
+        return sprites.computeIfAbsent(key, k -> render(source(name), pixelWidth, pixelHeight, disabled, configuration));
+    }
+
+    /**
+     * Decodifica l'immagine e calcola in anticipo la versione standard e quella in grigio per lo
+     * schermo indicato, così il primo disegno della carta non deve leggere il file.
+     *
+     * @param name          il nome del file senza estensione
+     * @param configuration lo schermo su cui verrà disegnata, oppure null se non è noto
+     */
+    public void preload(String name, GraphicsConfiguration configuration) {
+        sprite(name, CARD_WIDTH, CARD_HEIGHT, false, configuration);
+        sprite(name, CARD_WIDTH, CARD_HEIGHT, true, configuration);
+    }
+
+    /**
+     * Scarta tutte le immagini ridimensionate; le successive richieste le ricalcolano.
+     * Le immagini decodificate restano in cache.
+     */
+    public void invalidate() {
+        sprites.clear();
+    }
+
+    // == GETTER E SETTER ==
+
+    /**
+     * Restituisce quante immagini sono state decodificate dal disco.
+     */
+    public int getDecodedCount() {
+        return decoded.get();
+    }
+
+    /**
+     * Restituisce quante immagini ridimensionate sono state calcolate.
+     */
+    public int getRenderedCount() {
+        return rendered.get();
+    }
+
+    // == METODI PRIVATI ==
+
+    private BufferedImage source(String name) {
+        return sources.computeIfAbsent(name, n -> {
+            String path = directory + n + ".png";
+            try (InputStream in = CardSpriteCache.class.getResourceAsStream(path)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Immagine non trovata: " + path);
+                }
+                long start = System.nanoTime();
+                BufferedImage image = ImageIO.read(in);
+                UiMetrics.shared().recordImage("decode", System.nanoTime() - start);
+                decoded.incrementAndGet();
+                return image;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossibile leggere l'immagine " + path, e);
+            }
+        });
+    }
+
+    /**
+     * Ridimensiona l'immagine con interpolazione bilineare, dimezzandola a passi finché è più del
+     * doppio della dimensione finale (un solo passo perderebbe dettagli).
+     */
+    private BufferedImage render(BufferedImage source, int width, int height, boolean disabled,
+                                 GraphicsConfiguration configuration) {
+        long start = System.nanoTime();
+        BufferedImage current = source;
+        while (current.getWidth() >= 2 * width && current.getHeight() >= 2 * height) {
+            current = scale(current, current.getWidth() / 2, current.getHeight() / 2, null);
+        }
+        BufferedImage sprite = scale(current, width, height, configuration);
+        if (disabled) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    sprite.setRGB(x, y, DISABLED_FILTER.filterRGB(x, y, sprite.getRGB(x, y)));
+                }
+            }
+        }
+        rendered.incrementAndGet();
+        UiMetrics.shared().recordImage("render", System.nanoTime() - start);
+        return sprite;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height,
+                                       GraphicsConfiguration configuration) {
+        BufferedImage scaled = configuration == null
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+                : configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Icona che disegna l'immagine della cache adatta allo schermo del componente.
+     */
+    private final class SpriteIcon implements Icon {
+
+        private final String name;
+        private final int width;
+        private final int height;
+        private final boolean disabled;
+
+        SpriteIcon(String name, int width, int height, boolean disabled) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.disabled = disabled;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            GraphicsConfiguration configuration = g instanceof Graphics2D g2
+                    ? g2.getDeviceConfiguration()
+                    : c.getGraphicsConfiguration();
+            g.drawImage(sprite(name, width, height, disabled, configuration), x, y, width, height, null);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
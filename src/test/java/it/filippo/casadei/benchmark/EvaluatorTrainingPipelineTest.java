@@ -0,0 +1,53 @@
+package it.filippo.casadei.benchmark;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la ripresa della pipeline di addestramento del valutatore.
+ */
+public class EvaluatorTrainingPipelineTest {
+
+    @Test
+    @DisplayName("Pipeline: una ripresa numera le generazioni dopo l'ultima e non sovrascrive i dati")
+    void testResumeContinuesGenerationNumbering(@TempDir Path directory) throws IOException, InterruptedException {
+        assertEquals(0, EvaluatorTrainingPipeline.nextGeneration(directory));
+
+        EvaluatorTrainingPipeline.run(directory, 1, 20, 1, 0, 1, 5L);
+        Map<String, byte[]> firstData = contents(directory.resolve("data-00"));
+        assertFalse(firstData.isEmpty());
+        assertEquals(1, EvaluatorTrainingPipeline.nextGeneration(directory));
+
+        // La ripresa con lo stesso seme parte dalla generazione 1
+        EvaluatorTrainingPipeline.run(directory, 1, 20, 1, 0, 1, 5L);
+        assertTrue(Files.isDirectory(directory.resolve("data-01")));
+        assertTrue(Files.exists(directory.resolve("checkpoint-g00-e00.bin")));
+        assertTrue(Files.exists(directory.resolve("checkpoint-g01-e00.bin")));
+        assertEquals(2, EvaluatorTrainingPipeline.nextGeneration(directory));
+
+        Map<String, byte[]> afterResume = contents(directory.resolve("data-00"));
+        assertEquals(firstData.keySet(), afterResume.keySet());
+        for (String name : firstData.keySet()) {
+            assertArrayEquals(firstData.get(name), afterResume.get(name), "Dati sovrascritti: " + name);
+        }
+    }
+
+    private static Map<String, byte[]> contents(Path directory) throws IOException {
+        Map<String, byte[]> contents = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                contents.put(file.getFileName().toString(), Files.readAllBytes(file));
+            }
+        }
+        return contents;
+    }
+}
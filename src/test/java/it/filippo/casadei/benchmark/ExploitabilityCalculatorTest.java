@@ -0,0 +1,23 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.EasyDifficulty;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il calcolo della risposta ottima a una strategia fissa.
+ */
+public class ExploitabilityCalculatorTest {
+
+    @Test
+    @DisplayName("Sfruttabilità: la risposta ottima batte la strategia Easy e i risultati sono riproducibili")
+    void testExploitsEasy() throws InterruptedException {
+        HardDifficultyTuner.MatchResult first = ExploitabilityCalculator.exploit(EasyDifficulty::new, 20, 4, 2, 7L);
+        HardDifficultyTuner.MatchResult second = ExploitabilityCalculator.exploit(EasyDifficulty::new, 20, 4, 2, 7L);
+
+        assertEquals(20, first.getGames());
+        assertTrue(first.getMeanDifference() > 0, "Easy dovrebbe essere sfruttabile");
+        assertEquals(first.getMeanDifference(), second.getMeanDifference());
+    }
+}
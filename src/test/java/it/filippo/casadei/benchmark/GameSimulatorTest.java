@@ -0,0 +1,54 @@
+package it.filippo.casadei.benchmark;
+
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.HardParameters;
+import it.filippo.casadei.model.player.cpu.MediumDifficulty;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa le partite automatiche riproducibili e il confronto parallelo tra parametri di Hard.
+ */
+public class GameSimulatorTest {
+
+    @Test
+    @DisplayName("Simulatore: lo stesso seme produce la stessa partita")
+    void testSeededGamesAreReproducible() {
+        for (long seed = 0; seed < 50; seed++) {
+            int first = GameSimulator.play(new HardDifficulty(), new MediumDifficulty(), seed);
+            int second = GameSimulator.play(new HardDifficulty(), new MediumDifficulty(), seed);
+            assertEquals(first, second, "Due partite con lo stesso seme dovrebbero finire uguali");
+            assertEquals(0, (first + 120) % 2, "La differenza di punti su 120 totali dovrebbe essere pari");
+        }
+    }
+
+    @Test
+    @DisplayName("Regolazione: configurazioni identiche pareggiano a posti invertiti")
+    void testMirroredMatchOfIdenticalParametersIsEven() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            HardDifficultyTuner.MatchResult result = HardDifficultyTuner.match(
+                    HardParameters.defaults(), HardParameters.defaults(), 100, 7L, pool, 2);
+
+            assertEquals(200, result.getGames());
+            assertEquals(0.0, result.getMeanDifference(), 1e-9,
+                    "Con mazzi e posti speculari la differenza dovrebbe annullarsi");
+            double[] interval = result.scoreInterval();
+            assertTrue(interval[0] <= 0.5 && 0.5 <= interval[1]);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Parametri Hard: la conversione in vettore è reversibile")
+    void testParametersVectorRoundTrip() {
+        HardParameters parameters = new HardParameters(8, 3, 62, 4);
+        assertEquals(parameters, HardParameters.fromVector(parameters.toVector()));
+        assertEquals(HardParameters.defaults(), HardParameters.fromVector(HardParameters.defaults().toVector()));
+    }
+}
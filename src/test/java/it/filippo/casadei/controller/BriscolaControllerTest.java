@@ -0,0 +1,201 @@
+package it.filippo.casadei.controller;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.Cpu;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.EasyDifficulty;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.MediumDifficulty;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.view.HeadlessBriscolaView;
+import it.filippo.casadei.view.HeadlessBriscolaView.HumanPolicy;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la macchina a stati del controller su partite complete, con la view senza interfaccia grafica.
+ */
+public class BriscolaControllerTest {
+
+    private static final int GAMES = 200;
+    // Partite per difficoltà del test di carico, aumentabili con -Dbriscola.soak.games=...
+    private static final int SOAK_GAMES = Integer.getInteger("briscola.soak.games", 2000);
+
+    @Test
+    @DisplayName("Controller: con l'orologio virtuale gioca partite complete senza attese reali")
+    void testFullGamesOnVirtualClock() {
+        VirtualClockScheduler scheduler = new VirtualClockScheduler();
+        HeadlessBriscolaView view = new HeadlessBriscolaView(scheduler::execute, new HardDifficulty(),
+                HumanPolicy.first(), GAMES);
+        long start = System.nanoTime();
+        new BriscolaController(view, scheduler);
+        scheduler.runUntilIdle();
+
+        assertEquals(GAMES, view.getGamesPlayed());
+        assertTrue(view.getViolations().isEmpty(), () -> view.getViolations().toString());
+        assertTrue(view.isClosed());
+        // 20 mani da 2 secondi di pausa per partita
+        assertTrue(scheduler.getNow() >= GAMES * 20 * 2000L, "Il tempo virtuale dovrebbe includere le pause");
+        assertTrue(System.nanoTime() - start < 60_000_000_000L, "Le pause non dovrebbero essere attese davvero");
+    }
+
+    @Test
+    @DisplayName("Controller: con lo scheduler immediato le partite terminano senza far crescere lo stack")
+    void testFullGamesImmediately() {
+        ImmediateScheduler scheduler = new ImmediateScheduler();
+        HeadlessBriscolaView view = new HeadlessBriscolaView(scheduler::execute, new HardDifficulty(),
+                HumanPolicy.first(), GAMES);
+        new BriscolaController(view, scheduler);
+
+        assertEquals(GAMES, view.getGamesPlayed());
+        assertTrue(view.getViolations().isEmpty(), () -> view.getViolations().toString());
+        assertEquals(GAMES, view.getCallCount("showSetup"));
+        assertEquals(GAMES * 40L, view.getCallCount("showPlayedCard"));
+        assertEquals(1, view.getCallCount("close"));
+    }
+
+    @Test
+    @DisplayName("Controller: test di carico con mosse casuali contro tutte le difficoltà")
+    void testSoak() {
+        CpuDifficulty[] difficulties = {new EasyDifficulty(), new MediumDifficulty(), new HardDifficulty()};
+        for (int i = 0; i < difficulties.length; i++) {
+            ImmediateScheduler scheduler = new ImmediateScheduler();
+            HeadlessBriscolaView view = new HeadlessBriscolaView(scheduler::execute, difficulties[i],
+                    HumanPolicy.random(i), SOAK_GAMES);
+            new BriscolaController(view, scheduler);
+
+            String name = difficulties[i].getClass().getSimpleName();
+            assertEquals(SOAK_GAMES, view.getGamesPlayed(), name);
+            assertTrue(view.getViolations().isEmpty(), () -> name + ": " + view.getViolations());
+            // In ogni partita l'utente gioca 20 carte
+            assertEquals(SOAK_GAMES * 20L, view.getCallCount("enableCardSelection"), name);
+        }
+    }
+
+    @Test
+    @DisplayName("Controller: un riavvio durante la scelta della CPU scarta la carta vecchia e non tocca la nuova partita")
+    void testRestartDuringCpuDecision() {
+        DeferredWorkersScheduler scheduler = new DeferredWorkersScheduler();
+        RestartingDifficulty difficulty = new RestartingDifficulty();
+        RecordingView view = new RecordingView(scheduler::execute, difficulty);
+        difficulty.view = view;
+        difficulty.controller = new BriscolaController(view, scheduler, new Random(7));
+
+        // Gioca finché la CPU non deve aprire una mano: la partita viene riavviata durante il calcolo
+        while (!difficulty.restarted && !view.isClosed()) {
+            scheduler.runUntilIdle();
+            scheduler.runNextWorker();
+        }
+        assertTrue(difficulty.restarted, "La CPU dovrebbe aprire almeno una mano");
+
+        // La ricerca vecchia ha continuato sulla propria copia della mano
+        assertEquals(difficulty.handBeforeRestart, difficulty.handAfterRestart);
+        // e le modifiche alla sua memoria non arrivano alla CPU della nuova partita
+        Memory memory = view.cpu.getMemory();
+        assertEquals(0, memory.getMyPoints());
+        assertEquals(difficulty.remainingAfterRestart, memory.getRemainingCards());
+        assertEquals(difficulty.cpuHandAfterRestart, view.cpu.getHand().getCards());
+
+        // La carta scelta per la partita vecchia non viene giocata: la nuova partita la apre l'utente
+        int firstPlayOfNewGame = view.playedBy.size();
+        scheduler.runAll();
+        assertInstanceOf(Human.class, view.playedBy.get(firstPlayOfNewGame));
+        assertEquals(1, view.getGamesPlayed());
+        assertTrue(view.getViolations().isEmpty(), () -> view.getViolations().toString());
+        assertTrue(view.isClosed());
+    }
+
+    /*
+     * Orologio virtuale che accoda i calcoli della CPU invece di eseguirli subito, così il test
+     * decide quando una scelta in corso termina.
+     */
+    private static final class DeferredWorkersScheduler extends VirtualClockScheduler {
+        private final Deque<Runnable> workers = new ArrayDeque<>();
+
+        @Override
+        public Executor workers() {
+            return workers::add;
+        }
+
+        void runNextWorker() {
+            Runnable task = workers.poll();
+            if (task != null) {
+                task.run();
+            }
+        }
+
+        void runAll() {
+            do {
+                runUntilIdle();
+                while (!workers.isEmpty()) {
+                    workers.poll().run();
+                }
+            } while (getPendingCount() > 0);
+        }
+    }
+
+    /*
+     * Difficoltà Hard che, la prima volta che la CPU apre una mano, riavvia la partita mentre
+     * sta ancora scegliendo e poi modifica la propria memoria.
+     */
+    private static final class RestartingDifficulty implements CpuDifficulty {
+        private final CpuDifficulty delegate = new HardDifficulty();
+        private BriscolaController controller;
+        private RecordingView view;
+        private boolean restarted;
+        private List<Card> handBeforeRestart;
+        private List<Card> handAfterRestart;
+        private List<Card> cpuHandAfterRestart;
+        private List<Card> remainingAfterRestart;
+
+        @Override
+        public Card chooseCard(GameContext context, Memory memory) {
+            if (!restarted && context.isCpuFirst()) {
+                restarted = true;
+                handBeforeRestart = new ArrayList<>(context.getCpuHand().getCards());
+                controller.restartGame(true);
+                handAfterRestart = new ArrayList<>(context.getCpuHand().getCards());
+                cpuHandAfterRestart = new ArrayList<>(view.cpu.getHand().getCards());
+                remainingAfterRestart = new ArrayList<>(view.cpu.getMemory().getRemainingCards());
+                memory.setMyPoints(99);
+                memory.recordOwnPlay(handAfterRestart.get(0));
+            }
+            return delegate.chooseCard(context, memory);
+        }
+    }
+
+    /*
+     * View senza interfaccia grafica che ricorda la CPU della partita e chi ha giocato ogni carta.
+     */
+    private static final class RecordingView extends HeadlessBriscolaView {
+        private final List<Player> playedBy = new ArrayList<>();
+        private Cpu cpu;
+
+        RecordingView(Executor input, CpuDifficulty difficulty) {
+            super(input, difficulty, HumanPolicy.first(), 1);
+        }
+
+        @Override
+        public void showSetup(Card briscolaCard, Player human, Player cpu) {
+            super.showSetup(briscolaCard, human, cpu);
+            this.cpu = (Cpu) cpu;
+        }
+
+        @Override
+        public void showPlayedCard(Player p, Card playedCard) {
+            super.showPlayedCard(p, playedCard);
+            playedBy.add(p);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package it.filippo.casadei.controller;
+
+import org.junit.jupiter.api.*;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa gli scheduler senza interfaccia grafica.
+ */
+public class GameSchedulerTest {
+
+    @Test
+    @DisplayName("Orologio virtuale: i passi vengono eseguiti in ordine di tempo solo quando l'orologio avanza")
+    void testVirtualClockOrder() {
+        VirtualClockScheduler scheduler = new VirtualClockScheduler();
+        List<String> log = new ArrayList<>();
+        scheduler.schedule(2000, () -> log.add("b"));
+        scheduler.schedule(1000, () -> log.add("a"));
+        scheduler.execute(() -> log.add("subito"));
+        GameScheduler.ScheduledTask cancelled = scheduler.schedule(1500, () -> log.add("annullato"));
+        cancelled.cancel();
+
+        assertTrue(log.isEmpty());
+        assertEquals(2, scheduler.advance(1000));
+        assertEquals(List.of("subito", "a"), log);
+        assertEquals(1000, scheduler.getNow());
+
+        // Un passo programmato da un altro passo parte dal tempo di quest'ultimo
+        scheduler.schedule(500, () -> scheduler.schedule(1000, () -> log.add("c")));
+        assertEquals(3, scheduler.runUntilIdle());
+        assertEquals(List.of("subito", "a", "b", "c"), log);
+        assertEquals(2500, scheduler.getNow());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Immediato: i passi annidati vengono eseguiti in coda senza ricorsione")
+    void testImmediateIsIterative() {
+        ImmediateScheduler scheduler = new ImmediateScheduler();
+        int[] count = {0};
+        int[] maxDepth = {0};
+        Runnable[] step = new Runnable[1];
+        step[0] = () -> {
+            maxDepth[0] = Math.max(maxDepth[0], Thread.currentThread().getStackTrace().length);
+            if (++count[0] < 10_000) {
+                scheduler.schedule(1000, step[0]);
+            }
+        };
+        scheduler.execute(step[0]);
+
+        assertEquals(10_000, count[0]);
+        assertTrue(maxDepth[0] < 200, "Lo stack non dovrebbe crescere con il numero di passi");
+    }
+
+    @Test
+    @DisplayName("Swing: dopo lo spegnimento i timer in attesa non scattano e i nuovi passi sono ignorati")
+    void testSwingShutdownStopsPendingTimers() throws Exception {
+        SwingScheduler scheduler = new SwingScheduler();
+        AtomicBoolean ran = new AtomicBoolean(false);
+        scheduler.schedule(100, () -> ran.set(true));
+        assertEquals(1, scheduler.getPendingCount());
+
+        scheduler.shutdown();
+        scheduler.schedule(0, () -> ran.set(true));
+        scheduler.execute(() -> ran.set(true));
+        assertEquals(0, scheduler.getPendingCount());
+
+        Thread.sleep(300);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertFalse(ran.get(), "Nessun passo dovrebbe essere eseguito dopo lo spegnimento");
+    }
+
+    @Test
+    @DisplayName("Swing: i thread della CPU hanno nomi numerati")
+    void testSwingWorkerThreadsAreNumbered() throws Exception {
+        SwingScheduler scheduler = new SwingScheduler();
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                scheduler.workers().execute(() -> {
+                    names.add(Thread.currentThread().getName());
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            scheduler.shutdown();
+        }
+
+        assertEquals(3, names.size(), "Ogni thread dovrebbe avere un nome diverso: " + names);
+        names.forEach(name -> assertTrue(name.matches("cpu-decision-\\d+"), name));
+    }
+}
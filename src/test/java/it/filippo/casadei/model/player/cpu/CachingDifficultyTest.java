@@ -0,0 +1,106 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.cache.DecisionCache;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la memorizzazione delle decisioni di una strategia in forma canonica rispetto ai semi.
+ */
+public class CachingDifficultyTest {
+
+    private DecisionCache cache;
+    private CountingDifficulty delegate;
+    private CachingDifficulty caching;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DecisionCache(100);
+        delegate = new CountingDifficulty();
+        caching = new CachingDifficulty(delegate, cache, 1);
+    }
+
+    @Test
+    @DisplayName("Cache: posizioni uguali a meno dei semi condividono la decisione, riportata sulla mano reale")
+    void testSuitPermutedPositionsShareDecision() {
+        GameContext first = context(
+                new Card(Suit.BATONS, Rank.ACE), new Card(Suit.COINS, Rank.TWO), new Card(Suit.CUPS, Rank.KING));
+        Card firstChoice = caching.chooseCard(first, new Memory());
+        assertSame(first.getCpuHand().getCards().get(0), firstChoice);
+        assertEquals(1, delegate.calls);
+
+        // Stessa situazione con i semi non di briscola rinominati
+        Card ace = new Card(Suit.CUPS, Rank.ACE);
+        GameContext second = context(new Card(Suit.BATONS, Rank.TWO), new Card(Suit.COINS, Rank.KING), ace);
+        Card secondChoice = caching.chooseCard(second, new Memory());
+
+        assertEquals(1, delegate.calls, "La seconda decisione dovrebbe arrivare dalla cache");
+        assertSame(ace, secondChoice, "La carta in cache dovrebbe essere riportata sulla mano reale");
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    @DisplayName("Cache: una decisione presa a scadenza esaurita non viene memorizzata")
+    void testExpiredDecisionIsNotCached() {
+        GameContext context = context(
+                new Card(Suit.BATONS, Rank.ACE), new Card(Suit.COINS, Rank.TWO), new Card(Suit.CUPS, Rank.KING));
+
+        caching.chooseCard(context, new Memory(), Deadline.after(0));
+        caching.chooseCard(context, new Memory());
+
+        assertEquals(2, delegate.calls, "La decisione parziale non dovrebbe essere riusata");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Cache: parametri diversi della strategia Hard usano spazi dei nomi diversi")
+    void testHardParametersSeparateNamespaces() {
+        HardParameters defaults = HardParameters.defaults();
+        HardParameters tuned = new HardParameters(10, 1, 70, 3);
+
+        assertEquals(CachingDifficulty.namespaceOf(defaults),
+                CachingDifficulty.namespaceOf(HardParameters.fromVector(defaults.toVector())));
+        assertNotEquals(CachingDifficulty.namespaceOf(defaults), CachingDifficulty.namespaceOf(tuned));
+
+        // Le due varianti non leggono le decisioni l'una dell'altra
+        CachingDifficulty first = new CachingDifficulty(delegate, cache, CachingDifficulty.namespaceOf(defaults));
+        CachingDifficulty second = new CachingDifficulty(delegate, cache, CachingDifficulty.namespaceOf(tuned));
+        GameContext context = context(
+                new Card(Suit.BATONS, Rank.ACE), new Card(Suit.COINS, Rank.TWO), new Card(Suit.CUPS, Rank.KING));
+        first.chooseCard(context, new Memory());
+        second.chooseCard(context, new Memory());
+
+        assertEquals(2, delegate.calls);
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    private static GameContext context(Card... cards) {
+        Hand hand = new Hand();
+        for (Card card : cards) {
+            hand.addCard(card);
+        }
+        return new GameContext(hand, new Table(), new Card(Suit.SWORDS, Rank.KNAVE), true, false);
+    }
+
+    /**
+     * Strategia che gioca sempre l'asso in mano (o la prima carta) e conta le decisioni prese.
+     */
+    private static final class CountingDifficulty implements CpuDifficulty {
+        private int calls = 0;
+
+        @Override
+        public Card chooseCard(GameContext context, Memory memory) {
+            calls++;
+            return context.getCpuHand().getCards().stream()
+                    .filter(card -> card.getRank() == Rank.ACE)
+                    .findFirst()
+                    .orElse(context.getCpuHand().getCards().get(0));
+        }
+    }
+}
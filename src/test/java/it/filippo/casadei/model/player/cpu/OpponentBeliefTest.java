@@ -0,0 +1,87 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.rollout.FastRandom;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il modello probabilistico della mano dell'avversario e il suo aggiornamento dalla memoria.
+ */
+public class OpponentBeliefTest {
+
+    private static final Suit BRISCOLA = Suit.values()[0];
+    private static final Suit OTHER = Suit.values()[1];
+
+    private Memory memory;
+
+    @BeforeEach
+    void setUp() {
+        memory = new Memory();
+        memory.initialize(CardCodec.cards(CardCodec.ALL_CARDS));
+        memory.setBriscolaCard(CardCodec.card(CardCodec.id(BRISCOLA, Rank.KING)));
+    }
+
+    @Test
+    @DisplayName("Modello avversario: un carico non tagliato rende meno probabili le briscole")
+    void testUncutCaricoLowersBriscole() {
+        Card ace = CardCodec.card(CardCodec.id(OTHER, Rank.ACE));
+        Card two = CardCodec.card(CardCodec.id(OTHER, Rank.TWO));
+
+        memory.recordOwnPlay(ace);
+        memory.updateAfterTurn(ace.getPoints() + two.getPoints(), List.of(ace, two), true);
+
+        OpponentBelief belief = memory.getBelief();
+        int briscolaSeven = CardCodec.id(BRISCOLA, Rank.SEVEN);
+        int otherSuitSeven = CardCodec.id(Suit.values()[2], Rank.SEVEN);
+        assertTrue(belief.getWeight(briscolaSeven) < belief.getWeight(otherSuitSeven),
+                "Le briscole dovrebbero pesare meno delle altre carte");
+        assertEquals(1.0, belief.getWeight(otherSuitSeven), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Modello avversario: la pescata attenua le informazioni raccolte")
+    void testDrawRelaxesWeights() {
+        OpponentBelief belief = new OpponentBelief();
+        int lead = CardCodec.id(OTHER, Rank.THREE);
+        int reply = CardCodec.id(OTHER, Rank.FOUR);
+        belief.observeTrick(reply, lead, false, BRISCOLA.ordinal(), CardCodec.ALL_CARDS);
+
+        int briscola = CardCodec.id(BRISCOLA, Rank.TWO);
+        double before = belief.getWeight(briscola);
+        OpponentBelief copy = belief.copy();
+        belief.observeDraw();
+
+        assertTrue(belief.getWeight(briscola) > before, "Il peso dovrebbe tornare verso 1");
+        assertTrue(belief.getWeight(briscola) < 1.0);
+        assertEquals(before, copy.getWeight(briscola), 1e-12, "La copia dovrebbe essere indipendente");
+    }
+
+    @Test
+    @DisplayName("Modello avversario: l'estrazione pesata segue i pesi")
+    void testSamplingFollowsWeights() {
+        OpponentBelief belief = new OpponentBelief();
+        int lead = CardCodec.id(OTHER, Rank.ACE);
+        int reply = CardCodec.id(OTHER, Rank.TWO);
+        belief.observeTrick(reply, lead, false, BRISCOLA.ordinal(), CardCodec.ALL_CARDS);
+
+        long candidates = CardCodec.suitMask(BRISCOLA.ordinal()) | CardCodec.suitMask(Suit.values()[2].ordinal());
+        FastRandom random = new FastRandom(1);
+        int briscole = 0;
+        int others = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long hand = belief.sampleHand(candidates, 3, random);
+            assertEquals(3, Long.bitCount(hand), "La mano dovrebbe avere tre carte");
+            assertEquals(0L, hand & ~candidates, "La mano dovrebbe contenere solo carte candidate");
+            briscole += Long.bitCount(hand & CardCodec.suitMask(BRISCOLA.ordinal()));
+            others += Long.bitCount(hand & ~CardCodec.suitMask(BRISCOLA.ordinal()));
+        }
+        assertTrue(briscole * 2 < others, "Le briscole dovrebbero essere estratte molto meno spesso");
+    }
+}
@@ -0,0 +1,94 @@
+package it.filippo.casadei.model.player.cpu;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il calcolo anticipato delle risposte della CPU durante il turno dell'avversario.
+ */
+public class PondererTest {
+
+    private static final long SEED = 7;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Ponder: la risposta calcolata in anticipo coincide con quella calcolata dopo la giocata")
+    void testPonderedReplyMatchesDirectChoice() {
+        for (int index = 0; index < 3; index++) {
+            // Risposta calcolata in anticipo
+            BriscolaGame pondered = newGame();
+            Player human = pondered.getPlayer1();
+            Cpu cpu = (Cpu) pondered.getPlayer2();
+            Ponderer ponderer = new Ponderer(executor);
+            ponderer.start(cpu, human, human.getHand().getCards(), pondered.getBriscola(), false, 10000);
+            Card humanCard = human.getHand().getCards().get(index);
+            pondered.playCard(human, humanCard);
+
+            CompletableFuture<CpuDecision> reply = ponderer.take(humanCard, 1000);
+            assertNotNull(reply);
+            assertFalse(ponderer.isPondering(), "Le altre risposte dovrebbero essere scartate");
+            CpuDecision decision = reply.join();
+            decision.commit();
+
+            // Risposta calcolata normalmente sulla stessa partita
+            BriscolaGame direct = newGame();
+            Player directHuman = direct.getPlayer1();
+            Cpu directCpu = (Cpu) direct.getPlayer2();
+            direct.playCard(directHuman, directHuman.getHand().getCards().get(index));
+            Card expected = directCpu.chooseCard(new GameContext(directCpu.getHand(), direct.getTable(),
+                    direct.getBriscola(), false, false), Deadline.after(10000));
+
+            assertEquals(expected.toString(), decision.getCard().toString());
+            assertEquals(directCpu.getMemory().getRemainingCards().toString(),
+                    cpu.getMemory().getRemainingCards().toString(),
+                    "La memoria dopo il commit dovrebbe essere quella della scelta normale");
+        }
+    }
+
+    @Test
+    @DisplayName("Ponder: una carta non prevista non ha risposta e l'annullamento scarta tutto")
+    void testUnknownCardAndCancel() {
+        BriscolaGame game = newGame();
+        Player human = game.getPlayer1();
+        Cpu cpu = (Cpu) game.getPlayer2();
+        Ponderer ponderer = new Ponderer(executor);
+        List<Card> cards = human.getHand().getCards();
+
+        ponderer.start(cpu, human, cards.subList(0, 2), game.getBriscola(), false, 10000);
+        assertTrue(ponderer.isPondering());
+        assertNull(ponderer.take(cards.get(2), 1000));
+        assertFalse(ponderer.isPondering());
+
+        ponderer.start(cpu, human, cards, game.getBriscola(), false, 10000);
+        ponderer.cancel();
+        assertFalse(ponderer.isPondering());
+    }
+
+    private static BriscolaGame newGame() {
+        BriscolaGame game = new BriscolaGame(new Human("Utente"), new Cpu("CPU", new HardDifficulty()));
+        game.setupGame(new Random(SEED));
+        return game;
+    }
+}
@@ -0,0 +1,114 @@
+package it.filippo.casadei.model.player.cpu.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la cache delle decisioni: politica di ammissione W-TinyLFU, capacità e statistiche.
+ */
+public class DecisionCacheTest {
+
+    @Test
+    @DisplayName("Cache: una chiave frequente sopravvive a una scansione di chiavi lette una sola volta")
+    void testFrequentKeySurvivesScan() {
+        DecisionCache cache = new DecisionCache(100);
+        long hot = 42L;
+        cache.put(hot, 7);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(7, cache.get(hot));
+        }
+
+        // Scansione più corta del campione dello sketch: le frequenze non vengono dimezzate
+        for (long key = 1000; key < 1900; key++) {
+            cache.put(key, 1);
+        }
+
+        assertEquals(7, cache.get(hot), "La chiave frequente dovrebbe essere ancora in cache");
+        assertTrue(cache.stats().getRejections() > 0, "Le chiavi della scansione dovrebbero essere scartate");
+    }
+
+    @Test
+    @DisplayName("Cache: una chiave letta di continuo sopravvive a una scansione lunga")
+    void testFrequentKeySurvivesLongScan() {
+        DecisionCache cache = new DecisionCache(100);
+        long hot = 42L;
+        cache.put(hot, 7);
+
+        for (long key = 1000; key < 21000; key++) {
+            cache.put(key, 1);
+            if (key % 100 == 0) {
+                assertEquals(7, cache.get(hot), "La chiave frequente è stata rimossa dopo la chiave " + key);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cache: il numero di elementi non supera mai la capacità")
+    void testSizeNeverExceedsCapacity() {
+        Random random = new Random(3);
+        for (int capacity : new int[] {1, 2, 3, 65, 100, 1000, 5000}) {
+            DecisionCache cache = new DecisionCache(capacity);
+            for (int i = 0; i < 20000; i++) {
+                long key = random.nextInt(4 * capacity + 10);
+                if (random.nextBoolean()) {
+                    cache.put(key, i);
+                } else {
+                    cache.get(key);
+                }
+                assertTrue(cache.size() <= capacity,
+                        "Capacità " + capacity + " superata: " + cache.size() + " elementi");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cache: riscontri, mancati riscontri, rimozioni e scarti sono contati correttamente")
+    void testStatsCounters() {
+        // Un solo segmento: finestra di 1 elemento e area principale di 2
+        DecisionCache cache = new DecisionCache(3);
+
+        assertEquals(DecisionCache.NO_DECISION, cache.get(99));
+        cache.put(1, 10);
+        assertEquals(10, cache.get(1));
+        cache.put(2, 20);   // 1 passa nell'area principale
+        cache.put(3, 30);   // 2 passa nell'area principale
+        assertEquals(3, cache.size());
+
+        // 3 è letto più spesso di 1: quando esce dalla finestra prende il suo posto
+        assertEquals(30, cache.get(3));
+        assertEquals(30, cache.get(3));
+        cache.put(4, 40);
+        assertEquals(DecisionCache.NO_DECISION, cache.get(1), "1 dovrebbe essere stato rimosso");
+
+        // 4 non è più frequente di 2: quando esce dalla finestra viene scartato
+        cache.put(5, 50);
+        assertEquals(DecisionCache.NO_DECISION, cache.get(4), "4 dovrebbe essere stato scartato");
+        assertEquals(20, cache.get(2));
+        assertEquals(30, cache.get(3));
+        assertEquals(50, cache.get(5));
+
+        CacheStats stats = cache.stats();
+        assertEquals(6, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(1, stats.getRejections());
+        assertEquals(3, stats.getSize());
+        assertEquals(0.5, stats.hitRate(), 0.2);
+    }
+
+    @Test
+    @DisplayName("Cache: la capacità minima è rispettata")
+    void testCapacityOfOne() {
+        DecisionCache cache = new DecisionCache(1);
+        cache.put(1, 10);
+        cache.put(2, 20);
+
+        assertEquals(1, cache.size());
+        assertEquals(20, cache.get(2));
+        assertEquals(DecisionCache.NO_DECISION, cache.get(1));
+        assertThrows(IllegalArgumentException.class, () -> new DecisionCache(0));
+    }
+}
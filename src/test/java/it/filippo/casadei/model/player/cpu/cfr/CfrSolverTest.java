@@ -0,0 +1,140 @@
+package it.filippo.casadei.model.player.cpu.cfr;
+
+import it.filippo.casadei.benchmark.GameSimulator;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.cpu.CfrDifficulty;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa l'astrazione, il risolutore CFR e la strategia esportata.
+ */
+public class CfrSolverTest {
+
+    private static final int BRISCOLA = CardCodec.suit(CardCodec.id(Suit.COINS, Rank.TWO));
+
+    @Test
+    @DisplayName("Astrazione: ogni azione disponibile si gioca con una carta della mano")
+    void testActionsMapToCardsInHand() {
+        long hand = (1L << CardCodec.id(Suit.CUPS, Rank.ACE)) | (1L << CardCodec.id(Suit.CUPS, Rank.TWO))
+                | (1L << CardCodec.id(Suit.COINS, Rank.KING));
+        int tableCard = CardCodec.id(Suit.CUPS, Rank.KING);
+
+        int legal = CfrAbstraction.legalActions(hand, tableCard, BRISCOLA);
+        assertEquals(3, Integer.bitCount(legal));
+        for (int slot = 0; slot < 3; slot++) {
+            int action = CfrAbstraction.actionAt(legal, slot);
+            int card = CfrAbstraction.cardFor(hand, tableCard, BRISCOLA, action);
+            assertTrue((hand & (1L << card)) != 0);
+            assertEquals(action, CfrAbstraction.action(card, tableCard, BRISCOLA));
+        }
+        // L'Asso di coppe batte il Re di coppe, il Due no
+        assertEquals(2 * CfrAbstraction.CARICO + 1,
+                CfrAbstraction.action(CardCodec.id(Suit.CUPS, Rank.ACE), tableCard, BRISCOLA));
+        assertEquals(2 * CfrAbstraction.LISCIO,
+                CfrAbstraction.action(CardCodec.id(Suit.CUPS, Rank.TWO), tableCard, BRISCOLA));
+    }
+
+    @Test
+    @DisplayName("Astrazione: gli indici degli insiemi di informazione sono nell'intervallo previsto")
+    void testInfoSetsInRange() {
+        long hand = (1L << 0) | (1L << 15) | (1L << 39);
+        long unseen = CardCodec.ALL_CARDS & ~hand;
+        int leading = CfrAbstraction.infoSet(hand, unseen, CardCodec.NO_CARD, BRISCOLA, 0, 0, 34);
+        int following = CfrAbstraction.infoSet(hand, unseen & ~(1L << 20), 20, BRISCOLA, 70, 30, 0);
+
+        assertTrue(leading >= 0 && leading < CfrAbstraction.NUM_INFO_SETS);
+        assertTrue(following >= 0 && following < CfrAbstraction.NUM_INFO_SETS);
+        assertNotEquals(leading, following);
+    }
+
+    @Test
+    @DisplayName("Regret matching: la strategia segue i rimpianti positivi, uniforme se non ce ne sono")
+    void testRegretMatching() {
+        RegretTable table = new RegretTable();
+        float[] strategy = new float[3];
+
+        table.currentStrategy(5, 3, strategy);
+        assertArrayEquals(new float[] {1f / 3, 1f / 3, 1f / 3}, strategy, 1e-6f);
+
+        table.addRegret(5, 0, 3f);
+        table.addRegret(5, 1, -5f);
+        table.addRegret(5, 2, 1f);
+        table.currentStrategy(5, 3, strategy);
+        assertArrayEquals(new float[] {0.75f, 0f, 0.25f}, strategy, 1e-6f);
+
+        // Un rimpianto negativo abbastanza grande sposta la strategia sull'unica azione rimasta positiva
+        table.addRegret(5, 0, -4f);
+        table.currentStrategy(5, 3, strategy);
+        assertArrayEquals(new float[] {0f, 0f, 1f}, strategy, 1e-6f);
+    }
+
+    @Test
+    @DisplayName("CFR: la strategia media è una distribuzione di probabilità")
+    void testAverageStrategyIsNormalized() throws InterruptedException {
+        CfrSolver solver = new CfrSolver();
+        solver.train(5_000, 1, 3L);
+        RegretTable table = solver.getTable();
+
+        float[] average = new float[CfrAbstraction.MAX_LEGAL_ACTIONS];
+        int checked = 0;
+        for (int infoSet = 0; infoSet < CfrAbstraction.NUM_INFO_SETS; infoSet++) {
+            if (!table.isVisited(infoSet)) {
+                continue;
+            }
+            table.averageStrategy(infoSet, CfrAbstraction.MAX_LEGAL_ACTIONS, average);
+            float sum = 0f;
+            for (float p : average) {
+                assertTrue(p >= 0f && p <= 1f);
+                sum += p;
+            }
+            assertEquals(1f, sum, 1e-4f);
+            checked++;
+        }
+        assertEquals(solver.visitedInfoSets(), checked);
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    @DisplayName("CFR: la strategia addestrata si salva, si ricarica e batte una strategia uniforme")
+    void testTrainedPolicyBeatsUniform(@TempDir Path directory) throws IOException, InterruptedException {
+        // Un solo thread: l'addestramento è riproducibile
+        CfrSolver solver = new CfrSolver();
+        solver.train(50_000, 1, 1L);
+        assertTrue(solver.visitedInfoSets() > 0);
+
+        Path file = directory.resolve("cfr.bin");
+        CfrPolicy policy = solver.toPolicy();
+        policy.save(file);
+        CfrPolicy loaded = CfrPolicy.load(file);
+
+        float[] expected = new float[3];
+        float[] actual = new float[3];
+        for (int infoSet = 0; infoSet < CfrAbstraction.NUM_INFO_SETS; infoSet += 997) {
+            policy.probabilities(infoSet, 3, expected);
+            loaded.probabilities(infoSet, 3, actual);
+            assertArrayEquals(expected, actual);
+        }
+
+        // Stesse smazzate giocate da entrambe le posizioni; una strategia mai addestrata gioca a caso
+        CfrPolicy uniform = new CfrSolver().toPolicy();
+        int games = 200;
+        long difference = 0;
+        for (long seed = 0; seed < games; seed++) {
+            difference += GameSimulator.play(new CfrDifficulty(loaded, new Random(seed)),
+                    new CfrDifficulty(uniform, new Random(seed + games)), seed);
+            difference -= GameSimulator.play(new CfrDifficulty(uniform, new Random(seed + games)),
+                    new CfrDifficulty(loaded, new Random(seed)), seed);
+        }
+        double average = difference / (2.0 * games);
+        assertTrue(average > 3, "La strategia addestrata dovrebbe vincere in media di almeno 3 punti: " + average);
+    }
+}
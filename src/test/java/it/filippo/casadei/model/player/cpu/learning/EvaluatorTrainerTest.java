@@ -0,0 +1,65 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.benchmark.TrainingDataExporter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa l'addestramento parallelo della funzione di valutazione.
+ */
+public class EvaluatorTrainerTest {
+
+    @TempDir
+    Path directory;
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Addestramento: l'errore diminuisce con le epoche")
+    void testLossDecreases() throws Exception {
+        TrainingDataExporter.export(directory, 40, 2, 5L);
+        NeuralEvaluator model = NeuralEvaluator.random(NeuralEvaluator.DEFAULT_LAYER_SIZES, 1L);
+        EvaluatorTrainer trainer = new EvaluatorTrainer(model, pool, 2, 0.01f, 32);
+
+        int records = trainer.load(List.of(directory.resolve("shard-00.bin"), directory.resolve("shard-01.bin")),
+                new Random(2));
+        assertEquals(40 * 40, records);
+        assertEquals(records, trainer.getTrainingSize() + trainer.getValidationSize());
+
+        Random random = new Random(3);
+        double first = trainer.trainEpoch(random);
+        double last = first;
+        for (int e = 0; e < 4; e++) {
+            last = trainer.trainEpoch(random);
+        }
+        assertTrue(last < first, "L'errore dovrebbe diminuire: " + first + " -> " + last);
+        assertTrue(Double.isFinite(trainer.validationLoss()));
+    }
+
+    @Test
+    @DisplayName("Addestramento: senza dati caricati viene segnalato un errore")
+    void testTrainingWithoutDataFails() {
+        NeuralEvaluator model = NeuralEvaluator.random(NeuralEvaluator.DEFAULT_LAYER_SIZES, 1L);
+        EvaluatorTrainer trainer = new EvaluatorTrainer(model, pool, 2, 0.01f, 32);
+
+        assertThrows(IllegalStateException.class, () -> trainer.trainEpoch(new Random(1)));
+    }
+}
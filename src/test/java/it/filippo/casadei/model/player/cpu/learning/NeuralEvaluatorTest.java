@@ -0,0 +1,88 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.model.Table;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.model.player.cpu.NeuralDifficulty;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa l'inferenza della funzione di valutazione appresa.
+ */
+public class NeuralEvaluatorTest {
+
+    private NeuralEvaluator evaluator;
+    private float[] inputs;
+
+    @BeforeEach
+    void setUp() {
+        evaluator = NeuralEvaluator.random(NeuralEvaluator.DEFAULT_LAYER_SIZES, 7L);
+        inputs = new float[10 * NeuralEvaluator.INPUT_SIZE];
+        Random random = new Random(3);
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextFloat();
+        }
+    }
+
+    @Test
+    @DisplayName("Valutatore: la valutazione in lotto coincide con quella dei singoli ingressi")
+    void testBatchMatchesSingleEvaluation() {
+        float[] outputs = new float[10];
+        evaluator.evaluate(inputs, 10, outputs);
+
+        for (int r = 0; r < 10; r++) {
+            assertEquals(outputs[r], evaluator.evaluate(inputs, r * NeuralEvaluator.INPUT_SIZE), 1e-5f);
+        }
+    }
+
+    @Test
+    @DisplayName("Valutatore: le versioni SIMD e scalare producono gli stessi valori")
+    void testVectorAndScalarAgree() {
+        NeuralEvaluator vector = evaluator.copy(true);
+        NeuralEvaluator scalar = evaluator.copy(false);
+        assertFalse(scalar.isVectorized());
+
+        float[] expected = new float[10];
+        float[] actual = new float[10];
+        scalar.evaluate(inputs, 10, expected);
+        vector.evaluate(inputs, 10, actual);
+
+        assertArrayEquals(expected, actual, 1e-3f);
+    }
+
+    @Test
+    @DisplayName("Valutatore: i pesi salvati e ricaricati producono gli stessi valori")
+    void testSaveLoadRoundTrip(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("pesi.bin");
+        evaluator.save(file);
+        NeuralEvaluator loaded = NeuralEvaluator.load(file);
+
+        assertArrayEquals(evaluator.getLayerSizes(), loaded.getLayerSizes());
+        assertEquals(evaluator.evaluate(inputs, 0), loaded.evaluate(inputs, 0), 1e-6f);
+    }
+
+    @Test
+    @DisplayName("Difficoltà neurale: sceglie una carta presente in mano")
+    void testNeuralDifficultyChoosesCardInHand() {
+        Hand hand = new Hand();
+        hand.addCard(new Card(Suit.CUPS, Rank.ACE));
+        hand.addCard(new Card(Suit.SWORDS, Rank.TWO));
+        hand.addCard(new Card(Suit.BATONS, Rank.KING));
+        GameContext context = new GameContext(hand, new Table(), new Card(Suit.COINS, Rank.SEVEN), true, false);
+
+        Card chosen = new NeuralDifficulty(evaluator).chooseCard(context, new Memory());
+
+        assertTrue(hand.getCards().contains(chosen));
+    }
+}
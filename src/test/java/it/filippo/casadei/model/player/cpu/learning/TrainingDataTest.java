@@ -0,0 +1,96 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import it.filippo.casadei.benchmark.TrainingDataExporter;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la scrittura e la lettura per colonne dei dati di addestramento e la codifica delle posizioni.
+ */
+public class TrainingDataTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Dati di addestramento: i record letti coincidono con quelli scritti")
+    void testWriteReadRoundTrip() throws IOException {
+        Path file = directory.resolve("dati.bin");
+        try (TrainingDataWriter writer = new TrainingDataWriter(file, 3)) {
+            for (int game = 0; game < 4; game++) {
+                for (int i = 0; i < 5; i++) {
+                    Position position = new Position(0b111L << i, 1L << 30, i % 2 == 0 ? CardCodec.NO_CARD : 20,
+                            39, i % 2 == 0, i == 4, game * 10, i);
+                    writer.add(position, i, i % 2);
+                }
+                writer.endGame(game - 2);
+            }
+            assertEquals(20, writer.getRecordsWritten());
+        }
+
+        int records = 0;
+        try (TrainingDataReader reader = new TrainingDataReader(file)) {
+            for (TrainingBlock block = reader.nextBlock(); block != null; block = reader.nextBlock()) {
+                for (int r = 0; r < block.size(); r++, records++) {
+                    int game = records / 5;
+                    int i = records % 5;
+                    assertEquals(0b111L << i, block.getHand(r));
+                    assertEquals(1L << 30, block.getRemaining(r));
+                    assertEquals(i % 2 == 0 ? CardCodec.NO_CARD : 20, block.getTableCard(r));
+                    assertEquals(39, block.getBriscolaCard(r));
+                    assertEquals(i % 2 == 0, block.isCpuFirst(r));
+                    assertEquals(i == 4, block.isLastDraw(r));
+                    assertEquals(game * 10, block.getMyPoints(r));
+                    assertEquals(i, block.getOpponentPoints(r));
+                    assertEquals(i, block.getChosenCard(r));
+                    assertEquals(i % 2 == 0 ? game - 2 : 2 - game, block.getOutcome(r));
+                }
+            }
+        }
+        assertEquals(20, records, "Dovrebbero essere letti tutti i record");
+    }
+
+    @Test
+    @DisplayName("Dati di addestramento: le partite simulate producono decisioni coerenti")
+    void testExportedDecisionsAreConsistent() throws Exception {
+        long written = TrainingDataExporter.export(directory, 20, 2, 1L);
+
+        long read = 0;
+        for (int shard = 0; shard < 2; shard++) {
+            try (TrainingDataReader reader = new TrainingDataReader(directory.resolve("shard-0" + shard + ".bin"))) {
+                for (TrainingBlock block = reader.nextBlock(); block != null; block = reader.nextBlock()) {
+                    for (int r = 0; r < block.size(); r++, read++) {
+                        assertTrue((block.getHand(r) & (1L << block.getChosenCard(r))) != 0,
+                                "La carta scelta dovrebbe essere in mano");
+                        assertEquals(0, (block.getOutcome(r) + 120) % 2, "Il risultato dovrebbe essere pari");
+                    }
+                }
+            }
+        }
+        assertEquals(20 * 40, written, "Ogni partita dovrebbe avere 40 decisioni");
+        assertEquals(written, read);
+    }
+
+    @Test
+    @DisplayName("Codifica: la stessa situazione con un'altra briscola produce lo stesso vettore")
+    void testEncodingIsInvariantToBriscolaSuit() {
+        // Seme 0 di briscola
+        Position first = new Position(0b1011L, 0b11L << 12, 25, 7, false, false, 30, 40);
+        // Stesse carte con i semi ruotati di uno (briscola nel seme 1)
+        Position rotated = new Position(0b1011L << 10, 0b11L << 22, 35, 17, false, false, 30, 40);
+
+        float[] a = new float[PositionEncoder.FEATURES];
+        float[] b = new float[PositionEncoder.FEATURES];
+        PositionEncoder.encode(first, a, 0);
+        PositionEncoder.encode(rotated, b, 0);
+
+        assertArrayEquals(a, b);
+    }
+}
@@ -0,0 +1,99 @@
+package it.filippo.casadei.model.player.cpu.policy;
+
+import it.filippo.casadei.benchmark.GameSimulator;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.cpu.CompiledHardDifficulty;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.model.player.cpu.EasyDifficulty;
+import it.filippo.casadei.model.player.cpu.GameContext;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.model.player.cpu.HardParameters;
+import it.filippo.casadei.model.player.cpu.Memory;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la tabella precalcolata della strategia Hard e la difficoltà che la legge.
+ */
+public class HardPolicyTableTest {
+
+    @Test
+    @DisplayName("Tabella Hard: nelle partite simulate sceglie sempre come Hard")
+    void testSameChoicesAsHard(@TempDir Path directory) throws IOException {
+        HardPolicyTable table = HardPolicyTableGenerator.create(directory.resolve("hard.bin"),
+                HardParameters.defaults());
+        CheckingDifficulty first = new CheckingDifficulty(table);
+        CheckingDifficulty second = new CheckingDifficulty(table);
+
+        for (long seed = 0; seed < 200; seed++) {
+            GameSimulator.play(first, second, seed);
+            GameSimulator.play(first, new EasyDifficulty(), seed);
+        }
+        assertTrue(first.decisions > 5_000, "Decisioni controllate: " + first.decisions);
+    }
+
+    @Test
+    @DisplayName("Tabella Hard: i parametri si rileggono dal file e i file incompleti sono rifiutati")
+    void testOpen(@TempDir Path directory) throws IOException {
+        HardParameters parameters = new HardParameters(7, 1, 55, 3);
+        Path file = directory.resolve("hard.bin");
+        HardPolicyTableGenerator.create(file, parameters).force();
+        assertEquals(parameters, HardPolicyTable.open(file).getParameters());
+
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, new byte[HardPolicyTable.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> HardPolicyTable.open(truncated));
+    }
+
+    /**
+     * Gioca come Hard, ma prima di ogni decisione calcola la chiave corrispondente nella tabella
+     * e controlla che la difficoltà compilata scelga la stessa carta.
+     */
+    private static final class CheckingDifficulty implements CpuDifficulty {
+
+        private final HardDifficulty hard = new HardDifficulty();
+        private final HardPolicyTable table;
+        private final CompiledHardDifficulty compiled;
+        private int decisions;
+
+        CheckingDifficulty(HardPolicyTable table) {
+            this.table = table;
+            this.compiled = new CompiledHardDifficulty(table);
+        }
+
+        @Override
+        public Card chooseCard(GameContext context, Memory memory) {
+            Position position = Position.of(context, memory);
+            int briscolaSuit = position.getBriscolaSuit();
+            List<Card> cards = context.getCpuHand().getCards();
+            int[] hand = new int[cards.size()];
+            for (int i = 0; i < hand.length; i++) {
+                hand[i] = HardPolicyTable.rotate(CardCodec.id(cards.get(i)), briscolaSuit);
+            }
+            int tableCard = position.getTableCard() == CardCodec.NO_CARD
+                    ? CardCodec.NO_CARD
+                    : HardPolicyTable.rotate(position.getTableCard(), briscolaSuit);
+            long index = HardPolicyTable.entryIndex(hand, hand.length, tableCard,
+                    HardPolicyTable.rotate(position.getRemaining(), briscolaSuit),
+                    context.isLastDraw() && context.getBriscolaCard().isCarico());
+            assertTrue(index >= 0 && index < HardPolicyTable.ENTRIES);
+            table.setEntry(index, HardPolicyTableGenerator.evaluate(index, hard));
+
+            Card actual = compiled.chooseCard(context, memory.copy());
+            Card expected = hard.chooseCard(context, memory);
+            assertSame(expected, actual, "Scelta diversa con la mano " + cards
+                    + " e il tavolo " + context.getTable().getFirstCard());
+            decisions++;
+            return expected;
+        }
+    }
+}
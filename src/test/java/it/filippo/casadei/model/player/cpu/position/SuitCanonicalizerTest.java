@@ -0,0 +1,86 @@
+package it.filippo.casadei.model.player.cpu.position;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la canonicalizzazione delle posizioni rispetto alle simmetrie dei semi.
+ */
+public class SuitCanonicalizerTest {
+
+    private static long mask(int... ids) {
+        long mask = 0L;
+        for (int id : ids) {
+            mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    private static int id(Suit suit, Rank rank) {
+        return CardCodec.id(suit, rank);
+    }
+
+    @Test
+    @DisplayName("Canonicalizzazione: la briscola diventa sempre il seme 0")
+    void testBriscolaSuitBecomesZero() {
+        Position position = new Position(
+                mask(id(Suit.CUPS, Rank.ACE), id(Suit.SWORDS, Rank.TWO)),
+                0L, CardCodec.NO_CARD, id(Suit.SWORDS, Rank.KING),
+                true, false, 0, 0);
+
+        CanonicalPosition canonical = SuitCanonicalizer.canonicalize(position);
+
+        assertEquals(0, canonical.getPosition().getBriscolaSuit(),
+                "Il seme di briscola canonico dovrebbe essere 0");
+    }
+
+    @Test
+    @DisplayName("Canonicalizzazione: posizioni equivalenti per rinomina dei semi coincidono")
+    void testEquivalentPositionsHaveSameCanonicalForm() {
+        // Stessa situazione con i semi non di briscola scambiati tra loro
+        Position a = new Position(
+                mask(id(Suit.BATONS, Rank.ACE), id(Suit.COINS, Rank.TWO), id(Suit.CUPS, Rank.KING)),
+                mask(id(Suit.BATONS, Rank.THREE), id(Suit.COINS, Rank.SEVEN)),
+                id(Suit.CUPS, Rank.FIVE), id(Suit.SWORDS, Rank.KNAVE),
+                false, false, 12, 30);
+        Position b = new Position(
+                mask(id(Suit.CUPS, Rank.ACE), id(Suit.BATONS, Rank.TWO), id(Suit.COINS, Rank.KING)),
+                mask(id(Suit.CUPS, Rank.THREE), id(Suit.BATONS, Rank.SEVEN)),
+                id(Suit.COINS, Rank.FIVE), id(Suit.SWORDS, Rank.KNAVE),
+                false, false, 12, 30);
+
+        Position canonicalA = SuitCanonicalizer.canonicalize(a).getPosition();
+        Position canonicalB = SuitCanonicalizer.canonicalize(b).getPosition();
+
+        assertEquals(canonicalA, canonicalB, "Le forme canoniche dovrebbero coincidere");
+        assertEquals(canonicalA.hash64(), canonicalB.hash64(), "Gli hash canonici dovrebbero coincidere");
+    }
+
+    @Test
+    @DisplayName("Canonicalizzazione: la mossa canonica si riporta sulla carta reale")
+    void testCanonicalMoveMapsBackToOriginalCard() {
+        Card ace = new Card(Suit.COINS, Rank.ACE);
+        Card two = new Card(Suit.BATONS, Rank.TWO);
+        Card king = new Card(Suit.SWORDS, Rank.KING);
+        List<Card> hand = List.of(ace, two, king);
+        Position position = new Position(CardCodec.mask(hand), 0L, CardCodec.NO_CARD,
+                id(Suit.BATONS, Rank.SIX), true, false, 0, 0);
+
+        CanonicalPosition canonical = SuitCanonicalizer.canonicalize(position);
+        SuitPermutation permutation = canonical.getPermutation();
+
+        for (Card card : hand) {
+            int canonicalId = permutation.cardToCanonical(CardCodec.id(card));
+            assertTrue((canonical.getPosition().getHand() & (1L << canonicalId)) != 0,
+                    "La carta canonica dovrebbe essere nella mano canonica");
+            assertSame(card, permutation.originalCardIn(canonicalId, hand),
+                    "La carta canonica dovrebbe corrispondere alla carta reale");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package it.filippo.casadei.model.player.cpu.rollout;
+
+import it.filippo.casadei.model.BriscolaGame;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import it.filippo.casadei.model.player.cpu.position.Position;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il motore di simulazione veloce e la determinizzazione delle posizioni.
+ */
+public class RolloutEngineTest {
+
+    private static final int PLAYOUTS = 2000;
+
+    private FastRandom random;
+
+    @BeforeEach
+    void setUp() {
+        random = new FastRandom(42);
+    }
+
+    /**
+     * Politica che verifica la legalità delle mosse scelte da un'altra politica.
+     */
+    private static RolloutPolicy checked(RolloutPolicy policy) {
+        return (state, random) -> {
+            int card = policy.chooseCard(state, random);
+            assertTrue((state.getHand(state.getToMove()) & (1L << card)) != 0,
+                    "La politica dovrebbe giocare una carta in mano");
+            return card;
+        };
+    }
+
+    @Test
+    @DisplayName("Simulazione: ogni politica gioca partite complete e legali")
+    void testPlayoutsAreCompleteAndLegal() {
+        RolloutPolicy[] policies = {
+                new RandomRolloutPolicy(), new GreedyRolloutPolicy(), new HeuristicRolloutPolicy()
+        };
+        RolloutState state = new RolloutState();
+        for (RolloutPolicy policy : policies) {
+            RolloutEngine engine = new RolloutEngine(checked(policy), checked(new RandomRolloutPolicy()));
+            for (int i = 0; i < PLAYOUTS; i++) {
+                state.deal(random);
+                int difference = engine.playout(state, random);
+
+                assertTrue(state.isOver(), "La partita dovrebbe essere finita");
+                assertEquals(CardCodec.ALL_CARDS, state.getPlayed(), "Tutte le carte dovrebbero essere uscite");
+                assertEquals(BriscolaGame.TOTAL_POINTS, state.getPoints(0) + state.getPoints(1),
+                        "I punti totali dovrebbero essere 120");
+                assertEquals(state.getPoints(0) - state.getPoints(1), difference);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Simulazione: la determinizzazione rispetta le carte note e la briscola in fondo")
+    void testDeterminizeKeepsKnownCards() {
+        RolloutState game = new RolloutState();
+        RolloutEngine engine = new RolloutEngine(new RandomRolloutPolicy());
+        game.deal(random);
+        // Gioca alcune mani e la prima carta dell'avversario
+        for (int i = 0; i < 9; i++) {
+            game.play(random.nextCard(game.getHand(game.getToMove())));
+        }
+        while (game.getToMove() != 0) {
+            game.play(random.nextCard(game.getHand(game.getToMove())));
+        }
+
+        long hand = game.getHand(0);
+        long unseen = CardCodec.ALL_CARDS & ~game.getPlayed() & ~hand;
+        if (game.getTableCard() != CardCodec.NO_CARD) {
+            unseen &= ~(1L << game.getTableCard());
+        }
+        Position position = new Position(hand, unseen, game.getTableCard(), game.getBriscolaCard(),
+                game.getTableCard() == CardCodec.NO_CARD, game.isLastDraw(), game.getPoints(0), game.getPoints(1));
+
+        RolloutState sample = new RolloutState();
+        for (int i = 0; i < PLAYOUTS; i++) {
+            sample.determinize(position, random);
+
+            assertEquals(hand, sample.getHand(0), "La mano della CPU non dovrebbe cambiare");
+            assertEquals(Long.bitCount(game.getHand(1)), Long.bitCount(sample.getHand(1)));
+            assertEquals(0L, sample.getHand(1) & ~unseen, "L'avversario dovrebbe avere solo carte non viste");
+            assertEquals(game.getDeckSize(), sample.getDeckSize());
+            assertEquals(game.getPlayed(), sample.getPlayed());
+
+            engine.playout(sample, random);
+            assertEquals(BriscolaGame.TOTAL_POINTS, sample.getPoints(0) + sample.getPoints(1));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.cpu.Deadline;
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la risoluzione esatta dei finali confrontandola con un minimax senza potature.
+ */
+public class EndgameSolverTest {
+
+    private static final int POSITIONS = 200;
+
+    private SharedTranspositionTable table;
+    private EndgameSolver solver;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        table = new SharedTranspositionTable(1 << 16);
+        solver = new EndgameSolver(table);
+        random = new Random(42);
+    }
+
+    /**
+     * Minimax di riferimento, senza tabella né potature.
+     */
+    private static int minimax(long mover, long other, int lead, int briscolaSuit) {
+        if (mover == 0) return 0;
+        int best = Integer.MIN_VALUE;
+        for (long m = mover; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            long rest = mover & ~(1L << card);
+            int value;
+            if (lead == CardCodec.NO_CARD) {
+                value = -minimax(other, rest, card, briscolaSuit);
+            } else {
+                int points = CardCodec.points(lead) + CardCodec.points(card);
+                value = CardCodec.secondWins(lead, card, briscolaSuit)
+                        ? points + minimax(rest, other, CardCodec.NO_CARD, briscolaSuit)
+                        : -points - minimax(other, rest, CardCodec.NO_CARD, briscolaSuit);
+            }
+            best = Math.max(best, value);
+        }
+        return best;
+    }
+
+    /**
+     * Estrae carte casuali non ancora usate.
+     */
+    private long drawCards(int count, long used) {
+        long mask = 0L;
+        while (Long.bitCount(mask) < count) {
+            int id = random.nextInt(CardCodec.NUM_CARDS);
+            if (((used | mask) & (1L << id)) == 0) {
+                mask |= 1L << id;
+            }
+        }
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Finale: valore uguale al minimax quando si gioca per primi")
+    void testSolveMatchesMinimaxWhenLeading() {
+        for (int i = 0; i < POSITIONS; i++) {
+            long mover = drawCards(3, 0L);
+            long other = drawCards(3, mover);
+            int briscolaSuit = random.nextInt(CardCodec.NUM_SUITS);
+
+            EndgameSolver.Result result = solver.solve(mover, other, CardCodec.NO_CARD, briscolaSuit);
+
+            assertTrue(result.isComplete(), "La ricerca dovrebbe essere completa");
+            assertEquals(minimax(mover, other, CardCodec.NO_CARD, briscolaSuit), result.getValue(),
+                    "Il valore dovrebbe coincidere con il minimax");
+            assertTrue((mover & (1L << result.getBestMove())) != 0,
+                    "La mossa migliore dovrebbe essere una carta in mano");
+        }
+    }
+
+    @Test
+    @DisplayName("Finale: valore uguale al minimax quando si risponde")
+    void testSolveMatchesMinimaxWhenReplying() {
+        for (int i = 0; i < POSITIONS; i++) {
+            long mover = drawCards(3, 0L);
+            long other = drawCards(2, mover);
+            int lead = Long.numberOfTrailingZeros(drawCards(1, mover | other));
+            int briscolaSuit = random.nextInt(CardCodec.NUM_SUITS);
+
+            EndgameSolver.Result result = solver.solve(mover, other, lead, briscolaSuit);
+
+            assertEquals(minimax(mover, other, lead, briscolaSuit), result.getValue(),
+                    "Il valore dovrebbe coincidere con il minimax");
+        }
+    }
+
+    @Test
+    @DisplayName("Finale: la ricerca parallela trova lo stesso valore")
+    void testParallelSolveMatchesMinimax() {
+        for (int i = 0; i < POSITIONS / 4; i++) {
+            long mover = drawCards(3, 0L);
+            long other = drawCards(3, mover);
+            int briscolaSuit = random.nextInt(CardCodec.NUM_SUITS);
+            table.clear();
+
+            EndgameSolver.Result result = solver.solveParallel(mover, other, CardCodec.NO_CARD, briscolaSuit,
+                    4, Deadline.none());
+
+            assertTrue(result.isComplete(), "La ricerca parallela dovrebbe essere completa");
+            assertEquals(minimax(mover, other, CardCodec.NO_CARD, briscolaSuit), result.getValue(),
+                    "Il valore parallelo dovrebbe coincidere con il minimax");
+        }
+        assertTrue(table.getProbes() > 0, "La tabella dovrebbe essere stata consultata");
+    }
+
+    @Test
+    @DisplayName("Finale: con la scadenza esaurita si restituisce la migliore mossa trovata, non la prima carta")
+    void testExpiredDeadlineReturnsBestSoFar() {
+        // Finale troppo grande per essere risolto: l'avversario apre con l'asso di bastoni
+        int briscolaSuit = Suit.SWORDS.ordinal();
+        int lead = CardCodec.id(Suit.BATONS, Rank.ACE);
+        long mover = 0L;
+        for (Rank rank : new Rank[] {Rank.TWO, Rank.FOUR, Rank.FIVE, Rank.SIX, Rank.SEVEN}) {
+            mover |= 1L << CardCodec.id(Suit.COINS, rank);
+            mover |= 1L << CardCodec.id(Suit.CUPS, rank);
+        }
+        mover |= 1L << CardCodec.id(Suit.SWORDS, Rank.TWO);
+        long other = drawCards(10, mover | (1L << lead));
+
+        Deadline deadline = Deadline.none();
+        deadline.cancel();
+        EndgameSolver.Result result = solver.solveParallel(mover, other, lead, briscolaSuit, 2, deadline);
+
+        assertFalse(result.isComplete(), "La ricerca non dovrebbe essere completa");
+        assertTrue((mover & (1L << result.getBestMove())) != 0, "La mossa dovrebbe essere una carta in mano");
+        assertNotEquals(Long.numberOfTrailingZeros(mover), result.getBestMove(),
+                "La mossa non dovrebbe essere semplicemente la prima carta della mano");
+        // L'unica carta che prende l'asso è il due di briscola
+        assertEquals(CardCodec.id(Suit.SWORDS, Rank.TWO), result.getBestMove());
+    }
+}
@@ -0,0 +1,110 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import it.filippo.casadei.model.player.cpu.position.CardCodec;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la tablebase dei finali confrontandola con la ricerca esatta di {@link EndgameSolver}.
+ */
+public class EndgameTablebaseTest {
+
+    private static final int MAX_CARDS = 2;
+    private static final int POSITIONS = 300;
+
+    @TempDir
+    static Path directory;
+
+    private static EndgameTablebase tablebase;
+
+    private EndgameSolver solver;
+    private Random random;
+
+    @BeforeAll
+    static void generate() throws Exception {
+        Path file = directory.resolve("finali.tb");
+        EndgameTablebaseGenerator.generate(file, MAX_CARDS, 4);
+        tablebase = EndgameTablebase.open(file);
+    }
+
+    @BeforeEach
+    void setUp() {
+        solver = new EndgameSolver(new SharedTranspositionTable(1 << 12));
+        random = new Random(7);
+    }
+
+    /**
+     * Estrae carte casuali non ancora usate.
+     */
+    private long drawCards(int count, long used) {
+        long mask = 0L;
+        while (Long.bitCount(mask) < count) {
+            int id = random.nextInt(CardCodec.NUM_CARDS);
+            if (((used | mask) & (1L << id)) == 0) {
+                mask |= 1L << id;
+            }
+        }
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Tablebase: valori uguali alla ricerca esatta per ogni seme di briscola")
+    void testValuesMatchSolver() {
+        for (int i = 0; i < POSITIONS; i++) {
+            int n = 1 + random.nextInt(MAX_CARDS);
+            long mover = drawCards(n, 0L);
+            int briscolaSuit = random.nextInt(CardCodec.NUM_SUITS);
+
+            long other = drawCards(n, mover);
+            assertEquals(solver.solve(mover, other, CardCodec.NO_CARD, briscolaSuit).getValue(),
+                    tablebase.value(mover, other, CardCodec.NO_CARD, briscolaSuit),
+                    "Il valore di apertura dovrebbe coincidere con la ricerca");
+
+            long rest = drawCards(n - 1, mover);
+            int lead = Long.numberOfTrailingZeros(drawCards(1, mover | rest));
+            EndgameSolver.Result reply = solver.solve(mover, rest, lead, briscolaSuit);
+            assertEquals(reply.getValue(), tablebase.value(mover, rest, lead, briscolaSuit),
+                    "Il valore di risposta dovrebbe coincidere con la ricerca");
+            int best = tablebase.bestMove(mover, rest, lead, briscolaSuit);
+            assertTrue((mover & (1L << best)) != 0, "La mossa migliore dovrebbe essere una carta in mano");
+        }
+    }
+
+    @Test
+    @DisplayName("Tablebase: una generazione già completa viene ripresa senza ricalcoli")
+    void testResumeCompletedFile() throws Exception {
+        Path file = directory.resolve("finali.tb");
+        EndgameTablebaseGenerator.generate(file, MAX_CARDS, 2);
+        EndgameTablebase reopened = EndgameTablebase.open(file);
+
+        assertEquals(MAX_CARDS, reopened.getMaxCards());
+        assertTrue(reopened.covers(MAX_CARDS));
+        assertFalse(reopened.covers(MAX_CARDS + 1));
+    }
+
+    @Test
+    @DisplayName("Tablebase: un file con l'intestazione a zero viene generato da capo")
+    void testBlankHeaderIsRegenerated() throws Exception {
+        // Generazione interrotta dopo aver ingrandito il file ma prima di scrivere l'intestazione
+        Path file = directory.resolve("interrotta.tb");
+        Files.write(file, new byte[EndgameTablebase.HEADER_BYTES + 1024]);
+
+        EndgameTablebaseGenerator.generate(file, 1, 2);
+        EndgameTablebase regenerated = EndgameTablebase.open(file);
+
+        assertTrue(regenerated.covers(1));
+        for (int i = 0; i < POSITIONS; i++) {
+            long mover = drawCards(1, 0L);
+            long other = drawCards(1, mover);
+            int briscolaSuit = random.nextInt(CardCodec.NUM_SUITS);
+            assertEquals(solver.solve(mover, other, CardCodec.NO_CARD, briscolaSuit).getValue(),
+                    regenerated.value(mover, other, CardCodec.NO_CARD, briscolaSuit));
+        }
+    }
+}
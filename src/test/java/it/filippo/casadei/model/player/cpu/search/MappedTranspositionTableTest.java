@@ -0,0 +1,151 @@
+package it.filippo.casadei.model.player.cpu.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la tabella delle trasposizioni su file: persistenza tra aperture, intestazione e verifica delle voci.
+ */
+public class MappedTranspositionTableTest {
+
+    private static final int SLOTS = 1 << 10;
+    private static final int HEADER_BYTES = 64;
+    private static final int ENTRY_BYTES = 16;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("tabella.tt");
+    }
+
+    @Test
+    @DisplayName("Tabella su file: le voci salvate si ritrovano dopo la riapertura")
+    void testEntriesSurviveReopen() throws IOException {
+        // Una tabella in memoria con la stessa dimensione fa da riferimento per le sostituzioni
+        SharedTranspositionTable reference = new SharedTranspositionTable(SLOTS);
+        long[] keys = storeRandomEntries(reference, 300);
+
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            storeRandomEntries(table, 300);
+        }
+
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            int hits = 0;
+            for (long key : keys) {
+                long expected = reference.probe(key);
+                assertEquals(expected, table.probe(key), "Voce diversa per la chiave " + key);
+                if (!TTEntry.isEmpty(expected)) {
+                    hits++;
+                }
+            }
+            assertTrue(hits > keys.length / 2, "La maggior parte delle voci dovrebbe essere ancora presente");
+        }
+    }
+
+    @Test
+    @DisplayName("Tabella su file: alla riapertura viene riusata la dimensione salvata")
+    void testReopenKeepsSavedSize() throws IOException {
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            table.store(123L, 5, 42, TTEntry.BOUND_EXACT, 7);
+        }
+
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS * 16)) {
+            assertEquals(SLOTS, table.capacity());
+            long data = table.probe(123L);
+            assertEquals(42, TTEntry.value(data));
+            assertEquals(7, TTEntry.move(data));
+        }
+        assertEquals(HEADER_BYTES + (long) SLOTS * ENTRY_BYTES, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Tabella su file: un file con numero magico o versione errati viene rifiutato")
+    void testRejectsBadHeader() throws IOException {
+        MappedTranspositionTable.open(file, SLOTS).close();
+        overwrite(file, 0, (byte) 0x55);
+        assertThrows(IOException.class, () -> MappedTranspositionTable.open(file, SLOTS));
+
+        Path other = directory.resolve("versione.tt");
+        MappedTranspositionTable.open(other, SLOTS).close();
+        overwrite(other, 8, (byte) 0x7F);
+        assertThrows(IOException.class, () -> MappedTranspositionTable.open(other, SLOTS));
+    }
+
+    @Test
+    @DisplayName("Tabella su file: una voce con la parola di verifica corrotta è un mancato riscontro")
+    void testCorruptedCheckIsMiss() throws IOException {
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            table.store(987654321L, 3, -12, TTEntry.BOUND_LOWER, 4);
+            assertFalse(TTEntry.isEmpty(table.probe(987654321L)));
+        }
+
+        // Cerca la voce occupata e altera un bit della sua parola di verifica
+        int corrupted = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (long slot = 0; slot < SLOTS; slot++) {
+                long offset = HEADER_BYTES + slot * ENTRY_BYTES;
+                ByteBuffer data = ByteBuffer.allocate(8);
+                channel.read(data, offset + 8);
+                if (data.getLong(0) != 0) {
+                    ByteBuffer check = ByteBuffer.allocate(1);
+                    channel.read(check, offset);
+                    check.put(0, (byte) (check.get(0) ^ 1)).rewind();
+                    channel.write(check, offset);
+                    corrupted++;
+                }
+            }
+        }
+        assertEquals(1, corrupted);
+
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            assertTrue(TTEntry.isEmpty(table.probe(987654321L)));
+        }
+    }
+
+    @Test
+    @DisplayName("Tabella su file: un file con l'intestazione a zero viene inizializzato da capo")
+    void testBlankHeaderIsFresh() throws IOException {
+        // Creazione interrotta: il file è stato ingrandito ma l'intestazione non è mai arrivata su disco
+        Files.write(file, new byte[HEADER_BYTES + 4 * ENTRY_BYTES]);
+
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS)) {
+            assertEquals(SLOTS, table.capacity());
+            table.store(55L, 1, 1, TTEntry.BOUND_EXACT, 1);
+        }
+        try (MappedTranspositionTable table = MappedTranspositionTable.open(file, SLOTS / 2)) {
+            assertEquals(SLOTS, table.capacity());
+            assertFalse(TTEntry.isEmpty(table.probe(55L)));
+        }
+    }
+
+    private static long[] storeRandomEntries(TranspositionTable table, int count) {
+        Random random = new Random(11);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextLong();
+            table.store(keys[i], random.nextInt(20), random.nextInt(241) - 120,
+                    random.nextInt(3), random.nextInt(40));
+        }
+        return keys;
+    }
+
+    private static void overwrite(Path file, long position, byte value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {value}), position);
+        }
+    }
+}
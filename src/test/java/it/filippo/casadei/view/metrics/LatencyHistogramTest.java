@@ -0,0 +1,76 @@
+package it.filippo.casadei.view.metrics;
+
+import org.junit.jupiter.api.*;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa l'istogramma delle durate e il monitor dell'Event Dispatch Thread.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Istogramma: ogni valore cade in un intervallo che lo contiene")
+    void testBucketsContainValues() {
+        for (long micros = 0; micros < 1_000_000; micros = micros * 2 + 1) {
+            for (long value : new long[]{micros, micros + micros / 3}) {
+                int bucket = LatencyHistogram.bucketOf(value);
+                assertTrue(value < LatencyHistogram.upperBoundMicros(bucket), "valore " + value);
+                assertTrue(bucket == 0 || value >= LatencyHistogram.upperBoundMicros(bucket - 1), "valore " + value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Istogramma: i percentili approssimano i valori registrati entro il 25%")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), histogram.getMaxNanos());
+        long p50 = histogram.percentileNanos(50);
+        long p99 = histogram.percentileNanos(99);
+        assertTrue(p50 >= TimeUnit.MILLISECONDS.toNanos(50) && p50 <= TimeUnit.MILLISECONDS.toNanos(63), "p50=" + p50);
+        assertTrue(p99 >= TimeUnit.MILLISECONDS.toNanos(99) && p99 <= TimeUnit.MILLISECONDS.toNanos(100), "p99=" + p99);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentileNanos(50));
+    }
+
+    @Test
+    @DisplayName("Monitor EDT: un blocco dell'EDT viene misurato e segnalato")
+    void testEdtStallIsDetected() throws Exception {
+        // Avvia l'EDT prima del monitor, così il primo ritardo misurato non include l'avvio
+        SwingUtilities.invokeAndWait(() -> { });
+        UiMetrics metrics = new UiMetrics();
+        EdtLatencyMonitor monitor = new EdtLatencyMonitor(metrics, 5, 50);
+        monitor.start();
+        try {
+            // Lascia passare qualche sonda, poi blocca l'EDT
+            Thread.sleep(50);
+            SwingUtilities.invokeAndWait(() -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread.sleep(50);
+        } finally {
+            monitor.stop();
+        }
+
+        LatencyHistogram latency = metrics.histogram(EdtLatencyMonitor.HISTOGRAM);
+        assertTrue(latency.getCount() > 1);
+        assertTrue(latency.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(200), latency.toString());
+        assertTrue(monitor.getStallCount() >= 1);
+        assertTrue(metrics.report().contains(EdtLatencyMonitor.HISTOGRAM));
+    }
+}
@@ -0,0 +1,71 @@
+package it.filippo.casadei.view.metrics;
+
+import org.junit.jupiter.api.*;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la registrazione delle misure dell'interfaccia e le segnalazioni nel log.
+ */
+public class UiMetricsTest {
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    private final Logger logger = Logger.getLogger(UiMetrics.class.getName());
+    private final List<String> warnings = new ArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            synchronized (warnings) {
+                warnings.add(record.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private UiMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new UiMetrics();
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.removeHandler(handler);
+    }
+
+    @Test
+    @DisplayName("Misure: un'immagine lenta fuori dall'EDT è registrata senza segnalazioni")
+    void testSlowImageOffEdtIsNotLogged() {
+        metrics.recordImage("decode", SLOW);
+
+        assertEquals(1, metrics.histogram(UiMetrics.IMAGE + "decode").getCount());
+        assertTrue(warnings.isEmpty(), "Nessuna segnalazione attesa: " + warnings);
+    }
+
+    @Test
+    @DisplayName("Misure: un'immagine lenta sull'EDT viene segnalata")
+    void testSlowImageOnEdtIsLogged() throws Exception {
+        SwingUtilities.invokeAndWait(() -> metrics.recordImage("decode", SLOW));
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).startsWith(UiMetrics.IMAGE + "decode"));
+    }
+}
@@ -0,0 +1,103 @@
+package it.filippo.casadei.view.panels;
+
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.card.Rank;
+import it.filippo.casadei.model.card.Suit;
+import it.filippo.casadei.model.player.Hand;
+import it.filippo.casadei.model.player.Human;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.CpuDifficulty;
+import it.filippo.casadei.view.BriscolaViewObserver;
+import org.junit.jupiter.api.*;
+
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il tavolo disegnato su un solo componente: riconoscimento dei click e ridisegni parziali.
+ */
+public class BoardCanvasTest {
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 570;
+
+    private RecordingCanvas canvas;
+    private Hand hand;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new RecordingCanvas();
+        canvas.setSize(WIDTH, HEIGHT);
+        hand = new Hand();
+        hand.addCard(new Card(Suit.COINS, Rank.ACE));
+        hand.addCard(new Card(Suit.CUPS, Rank.TWO));
+        hand.addCard(new Card(Suit.SWORDS, Rank.KING));
+        canvas.updateHand(true, hand, true);
+        canvas.dirty.clear();
+    }
+
+    @Test
+    @DisplayName("Tavolo: il click su una carta dell'utente la notifica all'observer")
+    void testClickNotifiesObserver() {
+        List<Card> played = new ArrayList<>();
+        canvas.setObserver(new BriscolaViewObserver() {
+            @Override
+            public void humanPlaysCard(Player humanPlayer, Card card) {
+                played.add(card);
+            }
+
+            @Override
+            public void createModel(CpuDifficulty difficulty) {
+            }
+
+            @Override
+            public void restartGame(boolean playAgain) {
+            }
+        });
+
+        // Senza selezione abilitata il click viene ignorato
+        click(WIDTH / 2 + 60, HEIGHT - 90);
+        assertTrue(played.isEmpty());
+
+        canvas.enableCardSelection(new Human("Utente"));
+        click(WIDTH / 2 + 60, HEIGHT - 90);
+        assertEquals(List.of(hand.getCards().get(1)), played);
+
+        // Dopo il click la selezione è disabilitata
+        click(WIDTH / 2 + 60, HEIGHT - 90);
+        assertEquals(1, played.size());
+    }
+
+    @Test
+    @DisplayName("Tavolo: una carta giocata ridisegna solo la sua area")
+    void testPlayedCardRepaintsOnlyItsArea() {
+        canvas.playCard(new Card(Suit.BATONS, Rank.SEVEN), false);
+
+        assertEquals(1, canvas.dirty.size());
+        Rectangle dirty = canvas.dirty.get(0);
+        assertEquals(100, dirty.width);
+        assertEquals(160, dirty.height);
+        assertTrue(new Rectangle(0, 0, WIDTH, HEIGHT).contains(dirty));
+    }
+
+    private void click(int x, int y) {
+        canvas.dispatchEvent(new MouseEvent(canvas, MouseEvent.MOUSE_CLICKED, System.currentTimeMillis(), 0,
+                x, y, 1, false, MouseEvent.BUTTON1));
+    }
+
+    /**
+     * Registra i rettangoli da ridisegnare invece di chiederne il disegno.
+     */
+    private static final class RecordingCanvas extends BoardCanvas {
+        private final List<Rectangle> dirty = new ArrayList<>();
+
+        @Override
+        public void repaint(Rectangle r) {
+            dirty.add(new Rectangle(r));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package it.filippo.casadei.view.session;
+
+import it.filippo.casadei.controller.BriscolaController;
+import it.filippo.casadei.controller.ImmediateScheduler;
+import it.filippo.casadei.model.card.Card;
+import it.filippo.casadei.model.player.Player;
+import it.filippo.casadei.model.player.cpu.HardDifficulty;
+import it.filippo.casadei.view.HeadlessBriscolaView;
+import it.filippo.casadei.view.HeadlessBriscolaView.HumanPolicy;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la registrazione di una sessione e la sua riproduzione attraverso il controller.
+ */
+public class SessionTest {
+
+    private static final long SEED = 12345;
+    private static final int GAMES = 5;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Sessione: scrittura e lettura conservano seme, difficoltà e carte")
+    void testWriteAndRead() throws Exception {
+        Session session = new Session(-42);
+        session.setDifficulty(HardDifficulty.class.getName());
+        session.addGame(List.of("denari1", "coppe3"));
+        session.addGame(List.of("spade7"));
+        Path file = directory.resolve("sessione.txt");
+        session.write(file);
+
+        Session read = Session.read(file);
+        assertEquals(-42, read.getSeed());
+        assertEquals(HardDifficulty.class.getName(), read.getDifficulty());
+        assertEquals(session.getGames(), read.getGames());
+        assertInstanceOf(HardDifficulty.class, read.newDifficulty());
+    }
+
+    @Test
+    @DisplayName("Sessione: la riproduzione ripete esattamente le partite registrate")
+    void testRecordAndReplay() throws Exception {
+        Path file = directory.resolve("sessione.txt");
+
+        // Registrazione con mosse casuali dell'utente
+        ImmediateScheduler recordScheduler = new ImmediateScheduler();
+        LoggingView recorded = new LoggingView(recordScheduler, HumanPolicy.random(3), true);
+        new BriscolaController(new SessionRecorder(recorded, new Session(SEED), file), recordScheduler,
+                new Random(SEED));
+        assertTrue(recorded.getViolations().isEmpty(), () -> recorded.getViolations().toString());
+
+        Session session = Session.read(file);
+        assertEquals(GAMES, session.getGames().size());
+        session.getGames().forEach(game -> assertEquals(20, game.size()));
+
+        // Riproduzione: le carte dell'utente arrivano dalla sessione
+        ImmediateScheduler replayScheduler = new ImmediateScheduler();
+        LoggingView replayed = new LoggingView(replayScheduler, HumanPolicy.first(), false);
+        List<Integer> finished = new ArrayList<>();
+        RuntimeException[] error = new RuntimeException[1];
+        SessionReplayView view = new SessionReplayView(replayed, session, replayScheduler::execute,
+                new SessionReplayView.Listener() {
+                    @Override
+                    public void gameStarted(int game) {
+                    }
+
+                    @Override
+                    public void gameFinished(int game) {
+                        finished.add(game);
+                    }
+
+                    @Override
+                    public void finished(RuntimeException e) {
+                        error[0] = e;
+                    }
+                });
+        new BriscolaController(view, replayScheduler, new Random(SEED));
+
+        assertNull(error[0]);
+        assertEquals(List.of(0, 1, 2, 3, 4), finished);
+        assertEquals(recorded.played, replayed.played);
+    }
+
+    @Test
+    @DisplayName("Sessione: una sessione che non corrisponde alla partita interrompe la riproduzione")
+    void testMismatchIsReported() {
+        Session session = new Session(SEED);
+        session.setDifficulty(HardDifficulty.class.getName());
+        session.addGame(List.of("carta-inesistente"));
+
+        ImmediateScheduler scheduler = new ImmediateScheduler();
+        RuntimeException[] error = new RuntimeException[1];
+        SessionReplayView view = new SessionReplayView(new LoggingView(scheduler, HumanPolicy.first(), false),
+                session, scheduler::execute, new SessionReplayView.Listener() {
+                    @Override
+                    public void gameStarted(int game) {
+                    }
+
+                    @Override
+                    public void gameFinished(int game) {
+                    }
+
+                    @Override
+                    public void finished(RuntimeException e) {
+                        error[0] = e;
+                    }
+                });
+        new BriscolaController(view, scheduler, new Random(SEED));
+
+        assertInstanceOf(IllegalStateException.class, error[0]);
+    }
+
+    /**
+     * View senza interfaccia che registra tutte le carte giocate; se non gioca, lascia le scelte
+     * dell'utente alla riproduzione.
+     */
+    private static final class LoggingView extends HeadlessBriscolaView {
+        private final List<String> played = new ArrayList<>();
+        private final boolean plays;
+
+        LoggingView(ImmediateScheduler scheduler, HumanPolicy policy, boolean plays) {
+            super(scheduler::execute, new HardDifficulty(), policy, GAMES);
+            this.plays = plays;
+        }
+
+        @Override
+        public void enableCardSelection(Player p) {
+            if (plays) {
+                super.enableCardSelection(p);
+            }
+        }
+
+        @Override
+        public void showPlayedCard(Player p, Card playedCard) {
+            played.add(p.getName() + ":" + playedCard.toFileName());
+            super.showPlayedCard(p, playedCard);
+        }
+    }
+}
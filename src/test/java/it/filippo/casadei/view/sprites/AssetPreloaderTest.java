@@ -0,0 +1,43 @@
+package it.filippo.casadei.view.sprites;
+
+import org.junit.jupiter.api.*;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa il caricamento anticipato delle immagini.
+ */
+public class AssetPreloaderTest {
+
+    @Test
+    @DisplayName("Preload: carica tutte le carte e lo sfondo, poi i disegni non leggono file")
+    void testPreloadsEverything() {
+        CardSpriteCache cache = new CardSpriteCache("/cards/");
+        AssetPreloader preloader = new AssetPreloader(cache, "/background.png").start();
+        preloader.awaitReady();
+
+        assertTrue(preloader.isReady());
+        assertEquals(41, AssetPreloader.cardNames().size());
+        assertEquals(41, cache.getDecodedCount());
+        // versione normale e in grigio per ogni carta
+        assertEquals(82, cache.getRenderedCount());
+
+        BufferedImage background = preloader.background().join();
+        assertTrue(background.getWidth() > 0);
+
+        cache.sprite("coppe1", CardSpriteCache.CARD_WIDTH, CardSpriteCache.CARD_HEIGHT, false, null);
+        assertEquals(41, cache.getDecodedCount());
+        assertEquals(82, cache.getRenderedCount());
+    }
+
+    @Test
+    @DisplayName("Preload: un'immagine mancante viene segnalata all'attesa")
+    void testMissingImageFails() {
+        AssetPreloader preloader = new AssetPreloader(new CardSpriteCache("/cards/"), "/missing.png").start();
+
+        assertThrows(IllegalArgumentException.class, preloader::awaitReady);
+        assertFalse(preloader.isReady());
+    }
+}
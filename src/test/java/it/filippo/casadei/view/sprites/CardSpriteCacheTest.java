@@ -0,0 +1,68 @@
+package it.filippo.casadei.view.sprites;
+
+import org.junit.jupiter.api.*;
+
+import javax.swing.Icon;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa la cache delle immagini delle carte.
+ */
+public class CardSpriteCacheTest {
+
+    @Test
+    @DisplayName("Sprite: ogni immagine è decodificata e ridimensionata una sola volta")
+    void testDecodedAndRenderedOnce() {
+        CardSpriteCache cache = new CardSpriteCache("/cards/");
+        BufferedImage first = cache.sprite("coppe1", 100, 160, false, null);
+        BufferedImage second = cache.sprite("coppe1", 100, 160, false, null);
+
+        assertSame(first, second);
+        assertEquals(100, first.getWidth());
+        assertEquals(160, first.getHeight());
+        assertEquals(1, cache.getDecodedCount());
+        assertEquals(1, cache.getRenderedCount());
+
+        // Un'altra dimensione riusa l'immagine decodificata
+        BufferedImage small = cache.sprite("coppe1", 50, 80, false, null);
+        assertEquals(50, small.getWidth());
+        assertEquals(1, cache.getDecodedCount());
+        assertEquals(2, cache.getRenderedCount());
+    }
+
+    @Test
+    @DisplayName("Sprite: l'invalidazione ricalcola le immagini senza rileggere i file")
+    void testInvalidate() {
+        CardSpriteCache cache = new CardSpriteCache("/cards/");
+        BufferedImage before = cache.sprite(CardSpriteCache.BACK, 100, 160, false, null);
+        cache.invalidate();
+        BufferedImage after = cache.sprite(CardSpriteCache.BACK, 100, 160, false, null);
+
+        assertNotSame(before, after);
+        assertEquals(1, cache.getDecodedCount());
+        assertEquals(2, cache.getRenderedCount());
+    }
+
+    @Test
+    @DisplayName("Sprite: le icone hanno la dimensione standard e disegnano la carta")
+    void testIconPaints() {
+        CardSpriteCache cache = new CardSpriteCache("/cards/");
+        Icon icon = cache.icon("spade10");
+        assertSame(icon, cache.icon("spade10"));
+        assertEquals(CardSpriteCache.CARD_WIDTH, icon.getIconWidth());
+        assertEquals(CardSpriteCache.CARD_HEIGHT, icon.getIconHeight());
+
+        BufferedImage target = new BufferedImage(CardSpriteCache.CARD_WIDTH, CardSpriteCache.CARD_HEIGHT,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+        int center = target.getRGB(CardSpriteCache.CARD_WIDTH / 2, CardSpriteCache.CARD_HEIGHT / 2);
+        assertNotEquals(0, center >>> 24, "La carta dovrebbe essere stata disegnata");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.sprite("inesistente", 10, 10, false, null));
+    }
+}
@@ -0,0 +1,41 @@
+package it.filippo.casadei.model.player.cpu.learning;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementazione SIMD di {@link Kernels} con la Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * Usa la larghezza di registro preferita dalla piattaforma (ad esempio 8 float con AVX2)
+ * e istruzioni fused multiply-add; le componenti che non riempiono un registro intero
+ * sono elaborate in modo scalare. Questa classe va caricata solo tramite {@link Kernels#select(boolean)}.
+ * <p>
+ * È compilata solo con il profilo Maven {@code vector}, così la build predefinita non usa moduli incubator.
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}